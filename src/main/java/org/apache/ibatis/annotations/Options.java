@@ -63,4 +63,19 @@ public @interface Options {
   String keyColumn() default "";
 
   String resultSets() default "";
+
+  /**
+   * Whether the BATCH executor may combine batched rows of this insert into multi-row INSERT statements.
+   *
+   * @since 3.5.1
+   */
+  boolean rewriteBatch() default false;
+
+  /**
+   * Execution time in milliseconds above which this statement is captured as a slow statement.
+   * A negative value (the default) uses the global {@code slowStatementThreshold} setting.
+   *
+   * @since 3.5.1
+   */
+  long slowThreshold() default -1;
 }
@@ -0,0 +1,196 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.binding;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javassist.ClassClassPath;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.CtMethod;
+import javassist.CtNewConstructor;
+import javassist.LoaderClassPath;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.session.SqlSession;
+
+/**
+ * 使用 Javassist 为 Mapper 接口生成实现类，每个接口只生成一次。
+ *
+ * 生成的类的每个抽象方法都直接调用 {@link GeneratedMapperMethods#execute(SqlSession, int, Object[])} ，
+ * default 方法和 Object 的方法保持原样。无法生成时（例如接口不是 public 的），{@link #newInstance(SqlSession)} 返回 null ，
+ * 由调用方回退到 {@link MapperProxy} 。
+ *
+ * @since 3.5.1
+ */
+final class GeneratedMapperFactory<T> {
+
+  private static final Log log = LogFactory.getLog(GeneratedMapperFactory.class);
+
+  static final String CLASS_NAME_SUFFIX = "$$MyBatisMapper";
+
+  private final Constructor<? extends T> constructor;
+  private final GeneratedMapperMethods methods;
+
+  GeneratedMapperFactory(Class<T> mapperInterface, Map<Method, MapperMethod> methodCache) {
+    Method[] abstractMethods = collectAbstractMethods(mapperInterface);
+    Constructor<? extends T> generated = null;
+    if (abstractMethods != null) {
+      try {
+        generated = generate(mapperInterface, abstractMethods);
+      } catch (Exception | LinkageError e) {
+        log.debug("Could not generate an implementation of " + mapperInterface.getName() + ", using a proxy instead. Cause: " + e);
+      }
+    }
+    this.constructor = generated;
+    this.methods = generated == null ? null : new GeneratedMapperMethods(mapperInterface, abstractMethods, methodCache);
+  }
+
+  /**
+   * @return 生成的 Mapper 对象，无法生成时返回 null
+   */
+  T newInstance(SqlSession sqlSession) {
+    if (constructor == null) {
+      return null;
+    }
+    try {
+      return constructor.newInstance(sqlSession, methods);
+    } catch (ReflectiveOperationException e) {
+      throw new BindingException("Error creating generated mapper " + constructor.getDeclaringClass().getName() + ". Cause: " + e, e);
+    }
+  }
+
+  /**
+   * 获得需要实现的抽象方法。有无法在其它类加载器中实现的类型时，返回 null
+   */
+  private static Method[] collectAbstractMethods(Class<?> mapperInterface) {
+    if (!Modifier.isPublic(mapperInterface.getModifiers()) || mapperInterface.getClassLoader() == null) {
+      return null;
+    }
+    Map<String, Method> signatures = new HashMap<>();
+    List<Method> methods = new ArrayList<>();
+    for (Method method : mapperInterface.getMethods()) {
+      if (!Modifier.isAbstract(method.getModifiers()) || isObjectMethod(method)) {
+        continue;
+      }
+      String signature = method.getName() + Arrays.toString(method.getParameterTypes());
+      Method existing = signatures.putIfAbsent(signature, method);
+      if (existing != null) {
+        // 多个父接口声明了相同的方法，返回类型不同时无法确定实现哪一个
+        if (!existing.getReturnType().equals(method.getReturnType())) {
+          return null;
+        }
+        continue;
+      }
+      if (!isAccessible(method.getReturnType())) {
+        return null;
+      }
+      methods.add(method);
+    }
+    return methods.toArray(new Method[0]);
+  }
+
+  private static boolean isObjectMethod(Method method) {
+    try {
+      Object.class.getMethod(method.getName(), method.getParameterTypes());
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  /**
+   * 返回值需要强制转换，因此返回类型必须是 public 的
+   */
+  private static boolean isAccessible(Class<?> type) {
+    while (type.isArray()) {
+      type = type.getComponentType();
+    }
+    return type.isPrimitive() || Modifier.isPublic(type.getModifiers());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> Constructor<? extends T> generate(Class<T> mapperInterface, Method[] methods) throws Exception {
+    ClassPool pool = new ClassPool(false);
+    pool.appendClassPath(new LoaderClassPath(mapperInterface.getClassLoader()));
+    pool.appendClassPath(new ClassClassPath(GeneratedMapperFactory.class));
+    pool.appendClassPath(new ClassClassPath(Object.class));
+
+    String className = mapperInterface.getName() + CLASS_NAME_SUFFIX;
+    CtClass ctClass = pool.makeClass(className);
+    ctClass.addInterface(pool.get(mapperInterface.getName()));
+    ctClass.addField(CtField.make("private final " + SqlSession.class.getName() + " sqlSession;", ctClass));
+    ctClass.addField(CtField.make("private final " + GeneratedMapperMethods.class.getName() + " methods;", ctClass));
+    ctClass.addConstructor(CtNewConstructor.make("public " + ctClass.getSimpleName() + "(" + SqlSession.class.getName() + " sqlSession, "
+        + GeneratedMapperMethods.class.getName() + " methods) { this.sqlSession = sqlSession; this.methods = methods; }", ctClass));
+    for (int i = 0; i < methods.length; i++) {
+      Method method = methods[i];
+      Class<?>[] parameterTypes = method.getParameterTypes();
+      CtClass[] ctParameterTypes = new CtClass[parameterTypes.length];
+      for (int j = 0; j < parameterTypes.length; j++) {
+        ctParameterTypes[j] = pool.get(toJavassistName(parameterTypes[j]));
+      }
+      CtMethod ctMethod = new CtMethod(pool.get(toJavassistName(method.getReturnType())), method.getName(), ctParameterTypes, ctClass);
+      // ($r) 负责返回值的拆箱和 void 的处理，$args 为参数数组
+      ctMethod.setBody("{ return ($r) this.methods.execute(this.sqlSession, " + i + ", $args); }");
+      ctClass.addMethod(ctMethod);
+    }
+    byte[] bytecode = ctClass.toBytecode();
+    ctClass.detach();
+
+    Class<?> type = new GeneratedMapperClassLoader(mapperInterface.getClassLoader()).define(className, bytecode);
+    return (Constructor<? extends T>) type.getConstructor(SqlSession.class, GeneratedMapperMethods.class);
+  }
+
+  private static String toJavassistName(Class<?> type) {
+    return type.isArray() ? toJavassistName(type.getComponentType()) + "[]" : type.getName();
+  }
+
+  /**
+   * 加载生成的类。以 Mapper 接口的类加载器为父加载器，生成的类引用的 MyBatis 类总是使用当前的版本。
+   */
+  private static final class GeneratedMapperClassLoader extends ClassLoader {
+
+    GeneratedMapperClassLoader(ClassLoader parent) {
+      super(parent);
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+      if (SqlSession.class.getName().equals(name)) {
+        return SqlSession.class;
+      } else if (GeneratedMapperMethods.class.getName().equals(name)) {
+        return GeneratedMapperMethods.class;
+      }
+      return super.loadClass(name, resolve);
+    }
+
+    Class<?> define(String name, byte[] bytecode) {
+      return defineClass(name, bytecode, 0, bytecode.length);
+    }
+
+  }
+
+}
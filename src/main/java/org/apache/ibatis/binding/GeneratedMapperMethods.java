@@ -0,0 +1,63 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.binding;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import org.apache.ibatis.session.SqlSession;
+
+/**
+ * 生成的 Mapper 实现类使用的方法表。生成的每个方法按下标调用 {@link #execute(SqlSession, int, Object[])}，
+ * 不再需要 JDK 动态代理的 Object 方法判断、default 方法判断和按 Method 查找 MapperMethod 。
+ *
+ * @since 3.5.1
+ */
+public final class GeneratedMapperMethods {
+
+  private final Class<?> mapperInterface;
+  /**
+   * 按下标排列的 Mapper 方法
+   */
+  private final Method[] methods;
+  /**
+   * 按下标排列的 MapperMethod ，第一次调用时创建
+   */
+  private final MapperMethod[] mapperMethods;
+  /**
+   * 与 {@link MapperProxy} 共用的缓存
+   */
+  private final Map<Method, MapperMethod> methodCache;
+
+  GeneratedMapperMethods(Class<?> mapperInterface, Method[] methods, Map<Method, MapperMethod> methodCache) {
+    this.mapperInterface = mapperInterface;
+    this.methods = methods;
+    this.mapperMethods = new MapperMethod[methods.length];
+    this.methodCache = methodCache;
+  }
+
+  public Object execute(SqlSession sqlSession, int index, Object[] args) {
+    MapperMethod mapperMethod = mapperMethods[index];
+    if (mapperMethod == null) {
+      Method method = methods[index];
+      // 和 MapperProxy 一样，在第一次调用时才解析，没有对应语句的方法在调用时才抛出异常
+      mapperMethod = methodCache.computeIfAbsent(method, k -> new MapperMethod(mapperInterface, method, sqlSession.getConfiguration()));
+      mapperMethods[index] = mapperMethod;
+    }
+    return mapperMethod.execute(sqlSession, args);
+  }
+
+}
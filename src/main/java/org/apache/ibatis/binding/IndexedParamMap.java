@@ -0,0 +1,301 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.binding;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.apache.ibatis.binding.MapperMethod.ParamMap;
+
+/**
+ * 多参数 Mapper 方法的参数对象。
+ *
+ * 参数名（包括 "param1"、"param2" 这样的通用名）在创建 {@link MapperMethod} 时编译成固定的 {@link Layout}，
+ * 每次调用只保存方法的参数数组，按名字或位置读取参数时不需要构建和查找 HashMap 。
+ * 当调用方以其它 Map 的方式使用它时（遍历、修改等），才会把参数复制到 HashMap 中，此后的行为与 {@link ParamMap} 完全一致。
+ *
+ * 注意，参数数组不会被复制。
+ *
+ * @since 3.5.1
+ */
+public class IndexedParamMap extends ParamMap<Object> {
+
+  private static final long serialVersionUID = 6424409207426870402L;
+
+  private final Layout layout;
+  private final Object[] args;
+  /**
+   * 是否已经复制到 HashMap 中
+   */
+  private boolean materialized;
+
+  public IndexedParamMap(Layout layout, Object[] args) {
+    this.layout = layout;
+    this.args = args;
+  }
+
+  public Layout getLayout() {
+    return layout;
+  }
+
+  /**
+   * 按位置获得参数值
+   *
+   * @param position {@link Layout#indexOf(Object)} 返回的位置
+   * @return 值
+   */
+  public Object valueAt(int position) {
+    if (materialized) {
+      return super.get(layout.keys[position]);
+    }
+    return args[layout.argIndexes[position]];
+  }
+
+  @Override
+  public Object get(Object key) {
+    if (!materialized) {
+      int position = layout.indexOf(key);
+      if (position >= 0) {
+        return args[layout.argIndexes[position]];
+      }
+      // 不存在的参数，由 ParamMap 抛出 BindingException
+      materialize();
+    }
+    return super.get(key);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return materialized ? super.containsKey(key) : layout.indexOf(key) >= 0;
+  }
+
+  @Override
+  public int size() {
+    return materialized ? super.size() : layout.keys.length;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  @Override
+  public boolean containsValue(Object value) {
+    materialize();
+    return super.containsValue(value);
+  }
+
+  @Override
+  public Object getOrDefault(Object key, Object defaultValue) {
+    materialize();
+    return super.getOrDefault(key, defaultValue);
+  }
+
+  @Override
+  public Object put(String key, Object value) {
+    materialize();
+    return super.put(key, value);
+  }
+
+  @Override
+  public void putAll(Map<? extends String, ?> m) {
+    materialize();
+    super.putAll(m);
+  }
+
+  @Override
+  public Object putIfAbsent(String key, Object value) {
+    materialize();
+    return super.putIfAbsent(key, value);
+  }
+
+  @Override
+  public Object remove(Object key) {
+    materialize();
+    return super.remove(key);
+  }
+
+  @Override
+  public boolean remove(Object key, Object value) {
+    materialize();
+    return super.remove(key, value);
+  }
+
+  @Override
+  public boolean replace(String key, Object oldValue, Object newValue) {
+    materialize();
+    return super.replace(key, oldValue, newValue);
+  }
+
+  @Override
+  public Object replace(String key, Object value) {
+    materialize();
+    return super.replace(key, value);
+  }
+
+  @Override
+  public Object computeIfAbsent(String key, Function<? super String, ?> mappingFunction) {
+    materialize();
+    return super.computeIfAbsent(key, mappingFunction);
+  }
+
+  @Override
+  public Object computeIfPresent(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+    materialize();
+    return super.computeIfPresent(key, remappingFunction);
+  }
+
+  @Override
+  public Object compute(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+    materialize();
+    return super.compute(key, remappingFunction);
+  }
+
+  @Override
+  public Object merge(String key, Object value, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+    materialize();
+    return super.merge(key, value, remappingFunction);
+  }
+
+  @Override
+  public void clear() {
+    materialize();
+    super.clear();
+  }
+
+  @Override
+  public Set<String> keySet() {
+    materialize();
+    return super.keySet();
+  }
+
+  @Override
+  public Collection<Object> values() {
+    materialize();
+    return super.values();
+  }
+
+  @Override
+  public Set<Map.Entry<String, Object>> entrySet() {
+    materialize();
+    return super.entrySet();
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super String, ? super Object> action) {
+    materialize();
+    super.forEach(action);
+  }
+
+  @Override
+  public void replaceAll(BiFunction<? super String, ? super Object, ?> function) {
+    materialize();
+    super.replaceAll(function);
+  }
+
+  @Override
+  public Object clone() {
+    materialize();
+    return super.clone();
+  }
+
+  private void materialize() {
+    if (!materialized) {
+      materialized = true;
+      for (int i = 0; i < layout.keys.length; i++) {
+        super.put(layout.keys[i], args[layout.argIndexes[i]]);
+      }
+    }
+  }
+
+  /**
+   * 参数名到方法参数位置的固定映射，由 {@link org.apache.ibatis.reflection.ParamNameResolver} 创建，同一个方法的所有调用共享。
+   */
+  public static final class Layout implements Serializable {
+
+    private static final long serialVersionUID = -3104573826526497425L;
+
+    /**
+     * 参数名不多于该值时，顺序比较参数名，否则使用 HashMap 查找
+     */
+    private static final int LINEAR_SCAN_LIMIT = 8;
+
+    /**
+     * 参数名
+     */
+    private final String[] keys;
+    /**
+     * 参数名对应的方法参数下标
+     */
+    private final int[] argIndexes;
+    private final Map<String, Integer> positions;
+
+    public Layout(String[] keys, int[] argIndexes) {
+      if (keys.length != argIndexes.length) {
+        throw new IllegalArgumentException("The number of keys and argument indexes must be the same.");
+      }
+      this.keys = keys.clone();
+      this.argIndexes = argIndexes.clone();
+      if (keys.length > LINEAR_SCAN_LIMIT) {
+        positions = new HashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+          positions.put(keys[i], i);
+        }
+      } else {
+        positions = null;
+      }
+    }
+
+    public int size() {
+      return keys.length;
+    }
+
+    public String getKey(int position) {
+      return keys[position];
+    }
+
+    /**
+     * @param key 参数名
+     * @return 参数名的位置，不存在时返回 -1
+     */
+    public int indexOf(Object key) {
+      if (positions != null) {
+        Integer position = positions.get(key);
+        return position == null ? -1 : position;
+      }
+      for (int i = 0; i < keys.length; i++) {
+        if (keys[i] == key || keys[i].equals(key)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    public String toString() {
+      return Arrays.toString(keys);
+    }
+
+  }
+
+}
@@ -27,6 +27,8 @@ import java.util.Optional;
 import org.apache.ibatis.annotations.Flush;
 import org.apache.ibatis.annotations.MapKey;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.result.ColumnarResult;
+import org.apache.ibatis.executor.result.ColumnarResultHandler;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.mapping.StatementType;
@@ -37,6 +39,8 @@ import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.StatementRef;
+import org.apache.ibatis.session.defaults.DefaultSqlSession;
 
 /**
  * @author Clinton Begin
@@ -68,7 +72,8 @@ public class MapperMethod {
         Object param = method.convertArgsToSqlCommandParam(args);
         // 执行INSERT操作
         // 转换rowCount
-        result = rowCountResult(sqlSession.insert(command.getName(), param));
+        result = rowCountResult(usesStatementRef(sqlSession)
+            ? sqlSession.insert(command.getStatementRef(), param) : sqlSession.insert(command.getName(), param));
         break;
       }
       case UPDATE: {
@@ -76,14 +81,16 @@ public class MapperMethod {
         Object param = method.convertArgsToSqlCommandParam(args);
         // <1.2> 执行更新
         // <1.3> 转换rowCount
-        result = rowCountResult(sqlSession.update(command.getName(), param));
+        result = rowCountResult(usesStatementRef(sqlSession)
+            ? sqlSession.update(command.getStatementRef(), param) : sqlSession.update(command.getName(), param));
         break;
       }
       case DELETE: {
         // 转换参数
         Object param = method.convertArgsToSqlCommandParam(args);
         // 转换rowCount
-        result = rowCountResult(sqlSession.delete(command.getName(), param));
+        result = rowCountResult(usesStatementRef(sqlSession)
+            ? sqlSession.delete(command.getStatementRef(), param) : sqlSession.delete(command.getName(), param));
         break;
       }
       case SELECT:
@@ -100,12 +107,16 @@ public class MapperMethod {
         // <2.4> 执行查询，返回Cursor
         } else if (method.returnsCursor()) {
           result = executeForCursor(sqlSession, args);
-        // <2.5> 执行查询，返回单个对象
+        // <2.5> 执行查询，返回列式结果
+        } else if (method.returnsColumnar()) {
+          result = executeForColumnar(sqlSession, args);
+        // <2.6> 执行查询，返回单个对象
         } else {
           // 转换参数
           Object param = method.convertArgsToSqlCommandParam(args);
           // 查询单条
-          result = sqlSession.selectOne(command.getName(), param);
+          result = usesStatementRef(sqlSession)
+              ? sqlSession.selectOne(command.getStatementRef(), param) : sqlSession.selectOne(command.getName(), param);
           if (method.returnsOptional()
               && (result == null || !method.getReturnType().equals(result.getClass()))) {
             result = Optional.ofNullable(result);
@@ -146,7 +157,7 @@ public class MapperMethod {
   // 对SqlSession的select方法的封装
   private void executeWithResultHandler(SqlSession sqlSession, Object[] args) {
     // 获得MappedStatement对象
-    MappedStatement ms = sqlSession.getConfiguration().getMappedStatement(command.getName());
+    MappedStatement ms = command.getStatementRef().getMappedStatement();
     if (!StatementType.CALLABLE.equals(ms.getStatementType()) // 校验存储过程的情况。不符合，抛出BindingException异常
         && void.class.equals(ms.getResultMaps().get(0).getType())) {
       throw new BindingException("method " + command.getName()
@@ -158,7 +169,13 @@ public class MapperMethod {
     // 执行SELECT操作
     if (method.hasRowBounds()) {
       RowBounds rowBounds = method.extractRowBounds(args);
-      sqlSession.select(command.getName(), param, rowBounds, method.extractResultHandler(args));
+      if (usesStatementRef(sqlSession)) {
+        sqlSession.select(command.getStatementRef(), param, rowBounds, method.extractResultHandler(args));
+      } else {
+        sqlSession.select(command.getName(), param, rowBounds, method.extractResultHandler(args));
+      }
+    } else if (usesStatementRef(sqlSession)) {
+      sqlSession.select(command.getStatementRef(), param, RowBounds.DEFAULT, method.extractResultHandler(args));
     } else {
       sqlSession.select(command.getName(), param, method.extractResultHandler(args));
     }
@@ -172,9 +189,11 @@ public class MapperMethod {
     // 执行SELECT操作
     if (method.hasRowBounds()) {
       RowBounds rowBounds = method.extractRowBounds(args);
-      result = sqlSession.selectList(command.getName(), param, rowBounds);
+      result = usesStatementRef(sqlSession)
+          ? sqlSession.selectList(command.getStatementRef(), param, rowBounds) : sqlSession.selectList(command.getName(), param, rowBounds);
     } else {
-      result = sqlSession.selectList(command.getName(), param);
+      result = usesStatementRef(sqlSession)
+          ? sqlSession.selectList(command.getStatementRef(), param, RowBounds.DEFAULT) : sqlSession.selectList(command.getName(), param);
     }
     // issue #510 Collections & arrays support
     // 封装Array或Collection结果
@@ -196,13 +215,41 @@ public class MapperMethod {
     // 执行SELECT操作
     if (method.hasRowBounds()) {
       RowBounds rowBounds = method.extractRowBounds(args);
-      result = sqlSession.selectCursor(command.getName(), param, rowBounds);
+      result = usesStatementRef(sqlSession)
+          ? sqlSession.selectCursor(command.getStatementRef(), param, rowBounds) : sqlSession.selectCursor(command.getName(), param, rowBounds);
     } else {
-      result = sqlSession.selectCursor(command.getName(), param);
+      result = usesStatementRef(sqlSession)
+          ? sqlSession.selectCursor(command.getStatementRef(), param, RowBounds.DEFAULT) : sqlSession.selectCursor(command.getName(), param);
     }
     return result;
   }
 
+  private ColumnarResult executeForColumnar(SqlSession sqlSession, Object[] args) {
+    // 转换参数
+    Object param = method.convertArgsToSqlCommandParam(args);
+    // 执行SELECT操作，由ColumnarResultHandler直接读取ResultSet
+    ColumnarResultHandler resultHandler = new ColumnarResultHandler();
+    if (method.hasRowBounds()) {
+      RowBounds rowBounds = method.extractRowBounds(args);
+      if (usesStatementRef(sqlSession)) {
+        sqlSession.select(command.getStatementRef(), param, rowBounds, resultHandler);
+      } else {
+        sqlSession.select(command.getName(), param, rowBounds, resultHandler);
+      }
+    } else if (usesStatementRef(sqlSession)) {
+      sqlSession.select(command.getStatementRef(), param, RowBounds.DEFAULT, resultHandler);
+    } else {
+      sqlSession.select(command.getName(), param, resultHandler);
+    }
+    return resultHandler.getResult();
+  }
+
+  // 只有 DefaultSqlSession 本身直接按句柄执行。其它实现和子类（例如 SqlSessionManager 、使用方自己的包装类）
+  // 可能只覆盖了按编号执行的方法，因此仍调用这些方法，保持它们看到的调用与之前一致
+  private static boolean usesStatementRef(SqlSession sqlSession) {
+    return sqlSession.getClass() == DefaultSqlSession.class;
+  }
+
   private <E> Object convertToDeclaredCollection(Configuration config, List<E> list) {
     Object collection = config.getObjectFactory().create(method.getReturnType());
     MetaObject metaObject = config.newMetaObject(collection);
@@ -233,9 +280,13 @@ public class MapperMethod {
     // 执行SELECT操作
     if (method.hasRowBounds()) {
       RowBounds rowBounds = method.extractRowBounds(args);
-      result = sqlSession.selectMap(command.getName(), param, method.getMapKey(), rowBounds);
+      result = usesStatementRef(sqlSession)
+          ? sqlSession.selectMap(command.getStatementRef(), param, method.getMapKey(), rowBounds)
+          : sqlSession.selectMap(command.getName(), param, method.getMapKey(), rowBounds);
     } else {
-      result = sqlSession.selectMap(command.getName(), param, method.getMapKey());
+      result = usesStatementRef(sqlSession)
+          ? sqlSession.selectMap(command.getStatementRef(), param, method.getMapKey(), RowBounds.DEFAULT)
+          : sqlSession.selectMap(command.getName(), param, method.getMapKey());
     }
     return result;
   }
@@ -268,6 +319,10 @@ public class MapperMethod {
      * SQL命令类型
      */
     private final SqlCommandType type;
+    /**
+     * 已解析的 MappedStatement 句柄，避免每次执行时按编号查找。FLUSH 类型时为 null
+     */
+    private final StatementRef statementRef;
 
     public SqlCommand(Configuration configuration, Class<?> mapperInterface, Method method) {
       final String methodName = method.getName();
@@ -281,6 +336,7 @@ public class MapperMethod {
         if (method.getAnnotation(Flush.class) != null) {
           name = null;
           type = SqlCommandType.FLUSH;
+          statementRef = null;
         // 如果找不到MappedStatement，则抛出BindingException异常
         } else {
           throw new BindingException("Invalid bound statement (not found): "
@@ -296,6 +352,8 @@ public class MapperMethod {
         if (type == SqlCommandType.UNKNOWN) {
           throw new BindingException("Unknown execution method for: " + name);
         }
+        // 获得句柄
+        statementRef = configuration.getStatementRef(name);
       }
     }
 
@@ -307,6 +365,13 @@ public class MapperMethod {
       return type;
     }
 
+    /**
+     * @since 3.5.1
+     */
+    public StatementRef getStatementRef() {
+      return statementRef;
+    }
+
     // 获得MappedStatement对象
     private MappedStatement resolveMappedStatement(Class<?> mapperInterface, String methodName,
         Class<?> declaringClass, Configuration configuration) {
@@ -360,6 +425,10 @@ public class MapperMethod {
      * 返回类型是否为 {@link java.util.Optional}
      */
     private final boolean returnsOptional;
+    /**
+     * 返回类型是否为 {@link ColumnarResult}
+     */
+    private final boolean returnsColumnar;
     /**
      * 返回类型
      */
@@ -401,6 +470,8 @@ public class MapperMethod {
       this.returnsCursor = Cursor.class.equals(this.returnType);
       // 初始化returnsOptional属性
       this.returnsOptional = Optional.class.equals(this.returnType);
+      // 初始化returnsColumnar属性
+      this.returnsColumnar = ColumnarResult.class.equals(this.returnType);
       // <1> 初始化mapKey
       this.mapKey = getMapKey(method);
       // 初始化returnsMap
@@ -466,6 +537,15 @@ public class MapperMethod {
       return returnsOptional;
     }
 
+    /**
+     * return whether return type is {@link ColumnarResult}.
+     * @return return {@code true}, if return type is {@link ColumnarResult}
+     * @since 3.5.1
+     */
+    public boolean returnsColumnar() {
+      return returnsColumnar;
+    }
+
     // 获得指定参数类型在方法参数中的位置
     private Integer getUniqueParamIndex(Method method, Class<?> paramType) {
       Integer index = null;
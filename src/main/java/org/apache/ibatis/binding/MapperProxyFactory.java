@@ -37,6 +37,10 @@ public class MapperProxyFactory<T> {
    * 方法与MapperMethod的映射
    */
   private final Map<Method, MapperMethod> methodCache = new ConcurrentHashMap<>();
+  /**
+   * 生成 Mapper 实现类的工厂，开启 generatedMappersEnabled 后第一次使用时创建
+   */
+  private volatile GeneratedMapperFactory<T> generatedMapperFactory;
 
   public MapperProxyFactory(Class<T> mapperInterface) {
     this.mapperInterface = mapperInterface;
@@ -57,8 +61,29 @@ public class MapperProxyFactory<T> {
   }
 
   public T newInstance(SqlSession sqlSession) {
+    // 使用生成的实现类
+    if (sqlSession.getConfiguration().isGeneratedMappersEnabled()) {
+      T mapper = getGeneratedMapperFactory().newInstance(sqlSession);
+      if (mapper != null) {
+        return mapper;
+      }
+    }
     final MapperProxy<T> mapperProxy = new MapperProxy<>(sqlSession, mapperInterface, methodCache);
     return newInstance(mapperProxy);
   }
 
+  private GeneratedMapperFactory<T> getGeneratedMapperFactory() {
+    GeneratedMapperFactory<T> factory = generatedMapperFactory;
+    if (factory == null) {
+      synchronized (this) {
+        factory = generatedMapperFactory;
+        if (factory == null) {
+          factory = new GeneratedMapperFactory<>(mapperInterface, methodCache);
+          generatedMapperFactory = factory;
+        }
+      }
+    }
+    return factory;
+  }
+
 }
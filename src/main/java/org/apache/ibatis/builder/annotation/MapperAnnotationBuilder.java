@@ -475,7 +475,9 @@ public class MapperAnnotationBuilder {
           null,
           languageDriver,
           // ResultSets
-          options != null ? nullOrEmpty(options.resultSets()) : null);
+          options != null ? nullOrEmpty(options.resultSets()) : null,
+          options != null && options.rewriteBatch(),
+          options != null && options.slowThreshold() >= 0 ? options.slowThreshold() : null);
     }
   }
 
@@ -334,6 +334,25 @@ public class XMLConfigBuilder extends BaseBuilder {
     configuration.setReturnInstanceForEmptyRow(booleanValueOf(props.getProperty("returnInstanceForEmptyRow"), false));
     configuration.setLogPrefix(props.getProperty("logPrefix"));
     configuration.setConfigurationFactory(resolveClass(props.getProperty("configurationFactory")));
+    configuration.setParallelNestedQueriesEnabled(booleanValueOf(props.getProperty("parallelNestedQueriesEnabled"), false));
+    configuration.setNestedQueryThreadPoolSize(integerValueOf(props.getProperty("nestedQueryThreadPoolSize"), 4));
+    configuration.setNestedResultCursorStreamingEnabled(booleanValueOf(props.getProperty("nestedResultCursorStreamingEnabled"), false));
+    configuration.setResultOrderCheckEnabled(booleanValueOf(props.getProperty("resultOrderCheckEnabled"), false));
+    configuration.setBatchGroupingEnabled(booleanValueOf(props.getProperty("batchGroupingEnabled"), false));
+    configuration.setBatchMaxRowsPerStatement(integerValueOf(props.getProperty("batchMaxRowsPerStatement"), 0));
+    configuration.setBatchMaxPendingRows(integerValueOf(props.getProperty("batchMaxPendingRows"), 0));
+    configuration.setBatchMaxPendingBytes(longValueOf(props.getProperty("batchMaxPendingBytes"), 0L));
+    configuration.setBatchAsyncFlushEnabled(booleanValueOf(props.getProperty("batchAsyncFlushEnabled"), false));
+    configuration.setBatchAsyncFlushQueueSize(integerValueOf(props.getProperty("batchAsyncFlushQueueSize"), 2));
+    configuration.setRewriteBatchMaxParameters(integerValueOf(props.getProperty("rewriteBatchMaxParameters"), 2000));
+    configuration.setStatementStatisticsEnabled(booleanValueOf(props.getProperty("statementStatisticsEnabled"), true));
+    configuration.setStatementStatisticsJmxEnabled(booleanValueOf(props.getProperty("statementStatisticsJmxEnabled"), false));
+    configuration.setSlowStatementThreshold(longValueOf(props.getProperty("slowStatementThreshold"), 0L));
+    configuration.setSlowStatementBufferSize(integerValueOf(props.getProperty("slowStatementBufferSize"), 100));
+    configuration.setCompactJdbcLoggingEnabled(booleanValueOf(props.getProperty("compactJdbcLoggingEnabled"), false));
+    configuration.setJdbcLogSampleRate(integerValueOf(props.getProperty("jdbcLogSampleRate"), 1));
+    configuration.setGeneratedMappersEnabled(booleanValueOf(props.getProperty("generatedMappersEnabled"), false));
+    configuration.setComposedPluginsEnabled(booleanValueOf(props.getProperty("composedPluginsEnabled"), false));
   }
 
   private void environmentsElement(XNode context) throws Exception {
@@ -0,0 +1,38 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor;
+
+/**
+ * Asynchronous, demand driven variant of a {@link Cursor}.
+ * The statement is executed and the rows are fetched on the executor given when the publisher was created,
+ * so a slow subscriber does not block the thread that requested the data.
+ * <p>
+ * A publisher accepts a single subscriber. The {@link org.apache.ibatis.session.SqlSession} that created it must stay
+ * open and must not be used by other threads until the subscriber received {@code onComplete}, {@code onError}
+ * or cancelled its subscription.
+ *
+ * @param <T> the item type
+ * @since 3.5.1
+ * @see org.apache.ibatis.session.SqlSession#selectCursorAsync(String, Object, org.apache.ibatis.session.RowBounds, java.util.concurrent.Executor)
+ */
+public interface CursorPublisher<T> {
+
+  /**
+   * Subscribes to the items of the cursor.
+   * @param subscriber the subscriber
+   */
+  void subscribe(CursorSubscriber<? super T> subscriber);
+}
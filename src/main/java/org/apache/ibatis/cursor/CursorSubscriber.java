@@ -0,0 +1,51 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor;
+
+/**
+ * Receives the items of a {@link CursorPublisher}, following the Reactive Streams protocol.
+ * <p>
+ * Items are delivered only after demand has been signaled with {@link CursorSubscription#request(long)}.
+ * All the signals of one subscription are invoked sequentially on a thread of the executor of the publisher.
+ *
+ * @param <T> the item type
+ * @since 3.5.1
+ */
+public interface CursorSubscriber<T> {
+
+  /**
+   * Invoked once before any other signal.
+   * @param subscription the subscription used to request items or to cancel
+   */
+  void onSubscribe(CursorSubscription subscription);
+
+  /**
+   * Invoked for each fetched item, never more times than requested.
+   * @param item the mapped object
+   */
+  void onNext(T item);
+
+  /**
+   * Invoked once when fetching failed. The cursor is already closed.
+   * @param throwable the failure
+   */
+  void onError(Throwable throwable);
+
+  /**
+   * Invoked once when all the items were delivered. The cursor is already closed.
+   */
+  void onComplete();
+}
@@ -0,0 +1,36 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor;
+
+/**
+ * Link between a {@link CursorPublisher} and a {@link CursorSubscriber}.
+ * Both methods may be invoked from any thread.
+ *
+ * @since 3.5.1
+ */
+public interface CursorSubscription {
+
+  /**
+   * Adds demand for n items. Rows are fetched from the database only while there is demand.
+   * @param n a strictly positive number of items, {@link Long#MAX_VALUE} for unbounded demand
+   */
+  void request(long n);
+
+  /**
+   * Stops the delivery of items and closes the underlying cursor and statement.
+   */
+  void cancel();
+}
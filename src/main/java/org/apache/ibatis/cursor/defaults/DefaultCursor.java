@@ -118,6 +118,7 @@ public class DefaultCursor<T> implements Cursor<T> {
       // ignore
     } finally {
       status = CursorStatus.CLOSED;
+      resultSetHandler.cursorClosed();
     }
   }
 
@@ -0,0 +1,199 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor.defaults;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.CursorPublisher;
+import org.apache.ibatis.cursor.CursorSubscriber;
+import org.apache.ibatis.cursor.CursorSubscription;
+
+/**
+ * Default implementation of a {@link CursorPublisher}.
+ * The cursor is opened on the first request, and all the accesses to it are serialized on the given executor,
+ * so the non thread safe {@link DefaultCursor} is never used by two threads at the same time.
+ *
+ * @since 3.5.1
+ */
+public class DefaultCursorPublisher<T> implements CursorPublisher<T> {
+
+  private final Supplier<Cursor<T>> cursorSupplier;
+  private final Executor executor;
+  private final AtomicBoolean subscribed = new AtomicBoolean();
+
+  public DefaultCursorPublisher(Supplier<Cursor<T>> cursorSupplier, Executor executor) {
+    this.cursorSupplier = cursorSupplier;
+    this.executor = executor;
+  }
+
+  @Override
+  public void subscribe(CursorSubscriber<? super T> subscriber) {
+    if (subscriber == null) {
+      throw new NullPointerException("subscriber must not be null");
+    }
+    if (!subscribed.compareAndSet(false, true)) {
+      subscriber.onSubscribe(CancelledSubscription.INSTANCE);
+      subscriber.onError(new IllegalStateException("A CursorPublisher accepts only one subscriber"));
+      return;
+    }
+    subscriber.onSubscribe(new CursorSubscriptionImpl(subscriber));
+  }
+
+  private enum CancelledSubscription implements CursorSubscription {
+    INSTANCE;
+
+    @Override
+    public void request(long n) {
+      // nothing to deliver
+    }
+
+    @Override
+    public void cancel() {
+      // already cancelled
+    }
+  }
+
+  private class CursorSubscriptionImpl implements CursorSubscription, Runnable {
+
+    private final CursorSubscriber<? super T> subscriber;
+    private final AtomicLong demand = new AtomicLong();
+    /**
+     * Number of pending drain requests, the drain loop runs only while it is positive
+     */
+    private final AtomicInteger workInProgress = new AtomicInteger();
+    private volatile boolean cancelled;
+    private volatile Throwable invalidRequest;
+
+    // only accessed by the thread that incremented workInProgress from zero
+    private Cursor<T> cursor;
+    private Iterator<T> iterator;
+    private volatile boolean done;
+
+    CursorSubscriptionImpl(CursorSubscriber<? super T> subscriber) {
+      this.subscriber = subscriber;
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        invalidRequest = new IllegalArgumentException("The number of requested items must be positive but was " + n);
+      } else {
+        demand.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+      }
+      schedule();
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+      schedule();
+    }
+
+    private void schedule() {
+      if (workInProgress.getAndIncrement() != 0) {
+        return;
+      }
+      int missed = 1;
+      do {
+        try {
+          executor.execute(this);
+          return;
+        } catch (RejectedExecutionException e) {
+          // the drain loop is not running, so the cursor can be closed on the caller thread
+          if (!done) {
+            terminate();
+            subscriber.onError(e);
+          }
+        }
+        // like run(), only give back the increments handled here so that concurrent requests are not lost
+        missed = workInProgress.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    @Override
+    public void run() {
+      int missed = 1;
+      do {
+        drain();
+        missed = workInProgress.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    private void drain() {
+      if (done) {
+        return;
+      }
+      if (cancelled) {
+        terminate();
+        return;
+      }
+      if (invalidRequest != null) {
+        terminate();
+        subscriber.onError(invalidRequest);
+        return;
+      }
+      try {
+        if (iterator == null) {
+          if (demand.get() == 0) {
+            return;
+          }
+          cursor = cursorSupplier.get();
+          iterator = cursor.iterator();
+        }
+        while (demand.get() > 0) {
+          if (cancelled) {
+            terminate();
+            return;
+          }
+          if (!iterator.hasNext()) {
+            terminate();
+            subscriber.onComplete();
+            return;
+          }
+          T item = iterator.next();
+          if (demand.get() != Long.MAX_VALUE) {
+            demand.decrementAndGet();
+          }
+          subscriber.onNext(item);
+        }
+      } catch (Throwable t) {
+        terminate();
+        subscriber.onError(t);
+      }
+    }
+
+    // 关闭游标。游标关闭ResultSet后，Statement也随之关闭
+    private void terminate() {
+      done = true;
+      if (cursor != null) {
+        try {
+          cursor.close();
+        } catch (IOException e) {
+          // ignore
+        }
+      }
+    }
+  }
+
+}
@@ -17,6 +17,7 @@ package org.apache.ibatis.datasource.pooled;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author Clinton Begin
@@ -70,6 +71,20 @@ public class PoolState {
    * 全局统计 - 获取到坏的连接的次数
    */
   protected long badConnectionCount = 0;
+  /**
+   * 全局统计 - PreparedStatement 缓存命中的次数
+   *
+   * 缓存在使用连接的线程中访问，不持有当前对象的锁，所以使用 AtomicLong
+   */
+  protected final AtomicLong preparedStatementCacheHitCount = new AtomicLong();
+  /**
+   * 全局统计 - PreparedStatement 缓存未命中的次数
+   */
+  protected final AtomicLong preparedStatementCacheMissCount = new AtomicLong();
+  /**
+   * 全局统计 - PreparedStatement 缓存超过上限被关闭的次数
+   */
+  protected final AtomicLong preparedStatementCacheEvictionCount = new AtomicLong();
 
   public PoolState(PooledDataSource dataSource) {
     this.dataSource = dataSource;
@@ -109,6 +124,27 @@ public class PoolState {
   }
 
 
+  /**
+   * @since 3.5.1
+   */
+  public long getPreparedStatementCacheHitCount() {
+    return preparedStatementCacheHitCount.get();
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public long getPreparedStatementCacheMissCount() {
+    return preparedStatementCacheMissCount.get();
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public long getPreparedStatementCacheEvictionCount() {
+    return preparedStatementCacheEvictionCount.get();
+  }
+
   public synchronized int getIdleConnectionCount() {
     return idleConnections.size();
   }
@@ -132,6 +168,7 @@ public class PoolState {
     builder.append("\n poolPingEnabled                ").append(dataSource.poolPingEnabled);
     builder.append("\n poolPingQuery                  ").append(dataSource.poolPingQuery);
     builder.append("\n poolPingConnectionsNotUsedFor  ").append(dataSource.poolPingConnectionsNotUsedFor);
+    builder.append("\n poolPreparedStatementCacheSize ").append(dataSource.poolPreparedStatementCacheSize);
     builder.append("\n ---STATUS-----------------------------------------------------");
     builder.append("\n activeConnections              ").append(getActiveConnectionCount());
     builder.append("\n idleConnections                ").append(getIdleConnectionCount());
@@ -143,6 +180,9 @@ public class PoolState {
     builder.append("\n hadToWait                      ").append(getHadToWaitCount());
     builder.append("\n averageWaitTime                ").append(getAverageWaitTime());
     builder.append("\n badConnectionCount             ").append(getBadConnectionCount());
+    builder.append("\n statementCacheHits             ").append(getPreparedStatementCacheHitCount());
+    builder.append("\n statementCacheMisses           ").append(getPreparedStatementCacheMissCount());
+    builder.append("\n statementCacheEvictions        ").append(getPreparedStatementCacheEvictionCount());
     builder.append("\n===============================================================");
     return builder.toString();
   }
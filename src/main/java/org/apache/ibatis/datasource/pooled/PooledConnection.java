@@ -32,6 +32,10 @@ class PooledConnection implements InvocationHandler {
    * 关闭Connection方法名
    */
   private static final String CLOSE = "close";
+  /**
+   * 创建PreparedStatement方法名
+   */
+  private static final String PREPARE_STATEMENT = "prepareStatement";
   /**
    * JDK Proxy的接口
    */
@@ -73,6 +77,10 @@ class PooledConnection implements InvocationHandler {
    * 是否有效
    */
   private boolean valid;
+  /**
+   * 真实连接的PreparedStatement缓存，在首次创建PreparedStatement时初始化
+   */
+  private PreparedStatementCache statementCache;
 
   /**
    * Constructor for SimplePooledConnection that uses the Connection and PooledDataSource passed in.
@@ -134,6 +142,24 @@ class PooledConnection implements InvocationHandler {
     return realConnection == null ? 0 : realConnection.hashCode();
   }
 
+  /**
+   * Getter for the prepared statement cache of the real connection.
+   *
+   * @return The cache, or null if no statement has been cached yet
+   */
+  PreparedStatementCache getStatementCache() {
+    return statementCache;
+  }
+
+  /**
+   * Setter for the prepared statement cache, passed on when the real connection is wrapped again.
+   *
+   * @param statementCache - the cache of the real connection
+   */
+  void setStatementCache(PreparedStatementCache statementCache) {
+    this.statementCache = statementCache;
+  }
+
   /**
    * Getter for the connection type (based on url + user + password).
    *
@@ -280,7 +306,15 @@ class PooledConnection implements InvocationHandler {
         // throw an SQLException instead of a Runtime
         checkConnection();
       }
-      // <2.2> 反射调用对应的方法
+      // <2.2> 开启PreparedStatement缓存时，从缓存中获取
+      if (PREPARE_STATEMENT.equals(methodName) && dataSource.getPoolPreparedStatementCacheSize() > 0) {
+        if (statementCache == null) {
+          statementCache = new PreparedStatementCache(dataSource.getPoolState(), realConnection,
+              dataSource.getPoolPreparedStatementCacheSize());
+        }
+        return statementCache.prepare(proxyConnection, method, args);
+      }
+      // <2.3> 反射调用对应的方法
       return method.invoke(realConnection, args);
     } catch (Throwable t) {
       throw ExceptionUtil.unwrapThrowable(t);
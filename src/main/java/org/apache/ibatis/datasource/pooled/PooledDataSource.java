@@ -87,6 +87,10 @@ public class PooledDataSource implements DataSource {
    * 被侦测 - 当然仅当poolPingEnabled为true时适用）
    */
   protected int poolPingConnectionsNotUsedFor;
+  /**
+   * 每个连接缓存的空闲 PreparedStatement 数量上限，在不同会话之间复用。默认值：0（即不缓存）
+   */
+  protected int poolPreparedStatementCacheSize;
 
   /**
    * 期望Connection的类型编码，通过{@link #assembleConnectionTypeCode(String, String, String)}计算
@@ -274,6 +278,18 @@ public class PooledDataSource implements DataSource {
     forceCloseAll();
   }
 
+  /**
+   * The maximum number of idle prepared statements cached per connection and shared by the sessions that use it.
+   * Zero (the default) disables the cache.
+   *
+   * @param poolPreparedStatementCacheSize the number of statements cached per connection
+   * @since 3.5.1
+   */
+  public void setPoolPreparedStatementCacheSize(int poolPreparedStatementCacheSize) {
+    this.poolPreparedStatementCacheSize = poolPreparedStatementCacheSize;
+    forceCloseAll();
+  }
+
   public String getDriver() {
     return dataSource.getDriver();
   }
@@ -334,6 +350,13 @@ public class PooledDataSource implements DataSource {
     return poolPingConnectionsNotUsedFor;
   }
 
+  /**
+   * @since 3.5.1
+   */
+  public int getPoolPreparedStatementCacheSize() {
+    return poolPreparedStatementCacheSize;
+  }
+
   /**
    * Closes all active and idle connections in the pool.
    * 关闭所有的activeConnections和idleConnections
@@ -354,7 +377,8 @@ public class PooledDataSource implements DataSource {
           if (!realConn.getAutoCommit()) {
             realConn.rollback();
           }
-          // 关闭真实的连接
+          // 关闭缓存的 PreparedStatement 和真实的连接
+          closeStatementCache(conn);
           realConn.close();
         } catch (Exception e) {
           // ignore
@@ -373,7 +397,8 @@ public class PooledDataSource implements DataSource {
           if (!realConn.getAutoCommit()) {
             realConn.rollback();
           }
-          // 关闭真实的连接
+          // 关闭缓存的 PreparedStatement 和真实的连接
+          closeStatementCache(conn);
           realConn.close();
         } catch (Exception e) {
           // ignore
@@ -385,6 +410,14 @@ public class PooledDataSource implements DataSource {
     }
   }
 
+  // 真实的连接关闭前，关闭它缓存的空闲 PreparedStatement
+  private static void closeStatementCache(PooledConnection conn) {
+    PreparedStatementCache statementCache = conn.getStatementCache();
+    if (statementCache != null) {
+      statementCache.clear();
+    }
+  }
+
   public PoolState getPoolState() {
     return state;
   }
@@ -411,6 +444,7 @@ public class PooledDataSource implements DataSource {
           }
           // 创建PooledConnection对象，并添加到空闲的连接集合中
           PooledConnection newConn = new PooledConnection(conn.getRealConnection(), this);
+          newConn.setStatementCache(conn.getStatementCache());
           state.idleConnections.add(newConn);
           newConn.setCreatedTimestamp(conn.getCreatedTimestamp());
           newConn.setLastUsedTimestamp(conn.getLastUsedTimestamp());
@@ -431,7 +465,8 @@ public class PooledDataSource implements DataSource {
           if (!conn.getRealConnection().getAutoCommit()) {
             conn.getRealConnection().rollback();
           }
-          // 关闭真正的数据库连接
+          // 关闭缓存的 PreparedStatement 和真正的数据库连接
+          closeStatementCache(conn);
           conn.getRealConnection().close();
           if (log.isDebugEnabled()) {
             log.debug("Closed connection " + conn.getRealHashCode() + ".");
@@ -510,6 +545,7 @@ public class PooledDataSource implements DataSource {
               }
               // 创建新的PooledConnection连接对象
               conn = new PooledConnection(oldestActiveConnection.getRealConnection(), this);
+              conn.setStatementCache(oldestActiveConnection.getStatementCache());
               conn.setCreatedTimestamp(oldestActiveConnection.getCreatedTimestamp());
               conn.setLastUsedTimestamp(oldestActiveConnection.getLastUsedTimestamp());
               // 设置oldestActiveConnection为无效
@@ -638,6 +674,7 @@ public class PooledDataSource implements DataSource {
             // 关闭数据库真实的链接
             log.warn("Execution of ping query '" + poolPingQuery + "' failed: " + e.getMessage());
             try {
+              closeStatementCache(conn);
               conn.getRealConnection().close();
             } catch (Exception e2) {
               //ignore
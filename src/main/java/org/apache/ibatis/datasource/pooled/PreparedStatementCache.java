@@ -0,0 +1,221 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.reflection.ExceptionUtil;
+
+/**
+ * 连接级别的 PreparedStatement 缓存
+ *
+ * 属于真实的连接，而不是某个 {@link PooledConnection} 对象，因此在连接归还到连接池、再被其它会话获取后，仍然可以复用。
+ * 只缓存空闲的 PreparedStatement ：获取时从缓存中移除，关闭时重置后放回缓存，超过上限时按 LRU 关闭最久未使用的。
+ *
+ * @see PooledDataSource#setPoolPreparedStatementCacheSize(int)
+ * @since 3.5.1
+ */
+class PreparedStatementCache {
+
+  private static final Log log = LogFactory.getLog(PreparedStatementCache.class);
+
+  private static final String CLOSE = "close";
+
+  private final PoolState state;
+  private final Connection realConnection;
+  private final int maxSize;
+  /**
+   * 空闲的 PreparedStatement ，KEY 为 SQL + 结果集类型 + 并发模式 + 主键生成方式等 prepareStatement 方法的参数
+   */
+  private final LinkedHashMap<CacheKey, CachedStatement> idleStatements = new LinkedHashMap<>(16, 0.75f, true);
+
+  PreparedStatementCache(PoolState state, Connection realConnection, int maxSize) {
+    this.state = state;
+    this.realConnection = realConnection;
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * 获得 PreparedStatement 。缓存中存在空闲的则复用，否则通过真实的连接创建
+   *
+   * @param proxyConnection 当前的代理连接，作为 {@link PreparedStatement#getConnection()} 的返回值
+   * @param method 调用的 prepareStatement 方法
+   * @param args 方法参数
+   */
+  synchronized PreparedStatement prepare(Connection proxyConnection, Method method, Object[] args)
+      throws ReflectiveOperationException, SQLException {
+    CacheKey key = new CacheKey(args);
+    CachedStatement cached = idleStatements.remove(key);
+    if (cached != null && !cached.statement.isClosed()) {
+      state.preparedStatementCacheHitCount.incrementAndGet();
+    } else {
+      state.preparedStatementCacheMissCount.incrementAndGet();
+      cached = new CachedStatement((PreparedStatement) method.invoke(realConnection, args));
+    }
+    return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+        new Class<?>[] {PreparedStatement.class}, new StatementHandler(key, cached, proxyConnection));
+  }
+
+  // 归还 PreparedStatement 到缓存中
+  private synchronized void release(CacheKey key, CachedStatement cached) {
+    try {
+      if (cached.statement.isClosed()) {
+        return;
+      }
+      if (idleStatements.containsKey(key)) {
+        // 已经有相同的空闲 PreparedStatement ，直接关闭
+        cached.statement.close();
+        return;
+      }
+      cached.reset();
+    } catch (SQLException e) {
+      // 无法重置的 PreparedStatement 不再复用
+      closeQuietly(cached);
+      return;
+    }
+    idleStatements.put(key, cached);
+    // 超过上限，关闭最久未使用的
+    Iterator<Map.Entry<CacheKey, CachedStatement>> iterator = idleStatements.entrySet().iterator();
+    while (idleStatements.size() > maxSize) {
+      CachedStatement eldest = iterator.next().getValue();
+      iterator.remove();
+      closeQuietly(eldest);
+      state.preparedStatementCacheEvictionCount.incrementAndGet();
+    }
+  }
+
+  /**
+   * 关闭所有空闲的 PreparedStatement
+   */
+  synchronized void clear() {
+    for (CachedStatement cached : idleStatements.values()) {
+      closeQuietly(cached);
+    }
+    idleStatements.clear();
+  }
+
+  synchronized int size() {
+    return idleStatements.size();
+  }
+
+  private static void closeQuietly(CachedStatement cached) {
+    try {
+      cached.statement.close();
+    } catch (SQLException e) {
+      if (log.isDebugEnabled()) {
+        log.debug("Error closing cached prepared statement. Cause: " + e);
+      }
+    }
+  }
+
+  /**
+   * 真实的 PreparedStatement ，及创建时的默认设置
+   */
+  private static class CachedStatement {
+
+    private final PreparedStatement statement;
+    private final int queryTimeout;
+    private final int fetchSize;
+    private final int maxRows;
+
+    CachedStatement(PreparedStatement statement) throws SQLException {
+      this.statement = statement;
+      this.queryTimeout = statement.getQueryTimeout();
+      this.fetchSize = statement.getFetchSize();
+      this.maxRows = statement.getMaxRows();
+    }
+
+    // 清空参数和批处理，并恢复执行时修改的设置，避免影响下一个使用方
+    void reset() throws SQLException {
+      statement.clearParameters();
+      statement.clearBatch();
+      statement.clearWarnings();
+      if (statement.getQueryTimeout() != queryTimeout) {
+        statement.setQueryTimeout(queryTimeout);
+      }
+      if (statement.getFetchSize() != fetchSize) {
+        statement.setFetchSize(fetchSize);
+      }
+      if (statement.getMaxRows() != maxRows) {
+        statement.setMaxRows(maxRows);
+      }
+    }
+
+  }
+
+  /**
+   * 交给使用方的 PreparedStatement 代理，关闭时归还到缓存中
+   */
+  private class StatementHandler implements InvocationHandler {
+
+    private final CacheKey key;
+    private final CachedStatement cached;
+    private final Connection proxyConnection;
+    private boolean closed;
+
+    StatementHandler(CacheKey key, CachedStatement cached, Connection proxyConnection) {
+      this.key = key;
+      this.cached = cached;
+      this.proxyConnection = proxyConnection;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String methodName = method.getName();
+      if (Object.class.equals(method.getDeclaringClass())) {
+        if ("equals".equals(methodName)) {
+          return proxy == args[0];
+        } else if ("hashCode".equals(methodName)) {
+          return System.identityHashCode(proxy);
+        }
+        return "Cached" + cached.statement;
+      }
+      if (CLOSE.equals(methodName)) {
+        if (!closed) {
+          closed = true;
+          release(key, cached);
+        }
+        return null;
+      } else if ("isClosed".equals(methodName)) {
+        return closed || cached.statement.isClosed();
+      }
+      if (closed) {
+        throw new SQLException("Error accessing cached PreparedStatement. Statement is closed.");
+      }
+      if ("getConnection".equals(methodName)) {
+        return proxyConnection;
+      }
+      try {
+        return method.invoke(cached.statement, args);
+      } catch (Throwable t) {
+        throw ExceptionUtil.unwrapThrowable(t);
+      }
+    }
+
+  }
+
+}
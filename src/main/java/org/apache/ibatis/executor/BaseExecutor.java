@@ -20,15 +20,20 @@ import static org.apache.ibatis.executor.ExecutionPlaceholder.EXECUTION_PLACEHOL
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.result.ColumnarResult;
+import org.apache.ibatis.executor.result.ColumnarResultHandler;
 import org.apache.ibatis.executor.statement.StatementUtil;
+import org.apache.ibatis.executor.statistics.StatementStatistics;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.logging.jdbc.CompactConnectionLogger;
 import org.apache.ibatis.logging.jdbc.ConnectionLogger;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
@@ -38,7 +43,10 @@ import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.Deadline;
+import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.LocalCacheScope;
+import org.apache.ibatis.session.ResultContext;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.transaction.Transaction;
@@ -83,6 +91,14 @@ public abstract class BaseExecutor implements Executor {
    * 是否关闭
    */
   private boolean closed;
+  /**
+   * 调用方的截止时间
+   */
+  private Deadline deadline;
+  /**
+   * 当前事务中是否有尚未提交或回滚的写操作
+   */
+  private boolean dirty;
 
   protected BaseExecutor(Configuration configuration, Transaction transaction) {
     this.transaction = transaction;
@@ -146,8 +162,70 @@ public abstract class BaseExecutor implements Executor {
     // <2> 清空本地缓存
     // 因为，更新后，可能缓存会失效。但是，又没有很好的办法，判断哪一些失效。所以，最稳妥的做法，就是全部清空。
     clearLocalCache();
+    dirty = true;
     // <3> 执行写操作
-    return doUpdate(ms, parameter);
+    StatementStatistics statistics = statisticsFor(ms);
+    try {
+      int rows = doUpdate(ms, parameter);
+      if (statistics != null) {
+        statistics.recordSuccess(rows);
+      }
+      return rows;
+    } catch (SQLException | RuntimeException e) {
+      if (statistics != null) {
+        statistics.recordError();
+      }
+      throw e;
+    }
+  }
+
+  // 批量插入
+  @Override
+  public long bulkInsert(MappedStatement ms, Iterable<?> parameters) throws SQLException {
+    ErrorContext.instance().resource(ms.getResource()).activity("executing a bulk insert").object(ms.getId());
+    if (closed) {
+      throw new ExecutorException("Executor was closed.");
+    }
+    clearLocalCache();
+    dirty = true;
+    // 先刷入之前的批处理语句，保证执行顺序
+    flushStatements();
+    Iterator<?> iterator = parameters.iterator();
+    if (!iterator.hasNext()) {
+      return 0;
+    }
+    Object first = iterator.next();
+    // 使用第一行的参数解析 SQL ，判断是否可以交给 BulkLoader 装载
+    BulkInsert bulkInsert = BulkInsert.parse(ms, ms.getBoundSql(first));
+    if (bulkInsert != null) {
+      Connection connection = getConnection(ms.getStatementLog());
+      for (BulkLoader bulkLoader : configuration.getBulkLoaders()) {
+        if (bulkLoader.supports(connection)) {
+          return bulkLoader.load(connection, bulkInsert.getTable(), bulkInsert.getColumns(),
+              bulkInsert.rows(first, iterator, connection));
+        }
+      }
+    }
+    // 回退为批处理，通过 Configuration 创建，使插件和二级缓存同样生效。共用当前的事务，因此不关闭它
+    Executor batchExecutor = configuration.newExecutor(transaction, ExecutorType.BATCH);
+    batchExecutor.setDeadline(deadline);
+    boolean flushed = false;
+    try {
+      batchExecutor.update(ms, first);
+      long rows = 1;
+      while (iterator.hasNext()) {
+        batchExecutor.update(ms, iterator.next());
+        rows++;
+      }
+      batchExecutor.flushStatements();
+      flushed = true;
+      return rows;
+    } finally {
+      // 失败时丢弃尚未执行的批处理语句并关闭它们，共用的事务交给调用方回滚
+      if (!flushed) {
+        batchExecutor.rollback(false);
+      }
+    }
   }
 
   // 刷入批处理语句
@@ -229,7 +307,19 @@ public abstract class BaseExecutor implements Executor {
     // <1> 获得BoundSql对象
     BoundSql boundSql = ms.getBoundSql(parameter);
     // <2> 执行查询
-    return doQueryCursor(ms, parameter, rowBounds, boundSql);
+    StatementStatistics statistics = statisticsFor(ms);
+    try {
+      Cursor<E> cursor = doQueryCursor(ms, parameter, rowBounds, boundSql);
+      if (statistics != null) {
+        statistics.recordSuccess(0);
+      }
+      return cursor;
+    } catch (SQLException | RuntimeException e) {
+      if (statistics != null) {
+        statistics.recordError();
+      }
+      throw e;
+    }
   }
 
   @Override
@@ -308,6 +398,7 @@ public abstract class BaseExecutor implements Executor {
     if (required) {
       transaction.commit();
     }
+    dirty = false;
   }
 
   @Override
@@ -323,10 +414,24 @@ public abstract class BaseExecutor implements Executor {
           // 是否要求回滚事务。如果是，则回滚事务
           transaction.rollback();
         }
+        dirty = false;
       }
     }
   }
 
+  // 将其它线程查询得到的结果放入一级缓存，与在当前线程中查询一致
+  @Override
+  public void putLocalCache(MappedStatement ms, CacheKey key, List<?> list) {
+    if (!closed && ms.getStatementType() != StatementType.CALLABLE) {
+      localCache.putObject(key, list);
+    }
+  }
+
+  @Override
+  public boolean isDirty() {
+    return dirty;
+  }
+
   // 清理一级（本地）缓存
   @Override
   public void clearLocalCache() {
@@ -353,6 +458,9 @@ public abstract class BaseExecutor implements Executor {
   // 关闭Statement对象
   protected void closeStatement(Statement statement) {
     if (statement != null) {
+      if (deadline != null) {
+        deadline.unregister(statement);
+      }
       try {
         statement.close();
       } catch (SQLException e) {
@@ -371,6 +479,7 @@ public abstract class BaseExecutor implements Executor {
    */
   protected void applyTransactionTimeout(Statement statement) throws SQLException {
     StatementUtil.applyTransactionTimeout(statement, statement.getQueryTimeout(), transaction.getTimeout());
+    StatementUtil.applyDeadline(statement, deadline);
   }
 
   private void handleLocallyCachedOutputParameters(MappedStatement ms, CacheKey key, Object parameter, BoundSql boundSql) {
@@ -395,9 +504,25 @@ public abstract class BaseExecutor implements Executor {
     List<E> list;
     // <1> 在缓存中，添加占位对象。此处的占位符，和延迟加载有关，可见`DeferredLoad#canLoad()`方法
     localCache.putObject(key, EXECUTION_PLACEHOLDER);
+    StatementStatistics statistics = statisticsFor(ms);
     try {
       // <2> 执行读操作
-      list = doQuery(ms, parameter, rowBounds, resultHandler, boundSql);
+      if (statistics != null && resultHandler != null && !(resultHandler instanceof ColumnarResultHandler)) {
+        // 结果交给 ResultHandler 处理，不在 list 中，需要单独计数
+        CountingResultHandler countingResultHandler = new CountingResultHandler(resultHandler);
+        list = doQuery(ms, parameter, rowBounds, countingResultHandler, boundSql);
+        statistics.recordSuccess(countingResultHandler.count);
+      } else {
+        list = doQuery(ms, parameter, rowBounds, resultHandler, boundSql);
+        if (statistics != null) {
+          statistics.recordSuccess(countRows(list, resultHandler));
+        }
+      }
+    } catch (SQLException | RuntimeException e) {
+      if (statistics != null) {
+        statistics.recordError();
+      }
+      throw e;
     } finally {
       // <3> 从缓存中，移除占位符对象
       localCache.removeObject(key);
@@ -411,12 +536,32 @@ public abstract class BaseExecutor implements Executor {
     return list;
   }
 
+  // 获得查询返回的行数
+  private static long countRows(List<?> list, ResultHandler resultHandler) {
+    if (resultHandler instanceof ColumnarResultHandler) {
+      ColumnarResult result = ((ColumnarResultHandler) resultHandler).getResult();
+      return result == null ? 0 : result.getRowCount();
+    }
+    return list == null ? 0 : list.size();
+  }
+
+  // 获得执行统计，未开启时返回null
+  protected StatementStatistics statisticsFor(MappedStatement ms) {
+    return configuration.isStatementStatisticsEnabled()
+        ? configuration.getStatementStatisticsRegistry().getOrCreate(ms.getId()) : null;
+  }
+
   // 获得Connection对象
   protected Connection getConnection(Log statementLog) throws SQLException {
     // 获得Connection对象
     Connection connection = transaction.getConnection();
-    // 如果为debug日志级别，则创建ConnectionLogger对象，进行动态代理
-    if (statementLog.isDebugEnabled()) {
+    // 如果为debug日志级别，且本次被采样，则创建ConnectionLogger对象，进行动态代理。
+    // 采样按获取连接、准备Statement决定，被ReuseExecutor缓存或被BatchExecutor复用的Statement沿用准备时的结果
+    if (statementLog.isDebugEnabled() && configuration.getJdbcLogSampler().isSampled(statementLog)) {
+      // 精简模式下使用非反射的包装类，且只记录结果集的总行数
+      if (configuration.isCompactJdbcLoggingEnabled()) {
+        return CompactConnectionLogger.newInstance(connection, statementLog, queryStack);
+      }
       return ConnectionLogger.newInstance(connection, statementLog, queryStack);
     } else {
       return connection;
@@ -429,6 +574,41 @@ public abstract class BaseExecutor implements Executor {
     this.wrapper = wrapper;
   }
 
+  @Override
+  public void setDeadline(Deadline deadline) {
+    // 恢复被上一个截止时间修改过超时时间、且仍被缓存的Statement
+    if (this.deadline != null && this.deadline != deadline) {
+      this.deadline.release();
+    }
+    this.deadline = deadline;
+  }
+
+  @Override
+  public Deadline getDeadline() {
+    return deadline;
+  }
+
+  /**
+   * 统计结果数量的 ResultHandler
+   */
+  private static class CountingResultHandler implements ResultHandler<Object> {
+
+    private final ResultHandler<Object> delegate;
+    private long count;
+
+    @SuppressWarnings("unchecked")
+    CountingResultHandler(ResultHandler<?> delegate) {
+      this.delegate = (ResultHandler<Object>) delegate;
+    }
+
+    @Override
+    public void handleResult(ResultContext<?> resultContext) {
+      count++;
+      delegate.handleResult(resultContext);
+    }
+
+  }
+
   private static class DeferredLoad {
 
     private final MetaObject resultObject;
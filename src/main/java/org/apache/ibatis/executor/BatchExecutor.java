@@ -17,19 +17,31 @@ package org.apache.ibatis.executor;
 
 import java.sql.BatchUpdateException;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 
+import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.parameter.ParameterValueExtractor;
 import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.executor.statistics.StatementStatistics;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
@@ -51,6 +63,11 @@ public class BatchExecutor extends BaseExecutor {
    * 每一个BatchResult元素，对应一个 {@link #statementList} 的Statement元素
    */
   private final List<BatchResult> batchResultList = new ArrayList<>();
+  /**
+   * MultiRowInsert数组
+   * 每一个元素，对应一个 {@link #statementList} 的元素。合并为多行INSERT语句时，Statement元素为null，在刷入时才创建
+   */
+  private final List<MultiRowInsert> multiRowInsertList = new ArrayList<>();
   /**
    * 当前SQL
    */
@@ -59,52 +76,263 @@ public class BatchExecutor extends BaseExecutor {
    * 当前MappedStatement对象
    */
   private MappedStatement currentStatement;
+  /**
+   * 开启 {@link Configuration#isBatchGroupingEnabled()} 时，(MappedStatement, SQL) 与 {@link #statementList} 下标的映射
+   */
+  private final Map<CacheKey, Integer> statementIndexes = new HashMap<>();
+  /**
+   * 所有语句累积的行数
+   */
+  private int pendingRows;
+  /**
+   * 所有语句累积参数的估算字节数
+   */
+  private long pendingBytes;
+  /**
+   * 是否正在因达到批处理上限而自动刷入
+   */
+  private boolean autoFlushing;
+  /**
+   * 开启 {@link Configuration#isBatchAsyncFlushEnabled()} 时，限制排队中的后台批处理数量
+   */
+  private final Semaphore asyncFlushPermits;
+  /**
+   * 最后一个提交到后台执行的批处理，后提交的批处理在其完成后才执行
+   */
+  private CompletableFuture<Void> asyncFlush = CompletableFuture.completedFuture(null);
+  /**
+   * 后台执行批处理时发生的异常，在下一次操作时抛出，回滚后清除
+   */
+  private volatile Throwable asyncFlushError;
+  /**
+   * 后台批处理和当前线程使用同一个数据库连接，通过该锁串行访问连接
+   */
+  private final Object connectionLock = new Object();
 
   public BatchExecutor(Configuration configuration, Transaction transaction) {
     super(configuration, transaction);
+    this.asyncFlushPermits = new Semaphore(configuration.getBatchAsyncFlushQueueSize());
   }
 
   @Override
   public int doUpdate(MappedStatement ms, Object parameterObject) throws SQLException {
+    // <0> KeyGenerator在当前线程中通过同一个连接执行查询时，先等待后台执行的批处理完成
+    if (!isAsyncFlushSupported(ms)) {
+      asyncFlush.exceptionally(t -> null).join();
+    }
+    // 后台执行的批处理失败，则抛出异常
+    throwAsyncFlushError();
     final Configuration configuration = ms.getConfiguration();
     // <1> 创建StatementHandler对象
     final StatementHandler handler = configuration.newStatementHandler(this, ms, parameterObject, RowBounds.DEFAULT, null, null);
     final BoundSql boundSql = handler.getBoundSql();
     final String sql = boundSql.getSql();
     final Statement stmt;
-    // <2> 如果匹配最后一次currentSql和currentStatement，则聚合到BatchResult中
-    if (sql.equals(currentSql) && ms.equals(currentStatement)) {
-      // <2.1> 获得最后一次的Statement对象
-      int last = statementList.size() - 1;
+    final BatchResult batchResult;
+    final MultiRowInsert multiRowInsert;
+    // <2> 如果匹配最后一次currentSql和currentStatement，或开启分组时匹配之前的(MappedStatement, SQL)，则聚合到BatchResult中
+    final int last = findStatementIndex(ms, sql);
+    if (last >= 0) {
+      // <2.1> 获得对应的Statement对象
       stmt = statementList.get(last);
-      // <2.2> 设置事务超时时间
-      applyTransactionTimeout(stmt);
-      // <2.3> 设置SQL上的参数，例如PrepareStatement对象上的占位符
-      handler.parameterize(stmt);//fix Issues 322
-      // <2.4> 获得最后一次的BatchResult对象，并添加参数到其中
-      BatchResult batchResult = batchResultList.get(last);
+      multiRowInsert = multiRowInsertList.get(last);
+      if (multiRowInsert != null) {
+        // <2.2> 合并为多行INSERT语句时，只记录该行的BoundSql
+        multiRowInsert.addRow(boundSql);
+      } else {
+        synchronized (connectionLock) {
+          // <2.2> 设置事务超时时间
+          applyTransactionTimeout(stmt);
+          // <2.3> 设置SQL上的参数，例如PrepareStatement对象上的占位符
+          handler.parameterize(stmt);//fix Issues 322
+          handler.batch(stmt);
+        }
+      }
+      // <2.4> 获得对应的BatchResult对象，并添加参数到其中
+      batchResult = batchResultList.get(last);
       batchResult.addParameterObject(parameterObject);
     // <3> 如果不匹配最后一次currentSql和currentStatement，则新建BatchResult对象
     } else {
-      // <3.1> 获得Connection
-      Connection connection = getConnection(ms.getStatementLog());
-      // <3.2> 创建Statement或PrepareStatement对象
-      stmt = handler.prepare(connection, transaction.getTimeout());
-      // <3.3> 设置SQL上的参数，例如PrepareStatement对象上的占位符
-      handler.parameterize(stmt);    //fix Issues 322
-      // <3.4> 重新设置currentSql和currentStatement
+      multiRowInsert = MultiRowInsert.parse(ms, boundSql);
+      if (multiRowInsert != null) {
+        // <3.1> 合并为多行INSERT语句时，刷入时才创建Statement
+        stmt = null;
+        multiRowInsert.addRow(boundSql);
+      } else {
+        synchronized (connectionLock) {
+          // <3.1> 获得Connection
+          Connection connection = getConnection(ms.getStatementLog());
+          // <3.2> 创建Statement或PrepareStatement对象
+          stmt = handler.prepare(connection, transaction.getTimeout());
+          // <3.3> 设置SQL上的参数，例如PrepareStatement对象上的占位符
+          handler.parameterize(stmt);    //fix Issues 322
+          // <3.4> 批处理
+          handler.batch(stmt);
+        }
+      }
+      // <3.5> 重新设置currentSql和currentStatement
       currentSql = sql;
       currentStatement = ms;
-      // <3.5> 添加Statement到statementList中
+      // <3.6> 添加Statement到statementList中
+      if (configuration.isBatchGroupingEnabled()) {
+        statementIndexes.put(new CacheKey(new Object[] {ms, sql}), statementList.size());
+      }
       statementList.add(stmt);
-      // <3.6> 创建BatchResult对象，并添加到batchResultList中
-      batchResultList.add(new BatchResult(ms, sql, parameterObject));
+      multiRowInsertList.add(multiRowInsert);
+      // <3.7> 创建BatchResult对象，并添加到batchResultList中
+      batchResult = new BatchResult(ms, sql, parameterObject);
+      batchResultList.add(batchResult);
+    }
+    // <4> 达到批处理上限，则自动刷入
+    pendingRows++;
+    if (configuration.getBatchMaxPendingBytes() > 0) {
+      pendingBytes += estimateSize(boundSql, parameterObject);
+    }
+    if (isBatchLimitReached(batchResult)) {
+      if (configuration.isBatchAsyncFlushEnabled() && canFlushAsync()) {
+        flushStatementsAsync();
+      } else {
+        autoFlushing = true;
+        try {
+          flushStatements();
+        } finally {
+          autoFlushing = false;
+        }
+      }
     }
-    // <4> 批处理
-    handler.batch(stmt);
     return BATCH_UPDATE_RETURN_VALUE;
   }
 
+  private boolean canFlushAsync() {
+    for (BatchResult batchResult : batchResultList) {
+      if (!isAsyncFlushSupported(batchResult.getMappedStatement())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // 其它KeyGenerator（例如SelectKeyGenerator）会通过当前Executor执行查询，而一级缓存等状态不是线程安全的，
+  // 因此只有NoKeyGenerator和Jdbc3KeyGenerator的批处理可以在后台执行
+  private boolean isAsyncFlushSupported(MappedStatement ms) {
+    Class<?> keyGeneratorType = ms.getKeyGenerator().getClass();
+    return NoKeyGenerator.class.equals(keyGeneratorType) || Jdbc3KeyGenerator.class.equals(keyGeneratorType);
+  }
+
+  // 将当前的批处理交给后台线程执行，排队数量达到上限时等待
+  private void flushStatementsAsync() {
+    final List<Statement> statements = new ArrayList<>(statementList);
+    final List<BatchResult> batchResults = new ArrayList<>(batchResultList);
+    final List<MultiRowInsert> multiRowInserts = new ArrayList<>(multiRowInsertList);
+    clearStatements();
+    try {
+      asyncFlushPermits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      closeStatements(statements);
+      throw new ExecutorException("Interrupted while waiting to flush the batch in the background.", e);
+    }
+    final java.util.concurrent.Executor flushExecutor = configuration.getBatchFlushExecutorService();
+    asyncFlush = asyncFlush.handleAsync((ignored, throwable) -> {
+      try {
+        // 之前的批处理失败，则跳过之后的批处理
+        if (asyncFlushError == null) {
+          synchronized (connectionLock) {
+            executeBatches(statements, batchResults, multiRowInserts, true);
+          }
+        }
+      } catch (Throwable t) {
+        asyncFlushError = t;
+      } finally {
+        synchronized (connectionLock) {
+          closeStatements(statements);
+        }
+        asyncFlushPermits.release();
+      }
+      return null;
+    }, command -> {
+      // 线程池拒绝时任务不会执行，在这里关闭Statement并归还许可，并和执行失败一样在下次操作时抛出。
+      // CompletableFuture 会捕获该异常，所以这里不能只依赖调用方处理
+      try {
+        flushExecutor.execute(command);
+      } catch (RejectedExecutionException e) {
+        asyncFlushError = e;
+        synchronized (connectionLock) {
+          closeStatements(statements);
+        }
+        asyncFlushPermits.release();
+        throw e;
+      }
+    });
+  }
+
+  private void closeStatements(List<Statement> statements) {
+    for (Statement stmt : statements) {
+      closeStatement(stmt);
+    }
+  }
+
+  private void throwAsyncFlushError() throws SQLException {
+    final Throwable error = asyncFlushError;
+    if (error == null) {
+      return;
+    }
+    if (error instanceof SQLException) {
+      throw (SQLException) error;
+    } else if (error instanceof RuntimeException) {
+      throw (RuntimeException) error;
+    } else if (error instanceof Error) {
+      throw (Error) error;
+    }
+    throw new ExecutorException("Error flushing the batch in the background.  Cause: " + error, error);
+  }
+
+  private boolean isBatchLimitReached(BatchResult batchResult) {
+    final int maxRowsPerStatement = configuration.getBatchMaxRowsPerStatement();
+    final int maxPendingRows = configuration.getBatchMaxPendingRows();
+    final long maxPendingBytes = configuration.getBatchMaxPendingBytes();
+    return (maxRowsPerStatement > 0 && batchResult.getParameterObjects().size() >= maxRowsPerStatement)
+        || (maxPendingRows > 0 && pendingRows >= maxPendingRows)
+        || (maxPendingBytes > 0 && pendingBytes >= maxPendingBytes);
+  }
+
+  // 估算参数值占用的字节数，取值方式和DefaultParameterHandler一致
+  private long estimateSize(BoundSql boundSql, Object parameterObject) {
+    final ParameterValueExtractor valueExtractor = new ParameterValueExtractor(configuration, boundSql, parameterObject);
+    long size = 0;
+    for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
+      size += estimateSize(valueExtractor.getValue(parameterMapping));
+    }
+    return size;
+  }
+
+  private long estimateSize(Object value) {
+    if (value == null || value instanceof Number || value instanceof Boolean || value instanceof Character) {
+      return 8;
+    } else if (value instanceof CharSequence) {
+      return 2L * ((CharSequence) value).length();
+    } else if (value instanceof byte[]) {
+      return ((byte[]) value).length;
+    } else if (value instanceof char[]) {
+      return 2L * ((char[]) value).length;
+    } else {
+      return 16;
+    }
+  }
+
+  private int findStatementIndex(MappedStatement ms, String sql) {
+    if (sql.equals(currentSql) && ms.equals(currentStatement)) {
+      return statementList.size() - 1;
+    }
+    if (ms.getConfiguration().isBatchGroupingEnabled()) {
+      Integer index = statementIndexes.get(new CacheKey(new Object[] {ms, sql}));
+      if (index != null) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
   @Override
   public <E> List<E> doQuery(MappedStatement ms, Object parameterObject, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql)
       throws SQLException {
@@ -151,21 +379,53 @@ public class BatchExecutor extends BaseExecutor {
   @Override
   public List<BatchResult> doFlushStatements(boolean isRollback) throws SQLException {
     try {
-      List<BatchResult> results = new ArrayList<>();
-      // <1> 如果isRollback为true，返回空数组
+      // <1> 等待后台执行的批处理完成。线程池拒绝时future异常完成，错误已经记录在asyncFlushError中
+      asyncFlush.exceptionally(t -> null).join();
+      // <2> 如果isRollback为true，清除后台执行的异常，返回空数组
       if (isRollback) {
+        asyncFlushError = null;
         return Collections.emptyList();
       }
-      // <2> 遍历statementList和batchResultList数组，逐个提交批处理
-      for (int i = 0, n = statementList.size(); i < n; i++) {
-        // <2.1> 获得Statement和BatchResult对象
-        Statement stmt = statementList.get(i);
-        applyTransactionTimeout(stmt);
-        BatchResult batchResult = batchResultList.get(i);
-        try {
-          // <2.2> 批量执行
+      // <3> 后台执行的批处理失败，则抛出异常
+      throwAsyncFlushError();
+      // <4> 逐个提交批处理
+      return executeBatches(statementList, batchResultList, multiRowInsertList, autoFlushing);
+    } finally {
+      // <5.1> 关闭Statement
+      for (Statement stmt : statementList) {
+        closeStatement(stmt);
+      }
+      // <5.2> 置空currentSql、statementList、batchResultList属性
+      clearStatements();
+    }
+  }
+
+  private List<BatchResult> executeBatches(List<Statement> statements, List<BatchResult> batchResults,
+      List<MultiRowInsert> multiRowInserts, boolean autoFlush) throws SQLException {
+    List<BatchResult> results = new ArrayList<>();
+    // <1> 遍历statements和batchResults数组，逐个提交批处理
+    for (int i = 0, n = statements.size(); i < n; i++) {
+      // <1.1> 获得Statement和BatchResult对象
+      Statement stmt = statements.get(i);
+      BatchResult batchResult = batchResults.get(i);
+      MultiRowInsert multiRowInsert = multiRowInserts.get(i);
+      try {
+        StatementStatistics statistics = statisticsFor(batchResult.getMappedStatement());
+        long start = statistics != null ? System.nanoTime() : 0;
+        if (multiRowInsert != null) {
+          // <1.2> 合并为多行INSERT语句执行，并处理主键生成
+          batchResult.setUpdateCounts(executeMultiRowInsert(batchResult, multiRowInsert));
+          if (statistics != null) {
+            statistics.recordBatch(System.nanoTime() - start, batchResult.getUpdateCounts());
+          }
+        } else {
+          applyTransactionTimeout(stmt);
+          // <1.2> 批量执行
           batchResult.setUpdateCounts(stmt.executeBatch());
-          // <2.3> 处理主键生成
+          if (statistics != null) {
+            statistics.recordBatch(System.nanoTime() - start, batchResult.getUpdateCounts());
+          }
+          // <1.3> 处理主键生成
           MappedStatement ms = batchResult.getMappedStatement();
           List<Object> parameterObjects = batchResult.getParameterObjects();
           KeyGenerator keyGenerator = ms.getKeyGenerator();
@@ -178,37 +438,93 @@ public class BatchExecutor extends BaseExecutor {
             }
           }
           // Close statement to close cursor #1109
-          // <2.4> 关闭Statement对象
+          // <1.4> 关闭Statement对象
           closeStatement(stmt);
-        } catch (BatchUpdateException e) {
-          // 如果发生异常，则抛出BatchUpdateException异常
-          StringBuilder message = new StringBuilder();
-          message.append(batchResult.getMappedStatement().getId())
-              .append(" (batch index #")
-              .append(i + 1)
-              .append(")")
-              .append(" failed.");
-          if (i > 0) {
-            message.append(" ")
-                .append(i)
-                .append(" prior sub executor(s) completed successfully, but will be rolled back.");
-          }
-          throw new BatchExecutorException(message.toString(), e, results, batchResult);
         }
-        // <2.5> 添加到结果集
-        results.add(batchResult);
+      } catch (BatchUpdateException e) {
+        // 如果发生异常，则抛出BatchUpdateException异常
+        StringBuilder message = new StringBuilder();
+        message.append(batchResult.getMappedStatement().getId())
+            .append(" (batch index #")
+            .append(i + 1)
+            .append(")")
+            .append(" failed.");
+        if (i > 0) {
+          message.append(" ")
+              .append(i)
+              .append(" prior sub executor(s) completed successfully, but will be rolled back.");
+        }
+        throw new BatchExecutorException(message.toString(), e, results, batchResult);
       }
-      return results;
-    } finally {
-      // <3.1> 关闭Statement
-      for (Statement stmt : statementList) {
+      // <1.5> 添加到结果集
+      results.add(batchResult);
+    }
+    // <2> 回调BatchFlushListener
+    BatchFlushListener listener = configuration.getBatchFlushListener();
+    if (listener != null && !results.isEmpty()) {
+      listener.onFlush(results, autoFlush);
+    }
+    return results;
+  }
+
+  private int[] executeMultiRowInsert(BatchResult batchResult, MultiRowInsert multiRowInsert) throws SQLException {
+    final MappedStatement ms = batchResult.getMappedStatement();
+    final List<Object> parameterObjects = batchResult.getParameterObjects();
+    final List<BoundSql> boundSqls = multiRowInsert.getBoundSqls();
+    final int rows = parameterObjects.size();
+    final int rowsPerStatement = multiRowInsert.getRowsPerStatement(configuration.getRewriteBatchMaxParameters());
+    final int[] updateCounts = new int[rows];
+    final Connection connection = getConnection(ms.getStatementLog());
+    for (int from = 0; from < rows; from += rowsPerStatement) {
+      final int to = Math.min(rows, from + rowsPerStatement);
+      final List<Object> chunk = parameterObjects.subList(from, to);
+      // <1> 创建包含多行的BoundSql和StatementHandler对象
+      final List<ParameterMapping> parameterMappings = new ArrayList<>();
+      for (int row = from; row < to; row++) {
+        parameterMappings.addAll(boundSqls.get(row).getParameterMappings());
+      }
+      final BoundSql boundSql = new BoundSql(configuration, multiRowInsert.buildSql(to - from), parameterMappings, chunk.get(0));
+      final StatementHandler handler = configuration.newStatementHandler(this, ms, chunk.get(0), RowBounds.DEFAULT, null, boundSql);
+      Statement stmt = null;
+      try {
+        // <2> 创建PrepareStatement对象，并逐行设置参数
+        stmt = handler.prepare(connection, transaction.getTimeout());
+        final PreparedStatement ps = (PreparedStatement) stmt;
+        final MultiRowInsert.OffsetPreparedStatement rowPs = new MultiRowInsert.OffsetPreparedStatement(ps, multiRowInsert.getParametersPerRow());
+        for (int row = from; row < to; row++) {
+          final ParameterHandler parameterHandler = configuration.newParameterHandler(ms, parameterObjects.get(row), boundSqls.get(row));
+          rowPs.setRow(row - from);
+          parameterHandler.setParameters(rowPs);
+        }
+        // <3> 执行，更新数量和行数一致时，每一行记为1
+        ps.execute();
+        final int updateCount = ps.getUpdateCount();
+        Arrays.fill(updateCounts, from, to, updateCount == to - from ? 1 : Statement.SUCCESS_NO_INFO);
+        // <4> 处理主键生成，按顺序设置到每一行的参数对象
+        // （只有NoKeyGenerator和Jdbc3KeyGenerator的语句会被合并，见MultiRowInsert#parse）
+        final KeyGenerator keyGenerator = ms.getKeyGenerator();
+        if (Jdbc3KeyGenerator.class.equals(keyGenerator.getClass())) {
+          ((Jdbc3KeyGenerator) keyGenerator).processBatch(ms, stmt, chunk);
+        }
+      } catch (BatchUpdateException e) {
+        throw e;
+      } catch (SQLException e) {
+        throw new BatchUpdateException(e.getMessage(), e.getSQLState(), e.getErrorCode(), Arrays.copyOf(updateCounts, from), e);
+      } finally {
         closeStatement(stmt);
       }
-      // <3.2> 置空currentSql、statementList、batchResultList属性
-      currentSql = null;
-      statementList.clear();
-      batchResultList.clear();
     }
+    return updateCounts;
+  }
+
+  private void clearStatements() {
+    currentSql = null;
+    pendingRows = 0;
+    pendingBytes = 0;
+    statementIndexes.clear();
+    statementList.clear();
+    batchResultList.clear();
+    multiRowInsertList.clear();
   }
 
 }
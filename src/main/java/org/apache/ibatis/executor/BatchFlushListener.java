@@ -0,0 +1,37 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.util.List;
+
+/**
+ * 批处理刷入的监听器
+ *
+ * 每次 {@link BatchExecutor} 成功刷入批处理语句后回调，包括达到批处理上限时的自动刷入。
+ * 自动刷入的结果不会通过 {@link org.apache.ibatis.session.SqlSession#flushStatements()} 返回，需通过该监听器获取。
+ *
+ * @see org.apache.ibatis.session.Configuration#setBatchFlushListener(BatchFlushListener)
+ * @since 3.5.1
+ */
+public interface BatchFlushListener {
+
+  /**
+   * @param results 本次刷入的结果，包含每个语句的参数和更新数量
+   * @param autoFlush 是否为达到批处理上限时的自动刷入
+   */
+  void onFlush(List<BatchResult> results, boolean autoFlush);
+
+}
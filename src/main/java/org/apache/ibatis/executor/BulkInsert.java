@@ -0,0 +1,181 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * 可以交给 {@link BulkLoader} 装载的INSERT语句
+ *
+ * 只支持 <code>INSERT INTO t (a, b) VALUES (?, ?)</code> 形式，即每个值都是一个占位符，
+ * 每一行的值通过 ParameterHandler 设置到一个记录参数的 PreparedStatement 上获得。
+ *
+ * @since 3.5.1
+ */
+final class BulkInsert {
+
+  private static final Pattern INSERT_PATTERN = Pattern.compile(
+      "^\\s*insert\\s+into\\s+([\\w.\"]+)\\s*\\(([^()]*)\\)\\s*values\\s*\\(([\\s?,]*)\\)\\s*$",
+      Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+  private final MappedStatement ms;
+  private final String sql;
+  private final String table;
+  private final List<String> columns;
+
+  private BulkInsert(MappedStatement ms, String sql, String table, List<String> columns) {
+    this.ms = ms;
+    this.sql = sql;
+    this.table = table;
+    this.columns = columns;
+  }
+
+  /**
+   * @return 可以批量装载时返回BulkInsert对象，否则返回null
+   */
+  static BulkInsert parse(MappedStatement ms, BoundSql boundSql) {
+    if (ms.getSqlCommandType() != SqlCommandType.INSERT || ms.getStatementType() != StatementType.PREPARED
+        || !(ms.getKeyGenerator() instanceof NoKeyGenerator)) {
+      return null;
+    }
+    for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
+      if (parameterMapping.getMode() != ParameterMode.IN) {
+        return null;
+      }
+    }
+    Matcher matcher = INSERT_PATTERN.matcher(boundSql.getSql());
+    if (!matcher.matches()) {
+      return null;
+    }
+    List<String> columns = new ArrayList<>();
+    for (String column : matcher.group(2).split(",")) {
+      columns.add(column.trim());
+    }
+    String[] values = matcher.group(3).split(",", -1);
+    if (values.length != columns.size() || values.length != boundSql.getParameterMappings().size()) {
+      return null;
+    }
+    for (String value : values) {
+      if (!"?".equals(value.trim())) {
+        return null;
+      }
+    }
+    return new BulkInsert(ms, boundSql.getSql(), matcher.group(1), Collections.unmodifiableList(columns));
+  }
+
+  String getTable() {
+    return table;
+  }
+
+  List<String> getColumns() {
+    return columns;
+  }
+
+  /**
+   * @return 按需转换每一行参数的迭代器
+   */
+  Iterator<Object[]> rows(Object first, Iterator<?> rest, Connection connection) {
+    final CapturingPreparedStatement capture = new CapturingPreparedStatement(connection);
+    return new Iterator<Object[]>() {
+      private boolean firstPending = true;
+
+      @Override
+      public boolean hasNext() {
+        return firstPending || rest.hasNext();
+      }
+
+      @Override
+      public Object[] next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        Object parameter = firstPending ? first : rest.next();
+        firstPending = false;
+        return toRow(parameter, capture);
+      }
+    };
+  }
+
+  private Object[] toRow(Object parameter, CapturingPreparedStatement capture) {
+    BoundSql boundSql = ms.getBoundSql(parameter);
+    if (!sql.equals(boundSql.getSql())) {
+      throw new ExecutorException("Bulk insert '" + ms.getId() + "' requires the same SQL for every row, but got '"
+          + boundSql.getSql() + "' instead of '" + sql + "'.");
+    }
+    Configuration configuration = ms.getConfiguration();
+    Object[] row = new Object[columns.size()];
+    capture.setRow(row);
+    try {
+      configuration.newParameterHandler(ms, parameter, boundSql).setParameters(capture);
+    } catch (SQLException e) {
+      throw new ExecutorException("Error binding bulk insert row for '" + ms.getId() + "'. Cause: " + e, e);
+    }
+    return row;
+  }
+
+  /**
+   * 将设置的参数值记录到当前行中的PreparedStatement，每次装载只创建一个，逐行更换记录的数组
+   */
+  private static final class CapturingPreparedStatement extends RowPreparedStatement {
+
+    private final Connection connection;
+    private Object[] row;
+
+    CapturingPreparedStatement(Connection connection) {
+      super(null);
+      this.connection = connection;
+    }
+
+    void setRow(Object[] row) {
+      this.row = row;
+    }
+
+    @Override
+    protected int parameterSet(int parameterIndex, Object value) {
+      row[parameterIndex - 1] = value;
+      return parameterIndex;
+    }
+
+    @Override
+    public Connection getConnection() {
+      return connection;
+    }
+
+    @Override
+    public String toString() {
+      return "BulkInsertRow";
+    }
+
+  }
+
+}
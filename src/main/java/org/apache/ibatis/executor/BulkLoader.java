@@ -0,0 +1,54 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 批量装载器接口
+ *
+ * 用于 {@link Executor#bulkInsert(org.apache.ibatis.mapping.MappedStatement, Iterable)}，
+ * 通过数据库原生的批量装载协议（例如 PostgreSQL 的 COPY）写入数据，绕过逐行的 INSERT 语句。
+ * 当没有装载器支持当前连接时，回退为 JDBC 批处理。
+ *
+ * @see org.apache.ibatis.session.Configuration#addBulkLoader(BulkLoader)
+ * @since 3.5.1
+ */
+public interface BulkLoader {
+
+  /**
+   * 是否支持该连接
+   *
+   * @param connection 当前事务的连接
+   * @return 是否支持
+   */
+  boolean supports(Connection connection) throws SQLException;
+
+  /**
+   * 装载数据
+   *
+   * @param connection 当前事务的连接
+   * @param table 表名
+   * @param columns 字段名，与每行的值一一对应
+   * @param rows 每行的值，已经过 TypeHandler 转换为 JDBC 值，null 表示 SQL NULL
+   * @return 写入的行数
+   */
+  long load(Connection connection, String table, List<String> columns, Iterator<Object[]> rows) throws SQLException;
+
+}
@@ -28,6 +28,7 @@ import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ParameterMode;
 import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Deadline;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.transaction.Transaction;
@@ -135,6 +136,13 @@ public class CachingExecutor implements Executor {
     return delegate.query(ms, parameterObject, rowBounds, resultHandler, key, boundSql);
   }
 
+  @Override
+  public long bulkInsert(MappedStatement ms, Iterable<?> parameters) throws SQLException {
+    // 如果需要清空缓存，则进行清空
+    flushCacheIfRequired(ms);
+    return delegate.bulkInsert(ms, parameters);
+  }
+
   @Override
   public List<BatchResult> flushStatements() throws SQLException {
     return delegate.flushStatements();
@@ -191,6 +199,16 @@ public class CachingExecutor implements Executor {
     delegate.clearLocalCache();
   }
 
+  @Override
+  public void putLocalCache(MappedStatement ms, CacheKey key, List<?> list) {
+    delegate.putLocalCache(ms, key, list);
+  }
+
+  @Override
+  public boolean isDirty() {
+    return delegate.isDirty();
+  }
+
   private void flushCacheIfRequired(MappedStatement ms) {
     Cache cache = ms.getCache();
     if (cache != null && ms.isFlushCacheRequired()) { // 是否需要清空缓存
@@ -198,6 +216,16 @@ public class CachingExecutor implements Executor {
     }
   }
 
+  @Override
+  public void setDeadline(Deadline deadline) {
+    delegate.setDeadline(deadline);
+  }
+
+  @Override
+  public Deadline getDeadline() {
+    return delegate.getDeadline();
+  }
+
   @Override
   public void setExecutorWrapper(Executor executor) {
     throw new UnsupportedOperationException("This method should not be called");
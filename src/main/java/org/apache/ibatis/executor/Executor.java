@@ -23,6 +23,7 @@ import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Deadline;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.transaction.Transaction;
@@ -51,6 +52,17 @@ public interface Executor {
   // 刷入批处理语句
   List<BatchResult> flushStatements() throws SQLException;
 
+  // 批量插入，优先使用 BulkLoader 装载，否则回退为批处理，返回写入的行数
+  // 默认实现逐行调用 update 方法
+  default long bulkInsert(MappedStatement ms, Iterable<?> parameters) throws SQLException {
+    long rows = 0;
+    for (Object parameter : parameters) {
+      update(ms, parameter);
+      rows++;
+    }
+    return rows;
+  }
+
   // 提交事务
   void commit(boolean required) throws SQLException;
 
@@ -66,6 +78,17 @@ public interface Executor {
   // 清除本地缓存
   void clearLocalCache();
 
+  // 将其它线程查询得到的结果放入本地缓存
+  // 默认实现不缓存
+  default void putLocalCache(MappedStatement ms, CacheKey key, List<?> list) {
+  }
+
+  // 当前事务中是否有尚未提交或回滚的写操作
+  // 默认实现无法判断，视为存在
+  default boolean isDirty() {
+    return true;
+  }
+
   // 延迟加载
   void deferLoad(MappedStatement ms, MetaObject resultObject, String property, CacheKey key, Class<?> targetType);
 
@@ -81,4 +104,17 @@ public interface Executor {
   // 设置包装的Executor对象
   void setExecutorWrapper(Executor executor);
 
+  // 设置调用方的截止时间，为null时清除
+  // 默认实现不支持截止时间
+  default void setDeadline(Deadline deadline) {
+    if (deadline != null) {
+      throw new UnsupportedOperationException(getClass().getName() + " does not support deadlines.");
+    }
+  }
+
+  // 获得调用方的截止时间
+  default Deadline getDeadline() {
+    return null;
+  }
+
 }
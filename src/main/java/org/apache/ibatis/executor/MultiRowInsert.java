@@ -0,0 +1,212 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.StatementType;
+
+/**
+ * 合并为多行INSERT语句的批处理
+ *
+ * 将 <code>INSERT INTO t (a, b) VALUES (?, ?)</code> 拆分为 VALUES 之前的部分、第一个值元组和之后的部分，
+ * 执行时按行数重复值元组，生成 <code>INSERT INTO t (a, b) VALUES (?, ?), (?, ?), ...</code>。
+ * 值元组之后的部分（例如 <code>ON DUPLICATE KEY UPDATE name = VALUES(name)</code>）原样保留，但不能包含参数。
+ *
+ * @see MappedStatement#isRewriteBatch()
+ * @since 3.5.1
+ */
+final class MultiRowInsert {
+
+  private static final Pattern VALUES_PATTERN = Pattern.compile("^(\\s*insert\\s.*?\\bvalues\\s*)\\(",
+      Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+  /**
+   * VALUES 及之前的部分
+   */
+  private final String prefix;
+  /**
+   * 一行的值元组
+   */
+  private final String values;
+  /**
+   * 值元组之后的部分
+   */
+  private final String suffix;
+  /**
+   * 每一行的参数数量
+   */
+  private final int parametersPerRow;
+  /**
+   * 每一行的BoundSql对象
+   */
+  private final List<BoundSql> boundSqls = new ArrayList<>();
+
+  private MultiRowInsert(String prefix, String values, String suffix, int parametersPerRow) {
+    this.prefix = prefix;
+    this.values = values;
+    this.suffix = suffix;
+    this.parametersPerRow = parametersPerRow;
+  }
+
+  /**
+   * @return 可以合并时返回MultiRowInsert对象，否则返回null
+   */
+  static MultiRowInsert parse(MappedStatement ms, BoundSql boundSql) {
+    if (!ms.isRewriteBatch() || ms.getSqlCommandType() != SqlCommandType.INSERT
+        || ms.getStatementType() != StatementType.PREPARED) {
+      return null;
+    }
+    // 合并后只有一条语句，SelectKeyGenerator等逐行查询的主键无法对应到每一行
+    final Class<?> keyGeneratorType = ms.getKeyGenerator().getClass();
+    if (!NoKeyGenerator.class.equals(keyGeneratorType) && !Jdbc3KeyGenerator.class.equals(keyGeneratorType)) {
+      return null;
+    }
+    for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
+      if (parameterMapping.getMode() != ParameterMode.IN) {
+        return null;
+      }
+    }
+    final String sql = boundSql.getSql();
+    // 第一个 VALUES 之后的值元组
+    Matcher matcher = VALUES_PATTERN.matcher(sql);
+    if (!matcher.lookingAt()) {
+      return null;
+    }
+    final int start = matcher.end(1);
+    final int end = findGroupEnd(sql, start);
+    if (end < 0) {
+      return null;
+    }
+    // 参数必须都在值元组中，否则无法按行重复
+    final int parameters = boundSql.getParameterMappings().size();
+    final String suffix = sql.substring(end);
+    if (countParameters(sql, start, end) != parameters || countParameters(suffix, 0, suffix.length()) != 0
+        || suffix.trim().startsWith(",")) {
+      return null;
+    }
+    return new MultiRowInsert(matcher.group(1), sql.substring(start, end), suffix, parameters);
+  }
+
+  // 获得从start开始的括号分组的结束位置（不含），没有完整的分组时返回-1
+  private static int findGroupEnd(String sql, int start) {
+    int depth = 0;
+    boolean quoted = false;
+    for (int i = start; i < sql.length(); i++) {
+      char c = sql.charAt(i);
+      if (c == '\'') {
+        quoted = !quoted;
+      } else if (!quoted && c == '(') {
+        depth++;
+      } else if (!quoted && c == ')') {
+        depth--;
+        if (depth == 0) {
+          return i + 1;
+        }
+      }
+    }
+    return -1;
+  }
+
+  // 统计不在引号中的参数占位符数量
+  private static int countParameters(String sql, int start, int end) {
+    int count = 0;
+    boolean quoted = false;
+    for (int i = start; i < end; i++) {
+      char c = sql.charAt(i);
+      if (c == '\'') {
+        quoted = !quoted;
+      } else if (!quoted && c == '?') {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  void addRow(BoundSql boundSql) {
+    boundSqls.add(boundSql);
+  }
+
+  List<BoundSql> getBoundSqls() {
+    return boundSqls;
+  }
+
+  int getParametersPerRow() {
+    return parametersPerRow;
+  }
+
+  /**
+   * @return 参数数量不超过maxParameters时，一条语句最多包含的行数，至少为1
+   */
+  int getRowsPerStatement(int maxParameters) {
+    return parametersPerRow == 0 ? boundSqls.size() : Math.max(1, maxParameters / parametersPerRow);
+  }
+
+  /**
+   * @return 包含rows行的INSERT语句
+   */
+  String buildSql(int rows) {
+    StringBuilder sql = new StringBuilder(prefix.length() + (values.length() + 2) * rows + suffix.length());
+    sql.append(prefix);
+    for (int i = 0; i < rows; i++) {
+      if (i > 0) {
+        sql.append(", ");
+      }
+      sql.append(values);
+    }
+    sql.append(suffix);
+    return sql.toString();
+  }
+
+  /**
+   * 将参数位置偏移指定行数的PreparedStatement，用于设置后续行的参数
+   */
+  static final class OffsetPreparedStatement extends RowPreparedStatement {
+
+    private final int parametersPerRow;
+    private int offset;
+
+    OffsetPreparedStatement(PreparedStatement preparedStatement, int parametersPerRow) {
+      super(preparedStatement);
+      this.parametersPerRow = parametersPerRow;
+    }
+
+    /**
+     * @param row 行在语句中的下标，从 0 开始
+     */
+    void setRow(int row) {
+      this.offset = row * parametersPerRow;
+    }
+
+    @Override
+    protected int parameterSet(int parameterIndex, Object value) {
+      return parameterIndex + offset;
+    }
+
+  }
+
+}
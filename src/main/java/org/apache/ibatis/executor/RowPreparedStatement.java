@@ -0,0 +1,777 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLType;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+
+/**
+ * 接收一行参数的 {@link PreparedStatement}，由 JDBC 4.2 接口生成。
+ * 每个 setXxx 方法都会先回调 {@link #parameterSet(int, Object)} 得到实际的参数位置，
+ * 再委托给被包装对象；被包装对象为 null 时只回调、不转发，其余方法不受支持。
+ *
+ * @since 3.5.1
+ */
+abstract class RowPreparedStatement implements PreparedStatement {
+
+  protected final PreparedStatement preparedStatement;
+
+  RowPreparedStatement(PreparedStatement preparedStatement) {
+    this.preparedStatement = preparedStatement;
+  }
+
+  @Override
+  public void addBatch(String sql) throws SQLException {
+    delegate().addBatch(sql);
+  }
+
+  @Override
+  public void addBatch() throws SQLException {
+    delegate().addBatch();
+  }
+
+  @Override
+  public void cancel() throws SQLException {
+    delegate().cancel();
+  }
+
+  @Override
+  public void clearBatch() throws SQLException {
+    delegate().clearBatch();
+  }
+
+  @Override
+  public void clearParameters() throws SQLException {
+    delegate().clearParameters();
+  }
+
+  @Override
+  public void clearWarnings() throws SQLException {
+    delegate().clearWarnings();
+  }
+
+  @Override
+  public void close() throws SQLException {
+    delegate().close();
+  }
+
+  @Override
+  public void closeOnCompletion() throws SQLException {
+    delegate().closeOnCompletion();
+  }
+
+  @Override
+  public boolean execute(String sql) throws SQLException {
+    return delegate().execute(sql);
+  }
+
+  @Override
+  public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+    return delegate().execute(sql, columnIndexes);
+  }
+
+  @Override
+  public boolean execute(String sql, String[] columnNames) throws SQLException {
+    return delegate().execute(sql, columnNames);
+  }
+
+  @Override
+  public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+    return delegate().execute(sql, autoGeneratedKeys);
+  }
+
+  @Override
+  public boolean execute() throws SQLException {
+    return delegate().execute();
+  }
+
+  @Override
+  public int[] executeBatch() throws SQLException {
+    return delegate().executeBatch();
+  }
+
+  @Override
+  public long[] executeLargeBatch() throws SQLException {
+    return delegate().executeLargeBatch();
+  }
+
+  @Override
+  public long executeLargeUpdate(String sql) throws SQLException {
+    return delegate().executeLargeUpdate(sql);
+  }
+
+  @Override
+  public long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException {
+    return delegate().executeLargeUpdate(sql, columnIndexes);
+  }
+
+  @Override
+  public long executeLargeUpdate(String sql, String[] columnNames) throws SQLException {
+    return delegate().executeLargeUpdate(sql, columnNames);
+  }
+
+  @Override
+  public long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+    return delegate().executeLargeUpdate(sql, autoGeneratedKeys);
+  }
+
+  @Override
+  public long executeLargeUpdate() throws SQLException {
+    return delegate().executeLargeUpdate();
+  }
+
+  @Override
+  public ResultSet executeQuery(String sql) throws SQLException {
+    return delegate().executeQuery(sql);
+  }
+
+  @Override
+  public ResultSet executeQuery() throws SQLException {
+    return delegate().executeQuery();
+  }
+
+  @Override
+  public int executeUpdate(String sql) throws SQLException {
+    return delegate().executeUpdate(sql);
+  }
+
+  @Override
+  public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+    return delegate().executeUpdate(sql, columnIndexes);
+  }
+
+  @Override
+  public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+    return delegate().executeUpdate(sql, columnNames);
+  }
+
+  @Override
+  public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+    return delegate().executeUpdate(sql, autoGeneratedKeys);
+  }
+
+  @Override
+  public int executeUpdate() throws SQLException {
+    return delegate().executeUpdate();
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return delegate().getConnection();
+  }
+
+  @Override
+  public int getFetchDirection() throws SQLException {
+    return delegate().getFetchDirection();
+  }
+
+  @Override
+  public int getFetchSize() throws SQLException {
+    return delegate().getFetchSize();
+  }
+
+  @Override
+  public ResultSet getGeneratedKeys() throws SQLException {
+    return delegate().getGeneratedKeys();
+  }
+
+  @Override
+  public long getLargeMaxRows() throws SQLException {
+    return delegate().getLargeMaxRows();
+  }
+
+  @Override
+  public long getLargeUpdateCount() throws SQLException {
+    return delegate().getLargeUpdateCount();
+  }
+
+  @Override
+  public int getMaxFieldSize() throws SQLException {
+    return delegate().getMaxFieldSize();
+  }
+
+  @Override
+  public int getMaxRows() throws SQLException {
+    return delegate().getMaxRows();
+  }
+
+  @Override
+  public ResultSetMetaData getMetaData() throws SQLException {
+    return delegate().getMetaData();
+  }
+
+  @Override
+  public boolean getMoreResults() throws SQLException {
+    return delegate().getMoreResults();
+  }
+
+  @Override
+  public boolean getMoreResults(int current) throws SQLException {
+    return delegate().getMoreResults(current);
+  }
+
+  @Override
+  public ParameterMetaData getParameterMetaData() throws SQLException {
+    return delegate().getParameterMetaData();
+  }
+
+  @Override
+  public int getQueryTimeout() throws SQLException {
+    return delegate().getQueryTimeout();
+  }
+
+  @Override
+  public ResultSet getResultSet() throws SQLException {
+    return delegate().getResultSet();
+  }
+
+  @Override
+  public int getResultSetConcurrency() throws SQLException {
+    return delegate().getResultSetConcurrency();
+  }
+
+  @Override
+  public int getResultSetHoldability() throws SQLException {
+    return delegate().getResultSetHoldability();
+  }
+
+  @Override
+  public int getResultSetType() throws SQLException {
+    return delegate().getResultSetType();
+  }
+
+  @Override
+  public int getUpdateCount() throws SQLException {
+    return delegate().getUpdateCount();
+  }
+
+  @Override
+  public SQLWarning getWarnings() throws SQLException {
+    return delegate().getWarnings();
+  }
+
+  @Override
+  public boolean isCloseOnCompletion() throws SQLException {
+    return delegate().isCloseOnCompletion();
+  }
+
+  @Override
+  public boolean isClosed() throws SQLException {
+    return delegate().isClosed();
+  }
+
+  @Override
+  public boolean isPoolable() throws SQLException {
+    return delegate().isPoolable();
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) throws SQLException {
+    return delegate().isWrapperFor(iface);
+  }
+
+  @Override
+  public void setArray(int parameterIndex, Array x) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setArray(index, x);
+    }
+  }
+
+  @Override
+  public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setAsciiStream(index, x);
+    }
+  }
+
+  @Override
+  public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setAsciiStream(index, x, length);
+    }
+  }
+
+  @Override
+  public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setAsciiStream(index, x, length);
+    }
+  }
+
+  @Override
+  public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setBigDecimal(index, x);
+    }
+  }
+
+  @Override
+  public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setBinaryStream(index, x);
+    }
+  }
+
+  @Override
+  public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setBinaryStream(index, x, length);
+    }
+  }
+
+  @Override
+  public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setBinaryStream(index, x, length);
+    }
+  }
+
+  @Override
+  public void setBlob(int parameterIndex, InputStream inputStream) throws SQLException {
+    int index = parameterSet(parameterIndex, inputStream);
+    if (preparedStatement != null) {
+      preparedStatement.setBlob(index, inputStream);
+    }
+  }
+
+  @Override
+  public void setBlob(int parameterIndex, Blob x) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setBlob(index, x);
+    }
+  }
+
+  @Override
+  public void setBlob(int parameterIndex, InputStream inputStream, long length) throws SQLException {
+    int index = parameterSet(parameterIndex, inputStream);
+    if (preparedStatement != null) {
+      preparedStatement.setBlob(index, inputStream, length);
+    }
+  }
+
+  @Override
+  public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setBoolean(index, x);
+    }
+  }
+
+  @Override
+  public void setByte(int parameterIndex, byte x) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setByte(index, x);
+    }
+  }
+
+  @Override
+  public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setBytes(index, x);
+    }
+  }
+
+  @Override
+  public void setCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+    int index = parameterSet(parameterIndex, reader);
+    if (preparedStatement != null) {
+      preparedStatement.setCharacterStream(index, reader);
+    }
+  }
+
+  @Override
+  public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
+    int index = parameterSet(parameterIndex, reader);
+    if (preparedStatement != null) {
+      preparedStatement.setCharacterStream(index, reader, length);
+    }
+  }
+
+  @Override
+  public void setCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+    int index = parameterSet(parameterIndex, reader);
+    if (preparedStatement != null) {
+      preparedStatement.setCharacterStream(index, reader, length);
+    }
+  }
+
+  @Override
+  public void setClob(int parameterIndex, Reader reader) throws SQLException {
+    int index = parameterSet(parameterIndex, reader);
+    if (preparedStatement != null) {
+      preparedStatement.setClob(index, reader);
+    }
+  }
+
+  @Override
+  public void setClob(int parameterIndex, Clob x) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setClob(index, x);
+    }
+  }
+
+  @Override
+  public void setClob(int parameterIndex, Reader reader, long length) throws SQLException {
+    int index = parameterSet(parameterIndex, reader);
+    if (preparedStatement != null) {
+      preparedStatement.setClob(index, reader, length);
+    }
+  }
+
+  @Override
+  public void setCursorName(String name) throws SQLException {
+    delegate().setCursorName(name);
+  }
+
+  @Override
+  public void setDate(int parameterIndex, Date x) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setDate(index, x);
+    }
+  }
+
+  @Override
+  public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setDate(index, x, cal);
+    }
+  }
+
+  @Override
+  public void setDouble(int parameterIndex, double x) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setDouble(index, x);
+    }
+  }
+
+  @Override
+  public void setEscapeProcessing(boolean escapeProcessing) throws SQLException {
+    delegate().setEscapeProcessing(escapeProcessing);
+  }
+
+  @Override
+  public void setFetchDirection(int fetchDirection) throws SQLException {
+    delegate().setFetchDirection(fetchDirection);
+  }
+
+  @Override
+  public void setFetchSize(int fetchSize) throws SQLException {
+    delegate().setFetchSize(fetchSize);
+  }
+
+  @Override
+  public void setFloat(int parameterIndex, float x) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setFloat(index, x);
+    }
+  }
+
+  @Override
+  public void setInt(int parameterIndex, int x) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setInt(index, x);
+    }
+  }
+
+  @Override
+  public void setLargeMaxRows(long largeMaxRows) throws SQLException {
+    delegate().setLargeMaxRows(largeMaxRows);
+  }
+
+  @Override
+  public void setLong(int parameterIndex, long x) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setLong(index, x);
+    }
+  }
+
+  @Override
+  public void setMaxFieldSize(int maxFieldSize) throws SQLException {
+    delegate().setMaxFieldSize(maxFieldSize);
+  }
+
+  @Override
+  public void setMaxRows(int maxRows) throws SQLException {
+    delegate().setMaxRows(maxRows);
+  }
+
+  @Override
+  public void setNCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+    int index = parameterSet(parameterIndex, reader);
+    if (preparedStatement != null) {
+      preparedStatement.setNCharacterStream(index, reader);
+    }
+  }
+
+  @Override
+  public void setNCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+    int index = parameterSet(parameterIndex, reader);
+    if (preparedStatement != null) {
+      preparedStatement.setNCharacterStream(index, reader, length);
+    }
+  }
+
+  @Override
+  public void setNClob(int parameterIndex, Reader reader) throws SQLException {
+    int index = parameterSet(parameterIndex, reader);
+    if (preparedStatement != null) {
+      preparedStatement.setNClob(index, reader);
+    }
+  }
+
+  @Override
+  public void setNClob(int parameterIndex, NClob x) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setNClob(index, x);
+    }
+  }
+
+  @Override
+  public void setNClob(int parameterIndex, Reader reader, long length) throws SQLException {
+    int index = parameterSet(parameterIndex, reader);
+    if (preparedStatement != null) {
+      preparedStatement.setNClob(index, reader, length);
+    }
+  }
+
+  @Override
+  public void setNString(int parameterIndex, String x) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setNString(index, x);
+    }
+  }
+
+  @Override
+  public void setNull(int parameterIndex, int sqlType) throws SQLException {
+    int index = parameterSet(parameterIndex, null);
+    if (preparedStatement != null) {
+      preparedStatement.setNull(index, sqlType);
+    }
+  }
+
+  @Override
+  public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
+    int index = parameterSet(parameterIndex, null);
+    if (preparedStatement != null) {
+      preparedStatement.setNull(index, sqlType, typeName);
+    }
+  }
+
+  @Override
+  public void setObject(int parameterIndex, Object x) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setObject(index, x);
+    }
+  }
+
+  @Override
+  public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setObject(index, x, targetSqlType);
+    }
+  }
+
+  @Override
+  public void setObject(int parameterIndex, Object x, SQLType targetSqlType) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setObject(index, x, targetSqlType);
+    }
+  }
+
+  @Override
+  public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setObject(index, x, targetSqlType, scaleOrLength);
+    }
+  }
+
+  @Override
+  public void setObject(int parameterIndex, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setObject(index, x, targetSqlType, scaleOrLength);
+    }
+  }
+
+  @Override
+  public void setPoolable(boolean poolable) throws SQLException {
+    delegate().setPoolable(poolable);
+  }
+
+  @Override
+  public void setQueryTimeout(int queryTimeout) throws SQLException {
+    delegate().setQueryTimeout(queryTimeout);
+  }
+
+  @Override
+  public void setRef(int parameterIndex, Ref x) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setRef(index, x);
+    }
+  }
+
+  @Override
+  public void setRowId(int parameterIndex, RowId x) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setRowId(index, x);
+    }
+  }
+
+  @Override
+  public void setSQLXML(int parameterIndex, SQLXML x) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setSQLXML(index, x);
+    }
+  }
+
+  @Override
+  public void setShort(int parameterIndex, short x) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setShort(index, x);
+    }
+  }
+
+  @Override
+  public void setString(int parameterIndex, String x) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setString(index, x);
+    }
+  }
+
+  @Override
+  public void setTime(int parameterIndex, Time x) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setTime(index, x);
+    }
+  }
+
+  @Override
+  public void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setTime(index, x, cal);
+    }
+  }
+
+  @Override
+  public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setTimestamp(index, x);
+    }
+  }
+
+  @Override
+  public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setTimestamp(index, x, cal);
+    }
+  }
+
+  @Override
+  public void setURL(int parameterIndex, URL x) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setURL(index, x);
+    }
+  }
+
+  @Override
+  @Deprecated
+  public void setUnicodeStream(int parameterIndex, InputStream x, int length) throws SQLException {
+    int index = parameterSet(parameterIndex, x);
+    if (preparedStatement != null) {
+      preparedStatement.setUnicodeStream(index, x, length);
+    }
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    return delegate().unwrap(iface);
+  }
+
+  /**
+   * 参数设置的回调，子类可覆盖以记录参数或调整参数位置。
+   *
+   * @param parameterIndex 参数位置，从 1 开始
+   * @param value 参数值，setNull 时为 null
+   * @return 被包装对象上的参数位置
+   */
+  protected int parameterSet(int parameterIndex, Object value) {
+    return parameterIndex;
+  }
+
+  private PreparedStatement delegate() throws SQLException {
+    if (preparedStatement == null) {
+      throw new SQLFeatureNotSupportedException("Only parameter setters are supported by " + getClass().getSimpleName());
+    }
+    return preparedStatement;
+  }
+
+}
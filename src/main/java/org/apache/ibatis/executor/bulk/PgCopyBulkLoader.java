@@ -0,0 +1,223 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.bulk;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.ibatis.executor.BulkLoader;
+import org.apache.ibatis.io.Resources;
+
+/**
+ * 基于 PostgreSQL COPY FROM STDIN 的 BulkLoader 实现
+ *
+ * 每一行编码为 CSV 格式，边读取边发送，不会在内存中缓存全部数据。
+ * 只有在 classpath 中存在 PostgreSQL 驱动时生效，需要通过
+ * {@link org.apache.ibatis.session.Configuration#addBulkLoader(BulkLoader)} 注册。
+ *
+ * @since 3.5.1
+ */
+public class PgCopyBulkLoader implements BulkLoader {
+
+  private static final CopyApi COPY_API = CopyApi.load();
+
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  @Override
+  public boolean supports(Connection connection) throws SQLException {
+    return COPY_API != null && connection.isWrapperFor(COPY_API.connectionType);
+  }
+
+  @Override
+  public long load(Connection connection, String table, List<String> columns, Iterator<Object[]> rows) throws SQLException {
+    String sql = "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)";
+    try {
+      return COPY_API.copyIn(connection, sql, new CsvReader(rows));
+    } catch (IOException e) {
+      throw new SQLException("Error copying rows into " + table + ". Cause: " + e, e);
+    }
+  }
+
+  /**
+   * 将一行编码为 CSV 格式，追加到 buffer 中
+   */
+  static void appendRow(StringBuilder buffer, Object[] row) throws IOException {
+    for (int i = 0; i < row.length; i++) {
+      if (i > 0) {
+        buffer.append(',');
+      }
+      appendValue(buffer, row[i]);
+    }
+    buffer.append('\n');
+  }
+
+  private static void appendValue(StringBuilder buffer, Object value) throws IOException {
+    // CSV 格式中，未加引号的空值表示 NULL ，加引号的空字符串表示空字符串
+    if (value == null) {
+      return;
+    }
+    if (value instanceof BigDecimal) {
+      buffer.append(((BigDecimal) value).toPlainString());
+    } else if (value instanceof Number || value instanceof Boolean) {
+      buffer.append(value);
+    } else if (value instanceof byte[]) {
+      appendBytes(buffer, (byte[]) value);
+    } else if (value instanceof InputStream) {
+      appendBytes(buffer, readFully((InputStream) value));
+    } else if (value instanceof Reader) {
+      appendQuoted(buffer, readFully((Reader) value));
+    } else {
+      appendQuoted(buffer, value.toString());
+    }
+  }
+
+  // bytea 的十六进制格式，例如 \x01ff
+  private static void appendBytes(StringBuilder buffer, byte[] bytes) {
+    buffer.append("\\x");
+    for (byte b : bytes) {
+      buffer.append(HEX_DIGITS[(b >> 4) & 0xf]).append(HEX_DIGITS[b & 0xf]);
+    }
+  }
+
+  private static void appendQuoted(StringBuilder buffer, String value) {
+    buffer.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"') {
+        buffer.append('"');
+      }
+      buffer.append(c);
+    }
+    buffer.append('"');
+  }
+
+  private static byte[] readFully(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    int n;
+    while ((n = in.read(buffer)) != -1) {
+      out.write(buffer, 0, n);
+    }
+    return out.toByteArray();
+  }
+
+  private static String readFully(Reader in) throws IOException {
+    StringBuilder out = new StringBuilder();
+    char[] buffer = new char[8192];
+    int n;
+    while ((n = in.read(buffer)) != -1) {
+      out.append(buffer, 0, n);
+    }
+    return out.toString();
+  }
+
+  /**
+   * 按行编码的 Reader
+   */
+  private static class CsvReader extends Reader {
+
+    private final Iterator<Object[]> rows;
+    private final StringBuilder buffer = new StringBuilder();
+    private int position;
+
+    CsvReader(Iterator<Object[]> rows) {
+      this.rows = rows;
+    }
+
+    @Override
+    public int read(char[] chars, int offset, int length) throws IOException {
+      if (length == 0) {
+        return 0;
+      }
+      if (position == buffer.length()) {
+        if (!rows.hasNext()) {
+          return -1;
+        }
+        buffer.setLength(0);
+        position = 0;
+        appendRow(buffer, rows.next());
+      }
+      int n = Math.min(length, buffer.length() - position);
+      buffer.getChars(position, position + n, chars, offset);
+      position += n;
+      return n;
+    }
+
+    @Override
+    public void close() {
+      // nothing to close
+    }
+
+  }
+
+  /**
+   * 通过反射调用 PostgreSQL 驱动的 CopyManager ，驱动不是 MyBatis 的依赖
+   */
+  private static final class CopyApi {
+
+    private final Class<?> connectionType;
+    private final Method getCopyApi;
+    private final Method copyIn;
+
+    private CopyApi(Class<?> connectionType, Method getCopyApi, Method copyIn) {
+      this.connectionType = connectionType;
+      this.getCopyApi = getCopyApi;
+      this.copyIn = copyIn;
+    }
+
+    /**
+     * @return 驱动不存在时返回 null
+     */
+    static CopyApi load() {
+      try {
+        Class<?> connectionType = Resources.classForName("org.postgresql.PGConnection");
+        Class<?> copyManagerType = Resources.classForName("org.postgresql.copy.CopyManager");
+        return new CopyApi(connectionType, connectionType.getMethod("getCopyAPI"),
+            copyManagerType.getMethod("copyIn", String.class, Reader.class));
+      } catch (ClassNotFoundException | NoSuchMethodException e) {
+        return null;
+      }
+    }
+
+    long copyIn(Connection connection, String sql, Reader reader) throws SQLException, IOException {
+      try {
+        Object copyManager = getCopyApi.invoke(connection.unwrap(connectionType));
+        return (Long) copyIn.invoke(copyManager, sql, reader);
+      } catch (InvocationTargetException e) {
+        Throwable cause = e.getTargetException();
+        if (cause instanceof SQLException) {
+          throw (SQLException) cause;
+        } else if (cause instanceof IOException) {
+          throw (IOException) cause;
+        }
+        throw new SQLException("Error calling the PostgreSQL copy API. Cause: " + cause, cause);
+      } catch (IllegalAccessException e) {
+        throw new SQLException("Error calling the PostgreSQL copy API. Cause: " + e, e);
+      }
+    }
+
+  }
+
+}
@@ -68,11 +68,23 @@ public class ResultLoader {
 
   public Object loadResult() throws SQLException {
     List<Object> list = selectList();
+    return extractResult(list);
+  }
+
+  /**
+   * 将 {@link #selectList()} 的结果转换为目标类型
+   * @since 3.5.1
+   */
+  public Object extractResult(List<Object> list) {
     resultObject = resultExtractor.extractObjectFromList(list, targetType);
     return resultObject;
   }
 
-  private <E> List<E> selectList() throws SQLException {
+  /**
+   * 执行查询，不转换为目标类型。在非创建线程中执行时，使用新的 Executor 和数据库连接
+   * @since 3.5.1
+   */
+  public <E> List<E> selectList() throws SQLException {
     Executor localExecutor = executor;
     if (Thread.currentThread().getId() != this.creatorThreadId || localExecutor.isClosed()) {
       localExecutor = newExecutor();
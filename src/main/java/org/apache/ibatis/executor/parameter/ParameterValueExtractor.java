@@ -0,0 +1,62 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.parameter;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * 获得 ParameterMapping 对应的参数值。
+ *
+ * 取值顺序：附加参数（issue #448），参数对象为 null 时为 null ，参数对象有对应的 TypeHandler 时为参数对象本身，
+ * 否则为参数对象的属性。同一个参数对象只创建一次 MetaObject 。
+ *
+ * @since 3.5.1
+ */
+public class ParameterValueExtractor {
+
+  private final Configuration configuration;
+  private final BoundSql boundSql;
+  private final Object parameterObject;
+  private final boolean simpleParameter;
+  private MetaObject metaObject;
+
+  public ParameterValueExtractor(Configuration configuration, BoundSql boundSql, Object parameterObject) {
+    this.configuration = configuration;
+    this.boundSql = boundSql;
+    this.parameterObject = parameterObject;
+    this.simpleParameter = parameterObject != null
+        && configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass());
+  }
+
+  public Object getValue(ParameterMapping parameterMapping) {
+    String propertyName = parameterMapping.getProperty();
+    if (boundSql.hasAdditionalParameter(propertyName)) {
+      return boundSql.getAdditionalParameter(propertyName);
+    } else if (parameterObject == null) {
+      return null;
+    } else if (simpleParameter) {
+      return parameterObject;
+    }
+    if (metaObject == null) {
+      metaObject = configuration.newMetaObject(parameterObject);
+    }
+    return parameterMapping.getPropertyPath().getValue(metaObject);
+  }
+
+}
@@ -0,0 +1,168 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.ibatis.executor.ExecutorException;
+
+/**
+ * 列式查询结果
+ *
+ * 每一列保存为一个基本类型数组：整数列为 long[]，浮点/定点数列为 double[]，其它列转换为字符串后做字典编码，
+ * 即 int[] 编码加去重后的 String[] 字典。避免逐行创建 Map 和装箱对象，适合大结果集的统计分析查询。
+ *
+ * @since 3.5.1
+ */
+public class ColumnarResult {
+
+  /**
+   * 列的存储类型
+   */
+  public enum ColumnType {
+    LONG, DOUBLE, STRING
+  }
+
+  /**
+   * 字典编码列中，NULL 对应的编码
+   */
+  public static final int NULL_CODE = -1;
+
+  private final int rowCount;
+  private final List<String> columnNames;
+  private final ColumnType[] columnTypes;
+  /**
+   * 每一列的数据，按列类型分别为 long[]、double[]、int[]
+   */
+  private final Object[] columns;
+  /**
+   * 每一列的字典，非 STRING 列为 null
+   */
+  private final String[][] dictionaries;
+  /**
+   * 每一列的 NULL 标记
+   */
+  private final BitSet[] nulls;
+  /**
+   * 列名（大写）与列序号的映射
+   */
+  private final Map<String, Integer> columnIndexes = new HashMap<>();
+
+  ColumnarResult(int rowCount, List<String> columnNames, ColumnType[] columnTypes, Object[] columns, String[][] dictionaries, BitSet[] nulls) {
+    this.rowCount = rowCount;
+    this.columnNames = Collections.unmodifiableList(columnNames);
+    this.columnTypes = columnTypes;
+    this.columns = columns;
+    this.dictionaries = dictionaries;
+    this.nulls = nulls;
+    for (int i = 0; i < columnNames.size(); i++) {
+      columnIndexes.putIfAbsent(columnNames.get(i).toUpperCase(Locale.ENGLISH), i);
+    }
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  public List<String> getColumnNames() {
+    return columnNames;
+  }
+
+  public ColumnType getColumnType(String column) {
+    return columnTypes[indexOf(column)];
+  }
+
+  /**
+   * @return LONG 列的数据，NULL 的行为 0
+   */
+  public long[] getLongs(String column) {
+    return (long[]) column(column, ColumnType.LONG);
+  }
+
+  /**
+   * @return DOUBLE 列的数据，NULL 的行为 0
+   */
+  public double[] getDoubles(String column) {
+    return (double[]) column(column, ColumnType.DOUBLE);
+  }
+
+  /**
+   * @return STRING 列每一行在 {@link #getDictionary(String)} 中的下标，NULL 的行为 {@link #NULL_CODE}
+   */
+  public int[] getCodes(String column) {
+    return (int[]) column(column, ColumnType.STRING);
+  }
+
+  /**
+   * @return STRING 列的字典，按首次出现的顺序排列
+   */
+  public String[] getDictionary(String column) {
+    int index = indexOf(column);
+    checkType(index, ColumnType.STRING);
+    return dictionaries[index];
+  }
+
+  /**
+   * @return STRING 列指定行的值
+   */
+  public String getString(String column, int row) {
+    int code = getCodes(column)[row];
+    return code == NULL_CODE ? null : getDictionary(column)[code];
+  }
+
+  public boolean isNull(String column, int row) {
+    checkRow(row);
+    return nulls[indexOf(column)].get(row);
+  }
+
+  private Object column(String column, ColumnType type) {
+    int index = indexOf(column);
+    checkType(index, type);
+    return columns[index];
+  }
+
+  private int indexOf(String column) {
+    Integer index = columnIndexes.get(column.toUpperCase(Locale.ENGLISH));
+    if (index == null) {
+      throw new ExecutorException("Column '" + column + "' not found in columnar result. Available columns are " + columnNames);
+    }
+    return index;
+  }
+
+  private void checkType(int index, ColumnType type) {
+    if (columnTypes[index] != type) {
+      throw new ExecutorException("Column '" + columnNames.get(index) + "' is stored as " + columnTypes[index] + ", not " + type + ".");
+    }
+  }
+
+  private void checkRow(int row) {
+    if (row < 0 || row >= rowCount) {
+      throw new IndexOutOfBoundsException("Row " + row + " is out of range [0, " + rowCount + ").");
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "ColumnarResult{rowCount=" + rowCount + ", columnNames=" + columnNames + ", columnTypes=" + Arrays.toString(columnTypes) + "}";
+  }
+
+}
@@ -0,0 +1,198 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.result.ColumnarResult.ColumnType;
+import org.apache.ibatis.executor.resultset.ResultSetWrapper;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * 列式结果处理器
+ *
+ * 传给 {@link org.apache.ibatis.session.SqlSession#select(String, Object, ResultHandler)} 时，
+ * {@link org.apache.ibatis.executor.resultset.DefaultResultSetHandler} 不再逐行映射结果对象，
+ * 而是直接将 ResultSet 读取为 {@link ColumnarResult}。
+ * 整数列通过 {@link ResultSet#getLong(int)}、浮点/定点数列通过 {@link ResultSet#getDouble(int)} 读取，
+ * 与 LongTypeHandler、DoubleTypeHandler 的读取方式一致，但不产生装箱对象；其它列使用 String 类型对应的 TypeHandler 读取后做字典编码。
+ * DECIMAL、NUMERIC 列以 double 保存，超出 double 精度的值会丢失精度。
+ *
+ * @since 3.5.1
+ */
+public class ColumnarResultHandler implements ResultHandler<Object> {
+
+  private static final int DEFAULT_CAPACITY = 1024;
+
+  private ColumnarResult result;
+
+  @Override
+  public void handleResult(ResultContext<?> context) {
+    throw new ExecutorException("ColumnarResultHandler reads the result set directly and cannot handle mapped result objects.");
+  }
+
+  /**
+   * 读取 ResultSet 的当前位置之后的行
+   *
+   * @param rsw ResultSetWrapper 对象
+   * @param limit 最多读取的行数
+   */
+  public void handleResultSet(ResultSetWrapper rsw, int limit) throws SQLException {
+    if (result != null) {
+      throw new ExecutorException("ColumnarResultHandler does not support multiple result sets.");
+    }
+    final ResultSet rs = rsw.getResultSet();
+    final List<String> columnNames = new ArrayList<>(rsw.getColumnNames());
+    final int columnCount = columnNames.size();
+    final ColumnType[] columnTypes = new ColumnType[columnCount];
+    final TypeHandler<?>[] stringHandlers = new TypeHandler<?>[columnCount];
+    final Object[] columns = new Object[columnCount];
+    final BitSet[] nulls = new BitSet[columnCount];
+    final List<Map<String, Integer>> dictionaries = new ArrayList<>(columnCount);
+    int capacity = Math.min(limit, DEFAULT_CAPACITY);
+    // 根据 JdbcType 决定每一列的存储类型，并创建对应的数组
+    for (int i = 0; i < columnCount; i++) {
+      columnTypes[i] = resolveColumnType(rsw.getJdbcTypes().get(i));
+      columns[i] = newColumn(columnTypes[i], capacity);
+      nulls[i] = new BitSet();
+      if (columnTypes[i] == ColumnType.STRING) {
+        stringHandlers[i] = rsw.getTypeHandler(String.class, columnNames.get(i));
+        dictionaries.add(new HashMap<>());
+      } else {
+        dictionaries.add(null);
+      }
+    }
+    // 逐行读取，按列写入数组
+    int row = 0;
+    while (row < limit && !rs.isClosed() && rs.next()) {
+      if (row == capacity) {
+        capacity = (int) Math.min((long) capacity * 2, Integer.MAX_VALUE - 8);
+        for (int i = 0; i < columnCount; i++) {
+          columns[i] = copyColumn(columnTypes[i], columns[i], capacity);
+        }
+      }
+      for (int i = 0; i < columnCount; i++) {
+        final int columnIndex = i + 1;
+        switch (columnTypes[i]) {
+          case LONG:
+            ((long[]) columns[i])[row] = rs.getLong(columnIndex);
+            if (rs.wasNull()) {
+              nulls[i].set(row);
+            }
+            break;
+          case DOUBLE:
+            ((double[]) columns[i])[row] = rs.getDouble(columnIndex);
+            if (rs.wasNull()) {
+              nulls[i].set(row);
+            }
+            break;
+          default:
+            final Object value = stringHandlers[i].getResult(rs, columnIndex);
+            if (value == null) {
+              ((int[]) columns[i])[row] = ColumnarResult.NULL_CODE;
+              nulls[i].set(row);
+            } else {
+              final Map<String, Integer> dictionary = dictionaries.get(i);
+              final String string = value.toString();
+              Integer code = dictionary.get(string);
+              if (code == null) {
+                code = dictionary.size();
+                dictionary.put(string, code);
+              }
+              ((int[]) columns[i])[row] = code;
+            }
+            break;
+        }
+      }
+      row++;
+    }
+    // 裁剪数组，并将字典转换为数组
+    final String[][] dictionaryArrays = new String[columnCount][];
+    for (int i = 0; i < columnCount; i++) {
+      columns[i] = copyColumn(columnTypes[i], columns[i], row);
+      final Map<String, Integer> dictionary = dictionaries.get(i);
+      if (dictionary != null) {
+        dictionaryArrays[i] = new String[dictionary.size()];
+        for (Map.Entry<String, Integer> entry : dictionary.entrySet()) {
+          dictionaryArrays[i][entry.getValue()] = entry.getKey();
+        }
+      }
+    }
+    result = new ColumnarResult(row, columnNames, columnTypes, columns, dictionaryArrays, nulls);
+  }
+
+  /**
+   * @return 读取的结果，如果没有读取过 ResultSet，则返回 null
+   */
+  public ColumnarResult getResult() {
+    return result;
+  }
+
+  private ColumnType resolveColumnType(JdbcType jdbcType) {
+    if (jdbcType == null) {
+      return ColumnType.STRING;
+    }
+    switch (jdbcType) {
+      case TINYINT:
+      case SMALLINT:
+      case INTEGER:
+      case BIGINT:
+        return ColumnType.LONG;
+      case REAL:
+      case FLOAT:
+      case DOUBLE:
+      case DECIMAL:
+      case NUMERIC:
+        return ColumnType.DOUBLE;
+      default:
+        return ColumnType.STRING;
+    }
+  }
+
+  private Object newColumn(ColumnType type, int capacity) {
+    switch (type) {
+      case LONG:
+        return new long[capacity];
+      case DOUBLE:
+        return new double[capacity];
+      default:
+        return new int[capacity];
+    }
+  }
+
+  private Object copyColumn(ColumnType type, Object column, int length) {
+    switch (type) {
+      case LONG:
+        return Arrays.copyOf((long[]) column, length);
+      case DOUBLE:
+        return Arrays.copyOf((double[]) column, length);
+      default:
+        return Arrays.copyOf((int[]) column, length);
+    }
+  }
+
+}
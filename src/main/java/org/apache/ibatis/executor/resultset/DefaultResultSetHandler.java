@@ -27,6 +27,10 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.ibatis.annotations.AutomapConstructor;
 import org.apache.ibatis.binding.MapperMethod.ParamMap;
@@ -39,6 +43,7 @@ import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.executor.loader.ResultLoader;
 import org.apache.ibatis.executor.loader.ResultLoaderMap;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.result.ColumnarResultHandler;
 import org.apache.ibatis.executor.result.DefaultResultContext;
 import org.apache.ibatis.executor.result.DefaultResultHandler;
 import org.apache.ibatis.executor.result.ResultMapException;
@@ -51,10 +56,12 @@ import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.mapping.ResultMapping;
 import org.apache.ibatis.reflection.MetaClass;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.PropertyPath;
 import org.apache.ibatis.reflection.ReflectorFactory;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.session.AutoMappingBehavior;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.Deadline;
 import org.apache.ibatis.session.ResultContext;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
@@ -73,6 +80,11 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private static final Object DEFERRED = new Object();
 
+  /**
+   * 标记当前线程是否正在并行执行内嵌查询，避免在线程池中再次提交内嵌查询
+   */
+  private static final ThreadLocal<Boolean> PARALLEL_NESTED_QUERY = new ThreadLocal<>();
+
   private final Executor executor;
   private final Configuration configuration;
   private final MappedStatement mappedStatement;
@@ -92,12 +104,42 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private final Map<CacheKey, Object> nestedResultObjects = new HashMap<>();
   private final Map<String, Object> ancestorObjects = new HashMap<>();
   private Object previousRowValue;
+  /**
+   * 是否按照父对象的id变化，逐个输出完整的父对象。与resultOrdered=true的语句一致
+   * @see Configuration#isNestedResultCursorStreamingEnabled()
+   */
+  private boolean streamNestedResults;
+  /**
+   * 已经输出的父对象的CacheKey集合，用于校验结果是否按父对象有序。
+   * 只比较上一个父对象无法发现交错出现的父对象，因此需要保存全部，占用的内存与父对象数量成正比
+   * @see Configuration#isResultOrderCheckEnabled()
+   */
+  private final Set<CacheKey> storedRowKeys = new HashSet<>();
+  /**
+   * 游标的Statement对象
+   */
+  private Statement cursorStatement;
 
   // multiple resultsets
   // 存储过程相关的多ResultSet涉及的属性，可以暂时忽略
   private final Map<String, ResultMapping> nextResultMaps = new HashMap<>();
   private final Map<CacheKey, List<PendingRelation>> pendingRelations = new HashMap<>();
 
+  // parallel nested queries
+  /**
+   * 是否并行执行内嵌查询
+   * @see Configuration#isParallelNestedQueriesEnabled()
+   */
+  private boolean parallelNestedQueries;
+  /**
+   * 并行执行中的内嵌查询，相同的查询只执行一次
+   * KEY：内嵌查询的CacheKey + 目标类型
+   */
+  private final Map<CacheKey, Future<List<Object>>> parallelNestedQueryResults = new HashMap<>();
+  // 内嵌查询失败时置为 true ，尚未开始执行的内嵌查询不再执行
+  private AtomicBoolean parallelNestedQueriesAborted = new AtomicBoolean();
+  private final List<PendingNestedQuery> pendingNestedQueries = new ArrayList<>();
+
   // Cached Automappings
   /**
    * 自动映射的缓存
@@ -117,15 +159,26 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     public ResultMapping propertyMapping;
   }
 
+  private static class PendingNestedQuery {
+    public MetaObject metaObject;
+    public String property;
+    public MappedStatement nestedQuery;
+    public CacheKey key;
+    public ResultLoader resultLoader;
+    public Future<List<Object>> result;
+  }
+
   private static class UnMappedColumnAutoMapping {
     private final String column;
     private final String property;
+    private final PropertyPath propertyPath;
     private final TypeHandler<?> typeHandler;
     private final boolean primitive;
 
-    public UnMappedColumnAutoMapping(String column, String property, TypeHandler<?> typeHandler, boolean primitive) {
+    public UnMappedColumnAutoMapping(String column, String property, PropertyPath propertyPath, TypeHandler<?> typeHandler, boolean primitive) {
       this.column = column;
       this.property = property;
+      this.propertyPath = propertyPath;
       this.typeHandler = typeHandler;
       this.primitive = primitive;
     }
@@ -143,6 +196,10 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     this.objectFactory = configuration.getObjectFactory();
     this.reflectorFactory = configuration.getReflectorFactory();
     this.resultHandler = resultHandler;
+    // 自定义的resultHandler会立即处理结果对象，所以只对默认的DefaultResultHandler开启并行的内嵌查询
+    // 其它线程中的内嵌查询使用新的事务，看不到当前事务尚未提交的修改，此时顺序执行
+    this.parallelNestedQueries = configuration.isParallelNestedQueriesEnabled() && resultHandler == null
+        && PARALLEL_NESTED_QUERY.get() == null && !executor.isDirty();
   }
 
   //
@@ -165,6 +222,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         }
       }
     }
+    joinParallelNestedQueries();
   }
 
   private void handleRefCursorOutputParameter(ResultSet rs, ParameterMapping parameterMapping, MetaObject metaParam) throws SQLException {
@@ -238,13 +296,21 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       }
     }
 
-    // <6> 如果是multipleResults单元素，则取首元素返回
+    // <6> 等待并行执行的内嵌查询完成，并设置到结果对象中
+    joinParallelNestedQueries();
+
+    // <7> 如果是multipleResults单元素，则取首元素返回
     return collapseSingleResultList(multipleResults);
   }
 
   @Override
   public <E> Cursor<E> handleCursorResultSets(Statement stmt) throws SQLException {
     ErrorContext.instance().activity("handling cursor results").object(mappedStatement.getId());
+    // 游标逐行返回结果对象，无法等待并行的内嵌查询
+    parallelNestedQueries = false;
+    // 游标按父对象的id变化输出嵌套映射的结果，无需缓存整个结果
+    streamNestedResults = configuration.isNestedResultCursorStreamingEnabled();
+    cursorStatement = stmt;
 
     ResultSetWrapper rsw = getFirstResultSet(stmt);
 
@@ -260,6 +326,19 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return new DefaultCursor<>(this, resultMap, rsw, rowBounds);
   }
 
+  /**
+   * 游标关闭时调用。取消游标的 Statement 在截止时间中的登记：
+   * 驱动不一定在 ResultSet 关闭时关闭 Statement（closeOnCompletion），ReuseExecutor 也会缓存 Statement
+   * @since 3.5.1
+   */
+  public void cursorClosed() {
+    Deadline deadline = executor != null ? executor.getDeadline() : null;
+    if (deadline != null && cursorStatement != null) {
+      deadline.release(cursorStatement);
+    }
+    cursorStatement = null;
+  }
+
   // 获得首个ResultSet对象，并封装成ResultSetWrapper对象
   private ResultSetWrapper getFirstResultSet(Statement stmt) throws SQLException {
     ResultSet rs = stmt.getResultSet();
@@ -313,6 +392,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private void cleanUpAfterHandlingResultSet() {
     nestedResultObjects.clear();
+    storedRowKeys.clear();
   }
 
   // 校验至少有一个ResultMap对象
@@ -338,6 +418,10 @@ public class DefaultResultSetHandler implements ResultSetHandler {
           handleRowValues(rsw, resultMap, defaultResultHandler, rowBounds, null);
           // <4> 将defaultResultHandler的处理结果，添加到multipleResults中
           multipleResults.add(defaultResultHandler.getResultList());
+        // <3> 列式结果处理器，直接读取ResultSet，不做逐行映射
+        } else if (resultHandler instanceof ColumnarResultHandler) {
+          skipRows(rsw.getResultSet(), rowBounds);
+          ((ColumnarResultHandler) resultHandler).handleResultSet(rsw, rowBounds.getLimit());
         } else {
           // <3> 处理ResultSet返回的每一行Row
           handleRowValues(rsw, resultMap, resultHandler, rowBounds, null);
@@ -532,7 +616,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         }
         if (value != null || (configuration.isCallSettersOnNulls() && !metaObject.getSetterType(property).isPrimitive())) {
           // gcode issue #377, call setter on nulls (value is not 'found')
-          metaObject.setValue(property, value);
+          configuration.getPropertyPath(property).setValue(metaObject, value);
         }
       }
     }
@@ -590,7 +674,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
           // 判断是否有对应的TypeHandler对象。如果有，则创建UnMappedColumnAutoMapping对象，并添加到autoMapping中
           if (typeHandlerRegistry.hasTypeHandler(propertyType, rsw.getJdbcType(columnName))) {
             final TypeHandler<?> typeHandler = rsw.getTypeHandler(propertyType, columnName);
-            autoMapping.add(new UnMappedColumnAutoMapping(columnName, property, typeHandler, propertyType.isPrimitive()));
+            autoMapping.add(new UnMappedColumnAutoMapping(columnName, property, configuration.getPropertyPath(property), typeHandler, propertyType.isPrimitive()));
           // 如果没有，则执行AutoMappingUnknownColumnBehavior对应的逻辑
           } else {
             configuration.getAutoMappingUnknownColumnBehavior()
@@ -624,7 +708,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         // 通过metaObject设置到parameterObject中
         if (value != null || (configuration.isCallSettersOnNulls() && !mapping.primitive)) {
           // gcode issue #377, call setter on nulls (value is not 'found')
-          metaObject.setValue(mapping.property, value);
+          mapping.propertyPath.setValue(metaObject, value);
         }
       }
     }
@@ -909,6 +993,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         if (propertyMapping.isLazy()) {
           lazyLoader.addLoader(property, metaResultObject, resultLoader);
           value = DEFERRED;
+        } else if (parallelNestedQueries) {
+          addParallelNestedQuery(metaResultObject, property, nestedQuery, key, targetType, resultLoader);
+          value = DEFERRED;
         } else {
           value = resultLoader.loadResult();
         }
@@ -917,6 +1004,91 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return value;
   }
 
+  // 提交到线程池中执行内嵌查询。ResultLoader在非创建线程中执行时，会使用新的Executor和数据库连接
+  private void addParallelNestedQuery(MetaObject metaResultObject, String property, MappedStatement nestedQuery, CacheKey key,
+      Class<?> targetType, ResultLoader resultLoader) {
+    final CacheKey resultKey = new CacheKey(new Object[] { key, targetType });
+    final PendingNestedQuery pendingNestedQuery = new PendingNestedQuery();
+    pendingNestedQuery.metaObject = metaResultObject;
+    pendingNestedQuery.property = property;
+    pendingNestedQuery.nestedQuery = nestedQuery;
+    pendingNestedQuery.key = key;
+    pendingNestedQuery.resultLoader = resultLoader;
+    final AtomicBoolean aborted = parallelNestedQueriesAborted;
+    pendingNestedQuery.result = parallelNestedQueryResults.computeIfAbsent(resultKey, k -> configuration.getNestedQueryExecutorService().submit(() -> {
+      if (aborted.get()) {
+        return null;
+      }
+      PARALLEL_NESTED_QUERY.set(Boolean.TRUE);
+      try {
+        return resultLoader.selectList();
+      } finally {
+        PARALLEL_NESTED_QUERY.remove();
+      }
+    }));
+    pendingNestedQueries.add(pendingNestedQuery);
+  }
+
+  // 等待并行执行的内嵌查询完成，并设置到结果对象中
+  private void joinParallelNestedQueries() throws SQLException {
+    if (pendingNestedQueries.isEmpty()) {
+      return;
+    }
+    boolean completed = false;
+    try {
+      for (PendingNestedQuery pendingNestedQuery : pendingNestedQueries) {
+        final List<Object> list = pendingNestedQuery.result.get();
+        // 放入一级缓存，与顺序执行的内嵌查询一致
+        executor.putLocalCache(pendingNestedQuery.nestedQuery, pendingNestedQuery.key, list);
+        final Object value = pendingNestedQuery.resultLoader.extractResult(list);
+        final MetaObject metaObject = pendingNestedQuery.metaObject;
+        final String property = pendingNestedQuery.property;
+        if (value != null || (configuration.isCallSettersOnNulls() && !metaObject.getSetterType(property).isPrimitive())) {
+          metaObject.setValue(property, value);
+        }
+      }
+      completed = true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ExecutorException("Interrupted while waiting for nested queries of '" + mappedStatement.getId() + "'.", e);
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof SQLException) {
+        throw (SQLException) cause;
+      }
+      throw new ExecutorException("Error executing nested query of '" + mappedStatement.getId() + "'.  Cause: " + cause, cause);
+    } finally {
+      if (!completed) {
+        awaitParallelNestedQueries();
+      }
+      parallelNestedQueryResults.clear();
+      pendingNestedQueries.clear();
+    }
+  }
+
+  // 失败时，跳过尚未开始的内嵌查询，并等待正在执行的内嵌查询结束，避免它们在返回后继续占用连接
+  private void awaitParallelNestedQueries() {
+    parallelNestedQueriesAborted.set(true);
+    parallelNestedQueriesAborted = new AtomicBoolean();
+    boolean interrupted = Thread.interrupted();
+    for (Future<List<Object>> result : parallelNestedQueryResults.values()) {
+      while (true) {
+        try {
+          result.get();
+          break;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        } catch (ExecutionException | CancellationException e) {
+          // 已经在抛出第一个失败
+          break;
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
   // 获得内嵌的参数类型
   private Object prepareParameterForNestedQuery(ResultSet rs, ResultMapping resultMapping, Class<?> parameterType, String columnPrefix) throws SQLException {
     if (resultMapping.isCompositeResult()) { // ② 组合
@@ -1052,11 +1224,14 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       final CacheKey rowKey = createRowKey(discriminatedResultMap, rsw, null);
       Object partialObject = nestedResultObjects.get(rowKey);
       // issue #577 && #542
-      if (mappedStatement.isResultOrdered()) {
+      if (isResultOrdered()) {
         if (partialObject == null && rowValue != null) {
           nestedResultObjects.clear();
           storeObject(resultHandler, resultContext, rowValue, parentMapping, resultSet);
         }
+        if (partialObject == null) {
+          checkResultOrdered(rowKey);
+        }
         rowValue = getRowValue(rsw, discriminatedResultMap, rowKey, null, partialObject);
       } else {
         rowValue = getRowValue(rsw, discriminatedResultMap, rowKey, null, partialObject);
@@ -1065,7 +1240,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         }
       }
     }
-    if (rowValue != null && mappedStatement.isResultOrdered() && shouldProcessMoreRows(resultContext, rowBounds)) {
+    if (rowValue != null && isResultOrdered() && shouldProcessMoreRows(resultContext, rowBounds)) {
       storeObject(resultHandler, resultContext, rowValue, parentMapping, resultSet);
       previousRowValue = null;
     } else if (rowValue != null) {
@@ -1073,6 +1248,20 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
   }
 
+  // 结果是否按父对象有序。有序时，父对象的id变化，则输出上一个完整的父对象
+  private boolean isResultOrdered() {
+    return mappedStatement.isResultOrdered() || streamNestedResults;
+  }
+
+  // 校验已经输出的父对象不会再次出现
+  private void checkResultOrdered(CacheKey rowKey) {
+    if (configuration.isResultOrderCheckEnabled() && rowKey != CacheKey.NULL_CACHE_KEY && !storedRowKeys.add(rowKey)) {
+      throw new ExecutorException("Rows of the Mapped Statement '" + mappedStatement.getId()
+          + "' are not ordered by the result map id. The row " + rowKey + " appeared after its result object had been returned. "
+          + "Add an ORDER BY clause on the id columns of the result map.");
+    }
+  }
+
   //
   // GET VALUE FROM ROW FOR NESTED RESULT MAP
   //
@@ -15,20 +15,38 @@
  */
 package org.apache.ibatis.executor.statement;
 
+import java.io.InputStream;
+import java.io.Reader;
+import java.sql.Blob;
+import java.sql.Clob;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.parameter.ParameterValueExtractor;
 import org.apache.ibatis.executor.resultset.ResultSetHandler;
+import org.apache.ibatis.executor.statistics.SlowStatement;
+import org.apache.ibatis.executor.statistics.SlowStatementSink;
+import org.apache.ibatis.executor.statistics.StatementStatistics;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.Deadline;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.type.TypeHandlerRegistry;
@@ -39,6 +57,13 @@ import org.apache.ibatis.type.TypeHandlerRegistry;
  */
 public abstract class BaseStatementHandler implements StatementHandler {
 
+  private static final Log log = LogFactory.getLog(BaseStatementHandler.class);
+
+  /**
+   * 慢语句中，字符串参数保留的最大长度
+   */
+  private static final int MAX_SAMPLED_PARAMETER_LENGTH = 200;
+
   protected final Configuration configuration;
   protected final ObjectFactory objectFactory;
   protected final TypeHandlerRegistry typeHandlerRegistry;
@@ -51,12 +76,42 @@ public abstract class BaseStatementHandler implements StatementHandler {
 
   protected BoundSql boundSql;
 
+  /**
+   * 执行统计，未开启时为null
+   */
+  protected final StatementStatistics statistics;
+  /**
+   * 慢语句的阈值，单位：纳秒。0 表示不捕获
+   */
+  private final long slowThresholdNanos;
+  /**
+   * 准备阶段（创建Statement并设置参数）累计的耗时，执行时一起记录
+   */
+  private long prepareNanos;
+  /**
+   * 执行阶段的耗时
+   */
+  private long executeNanos;
+  /**
+   * 结果映射阶段的耗时
+   */
+  private long mappingNanos;
+  /**
+   * 设置参数时绑定的参数值，只在捕获慢语句、且执行后参数对象可能被修改时记录
+   */
+  private List<Object> parameterValues;
+
   protected BaseStatementHandler(Executor executor, MappedStatement mappedStatement, Object parameterObject, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql) {
     // 获得Configuration对象
     this.configuration = mappedStatement.getConfiguration();
     this.executor = executor;
     this.mappedStatement = mappedStatement;
     this.rowBounds = rowBounds;
+    this.statistics = configuration.isStatementStatisticsEnabled()
+        ? configuration.getStatementStatisticsRegistry().getOrCreate(mappedStatement.getId()) : null;
+    Long slowThreshold = mappedStatement.getSlowThreshold();
+    long slowThresholdMillis = slowThreshold != null ? slowThreshold : configuration.getSlowStatementThreshold();
+    this.slowThresholdNanos = slowThresholdMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis) : 0;
 
     // 获得TypeHandlerRegistry和ObjectFactory对象
     this.typeHandlerRegistry = configuration.getTypeHandlerRegistry();
@@ -92,6 +147,7 @@ public abstract class BaseStatementHandler implements StatementHandler {
   @Override
   public Statement prepare(Connection connection, Integer transactionTimeout) throws SQLException {
     ErrorContext.instance().sql(boundSql.getSql());
+    long start = startTimer();
     Statement statement = null;
     try {
       // <1> 创建Statement对象
@@ -100,6 +156,7 @@ public abstract class BaseStatementHandler implements StatementHandler {
       setStatementTimeout(statement, transactionTimeout);
       // <3> 设置fetchSize
       setFetchSize(statement);
+      recordPrepare(start);
       return statement;
     } catch (SQLException e) {
       // 发生异常，进行关闭
@@ -114,6 +171,126 @@ public abstract class BaseStatementHandler implements StatementHandler {
 
   protected abstract Statement instantiateStatement(Connection connection) throws SQLException;
 
+  // 是否需要计时，即开启了执行统计或慢语句捕获
+  private boolean isTimed() {
+    return statistics != null || slowThresholdNanos > 0;
+  }
+
+  // 开始计时，不需要计时时返回0
+  protected long startTimer() {
+    return isTimed() ? System.nanoTime() : 0;
+  }
+
+  // 累计准备阶段的耗时
+  protected void recordPrepare(long start) {
+    if (isTimed()) {
+      prepareNanos += System.nanoTime() - start;
+    }
+  }
+
+  // 记录准备和执行阶段的耗时，返回当前时间，作为结果映射阶段的开始时间
+  protected long recordExecute(long start) {
+    if (!isTimed()) {
+      return 0;
+    }
+    long now = System.nanoTime();
+    executeNanos = now - start;
+    if (statistics != null) {
+      statistics.getPrepareLatency().record(prepareNanos);
+      statistics.getExecuteLatency().record(executeNanos);
+    }
+    return now;
+  }
+
+  // 记录加入批处理前的耗时。批处理的执行阶段由 BatchExecutor 在执行批处理时记录
+  protected void recordBatch(long start) {
+    if (statistics != null) {
+      prepareNanos += System.nanoTime() - start;
+      statistics.getPrepareLatency().record(prepareNanos);
+    }
+  }
+
+  // 记录结果映射阶段的耗时
+  protected void recordMapping(long start) {
+    if (isTimed()) {
+      mappingNanos = System.nanoTime() - start;
+      if (statistics != null) {
+        statistics.getMappingLatency().record(mappingNanos);
+      }
+    }
+  }
+
+  // 如果三个阶段的总耗时超过阈值，捕获为慢语句
+  protected void checkSlowStatement(int rows) {
+    if (slowThresholdNanos == 0) {
+      return;
+    }
+    long elapsedNanos = prepareNanos + executeNanos + mappingNanos;
+    if (elapsedNanos >= slowThresholdNanos) {
+      SlowStatement slowStatement = new SlowStatement(mappedStatement.getId(), boundSql.getSql(),
+          getParameterValues(), rows, elapsedNanos, System.currentTimeMillis());
+      configuration.getSlowStatementBuffer().accept(slowStatement);
+      SlowStatementSink sink = configuration.getSlowStatementSink();
+      if (sink != null) {
+        // 使用方的 SlowStatementSink 出错时只记录日志，不影响语句的执行结果
+        try {
+          sink.accept(slowStatement);
+        } catch (RuntimeException e) {
+          log.warn("Error notifying SlowStatementSink of slow statement '" + mappedStatement.getId() + "'. Cause: " + e);
+        }
+      }
+    }
+  }
+
+  // 执行后参数对象可能被修改（例如写回自增主键、存储过程的 INOUT 参数）时，在设置参数时记录绑定的参数值。
+  // 其它情况在判定为慢语句时才读取，避免每次执行都读取参数
+  protected void captureParameterValues() {
+    if (slowThresholdNanos == 0) {
+      return;
+    }
+    if (mappedStatement.getKeyGenerator() instanceof NoKeyGenerator
+        && mappedStatement.getStatementType() != StatementType.CALLABLE) {
+      return;
+    }
+    parameterValues = readParameterValues();
+  }
+
+  // 读取参数对象中绑定的参数值
+  private List<Object> readParameterValues() {
+    ParameterValueExtractor valueExtractor = new ParameterValueExtractor(configuration, boundSql, parameterHandler.getParameterObject());
+    List<Object> values = new ArrayList<>();
+    for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
+      if (parameterMapping.getMode() != ParameterMode.OUT) {
+        values.add(valueExtractor.getValue(parameterMapping));
+      }
+    }
+    return values;
+  }
+
+  // 获得绑定的参数值
+  private List<Object> getParameterValues() {
+    List<Object> boundValues = parameterValues != null ? parameterValues : readParameterValues();
+    List<Object> values = new ArrayList<>(boundValues.size());
+    for (Object value : boundValues) {
+      values.add(sampleParameterValue(value));
+    }
+    return values;
+  }
+
+  // 截断过长的字符串，二进制和流只记录类型，避免占用过多内存
+  private static Object sampleParameterValue(Object value) {
+    if (value instanceof CharSequence) {
+      CharSequence chars = (CharSequence) value;
+      return chars.length() > MAX_SAMPLED_PARAMETER_LENGTH
+          ? chars.subSequence(0, MAX_SAMPLED_PARAMETER_LENGTH) + "...(" + chars.length() + " chars)" : chars.toString();
+    } else if (value instanceof byte[]) {
+      return "byte[" + ((byte[]) value).length + "]";
+    } else if (value instanceof InputStream || value instanceof Reader || value instanceof Blob || value instanceof Clob) {
+      return value.getClass().getName();
+    }
+    return value;
+  }
+
   // 设置超时时间
   protected void setStatementTimeout(Statement stmt, Integer transactionTimeout) throws SQLException {
     // 获得queryTimeout
@@ -129,6 +306,13 @@ public abstract class BaseStatementHandler implements StatementHandler {
     }
     // 设置事务超时时间
     StatementUtil.applyTransactionTimeout(stmt, queryTimeout, transactionTimeout);
+    // 按调用方截止时间的剩余时间设置
+    StatementUtil.applyDeadline(stmt, getDeadline());
+  }
+
+  // 获得调用方的截止时间
+  private Deadline getDeadline() {
+    return executor != null ? executor.getDeadline() : null;
   }
 
   // 设置fetchSize
@@ -149,6 +333,10 @@ public abstract class BaseStatementHandler implements StatementHandler {
   protected void closeStatement(Statement statement) {
     try {
       if (statement != null) {
+        Deadline deadline = getDeadline();
+        if (deadline != null) {
+          deadline.unregister(statement);
+        }
         statement.close();
       }
     } catch (SQLException e) {
@@ -47,34 +47,47 @@ public class CallableStatementHandler extends BaseStatementHandler {
   @Override
   public int update(Statement statement) throws SQLException {
     CallableStatement cs = (CallableStatement) statement;
+    long start = startTimer();
     cs.execute();
+    recordExecute(start);
     int rows = cs.getUpdateCount();
     Object parameterObject = boundSql.getParameterObject();
     KeyGenerator keyGenerator = mappedStatement.getKeyGenerator();
     keyGenerator.processAfter(executor, mappedStatement, cs, parameterObject);
     resultSetHandler.handleOutputParameters(cs);
+    checkSlowStatement(rows);
     return rows;
   }
 
   @Override
   public void batch(Statement statement) throws SQLException {
     CallableStatement cs = (CallableStatement) statement;
+    long start = startTimer();
     cs.addBatch();
+    recordBatch(start);
   }
 
   @Override
   public <E> List<E> query(Statement statement, ResultHandler resultHandler) throws SQLException {
     CallableStatement cs = (CallableStatement) statement;
+    long start = startTimer();
     cs.execute();
+    long mappingStart = recordExecute(start);
     List<E> resultList = resultSetHandler.handleResultSets(cs);
     resultSetHandler.handleOutputParameters(cs);
+    recordMapping(mappingStart);
+    // 使用 ResultHandler 时结果不在 resultList 中，行数未知
+    checkSlowStatement(resultHandler == null ? resultList.size() : -1);
     return resultList;
   }
 
   @Override
   public <E> Cursor<E> queryCursor(Statement statement) throws SQLException {
     CallableStatement cs = (CallableStatement) statement;
+    long start = startTimer();
     cs.execute();
+    recordExecute(start);
+    checkSlowStatement(-1);
     Cursor<E> resultList = resultSetHandler.handleCursorResultSets(cs);
     resultSetHandler.handleOutputParameters(cs);
     return resultList;
@@ -92,8 +105,11 @@ public class CallableStatementHandler extends BaseStatementHandler {
 
   @Override
   public void parameterize(Statement statement) throws SQLException {
+    long start = startTimer();
     registerOutputParameters((CallableStatement) statement);
     parameterHandler.setParameters((CallableStatement) statement);
+    recordPrepare(start);
+    captureParameterValues();
   }
 
   private void registerOutputParameters(CallableStatement cs) throws SQLException {
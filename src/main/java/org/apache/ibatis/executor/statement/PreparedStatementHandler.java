@@ -45,13 +45,16 @@ public class PreparedStatementHandler extends BaseStatementHandler {
   public int update(Statement statement) throws SQLException {
     PreparedStatement ps = (PreparedStatement) statement;
     // 执行写操作
+    long start = startTimer();
     ps.execute();
+    recordExecute(start);
     int rows = ps.getUpdateCount();
     // 获得更新数量
     Object parameterObject = boundSql.getParameterObject();
     // 执行keyGenerator的后置处理逻辑
     KeyGenerator keyGenerator = mappedStatement.getKeyGenerator();
     keyGenerator.processAfter(executor, mappedStatement, ps, parameterObject);
+    checkSlowStatement(rows);
     return rows;
   }
 
@@ -59,23 +62,34 @@ public class PreparedStatementHandler extends BaseStatementHandler {
   public void batch(Statement statement) throws SQLException {
     PreparedStatement ps = (PreparedStatement) statement;
     // 添加到批处理
+    long start = startTimer();
     ps.addBatch();
+    recordBatch(start);
   }
 
   @Override
   public <E> List<E> query(Statement statement, ResultHandler resultHandler) throws SQLException {
     PreparedStatement ps = (PreparedStatement) statement;
     // 执行查询
+    long start = startTimer();
     ps.execute();
+    long mappingStart = recordExecute(start);
     // 处理返回结果
-    return resultSetHandler.handleResultSets(ps);
+    List<E> resultList = resultSetHandler.handleResultSets(ps);
+    recordMapping(mappingStart);
+    // 使用 ResultHandler 时结果不在 resultList 中，行数未知
+    checkSlowStatement(resultHandler == null ? resultList.size() : -1);
+    return resultList;
   }
 
   @Override
   public <E> Cursor<E> queryCursor(Statement statement) throws SQLException {
     PreparedStatement ps = (PreparedStatement) statement;
     // 执行查询
+    long start = startTimer();
     ps.execute();
+    recordExecute(start);
+    checkSlowStatement(-1);
     // 处理返回的Cursor结果
     return resultSetHandler.handleCursorResultSets(ps);
   }
@@ -104,7 +118,10 @@ public class PreparedStatementHandler extends BaseStatementHandler {
   // 设置PreparedStatement的占位符参数
   @Override
   public void parameterize(Statement statement) throws SQLException {
+    long start = startTimer();
     parameterHandler.setParameters((PreparedStatement) statement);
+    recordPrepare(start);
+    captureParameterValues();
   }
 
 }
@@ -47,10 +47,12 @@ public class SimpleStatementHandler extends BaseStatementHandler {
     Object parameterObject = boundSql.getParameterObject();
     KeyGenerator keyGenerator = mappedStatement.getKeyGenerator();
     int rows;
+    long start = startTimer();
     // 如果是Jdbc3KeyGenerator类型
     if (keyGenerator instanceof Jdbc3KeyGenerator) {
       // <1.1> 执行写操作
       statement.execute(sql, Statement.RETURN_GENERATED_KEYS);
+      recordExecute(start);
       // <1.2> 获得更新数量
       rows = statement.getUpdateCount();
       // <1.3> 执行keyGenerator的后置处理逻辑
@@ -59,6 +61,7 @@ public class SimpleStatementHandler extends BaseStatementHandler {
     } else if (keyGenerator instanceof SelectKeyGenerator) {
       // <2.1> 执行写操作
       statement.execute(sql);
+      recordExecute(start);
       // <2.2> 获得更新数量
       rows = statement.getUpdateCount();
       // <2.3> 执行keyGenerator的后置处理逻辑
@@ -66,9 +69,11 @@ public class SimpleStatementHandler extends BaseStatementHandler {
     } else {
       // <3.1> 执行写操作
       statement.execute(sql);
+      recordExecute(start);
       // <3.2> 获得更新数量
       rows = statement.getUpdateCount();
     }
+    checkSlowStatement(rows);
     return rows;
   }
 
@@ -76,23 +81,34 @@ public class SimpleStatementHandler extends BaseStatementHandler {
   public void batch(Statement statement) throws SQLException {
     String sql = boundSql.getSql();
     // 添加到批处理
+    long start = startTimer();
     statement.addBatch(sql);
+    recordBatch(start);
   }
 
   @Override
   public <E> List<E> query(Statement statement, ResultHandler resultHandler) throws SQLException {
     String sql = boundSql.getSql();
     // <1> 执行查询
+    long start = startTimer();
     statement.execute(sql);
+    long mappingStart = recordExecute(start);
     // <2> 处理返回结果
-    return resultSetHandler.handleResultSets(statement);
+    List<E> resultList = resultSetHandler.handleResultSets(statement);
+    recordMapping(mappingStart);
+    // 使用 ResultHandler 时结果不在 resultList 中，行数未知
+    checkSlowStatement(resultHandler == null ? resultList.size() : -1);
+    return resultList;
   }
 
   @Override
   public <E> Cursor<E> queryCursor(Statement statement) throws SQLException {
     String sql = boundSql.getSql();
     // <1> 执行查询
+    long start = startTimer();
     statement.execute(sql);
+    recordExecute(start);
+    checkSlowStatement(-1);
     // <2> 处理返回的Cursor结果
     return resultSetHandler.handleCursorResultSets(statement);
   }
@@ -16,8 +16,11 @@
 package org.apache.ibatis.executor.statement;
 
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
 import java.sql.Statement;
 
+import org.apache.ibatis.session.Deadline;
+
 /**
  * Utility for {@link java.sql.Statement}.
  *
@@ -55,4 +58,33 @@ public class StatementUtil {
     }
   }
 
+  /**
+   * Apply a caller's deadline.
+   * <p>
+   * Update a query timeout to the remaining time of the deadline, and register the statement so that
+   * {@link Deadline#cancel()} can cancel it from another thread.
+   * </p>
+   * @param statement a target statement
+   * @param deadline a deadline of the caller, may be null
+   * @throws SQLException if the deadline was exceeded or cancelled, or a database access error occurs
+   * @since 3.5.1
+   */
+  public static void applyDeadline(Statement statement, Deadline deadline) throws SQLException {
+    if (deadline == null) {
+      return;
+    }
+    if (deadline.isCancelled()) {
+      throw new SQLException("Statement was not executed because the deadline was cancelled.");
+    }
+    int remaining = deadline.remainingSeconds();
+    if (remaining == 0) {
+      throw new SQLTimeoutException("Statement was not executed because the deadline was exceeded.");
+    }
+    int queryTimeout = statement.getQueryTimeout();
+    deadline.register(statement, queryTimeout);
+    if (queryTimeout == 0 || remaining < queryTimeout) {
+      statement.setQueryTimeout(remaining);
+    }
+  }
+
 }
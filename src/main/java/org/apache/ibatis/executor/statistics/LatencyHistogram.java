@@ -0,0 +1,123 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.statistics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 耗时直方图
+ *
+ * 按 2 的幂划分桶，第 i 个桶记录 [2^(i-1), 2^i) 纳秒的样本，第 0 个桶记录 0 纳秒的样本。
+ * 记录时只有几次原子操作，不加锁，百分位数的精度为所在桶的上界。
+ *
+ * @since 3.5.1
+ */
+public class LatencyHistogram {
+
+  /**
+   * 桶的数量
+   */
+  public static final int BUCKET_COUNT = 64;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final AtomicLong maxNanos = new AtomicLong();
+
+  public void record(long nanos) {
+    if (nanos < 0) {
+      nanos = 0;
+    }
+    buckets.incrementAndGet(BUCKET_COUNT - Long.numberOfLeadingZeros(nanos));
+    count.increment();
+    totalNanos.add(nanos);
+    maxNanos.accumulateAndGet(nanos, Math::max);
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  public long getTotalNanos() {
+    return totalNanos.sum();
+  }
+
+  public long getMaxNanos() {
+    return maxNanos.get();
+  }
+
+  public double getMeanNanos() {
+    long n = getCount();
+    return n == 0 ? 0 : (double) getTotalNanos() / n;
+  }
+
+  /**
+   * @param percentile 百分位，取值范围为 (0, 100]
+   * @return 该百分位所在桶的上界，不超过最大值。没有样本时返回 0
+   */
+  public long getPercentileNanos(double percentile) {
+    if (percentile <= 0 || percentile > 100) {
+      throw new IllegalArgumentException("percentile must be in (0, 100] but was " + percentile);
+    }
+    long[] counts = getBucketCounts();
+    long total = 0;
+    for (long c : counts) {
+      total += c;
+    }
+    if (total == 0) {
+      return 0;
+    }
+    long target = (long) Math.ceil(total * percentile / 100);
+    long cumulative = 0;
+    for (int i = 0; i < counts.length; i++) {
+      cumulative += counts[i];
+      if (cumulative >= target) {
+        return Math.min(getBucketUpperBound(i), getMaxNanos());
+      }
+    }
+    return getMaxNanos();
+  }
+
+  /**
+   * @return 每个桶的样本数量
+   */
+  public long[] getBucketCounts() {
+    long[] counts = new long[BUCKET_COUNT];
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      counts[i] = buckets.get(i);
+    }
+    return counts;
+  }
+
+  /**
+   * @return 第 bucket 个桶的上界（包含），单位：纳秒
+   */
+  public static long getBucketUpperBound(int bucket) {
+    return bucket == BUCKET_COUNT - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+  }
+
+  public void reset() {
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      buckets.set(i, 0);
+    }
+    count.reset();
+    totalNanos.reset();
+    maxNanos.set(0);
+  }
+
+}
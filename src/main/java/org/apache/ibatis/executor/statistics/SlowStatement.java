@@ -0,0 +1,87 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.statistics;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 一次慢语句的执行
+ *
+ * @since 3.5.1
+ */
+public class SlowStatement {
+
+  private final String statementId;
+  private final String sql;
+  private final List<Object> parameters;
+  private final int rows;
+  private final long elapsedNanos;
+  private final long timestamp;
+
+  public SlowStatement(String statementId, String sql, List<Object> parameters, int rows, long elapsedNanos, long timestamp) {
+    this.statementId = statementId;
+    this.sql = sql;
+    this.parameters = Collections.unmodifiableList(parameters);
+    this.rows = rows;
+    this.elapsedNanos = elapsedNanos;
+    this.timestamp = timestamp;
+  }
+
+  public String getStatementId() {
+    return statementId;
+  }
+
+  public String getSql() {
+    return sql;
+  }
+
+  /**
+   * @return 绑定的参数值，过长的字符串会被截断，二进制和流只记录类型
+   */
+  public List<Object> getParameters() {
+    return parameters;
+  }
+
+  /**
+   * @return 返回或影响的行数，使用游标或 ResultHandler 时为 -1
+   */
+  public int getRows() {
+    return rows;
+  }
+
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  public long getElapsedMillis() {
+    return elapsedNanos / 1_000_000;
+  }
+
+  /**
+   * @return 捕获的时间，即 {@link System#currentTimeMillis()}
+   */
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  @Override
+  public String toString() {
+    return statementId + " took " + getElapsedMillis() + " ms, rows: " + rows + ", sql: " + sql
+        + ", parameters: " + parameters;
+  }
+
+}
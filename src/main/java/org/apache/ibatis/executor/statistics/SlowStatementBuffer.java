@@ -0,0 +1,79 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.statistics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 保存最近的慢语句的环形缓冲区，超过容量时覆盖最早的
+ *
+ * @see org.apache.ibatis.session.Configuration#getSlowStatementBuffer()
+ * @since 3.5.1
+ */
+public class SlowStatementBuffer implements SlowStatementSink {
+
+  private final SlowStatement[] slowStatements;
+  /**
+   * 下一个写入的位置
+   */
+  private int next;
+  /**
+   * 已保存的数量
+   */
+  private int size;
+
+  public SlowStatementBuffer(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be greater than 0 but was " + capacity);
+    }
+    this.slowStatements = new SlowStatement[capacity];
+  }
+
+  @Override
+  public synchronized void accept(SlowStatement slowStatement) {
+    slowStatements[next] = slowStatement;
+    next = (next + 1) % slowStatements.length;
+    if (size < slowStatements.length) {
+      size++;
+    }
+  }
+
+  /**
+   * @return 保存的慢语句，从早到晚排列
+   */
+  public synchronized List<SlowStatement> getSlowStatements() {
+    List<SlowStatement> result = new ArrayList<>(size);
+    int first = (next - size + slowStatements.length) % slowStatements.length;
+    for (int i = 0; i < size; i++) {
+      result.add(slowStatements[(first + i) % slowStatements.length]);
+    }
+    return result;
+  }
+
+  public int getCapacity() {
+    return slowStatements.length;
+  }
+
+  public synchronized void clear() {
+    for (int i = 0; i < slowStatements.length; i++) {
+      slowStatements[i] = null;
+    }
+    next = 0;
+    size = 0;
+  }
+
+}
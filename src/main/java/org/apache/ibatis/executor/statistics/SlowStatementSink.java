@@ -0,0 +1,30 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.statistics;
+
+/**
+ * 慢语句的接收者，例如写入日志或者发送到监控系统
+ *
+ * 在执行语句的线程中同步调用，实现需要尽快返回。
+ *
+ * @see org.apache.ibatis.session.Configuration#setSlowStatementSink(SlowStatementSink)
+ * @since 3.5.1
+ */
+public interface SlowStatementSink {
+
+  void accept(SlowStatement slowStatement);
+
+}
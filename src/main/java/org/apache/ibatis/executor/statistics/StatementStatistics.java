@@ -0,0 +1,129 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.statistics;
+
+import java.sql.Statement;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 一个 MappedStatement 的执行统计
+ *
+ * 执行耗时分为三个阶段：准备（创建 Statement 并设置参数）、执行、结果映射。
+ *
+ * @see StatementStatisticsRegistry
+ * @since 3.5.1
+ */
+public class StatementStatistics {
+
+  private final String statementId;
+  private final LongAdder invocationCount = new LongAdder();
+  private final LongAdder errorCount = new LongAdder();
+  private final LongAdder rowCount = new LongAdder();
+  private final LatencyHistogram prepareLatency = new LatencyHistogram();
+  private final LatencyHistogram executeLatency = new LatencyHistogram();
+  private final LatencyHistogram mappingLatency = new LatencyHistogram();
+
+  public StatementStatistics(String statementId) {
+    this.statementId = statementId;
+  }
+
+  /**
+   * 记录一次成功的执行
+   *
+   * @param rows 返回或影响的行数，负数（例如批处理）不计入
+   */
+  public void recordSuccess(long rows) {
+    invocationCount.increment();
+    if (rows > 0) {
+      rowCount.add(rows);
+    }
+  }
+
+  /**
+   * 记录一次批处理的执行。批处理中的每条语句已经在加入批处理时计入执行次数
+   *
+   * @param executeNanos 执行批处理的耗时
+   * @param updateCounts 每条语句影响的行数，{@link Statement#SUCCESS_NO_INFO} 按 1 行计入
+   */
+  public void recordBatch(long executeNanos, int[] updateCounts) {
+    executeLatency.record(executeNanos);
+    long rows = 0;
+    for (int updateCount : updateCounts) {
+      if (updateCount > 0) {
+        rows += updateCount;
+      } else if (updateCount == Statement.SUCCESS_NO_INFO) {
+        rows++;
+      }
+    }
+    if (rows > 0) {
+      rowCount.add(rows);
+    }
+  }
+
+  /**
+   * 记录一次失败的执行
+   */
+  public void recordError() {
+    invocationCount.increment();
+    errorCount.increment();
+  }
+
+  public String getStatementId() {
+    return statementId;
+  }
+
+  public long getInvocationCount() {
+    return invocationCount.sum();
+  }
+
+  public long getErrorCount() {
+    return errorCount.sum();
+  }
+
+  public long getRowCount() {
+    return rowCount.sum();
+  }
+
+  public LatencyHistogram getPrepareLatency() {
+    return prepareLatency;
+  }
+
+  public LatencyHistogram getExecuteLatency() {
+    return executeLatency;
+  }
+
+  public LatencyHistogram getMappingLatency() {
+    return mappingLatency;
+  }
+
+  public void reset() {
+    invocationCount.reset();
+    errorCount.reset();
+    rowCount.reset();
+    prepareLatency.reset();
+    executeLatency.reset();
+    mappingLatency.reset();
+  }
+
+  @Override
+  public String toString() {
+    return statementId + " {invocations=" + getInvocationCount() + ", errors=" + getErrorCount()
+        + ", rows=" + getRowCount() + ", meanPrepareNanos=" + (long) prepareLatency.getMeanNanos()
+        + ", meanExecuteNanos=" + (long) executeLatency.getMeanNanos()
+        + ", meanMappingNanos=" + (long) mappingLatency.getMeanNanos() + "}";
+  }
+
+}
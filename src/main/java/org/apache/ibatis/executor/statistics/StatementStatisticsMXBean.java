@@ -0,0 +1,48 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.statistics;
+
+import java.util.Set;
+
+/**
+ * {@link StatementStatisticsRegistry} 的 JMX 接口，耗时的单位为毫秒
+ *
+ * @since 3.5.1
+ */
+public interface StatementStatisticsMXBean {
+
+  Set<String> getStatementIds();
+
+  long getInvocationCount(String statementId);
+
+  long getErrorCount(String statementId);
+
+  long getRowCount(String statementId);
+
+  double getMeanPrepareMillis(String statementId);
+
+  double getMeanExecuteMillis(String statementId);
+
+  double getMeanMappingMillis(String statementId);
+
+  /**
+   * @param percentile 百分位，取值范围为 (0, 100]
+   */
+  double getExecuteMillisPercentile(String statementId, double percentile);
+
+  void reset();
+
+}
@@ -0,0 +1,168 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.statistics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.ibatis.executor.ExecutorException;
+
+/**
+ * MappedStatement 执行统计的注册表，KEY 为 MappedStatement 的编号
+ *
+ * @see org.apache.ibatis.session.Configuration#getStatementStatisticsRegistry()
+ * @since 3.5.1
+ */
+public class StatementStatisticsRegistry implements StatementStatisticsMXBean {
+
+  private static final double NANOS_PER_MILLI = 1_000_000d;
+
+  private final ConcurrentMap<String, StatementStatistics> statistics = new ConcurrentHashMap<>();
+
+  /**
+   * 注册到 JMX 的名字，未注册时为 null
+   */
+  private ObjectName objectName;
+
+  /**
+   * @return 该 MappedStatement 的统计，不存在则创建
+   */
+  public StatementStatistics getOrCreate(String statementId) {
+    StatementStatistics result = statistics.get(statementId);
+    return result != null ? result : statistics.computeIfAbsent(statementId, StatementStatistics::new);
+  }
+
+  /**
+   * @return 该 MappedStatement 的统计，未执行过时返回 null
+   */
+  public StatementStatistics getStatistics(String statementId) {
+    return statistics.get(statementId);
+  }
+
+  /**
+   * @return 所有 MappedStatement 的统计
+   */
+  public Map<String, StatementStatistics> getAllStatistics() {
+    return Collections.unmodifiableMap(statistics);
+  }
+
+  @Override
+  public Set<String> getStatementIds() {
+    return new TreeSet<>(statistics.keySet());
+  }
+
+  @Override
+  public long getInvocationCount(String statementId) {
+    StatementStatistics s = statistics.get(statementId);
+    return s == null ? 0 : s.getInvocationCount();
+  }
+
+  @Override
+  public long getErrorCount(String statementId) {
+    StatementStatistics s = statistics.get(statementId);
+    return s == null ? 0 : s.getErrorCount();
+  }
+
+  @Override
+  public long getRowCount(String statementId) {
+    StatementStatistics s = statistics.get(statementId);
+    return s == null ? 0 : s.getRowCount();
+  }
+
+  @Override
+  public double getMeanPrepareMillis(String statementId) {
+    StatementStatistics s = statistics.get(statementId);
+    return s == null ? 0 : s.getPrepareLatency().getMeanNanos() / NANOS_PER_MILLI;
+  }
+
+  @Override
+  public double getMeanExecuteMillis(String statementId) {
+    StatementStatistics s = statistics.get(statementId);
+    return s == null ? 0 : s.getExecuteLatency().getMeanNanos() / NANOS_PER_MILLI;
+  }
+
+  @Override
+  public double getMeanMappingMillis(String statementId) {
+    StatementStatistics s = statistics.get(statementId);
+    return s == null ? 0 : s.getMappingLatency().getMeanNanos() / NANOS_PER_MILLI;
+  }
+
+  @Override
+  public double getExecuteMillisPercentile(String statementId, double percentile) {
+    StatementStatistics s = statistics.get(statementId);
+    return s == null ? 0 : s.getExecuteLatency().getPercentileNanos(percentile) / NANOS_PER_MILLI;
+  }
+
+  /**
+   * 清空所有统计
+   */
+  @Override
+  public void reset() {
+    for (StatementStatistics s : statistics.values()) {
+      s.reset();
+    }
+  }
+
+  /**
+   * 注册到平台的 MBeanServer
+   *
+   * @return 注册的名字
+   */
+  public synchronized ObjectName registerMBean() {
+    if (objectName == null) {
+      try {
+        ObjectName name = new ObjectName("org.apache.ibatis:type=StatementStatistics,name="
+            + Integer.toHexString(System.identityHashCode(this)));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+        objectName = name;
+      } catch (JMException e) {
+        throw new ExecutorException("Error registering statement statistics MBean. Cause: " + e, e);
+      }
+    }
+    return objectName;
+  }
+
+  /**
+   * 从平台的 MBeanServer 注销
+   */
+  public synchronized void unregisterMBean() {
+    if (objectName != null) {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      try {
+        if (server.isRegistered(objectName)) {
+          server.unregisterMBean(objectName);
+        }
+      } catch (JMException e) {
+        throw new ExecutorException("Error unregistering statement statistics MBean. Cause: " + e, e);
+      }
+      objectName = null;
+    }
+  }
+
+  public synchronized ObjectName getObjectName() {
+    return objectName;
+  }
+
+}
@@ -0,0 +1,136 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.logging.jdbc;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.apache.ibatis.logging.Log;
+
+/**
+ * Connection wrapper to add compact logging. Unlike {@link ConnectionLogger} it is not a
+ * dynamic proxy: every call is a plain virtual call to the wrapped connection, and result
+ * sets only log their total row count.
+ *
+ * @since 3.5.1
+ */
+public final class CompactConnectionLogger extends DelegatingConnection {
+
+  private final CompactJdbcLog log;
+
+  private CompactConnectionLogger(Connection conn, Log statementLog, int queryStack) {
+    super(conn);
+    this.log = new CompactJdbcLog(statementLog, queryStack);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(String sql) throws SQLException {
+    log.debugSql(" Preparing: ", sql);
+    return CompactPreparedStatementLogger.newInstance(connection.prepareStatement(sql), log);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+    log.debugSql(" Preparing: ", sql);
+    return CompactPreparedStatementLogger.newInstance(connection.prepareStatement(sql, autoGeneratedKeys), log);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+    log.debugSql(" Preparing: ", sql);
+    return CompactPreparedStatementLogger.newInstance(connection.prepareStatement(sql, resultSetType, resultSetConcurrency), log);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+    log.debugSql(" Preparing: ", sql);
+    return CompactPreparedStatementLogger.newInstance(connection.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability), log);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
+    log.debugSql(" Preparing: ", sql);
+    return CompactPreparedStatementLogger.newInstance(connection.prepareStatement(sql, columnIndexes), log);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
+    log.debugSql(" Preparing: ", sql);
+    return CompactPreparedStatementLogger.newInstance(connection.prepareStatement(sql, columnNames), log);
+  }
+
+  // 存储过程调用较少，且需要记录 OUT 参数，仍使用基于动态代理的 PreparedStatementLogger
+
+  @Override
+  public CallableStatement prepareCall(String sql) throws SQLException {
+    log.debugSql(" Preparing: ", sql);
+    return callableLogger(connection.prepareCall(sql));
+  }
+
+  @Override
+  public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+    log.debugSql(" Preparing: ", sql);
+    return callableLogger(connection.prepareCall(sql, resultSetType, resultSetConcurrency));
+  }
+
+  @Override
+  public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+    log.debugSql(" Preparing: ", sql);
+    return callableLogger(connection.prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability));
+  }
+
+  @Override
+  public Statement createStatement() throws SQLException {
+    return CompactStatementLogger.newInstance(connection.createStatement(), log);
+  }
+
+  @Override
+  public Statement createStatement(int resultSetType, int resultSetConcurrency) throws SQLException {
+    return CompactStatementLogger.newInstance(connection.createStatement(resultSetType, resultSetConcurrency), log);
+  }
+
+  @Override
+  public Statement createStatement(int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+    return CompactStatementLogger.newInstance(connection.createStatement(resultSetType, resultSetConcurrency, resultSetHoldability), log);
+  }
+
+  private CallableStatement callableLogger(CallableStatement stmt) {
+    return (CallableStatement) PreparedStatementLogger.newInstance(stmt, log.statementLog, log.queryStack);
+  }
+
+  /**
+   * Creates a compact logging version of a connection.
+   *
+   * @param conn - the original connection
+   * @return - the connection with logging
+   */
+  public static Connection newInstance(Connection conn, Log statementLog, int queryStack) {
+    return new CompactConnectionLogger(conn, statementLog, queryStack);
+  }
+
+  /**
+   * return the wrapped connection.
+   *
+   * @return the connection
+   */
+  public Connection getConnection() {
+    return connection;
+  }
+
+}
@@ -0,0 +1,105 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.logging.jdbc;
+
+import java.sql.Array;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.reflection.ArrayUtil;
+
+/**
+ * 精简 JDBC 日志的公共部分，输出格式与 {@link BaseJdbcLogger} 保持一致，
+ * 但前缀只计算一次，也不维护参数 Map。
+ *
+ * @since 3.5.1
+ */
+final class CompactJdbcLog {
+
+  final Log statementLog;
+  final int queryStack;
+  private final String inputPrefix;
+  private final String outputPrefix;
+
+  CompactJdbcLog(Log statementLog, int queryStack) {
+    this.statementLog = statementLog;
+    this.queryStack = queryStack == 0 ? 1 : queryStack;
+    char[] buffer = new char[this.queryStack * 2 + 2];
+    Arrays.fill(buffer, '=');
+    buffer[this.queryStack * 2 + 1] = ' ';
+    buffer[this.queryStack * 2] = '>';
+    this.inputPrefix = new String(buffer);
+    buffer[this.queryStack * 2] = '=';
+    buffer[0] = '<';
+    this.outputPrefix = new String(buffer);
+  }
+
+  boolean isDebugEnabled() {
+    return statementLog.isDebugEnabled();
+  }
+
+  void debug(String text, boolean input) {
+    if (statementLog.isDebugEnabled()) {
+      statementLog.debug((input ? inputPrefix : outputPrefix) + text);
+    }
+  }
+
+  void debugSql(String prefix, String sql) {
+    if (statementLog.isDebugEnabled()) {
+      StringBuilder builder = new StringBuilder(inputPrefix.length() + prefix.length() + sql.length());
+      builder.append(inputPrefix).append(prefix);
+      // 与 BaseJdbcLogger#removeBreakingWhitespace 相同：连续空白压缩为一个空格，末尾保留一个空格
+      boolean pendingSpace = false;
+      boolean any = false;
+      for (int i = 0; i < sql.length(); i++) {
+        char c = sql.charAt(i);
+        if (Character.isWhitespace(c)) {
+          pendingSpace = any;
+        } else {
+          if (pendingSpace) {
+            builder.append(' ');
+            pendingSpace = false;
+          }
+          builder.append(c);
+          any = true;
+        }
+      }
+      if (any) {
+        builder.append(' ');
+      }
+      statementLog.debug(builder.toString());
+    }
+  }
+
+  static void appendValue(StringBuilder builder, Object value) {
+    if (value == null) {
+      builder.append("null");
+      return;
+    }
+    if (value instanceof Array) {
+      try {
+        builder.append(ArrayUtil.toString(((Array) value).getArray()));
+      } catch (SQLException e) {
+        builder.append(value);
+      }
+    } else {
+      builder.append(value);
+    }
+    builder.append('(').append(value.getClass().getSimpleName()).append(')');
+  }
+
+}
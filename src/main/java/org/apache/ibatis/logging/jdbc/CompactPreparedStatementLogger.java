@@ -0,0 +1,153 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.logging.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import org.apache.ibatis.logging.Log;
+
+/**
+ * PreparedStatement wrapper to add compact logging, without reflection.
+ * Parameters are kept in an array indexed by position instead of maps.
+ *
+ * @since 3.5.1
+ */
+public final class CompactPreparedStatementLogger extends DelegatingPreparedStatement {
+
+  private static final Object[] NO_PARAMETERS = {};
+
+  private final CompactJdbcLog log;
+  private Object[] parameters = NO_PARAMETERS;
+  private int parameterCount;
+
+  private CompactPreparedStatementLogger(PreparedStatement stmt, CompactJdbcLog log) {
+    super(stmt);
+    this.log = log;
+  }
+
+  @Override
+  protected void parameterSet(int parameterIndex, Object value) {
+    if (parameterIndex < 1) {
+      return;
+    }
+    if (parameterIndex > parameters.length) {
+      parameters = Arrays.copyOf(parameters, Math.max(parameterIndex, parameters.length * 2));
+    }
+    parameters[parameterIndex - 1] = value;
+    if (parameterIndex > parameterCount) {
+      parameterCount = parameterIndex;
+    }
+  }
+
+  @Override
+  public void clearParameters() throws SQLException {
+    clearLoggedParameters();
+    preparedStatement.clearParameters();
+  }
+
+  @Override
+  public boolean execute() throws SQLException {
+    logParameters();
+    return preparedStatement.execute();
+  }
+
+  @Override
+  public ResultSet executeQuery() throws SQLException {
+    logParameters();
+    return CompactResultSetLogger.newInstance(preparedStatement.executeQuery(), log);
+  }
+
+  @Override
+  public int executeUpdate() throws SQLException {
+    logParameters();
+    return preparedStatement.executeUpdate();
+  }
+
+  @Override
+  public long executeLargeUpdate() throws SQLException {
+    logParameters();
+    return preparedStatement.executeLargeUpdate();
+  }
+
+  @Override
+  public void addBatch() throws SQLException {
+    logParameters();
+    preparedStatement.addBatch();
+  }
+
+  @Override
+  public ResultSet getResultSet() throws SQLException {
+    return CompactResultSetLogger.newInstance(preparedStatement.getResultSet(), log);
+  }
+
+  @Override
+  public int getUpdateCount() throws SQLException {
+    int updateCount = preparedStatement.getUpdateCount();
+    if (updateCount != -1) {
+      log.debug("   Updates: " + updateCount, false);
+    }
+    return updateCount;
+  }
+
+  private void logParameters() {
+    if (log.isDebugEnabled()) {
+      StringBuilder builder = new StringBuilder("Parameters: ");
+      for (int i = 0; i < parameterCount; i++) {
+        if (i > 0) {
+          builder.append(", ");
+        }
+        CompactJdbcLog.appendValue(builder, parameters[i]);
+      }
+      log.debug(builder.toString(), true);
+    }
+    clearLoggedParameters();
+  }
+
+  private void clearLoggedParameters() {
+    // 释放对参数值的引用，避免语句被缓存复用时持有大对象
+    Arrays.fill(parameters, 0, parameterCount, null);
+    parameterCount = 0;
+  }
+
+  /**
+   * Creates a compact logging version of a PreparedStatement.
+   *
+   * @param stmt - the statement
+   * @param statementLog - the statement log
+   * @param queryStack - the query stack
+   * @return - the wrapper
+   */
+  public static PreparedStatement newInstance(PreparedStatement stmt, Log statementLog, int queryStack) {
+    return new CompactPreparedStatementLogger(stmt, new CompactJdbcLog(statementLog, queryStack));
+  }
+
+  static PreparedStatement newInstance(PreparedStatement stmt, CompactJdbcLog log) {
+    return new CompactPreparedStatementLogger(stmt, log);
+  }
+
+  /**
+   * Return the wrapped prepared statement.
+   *
+   * @return the PreparedStatement
+   */
+  public PreparedStatement getPreparedStatement() {
+    return preparedStatement;
+  }
+
+}
@@ -0,0 +1,87 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.logging.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.apache.ibatis.logging.Log;
+
+/**
+ * ResultSet wrapper that only counts rows and logs the total once, instead of every row.
+ *
+ * @since 3.5.1
+ */
+public final class CompactResultSetLogger extends DelegatingResultSet {
+
+  private final CompactJdbcLog log;
+  private int rows;
+  private boolean reported;
+
+  private CompactResultSetLogger(ResultSet rs, CompactJdbcLog log) {
+    super(rs);
+    this.log = log;
+  }
+
+  @Override
+  public boolean next() throws SQLException {
+    boolean next = resultSet.next();
+    if (next) {
+      rows++;
+    } else {
+      report();
+    }
+    return next;
+  }
+
+  @Override
+  public void close() throws SQLException {
+    // 没有读到末尾就关闭时（例如 RowBounds 分页），输出已读取的行数
+    report();
+    resultSet.close();
+  }
+
+  private void report() {
+    if (!reported) {
+      reported = true;
+      log.debug("     Total: " + rows, false);
+    }
+  }
+
+  /**
+   * Creates a compact logging version of a ResultSet.
+   *
+   * @param rs - the ResultSet to wrap
+   * @return - the ResultSet with logging
+   */
+  public static ResultSet newInstance(ResultSet rs, Log statementLog, int queryStack) {
+    return newInstance(rs, new CompactJdbcLog(statementLog, queryStack));
+  }
+
+  static ResultSet newInstance(ResultSet rs, CompactJdbcLog log) {
+    return rs == null ? null : new CompactResultSetLogger(rs, log);
+  }
+
+  /**
+   * Get the wrapped result set.
+   *
+   * @return the resultSet
+   */
+  public ResultSet getRs() {
+    return resultSet;
+  }
+
+}
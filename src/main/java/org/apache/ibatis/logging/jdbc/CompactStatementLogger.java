@@ -0,0 +1,126 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.logging.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.apache.ibatis.logging.Log;
+
+/**
+ * Statement wrapper to add compact logging, without reflection.
+ *
+ * @since 3.5.1
+ */
+public final class CompactStatementLogger extends DelegatingStatement {
+
+  private final CompactJdbcLog log;
+
+  private CompactStatementLogger(Statement stmt, CompactJdbcLog log) {
+    super(stmt);
+    this.log = log;
+  }
+
+  @Override
+  public boolean execute(String sql) throws SQLException {
+    log.debugSql(" Executing: ", sql);
+    return statement.execute(sql);
+  }
+
+  @Override
+  public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+    log.debugSql(" Executing: ", sql);
+    return statement.execute(sql, autoGeneratedKeys);
+  }
+
+  @Override
+  public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+    log.debugSql(" Executing: ", sql);
+    return statement.execute(sql, columnIndexes);
+  }
+
+  @Override
+  public boolean execute(String sql, String[] columnNames) throws SQLException {
+    log.debugSql(" Executing: ", sql);
+    return statement.execute(sql, columnNames);
+  }
+
+  @Override
+  public ResultSet executeQuery(String sql) throws SQLException {
+    log.debugSql(" Executing: ", sql);
+    return CompactResultSetLogger.newInstance(statement.executeQuery(sql), log);
+  }
+
+  @Override
+  public int executeUpdate(String sql) throws SQLException {
+    log.debugSql(" Executing: ", sql);
+    return statement.executeUpdate(sql);
+  }
+
+  @Override
+  public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+    log.debugSql(" Executing: ", sql);
+    return statement.executeUpdate(sql, autoGeneratedKeys);
+  }
+
+  @Override
+  public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+    log.debugSql(" Executing: ", sql);
+    return statement.executeUpdate(sql, columnIndexes);
+  }
+
+  @Override
+  public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+    log.debugSql(" Executing: ", sql);
+    return statement.executeUpdate(sql, columnNames);
+  }
+
+  @Override
+  public void addBatch(String sql) throws SQLException {
+    log.debugSql(" Executing: ", sql);
+    statement.addBatch(sql);
+  }
+
+  @Override
+  public ResultSet getResultSet() throws SQLException {
+    return CompactResultSetLogger.newInstance(statement.getResultSet(), log);
+  }
+
+  /**
+   * Creates a compact logging version of a Statement.
+   *
+   * @param stmt - the statement
+   * @return - the wrapper
+   */
+  public static Statement newInstance(Statement stmt, Log statementLog, int queryStack) {
+    return new CompactStatementLogger(stmt, new CompactJdbcLog(statementLog, queryStack));
+  }
+
+  static Statement newInstance(Statement stmt, CompactJdbcLog log) {
+    return new CompactStatementLogger(stmt, log);
+  }
+
+  /**
+   * return the wrapped statement.
+   *
+   * @return the statement
+   */
+  public Statement getStatement() {
+    return statement;
+  }
+
+}
@@ -0,0 +1,405 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.logging.jdbc;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLType;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+
+/**
+ * 直接委托给被包装对象的 {@link PreparedStatement}，由 JDBC 4.2 接口生成。
+ * 每个 setXxx 方法都会先回调 {@link #parameterSet(int, Object)}。
+ *
+ * @since 3.5.1
+ */
+abstract class DelegatingPreparedStatement extends DelegatingStatement implements PreparedStatement {
+
+  protected final PreparedStatement preparedStatement;
+
+  DelegatingPreparedStatement(PreparedStatement preparedStatement) {
+    super(preparedStatement);
+    this.preparedStatement = preparedStatement;
+  }
+
+  @Override
+  public void addBatch() throws SQLException {
+    preparedStatement.addBatch();
+  }
+
+  @Override
+  public void clearParameters() throws SQLException {
+    preparedStatement.clearParameters();
+  }
+
+  @Override
+  public boolean execute() throws SQLException {
+    return preparedStatement.execute();
+  }
+
+  @Override
+  public long executeLargeUpdate() throws SQLException {
+    return preparedStatement.executeLargeUpdate();
+  }
+
+  @Override
+  public ResultSet executeQuery() throws SQLException {
+    return preparedStatement.executeQuery();
+  }
+
+  @Override
+  public int executeUpdate() throws SQLException {
+    return preparedStatement.executeUpdate();
+  }
+
+  @Override
+  public ResultSetMetaData getMetaData() throws SQLException {
+    return preparedStatement.getMetaData();
+  }
+
+  @Override
+  public ParameterMetaData getParameterMetaData() throws SQLException {
+    return preparedStatement.getParameterMetaData();
+  }
+
+  @Override
+  public void setArray(int parameterIndex, Array x) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setArray(parameterIndex, x);
+  }
+
+  @Override
+  public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setAsciiStream(parameterIndex, x);
+  }
+
+  @Override
+  public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setAsciiStream(parameterIndex, x, length);
+  }
+
+  @Override
+  public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setAsciiStream(parameterIndex, x, length);
+  }
+
+  @Override
+  public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setBigDecimal(parameterIndex, x);
+  }
+
+  @Override
+  public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setBinaryStream(parameterIndex, x);
+  }
+
+  @Override
+  public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setBinaryStream(parameterIndex, x, length);
+  }
+
+  @Override
+  public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setBinaryStream(parameterIndex, x, length);
+  }
+
+  @Override
+  public void setBlob(int parameterIndex, InputStream inputStream) throws SQLException {
+    parameterSet(parameterIndex, inputStream);
+    preparedStatement.setBlob(parameterIndex, inputStream);
+  }
+
+  @Override
+  public void setBlob(int parameterIndex, Blob x) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setBlob(parameterIndex, x);
+  }
+
+  @Override
+  public void setBlob(int parameterIndex, InputStream inputStream, long length) throws SQLException {
+    parameterSet(parameterIndex, inputStream);
+    preparedStatement.setBlob(parameterIndex, inputStream, length);
+  }
+
+  @Override
+  public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setBoolean(parameterIndex, x);
+  }
+
+  @Override
+  public void setByte(int parameterIndex, byte x) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setByte(parameterIndex, x);
+  }
+
+  @Override
+  public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setBytes(parameterIndex, x);
+  }
+
+  @Override
+  public void setCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+    parameterSet(parameterIndex, reader);
+    preparedStatement.setCharacterStream(parameterIndex, reader);
+  }
+
+  @Override
+  public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
+    parameterSet(parameterIndex, reader);
+    preparedStatement.setCharacterStream(parameterIndex, reader, length);
+  }
+
+  @Override
+  public void setCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+    parameterSet(parameterIndex, reader);
+    preparedStatement.setCharacterStream(parameterIndex, reader, length);
+  }
+
+  @Override
+  public void setClob(int parameterIndex, Reader reader) throws SQLException {
+    parameterSet(parameterIndex, reader);
+    preparedStatement.setClob(parameterIndex, reader);
+  }
+
+  @Override
+  public void setClob(int parameterIndex, Clob x) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setClob(parameterIndex, x);
+  }
+
+  @Override
+  public void setClob(int parameterIndex, Reader reader, long length) throws SQLException {
+    parameterSet(parameterIndex, reader);
+    preparedStatement.setClob(parameterIndex, reader, length);
+  }
+
+  @Override
+  public void setDate(int parameterIndex, Date x) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setDate(parameterIndex, x);
+  }
+
+  @Override
+  public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setDate(parameterIndex, x, cal);
+  }
+
+  @Override
+  public void setDouble(int parameterIndex, double x) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setDouble(parameterIndex, x);
+  }
+
+  @Override
+  public void setFloat(int parameterIndex, float x) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setFloat(parameterIndex, x);
+  }
+
+  @Override
+  public void setInt(int parameterIndex, int x) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setInt(parameterIndex, x);
+  }
+
+  @Override
+  public void setLong(int parameterIndex, long x) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setLong(parameterIndex, x);
+  }
+
+  @Override
+  public void setNCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+    parameterSet(parameterIndex, reader);
+    preparedStatement.setNCharacterStream(parameterIndex, reader);
+  }
+
+  @Override
+  public void setNCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+    parameterSet(parameterIndex, reader);
+    preparedStatement.setNCharacterStream(parameterIndex, reader, length);
+  }
+
+  @Override
+  public void setNClob(int parameterIndex, Reader reader) throws SQLException {
+    parameterSet(parameterIndex, reader);
+    preparedStatement.setNClob(parameterIndex, reader);
+  }
+
+  @Override
+  public void setNClob(int parameterIndex, NClob x) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setNClob(parameterIndex, x);
+  }
+
+  @Override
+  public void setNClob(int parameterIndex, Reader reader, long length) throws SQLException {
+    parameterSet(parameterIndex, reader);
+    preparedStatement.setNClob(parameterIndex, reader, length);
+  }
+
+  @Override
+  public void setNString(int parameterIndex, String x) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setNString(parameterIndex, x);
+  }
+
+  @Override
+  public void setNull(int parameterIndex, int sqlType) throws SQLException {
+    parameterSet(parameterIndex, null);
+    preparedStatement.setNull(parameterIndex, sqlType);
+  }
+
+  @Override
+  public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
+    parameterSet(parameterIndex, null);
+    preparedStatement.setNull(parameterIndex, sqlType, typeName);
+  }
+
+  @Override
+  public void setObject(int parameterIndex, Object x) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setObject(parameterIndex, x);
+  }
+
+  @Override
+  public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setObject(parameterIndex, x, targetSqlType);
+  }
+
+  @Override
+  public void setObject(int parameterIndex, Object x, SQLType targetSqlType) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setObject(parameterIndex, x, targetSqlType);
+  }
+
+  @Override
+  public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+  }
+
+  @Override
+  public void setObject(int parameterIndex, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+  }
+
+  @Override
+  public void setRef(int parameterIndex, Ref x) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setRef(parameterIndex, x);
+  }
+
+  @Override
+  public void setRowId(int parameterIndex, RowId x) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setRowId(parameterIndex, x);
+  }
+
+  @Override
+  public void setSQLXML(int parameterIndex, SQLXML x) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setSQLXML(parameterIndex, x);
+  }
+
+  @Override
+  public void setShort(int parameterIndex, short x) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setShort(parameterIndex, x);
+  }
+
+  @Override
+  public void setString(int parameterIndex, String x) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setString(parameterIndex, x);
+  }
+
+  @Override
+  public void setTime(int parameterIndex, Time x) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setTime(parameterIndex, x);
+  }
+
+  @Override
+  public void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setTime(parameterIndex, x, cal);
+  }
+
+  @Override
+  public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setTimestamp(parameterIndex, x);
+  }
+
+  @Override
+  public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setTimestamp(parameterIndex, x, cal);
+  }
+
+  @Override
+  public void setURL(int parameterIndex, URL x) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setURL(parameterIndex, x);
+  }
+
+  @Override
+  @Deprecated
+  public void setUnicodeStream(int parameterIndex, InputStream x, int length) throws SQLException {
+    parameterSet(parameterIndex, x);
+    preparedStatement.setUnicodeStream(parameterIndex, x, length);
+  }
+
+  /**
+   * 参数设置的回调，子类可覆盖以记录参数，默认不做任何处理。
+   *
+   * @param parameterIndex 参数位置，从 1 开始
+   * @param value 参数值，setNull 时为 null
+   */
+  protected void parameterSet(int parameterIndex, Object value) {
+  }
+
+}
@@ -0,0 +1,297 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.logging.jdbc;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+
+/**
+ * 直接委托给被包装对象的 {@link Statement}，由 JDBC 4.2 接口生成。
+ *
+ * @since 3.5.1
+ */
+abstract class DelegatingStatement implements Statement {
+
+  protected final Statement statement;
+
+  DelegatingStatement(Statement statement) {
+    this.statement = statement;
+  }
+
+  @Override
+  public void addBatch(String sql) throws SQLException {
+    statement.addBatch(sql);
+  }
+
+  @Override
+  public void cancel() throws SQLException {
+    statement.cancel();
+  }
+
+  @Override
+  public void clearBatch() throws SQLException {
+    statement.clearBatch();
+  }
+
+  @Override
+  public void clearWarnings() throws SQLException {
+    statement.clearWarnings();
+  }
+
+  @Override
+  public void close() throws SQLException {
+    statement.close();
+  }
+
+  @Override
+  public void closeOnCompletion() throws SQLException {
+    statement.closeOnCompletion();
+  }
+
+  @Override
+  public boolean execute(String sql) throws SQLException {
+    return statement.execute(sql);
+  }
+
+  @Override
+  public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+    return statement.execute(sql, columnIndexes);
+  }
+
+  @Override
+  public boolean execute(String sql, String[] columnNames) throws SQLException {
+    return statement.execute(sql, columnNames);
+  }
+
+  @Override
+  public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+    return statement.execute(sql, autoGeneratedKeys);
+  }
+
+  @Override
+  public int[] executeBatch() throws SQLException {
+    return statement.executeBatch();
+  }
+
+  @Override
+  public long[] executeLargeBatch() throws SQLException {
+    return statement.executeLargeBatch();
+  }
+
+  @Override
+  public long executeLargeUpdate(String sql) throws SQLException {
+    return statement.executeLargeUpdate(sql);
+  }
+
+  @Override
+  public long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException {
+    return statement.executeLargeUpdate(sql, columnIndexes);
+  }
+
+  @Override
+  public long executeLargeUpdate(String sql, String[] columnNames) throws SQLException {
+    return statement.executeLargeUpdate(sql, columnNames);
+  }
+
+  @Override
+  public long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+    return statement.executeLargeUpdate(sql, autoGeneratedKeys);
+  }
+
+  @Override
+  public ResultSet executeQuery(String sql) throws SQLException {
+    return statement.executeQuery(sql);
+  }
+
+  @Override
+  public int executeUpdate(String sql) throws SQLException {
+    return statement.executeUpdate(sql);
+  }
+
+  @Override
+  public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+    return statement.executeUpdate(sql, columnIndexes);
+  }
+
+  @Override
+  public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+    return statement.executeUpdate(sql, columnNames);
+  }
+
+  @Override
+  public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+    return statement.executeUpdate(sql, autoGeneratedKeys);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return statement.getConnection();
+  }
+
+  @Override
+  public int getFetchDirection() throws SQLException {
+    return statement.getFetchDirection();
+  }
+
+  @Override
+  public int getFetchSize() throws SQLException {
+    return statement.getFetchSize();
+  }
+
+  @Override
+  public ResultSet getGeneratedKeys() throws SQLException {
+    return statement.getGeneratedKeys();
+  }
+
+  @Override
+  public long getLargeMaxRows() throws SQLException {
+    return statement.getLargeMaxRows();
+  }
+
+  @Override
+  public long getLargeUpdateCount() throws SQLException {
+    return statement.getLargeUpdateCount();
+  }
+
+  @Override
+  public int getMaxFieldSize() throws SQLException {
+    return statement.getMaxFieldSize();
+  }
+
+  @Override
+  public int getMaxRows() throws SQLException {
+    return statement.getMaxRows();
+  }
+
+  @Override
+  public boolean getMoreResults() throws SQLException {
+    return statement.getMoreResults();
+  }
+
+  @Override
+  public boolean getMoreResults(int current) throws SQLException {
+    return statement.getMoreResults(current);
+  }
+
+  @Override
+  public int getQueryTimeout() throws SQLException {
+    return statement.getQueryTimeout();
+  }
+
+  @Override
+  public ResultSet getResultSet() throws SQLException {
+    return statement.getResultSet();
+  }
+
+  @Override
+  public int getResultSetConcurrency() throws SQLException {
+    return statement.getResultSetConcurrency();
+  }
+
+  @Override
+  public int getResultSetHoldability() throws SQLException {
+    return statement.getResultSetHoldability();
+  }
+
+  @Override
+  public int getResultSetType() throws SQLException {
+    return statement.getResultSetType();
+  }
+
+  @Override
+  public int getUpdateCount() throws SQLException {
+    return statement.getUpdateCount();
+  }
+
+  @Override
+  public SQLWarning getWarnings() throws SQLException {
+    return statement.getWarnings();
+  }
+
+  @Override
+  public boolean isCloseOnCompletion() throws SQLException {
+    return statement.isCloseOnCompletion();
+  }
+
+  @Override
+  public boolean isClosed() throws SQLException {
+    return statement.isClosed();
+  }
+
+  @Override
+  public boolean isPoolable() throws SQLException {
+    return statement.isPoolable();
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) throws SQLException {
+    return statement.isWrapperFor(iface);
+  }
+
+  @Override
+  public void setCursorName(String name) throws SQLException {
+    statement.setCursorName(name);
+  }
+
+  @Override
+  public void setEscapeProcessing(boolean escapeProcessing) throws SQLException {
+    statement.setEscapeProcessing(escapeProcessing);
+  }
+
+  @Override
+  public void setFetchDirection(int fetchDirection) throws SQLException {
+    statement.setFetchDirection(fetchDirection);
+  }
+
+  @Override
+  public void setFetchSize(int fetchSize) throws SQLException {
+    statement.setFetchSize(fetchSize);
+  }
+
+  @Override
+  public void setLargeMaxRows(long largeMaxRows) throws SQLException {
+    statement.setLargeMaxRows(largeMaxRows);
+  }
+
+  @Override
+  public void setMaxFieldSize(int maxFieldSize) throws SQLException {
+    statement.setMaxFieldSize(maxFieldSize);
+  }
+
+  @Override
+  public void setMaxRows(int maxRows) throws SQLException {
+    statement.setMaxRows(maxRows);
+  }
+
+  @Override
+  public void setPoolable(boolean poolable) throws SQLException {
+    statement.setPoolable(poolable);
+  }
+
+  @Override
+  public void setQueryTimeout(int queryTimeout) throws SQLException {
+    statement.setQueryTimeout(queryTimeout);
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    return statement.unwrap(iface);
+  }
+
+}
@@ -0,0 +1,67 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.logging.jdbc;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.ibatis.logging.Log;
+
+/**
+ * JDBC 日志采样器：每个语句（以其 statement log 区分）每 N 次获取连接只记录 1 次，
+ * 未被采样的直接使用原始 Connection，没有任何日志包装的开销。
+ *
+ * 采样在 Executor 获取连接、准备 Statement 时决定，而不是每次执行时决定：
+ * ReuseExecutor 缓存的 Statement 在之后的执行中沿用准备时的结果，
+ * BatchExecutor 中同一个批处理的每一行也都沿用创建 Statement 时的结果。
+ *
+ * @since 3.5.1
+ */
+public class JdbcLogSampler {
+
+  private final int sampleRate;
+  private final ConcurrentMap<Log, AtomicLong> executions = new ConcurrentHashMap<>();
+
+  public JdbcLogSampler(int sampleRate) {
+    if (sampleRate < 1) {
+      throw new IllegalArgumentException("sampleRate must be greater than 0 but was " + sampleRate);
+    }
+    this.sampleRate = sampleRate;
+  }
+
+  public int getSampleRate() {
+    return sampleRate;
+  }
+
+  /**
+   * 判断本次准备的 Statement 是否需要记录日志。每个语句的第 1 次总会被记录。
+   *
+   * @param statementLog 语句对应的日志对象
+   * @return 是否记录
+   */
+  public boolean isSampled(Log statementLog) {
+    if (sampleRate == 1) {
+      return true;
+    }
+    AtomicLong counter = executions.get(statementLog);
+    if (counter == null) {
+      counter = executions.computeIfAbsent(statementLog, k -> new AtomicLong());
+    }
+    return counter.getAndIncrement() % sampleRate == 0;
+  }
+
+}
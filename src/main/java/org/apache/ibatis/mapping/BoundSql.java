@@ -78,6 +78,14 @@ public class BoundSql {
     return parameterObject;
   }
 
+  /**
+   * @return 是否有附加的参数
+   * @since 3.5.1
+   */
+  public boolean hasAdditionalParameters() {
+    return !additionalParameters.isEmpty();
+  }
+
   public boolean hasAdditionalParameter(String name) {
     String paramName = new PropertyTokenizer(name).getName();
     return additionalParameters.containsKey(paramName);
@@ -95,6 +95,14 @@ public final class MappedStatement {
    * 这就使得在获取嵌套结果集的时候，不至于导致内存不够用。默认值：false
    */
   private boolean resultOrdered;
+  /**
+   * BATCH执行器是否将多次插入合并为一条多行的INSERT语句，默认值：false
+   */
+  private boolean rewriteBatch;
+  /**
+   * 慢语句的阈值，单位：毫秒。为空时，使用 {@link Configuration#getSlowStatementThreshold()}
+   */
+  private Long slowThreshold;
   /**
    * SQL语句类型
    */
@@ -223,6 +231,22 @@ public final class MappedStatement {
       return this;
     }
 
+    /**
+     * @since 3.5.1
+     */
+    public Builder rewriteBatch(boolean rewriteBatch) {
+      mappedStatement.rewriteBatch = rewriteBatch;
+      return this;
+    }
+
+    /**
+     * @since 3.5.1
+     */
+    public Builder slowThreshold(Long slowThreshold) {
+      mappedStatement.slowThreshold = slowThreshold;
+      return this;
+    }
+
     public Builder keyGenerator(KeyGenerator keyGenerator) {
       mappedStatement.keyGenerator = keyGenerator;
       return this;
@@ -340,6 +364,20 @@ public final class MappedStatement {
     return resultOrdered;
   }
 
+  /**
+   * @since 3.5.1
+   */
+  public boolean isRewriteBatch() {
+    return rewriteBatch;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public Long getSlowThreshold() {
+    return slowThreshold;
+  }
+
   public String getDatabaseId() {
     return databaseId;
   }
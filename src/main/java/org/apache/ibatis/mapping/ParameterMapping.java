@@ -17,6 +17,7 @@ package org.apache.ibatis.mapping;
 
 import java.sql.ResultSet;
 
+import org.apache.ibatis.reflection.PropertyPath;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeHandler;
@@ -69,6 +70,10 @@ public class ParameterMapping {
    * ps：目前暂时不支持
    */
   private String expression;
+  /**
+   * property 对应的预编译属性路径，首次使用时获得
+   */
+  private PropertyPath propertyPath;
 
   private ParameterMapping() {
   }
@@ -232,6 +237,21 @@ public class ParameterMapping {
     return expression;
   }
 
+  /**
+   * Used when reading the parameter value from the parameter object.
+   * 同一个 ParameterMapping 只获得一次，避免每次执行都查找 {@link Configuration#getPropertyPath(String)} 的缓存
+   * @return
+   * @since 3.5.1
+   */
+  public PropertyPath getPropertyPath() {
+    PropertyPath path = propertyPath;
+    if (path == null) {
+      path = configuration.getPropertyPath(property);
+      propertyPath = path;
+    }
+    return path;
+  }
+
   @Override
   public String toString() {
     final StringBuilder sb = new StringBuilder("ParameterMapping{");
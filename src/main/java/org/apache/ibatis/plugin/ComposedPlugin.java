@@ -0,0 +1,240 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.plugin;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.reflection.ExceptionUtil;
+
+/**
+ * 组合的插件，为一种目标类型和一组拦截器生成一个委托类，代替每个拦截器一层的 {@link Plugin} 动态代理。
+ *
+ * 没有被任何拦截器拦截的方法，生成的类直接调用目标对象；被拦截的方法按下标调用 {@link #invoke(Object[], int, int, Object[])} ，
+ * 由外到内依次交给拦截器处理。与 {@link InterceptorChain#pluginAll(Object)} 一样，后添加的拦截器在外层，
+ * 拦截器的 {@link Invocation#getTarget()} 是只包含内层拦截器的对象，最内层的拦截器获得的是目标对象本身。
+ *
+ * @since 3.5.1
+ */
+public final class ComposedPlugin {
+
+  private static final Log log = LogFactory.getLog(ComposedPlugin.class);
+
+  /**
+   * 适用于目标类型的拦截器，按添加的顺序
+   */
+  private final Interceptor[] interceptors;
+  /**
+   * 每个拦截器是否声明了适用的 MappedStatement
+   */
+  private final boolean[] filtered;
+  /**
+   * 按下标排列的被拦截的方法
+   */
+  private final Method[] methods;
+  /**
+   * 每个被拦截的方法对应的拦截器下标，从小到大
+   */
+  private final int[][] interceptorIndexes;
+  /**
+   * 生成的类的构造方法。没有适用的拦截器时为 null
+   */
+  private final Constructor<?> constructor;
+  /**
+   * 是否可以使用生成的类
+   */
+  private final boolean supported;
+
+  ComposedPlugin(Class<?> type, List<Interceptor> interceptors) {
+    List<Interceptor> applicable = new ArrayList<>();
+    List<Map<Class<?>, Set<Method>>> signatureMaps = new ArrayList<>();
+    Set<Class<?>> interfaces = new LinkedHashSet<>();
+    boolean annotated = true;
+    for (Interceptor interceptor : interceptors) {
+      // 没有 @Intercepts 注解的拦截器，只能由它自己的 plugin 方法处理
+      if (interceptor.getClass().getAnnotation(Intercepts.class) == null) {
+        annotated = false;
+        break;
+      }
+      Map<Class<?>, Set<Method>> signatureMap = Plugin.getSignatureMap(interceptor);
+      Class<?>[] matched = Plugin.getAllInterfaces(type, signatureMap);
+      if (matched.length > 0) {
+        applicable.add(interceptor);
+        signatureMaps.add(signatureMap);
+        interfaces.addAll(Arrays.asList(matched));
+      }
+    }
+    Constructor<?> generated = null;
+    List<Method> intercepted = new ArrayList<>();
+    List<int[]> indexes = new ArrayList<>();
+    if (annotated && !applicable.isEmpty()) {
+      Method[] implemented = collectMethods(interfaces);
+      int[] dispatchIndexes = new int[implemented.length];
+      for (int i = 0; i < implemented.length; i++) {
+        int[] owners = findInterceptors(implemented[i], signatureMaps);
+        if (owners.length == 0) {
+          dispatchIndexes[i] = -1;
+        } else {
+          dispatchIndexes[i] = intercepted.size();
+          intercepted.add(implemented[i]);
+          indexes.add(owners);
+        }
+      }
+      if (isGenerable(type, interfaces, intercepted)) {
+        try {
+          generated = ComposedPluginGenerator.generate(type, interfaces.toArray(new Class<?>[0]), implemented, dispatchIndexes);
+        } catch (Exception | LinkageError e) {
+          log.debug("Could not generate a composed plugin for " + type.getName() + ", using proxies instead. Cause: " + e);
+        }
+      }
+    }
+    this.interceptors = applicable.toArray(new Interceptor[0]);
+    this.filtered = new boolean[this.interceptors.length];
+    for (int i = 0; i < this.interceptors.length; i++) {
+      this.filtered[i] = StatementFilter.isFiltered(this.interceptors[i]);
+    }
+    this.methods = intercepted.toArray(new Method[0]);
+    this.interceptorIndexes = indexes.toArray(new int[0][]);
+    this.constructor = generated;
+    this.supported = annotated && (applicable.isEmpty() || generated != null);
+  }
+
+  /**
+   * @return 是否可以使用生成的类，否则需要使用拦截器的 plugin 方法
+   */
+  boolean isSupported() {
+    return supported;
+  }
+
+  /**
+   * 包装目标对象。没有适用的拦截器时，直接返回目标对象
+   */
+  Object wrap(Object target) {
+    if (constructor == null) {
+      return target;
+    }
+    // 每一层对应的对象，第 0 层为目标对象本身，其它层在第一次使用时创建
+    Object[] layers = new Object[interceptors.length + 1];
+    layers[0] = target;
+    return getLayer(layers, interceptors.length);
+  }
+
+  /**
+   * 执行被拦截的方法，由生成的类调用
+   *
+   * @param layers 每一层对应的对象
+   * @param level 调用方所在的层，只有下标小于它的拦截器会被调用
+   * @param index 方法的下标
+   * @param args 参数
+   * @return 结果
+   */
+  public Object invoke(Object[] layers, int level, int index, Object[] args) throws Throwable {
+    Method method = methods[index];
+    try {
+      int[] owners = interceptorIndexes[index];
+      for (int i = owners.length - 1; i >= 0; i--) {
+        int owner = owners[i];
+        // 不适用于参数中的 MappedStatement 的拦截器，交给更内层处理
+        if (owner < level && (!filtered[owner] || StatementFilter.isApplicable(interceptors[owner], args))) {
+          return interceptors[owner].intercept(new Invocation(getLayer(layers, owner), method, args));
+        }
+      }
+      // 内层没有拦截该方法的拦截器，调用目标对象
+      return method.invoke(layers[0], args);
+    } catch (Exception e) {
+      throw ExceptionUtil.unwrapThrowable(e);
+    }
+  }
+
+  private Object getLayer(Object[] layers, int level) {
+    Object layer = layers[level];
+    if (layer == null) {
+      try {
+        layer = constructor.newInstance(layers[0], this, layers, level);
+      } catch (ReflectiveOperationException e) {
+        throw new PluginException("Error creating composed plugin " + constructor.getDeclaringClass().getName() + ". Cause: " + e, e);
+      }
+      layers[level] = layer;
+    }
+    return layer;
+  }
+
+  /**
+   * 获得接口的所有方法，相同签名的方法只保留一个
+   */
+  private static Method[] collectMethods(Set<Class<?>> interfaces) {
+    Map<String, Method> methods = new HashMap<>();
+    List<Method> result = new ArrayList<>();
+    for (Class<?> type : interfaces) {
+      for (Method method : type.getMethods()) {
+        if (Modifier.isStatic(method.getModifiers())) {
+          continue;
+        }
+        String signature = method.getName() + Arrays.toString(method.getParameterTypes());
+        if (methods.putIfAbsent(signature, method) == null) {
+          result.add(method);
+        }
+      }
+    }
+    return result.toArray(new Method[0]);
+  }
+
+  private static int[] findInterceptors(Method method, List<Map<Class<?>, Set<Method>>> signatureMaps) {
+    List<Integer> owners = new ArrayList<>();
+    for (int i = 0; i < signatureMaps.size(); i++) {
+      Set<Method> methods = signatureMaps.get(i).get(method.getDeclaringClass());
+      if (methods != null && methods.contains(method)) {
+        owners.add(i);
+      }
+    }
+    return owners.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  /**
+   * 生成的类在另一个类加载器中，只能实现 public 的接口，被拦截方法的返回值需要强制转换，也必须是 public 的
+   */
+  private static boolean isGenerable(Class<?> type, Set<Class<?>> interfaces, List<Method> intercepted) {
+    if (type.getClassLoader() == null) {
+      return false;
+    }
+    for (Class<?> each : interfaces) {
+      if (!Modifier.isPublic(each.getModifiers())) {
+        return false;
+      }
+    }
+    for (Method method : intercepted) {
+      Class<?> returnType = method.getReturnType();
+      while (returnType.isArray()) {
+        returnType = returnType.getComponentType();
+      }
+      if (!returnType.isPrimitive() && !Modifier.isPublic(returnType.getModifiers())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+}
@@ -0,0 +1,126 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.plugin;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+import javassist.ClassClassPath;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.CtMethod;
+import javassist.CtNewConstructor;
+import javassist.CtNewMethod;
+import javassist.LoaderClassPath;
+
+/**
+ * 使用 Javassist 生成 {@link ComposedPlugin} 的委托类。
+ *
+ * @since 3.5.1
+ */
+final class ComposedPluginGenerator {
+
+  static final String CLASS_NAME_SUFFIX = "$$MyBatisPlugin";
+
+  private ComposedPluginGenerator() {
+    // Prevent Instantiation of Static Class
+  }
+
+  /**
+   * @param type 目标类型
+   * @param interfaces 需要实现的接口
+   * @param methods 接口的所有方法
+   * @param dispatchIndexes 每个方法在 {@link ComposedPlugin} 中的下标，没有被拦截的方法为 -1
+   * @return 生成的类的构造方法
+   */
+  static Constructor<?> generate(Class<?> type, Class<?>[] interfaces, Method[] methods, int[] dispatchIndexes) throws Exception {
+    ClassPool pool = new ClassPool(false);
+    pool.appendClassPath(new LoaderClassPath(type.getClassLoader()));
+    pool.appendClassPath(new ClassClassPath(ComposedPluginGenerator.class));
+    pool.appendClassPath(new ClassClassPath(Object.class));
+
+    String className = type.getName() + CLASS_NAME_SUFFIX;
+    String pluginName = ComposedPlugin.class.getName();
+    CtClass ctClass = pool.makeClass(className);
+    for (Class<?> each : interfaces) {
+      ctClass.addInterface(pool.get(each.getName()));
+    }
+    ctClass.addField(CtField.make("private final Object target;", ctClass));
+    ctClass.addField(CtField.make("private final " + pluginName + " plugin;", ctClass));
+    ctClass.addField(CtField.make("private final Object[] layers;", ctClass));
+    ctClass.addField(CtField.make("private final int level;", ctClass));
+    ctClass.addConstructor(CtNewConstructor.make("public " + ctClass.getSimpleName() + "(Object target, " + pluginName
+        + " plugin, Object[] layers, int level) { this.target = target; this.plugin = plugin; this.layers = layers; this.level = level; }", ctClass));
+    for (int i = 0; i < methods.length; i++) {
+      Method method = methods[i];
+      Class<?>[] parameterTypes = method.getParameterTypes();
+      CtClass[] ctParameterTypes = new CtClass[parameterTypes.length];
+      for (int j = 0; j < parameterTypes.length; j++) {
+        ctParameterTypes[j] = pool.get(toJavassistName(parameterTypes[j]));
+      }
+      CtMethod ctMethod = new CtMethod(pool.get(toJavassistName(method.getReturnType())), method.getName(), ctParameterTypes, ctClass);
+      String body;
+      if (dispatchIndexes[i] >= 0) {
+        // ($r) 负责返回值的拆箱和 void 的处理，$args 为参数数组
+        body = "{ return ($r) this.plugin.invoke(this.layers, this.level, " + dispatchIndexes[i] + ", $args); }";
+      } else {
+        // 没有被拦截的方法，直接调用目标对象
+        String call = "((" + method.getDeclaringClass().getName() + ") this.target)." + method.getName() + "($$);";
+        body = "{ " + (method.getReturnType() == void.class ? "" : "return ") + call + " }";
+      }
+      ctMethod.setBody(body);
+      ctClass.addMethod(ctMethod);
+    }
+    // 与 Plugin 一样，Object 的方法交给目标对象
+    ctClass.addMethod(CtNewMethod.make("public boolean equals(Object other) { return this.target.equals(other); }", ctClass));
+    ctClass.addMethod(CtNewMethod.make("public int hashCode() { return this.target.hashCode(); }", ctClass));
+    ctClass.addMethod(CtNewMethod.make("public String toString() { return this.target.toString(); }", ctClass));
+    byte[] bytecode = ctClass.toBytecode();
+    ctClass.detach();
+
+    Class<?> generated = new ComposedPluginClassLoader(type.getClassLoader()).define(className, bytecode);
+    return generated.getConstructor(Object.class, ComposedPlugin.class, Object[].class, int.class);
+  }
+
+  private static String toJavassistName(Class<?> type) {
+    return type.isArray() ? toJavassistName(type.getComponentType()) + "[]" : type.getName();
+  }
+
+  /**
+   * 加载生成的类。以目标类型的类加载器为父加载器，生成的类引用的 {@link ComposedPlugin} 总是使用当前的版本。
+   */
+  private static final class ComposedPluginClassLoader extends ClassLoader {
+
+    ComposedPluginClassLoader(ClassLoader parent) {
+      super(parent);
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+      if (ComposedPlugin.class.getName().equals(name)) {
+        return ComposedPlugin.class;
+      }
+      return super.loadClass(name, resolve);
+    }
+
+    Class<?> define(String name, byte[] bytecode) {
+      return defineClass(name, bytecode, 0, bytecode.length);
+    }
+
+  }
+
+}
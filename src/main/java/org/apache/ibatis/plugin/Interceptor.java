@@ -17,6 +17,8 @@ package org.apache.ibatis.plugin;
 
 import java.util.Properties;
 
+import org.apache.ibatis.mapping.MappedStatement;
+
 /**
  * 拦截器接口
  * @author Clinton Begin
@@ -45,4 +47,16 @@ public interface Interceptor {
    */
   void setProperties(Properties properties);
 
+  /**
+   * 判断拦截器是否适用于指定的 MappedStatement ，与 {@link Intercepts#statements()} 同时满足时才适用。
+   * 对于每个 MappedStatement 只调用一次，结果会被缓存。
+   *
+   * @param mappedStatement MappedStatement 对象
+   * @return 是否适用
+   * @since 3.5.1
+   */
+  default boolean appliesTo(MappedStatement mappedStatement) {
+    return true;
+  }
+
 }
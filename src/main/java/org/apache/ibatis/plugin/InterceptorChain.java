@@ -18,6 +18,10 @@ package org.apache.ibatis.plugin;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.ibatis.mapping.MappedStatement;
 
 /**
  * 拦截器Interceptor链
@@ -29,6 +33,27 @@ public class InterceptorChain {
    * 拦截器数据
    */
   private final List<Interceptor> interceptors = new ArrayList<>();
+  private final List<Interceptor> unmodifiableInterceptors = Collections.unmodifiableList(interceptors);
+  /**
+   * 是否使用 {@link ComposedPlugin}
+   */
+  private volatile boolean composed;
+  /**
+   * 按目标类型缓存的 ComposedPlugin
+   */
+  private final ConcurrentMap<Class<?>, ComposedPlugin> composedPlugins = new ConcurrentHashMap<>();
+  /**
+   * 是否有拦截器声明了适用的 MappedStatement
+   */
+  private volatile boolean filtered;
+  /**
+   * 每个 MappedStatement 适用的拦截器
+   */
+  private final ConcurrentMap<MappedStatement, List<Interceptor>> statementInterceptors = new ConcurrentHashMap<>();
+  /**
+   * 按适用的拦截器和目标类型缓存的 ComposedPlugin ，用于只有部分拦截器适用的 MappedStatement
+   */
+  private final ConcurrentMap<List<Interceptor>, ConcurrentMap<Class<?>, ComposedPlugin>> filteredComposedPlugins = new ConcurrentHashMap<>();
 
   /**
    * 应用所有拦截器到指定目标对象
@@ -38,20 +63,145 @@ public class InterceptorChain {
    * @return 应用结果
    */
   public Object pluginAll(Object target) {
+    // 使用一个生成的类组合所有拦截器
+    if (composed) {
+      ComposedPlugin plugin = getComposedPlugin(target.getClass());
+      if (plugin.isSupported()) {
+        return plugin.wrap(target);
+      }
+    }
     for (Interceptor interceptor : interceptors) {
       target = interceptor.plugin(target);
     }
     return target;
   }
 
+  /**
+   * 应用适用于指定 MappedStatement 的拦截器到目标对象。
+   * 用于 StatementHandler、ParameterHandler、ResultSetHandler ，没有适用的拦截器时，直接返回目标对象
+   *
+   * @param target 目标对象
+   * @param mappedStatement MappedStatement 对象
+   * @return 应用结果
+   * @see Intercepts#statements()
+   * @see Interceptor#appliesTo(MappedStatement)
+   * @since 3.5.1
+   */
+  public Object pluginAll(Object target, MappedStatement mappedStatement) {
+    List<Interceptor> applicable = getInterceptors(mappedStatement);
+    // 全部适用时，与 pluginAll(Object) 相同
+    if (applicable.size() == interceptors.size()) {
+      return pluginAll(target);
+    }
+    if (applicable.isEmpty()) {
+      return target;
+    }
+    if (composed) {
+      ComposedPlugin plugin = filteredComposedPlugins
+          .computeIfAbsent(applicable, k -> new ConcurrentHashMap<>())
+          .computeIfAbsent(target.getClass(), k -> new ComposedPlugin(k, applicable));
+      if (plugin.isSupported()) {
+        return plugin.wrap(target);
+      }
+    }
+    for (Interceptor interceptor : applicable) {
+      target = interceptor.plugin(target);
+    }
+    return target;
+  }
+
+  /**
+   * 获得适用于指定 MappedStatement 的拦截器，按添加的顺序。每个 MappedStatement 只判断一次
+   *
+   * @param mappedStatement MappedStatement 对象
+   * @return 拦截器
+   * @since 3.5.1
+   */
+  public List<Interceptor> getInterceptors(MappedStatement mappedStatement) {
+    // 没有拦截器声明适用范围时，不需要缓存
+    if (!filtered) {
+      return unmodifiableInterceptors;
+    }
+    List<Interceptor> applicable = statementInterceptors.get(mappedStatement);
+    if (applicable == null) {
+      applicable = statementInterceptors.computeIfAbsent(mappedStatement, this::filterInterceptors);
+    }
+    return applicable;
+  }
+
+  /**
+   * 判断拦截器是否适用于指定的 MappedStatement 。拦截器属于该链时，使用缓存的结果
+   *
+   * @since 3.5.1
+   */
+  public boolean isApplicable(Interceptor interceptor, MappedStatement mappedStatement) {
+    boolean contained = false;
+    for (Interceptor each : interceptors) {
+      if (each == interceptor) {
+        contained = true;
+        break;
+      }
+    }
+    if (!contained) {
+      return StatementFilter.matches(interceptor, mappedStatement);
+    }
+    for (Interceptor each : getInterceptors(mappedStatement)) {
+      if (each == interceptor) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private List<Interceptor> filterInterceptors(MappedStatement mappedStatement) {
+    List<Interceptor> applicable = new ArrayList<>();
+    for (Interceptor interceptor : interceptors) {
+      if (!StatementFilter.isFiltered(interceptor) || StatementFilter.matches(interceptor, mappedStatement)) {
+        applicable.add(interceptor);
+      }
+    }
+    return applicable.size() == interceptors.size() ? unmodifiableInterceptors : Collections.unmodifiableList(applicable);
+  }
+
   // 添加拦截器
   // 该方法在 XMLConfigBuilder#pluginElement(XNode parent) 方法中被调用
   public void addInterceptor(Interceptor interceptor) {
     interceptors.add(interceptor);
+    composedPlugins.clear();
+    statementInterceptors.clear();
+    filteredComposedPlugins.clear();
+    if (StatementFilter.isFiltered(interceptor)) {
+      filtered = true;
+    }
   }
 
   public List<Interceptor> getInterceptors() {
-    return Collections.unmodifiableList(interceptors);
+    return unmodifiableInterceptors;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public boolean isComposed() {
+    return composed;
+  }
+
+  /**
+   * 设置是否为每种目标类型生成一个组合了所有拦截器的类，代替每个拦截器一层的动态代理。
+   * 此时拦截器按 {@link Intercepts} 注解选择，不再调用 {@link Interceptor#plugin(Object)} 。
+   *
+   * @since 3.5.1
+   */
+  public void setComposed(boolean composed) {
+    this.composed = composed;
+  }
+
+  private ComposedPlugin getComposedPlugin(Class<?> type) {
+    ComposedPlugin plugin = composedPlugins.get(type);
+    if (plugin == null) {
+      plugin = composedPlugins.computeIfAbsent(type, k -> new ComposedPlugin(k, interceptors));
+    }
+    return plugin;
   }
 
 }
@@ -34,5 +34,18 @@ public @interface Intercepts {
    * @return 拦截的方法签名的数组
    */
   Signature[] value();
+
+  /**
+   * 拦截器适用的 MappedStatement 编号的模式，"*" 匹配任意字符，例如 "com.example.UserMapper.*" 或 "*.selectPage*" 。
+   * 为空时适用于所有 MappedStatement 。
+   *
+   * 对于每个 MappedStatement 只判断一次：不适用时，该语句的 StatementHandler、ParameterHandler 和 ResultSetHandler 不会被该拦截器包装，
+   * Executor 上以该 MappedStatement 为参数的方法也不会被该拦截器拦截。
+   *
+   * @return 模式的数组
+   * @see Interceptor#appliesTo(org.apache.ibatis.mapping.MappedStatement)
+   * @since 3.5.1
+   */
+  String[] statements() default {};
 }
 
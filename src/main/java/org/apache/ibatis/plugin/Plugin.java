@@ -47,11 +47,16 @@ public class Plugin implements InvocationHandler {
    * VALUE：方法集合
    */
   private final Map<Class<?>, Set<Method>> signatureMap;
+  /**
+   * 拦截器是否声明了适用的 MappedStatement
+   */
+  private final boolean filtered;
 
   private Plugin(Object target, Interceptor interceptor, Map<Class<?>, Set<Method>> signatureMap) {
     this.target = target;
     this.interceptor = interceptor;
     this.signatureMap = signatureMap;
+    this.filtered = StatementFilter.isFiltered(interceptor);
   }
 
   // 创建目标类的代理对象
@@ -79,7 +84,8 @@ public class Plugin implements InvocationHandler {
     try {
       // 判断目标方法是否被拦截
       Set<Method> methods = signatureMap.get(method.getDeclaringClass());
-      if (methods != null && methods.contains(method)) {
+      // 以 MappedStatement 为参数的方法（Executor 的方法），还需要判断拦截器是否适用于该 MappedStatement
+      if (methods != null && methods.contains(method) && (!filtered || StatementFilter.isApplicable(interceptor, args))) {
         // 如果是，则拦截处理该方法
         return interceptor.intercept(new Invocation(target, method, args));
       }
@@ -91,7 +97,7 @@ public class Plugin implements InvocationHandler {
   }
 
   // 获得拦截的方法映射
-  private static Map<Class<?>, Set<Method>> getSignatureMap(Interceptor interceptor) {
+  static Map<Class<?>, Set<Method>> getSignatureMap(Interceptor interceptor) {
     Intercepts interceptsAnnotation = interceptor.getClass().getAnnotation(Intercepts.class);
     // issue #251
     if (interceptsAnnotation == null) {
@@ -112,7 +118,7 @@ public class Plugin implements InvocationHandler {
   }
 
   // 获得目标类的接口集合（从这里可以看出，@Signature注解的type属性，必须是接口）
-  private static Class<?>[] getAllInterfaces(Class<?> type, Map<Class<?>, Set<Method>> signatureMap) {
+  static Class<?>[] getAllInterfaces(Class<?> type, Map<Class<?>, Set<Method>> signatureMap) {
     // 接口的集合
     Set<Class<?>> interfaces = new HashSet<>();
     // 循环递归type类，直接父类
@@ -0,0 +1,129 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.plugin;
+
+import java.util.regex.Pattern;
+
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * 判断拦截器是否适用于 MappedStatement 。
+ *
+ * @see Intercepts#statements()
+ * @see Interceptor#appliesTo(MappedStatement)
+ * @since 3.5.1
+ */
+final class StatementFilter {
+
+  /**
+   * 拦截器类型声明的模式，没有声明时为 null
+   */
+  private static final ClassValue<Pattern[]> PATTERNS = new ClassValue<Pattern[]>() {
+    @Override
+    protected Pattern[] computeValue(Class<?> type) {
+      Intercepts intercepts = type.getAnnotation(Intercepts.class);
+      if (intercepts == null || intercepts.statements().length == 0) {
+        return null;
+      }
+      String[] statements = intercepts.statements();
+      Pattern[] patterns = new Pattern[statements.length];
+      for (int i = 0; i < statements.length; i++) {
+        patterns[i] = compile(statements[i]);
+      }
+      return patterns;
+    }
+  };
+
+  /**
+   * 拦截器类型是否声明了适用范围
+   */
+  private static final ClassValue<Boolean> FILTERED = new ClassValue<Boolean>() {
+    @Override
+    protected Boolean computeValue(Class<?> type) {
+      if (PATTERNS.get(type) != null) {
+        return true;
+      }
+      try {
+        return type.getMethod("appliesTo", MappedStatement.class).getDeclaringClass() != Interceptor.class;
+      } catch (NoSuchMethodException e) {
+        return false;
+      }
+    }
+  };
+
+  private StatementFilter() {
+    // Prevent Instantiation of Static Class
+  }
+
+  /**
+   * @return 拦截器是否声明了适用范围。没有声明时，适用于所有 MappedStatement
+   */
+  static boolean isFiltered(Interceptor interceptor) {
+    return FILTERED.get(interceptor.getClass());
+  }
+
+  /**
+   * 判断拦截器是否适用于 MappedStatement ，不使用缓存
+   */
+  static boolean matches(Interceptor interceptor, MappedStatement mappedStatement) {
+    Pattern[] patterns = PATTERNS.get(interceptor.getClass());
+    if (patterns != null) {
+      boolean matched = false;
+      for (Pattern pattern : patterns) {
+        if (pattern.matcher(mappedStatement.getId()).matches()) {
+          matched = true;
+          break;
+        }
+      }
+      if (!matched) {
+        return false;
+      }
+    }
+    return interceptor.appliesTo(mappedStatement);
+  }
+
+  /**
+   * 判断拦截器是否拦截方法调用。第一个参数为 MappedStatement 时（Executor 的方法），使用 {@link InterceptorChain} 缓存的结果判断
+   */
+  static boolean isApplicable(Interceptor interceptor, Object[] args) {
+    if (args == null || args.length == 0 || !(args[0] instanceof MappedStatement)) {
+      return true;
+    }
+    MappedStatement mappedStatement = (MappedStatement) args[0];
+    Configuration configuration = mappedStatement.getConfiguration();
+    if (configuration == null) {
+      return matches(interceptor, mappedStatement);
+    }
+    return configuration.getInterceptorChain().isApplicable(interceptor, mappedStatement);
+  }
+
+  /**
+   * 将模式转换为正则表达式，"*" 匹配任意字符
+   */
+  private static Pattern compile(String statement) {
+    StringBuilder regex = new StringBuilder();
+    int start = 0;
+    int index;
+    while ((index = statement.indexOf('*', start)) >= 0) {
+      regex.append(Pattern.quote(statement.substring(start, index))).append(".*");
+      start = index + 1;
+    }
+    regex.append(Pattern.quote(statement.substring(start)));
+    return Pattern.compile(regex.toString());
+  }
+
+}
@@ -49,11 +49,22 @@ public class DefaultReflectorFactory implements ReflectorFactory {
     if (classCacheEnabled) {
       // synchronized (type) removed see issue #461
       // 如果reflectorMap不存在该type，则创建一个对应的Reflector并放到reflectorMap中
-      return reflectorMap.computeIfAbsent(type, Reflector::new);
+      return reflectorMap.computeIfAbsent(type, this::newReflector);
     // 关闭缓存，则创建Reflector对象
     } else {
-      return new Reflector(type);
+      return newReflector(type);
     }
   }
 
+  /**
+   * 创建Reflector对象，子类可覆盖以定制 Reflector
+   *
+   * @param type 类
+   * @return Reflector对象
+   * @since 3.5.1
+   */
+  protected Reflector newReflector(Class<?> type) {
+    return new Reflector(type);
+  }
+
 }
@@ -0,0 +1,37 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import org.apache.ibatis.reflection.invoker.InvokerFactory;
+import org.apache.ibatis.reflection.invoker.MethodHandleInvokerFactory;
+
+/**
+ * 创建的 {@link Reflector} 使用 {@link MethodHandleInvokerFactory}，属性的读写不再经过反射调用。
+ * <p>
+ * 通过 {@code <reflectorFactory type="org.apache.ibatis.reflection.MethodHandleReflectorFactory"/>} 启用。
+ *
+ * @since 3.5.1
+ */
+public class MethodHandleReflectorFactory extends DefaultReflectorFactory {
+
+  private final InvokerFactory invokerFactory = new MethodHandleInvokerFactory();
+
+  @Override
+  protected Reflector newReflector(Class<?> type) {
+    return new Reflector(type, invokerFactory);
+  }
+
+}
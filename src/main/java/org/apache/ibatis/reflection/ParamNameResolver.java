@@ -16,6 +16,7 @@
 package org.apache.ibatis.reflection;
 
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.binding.IndexedParamMap;
 import org.apache.ibatis.binding.MapperMethod.ParamMap;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
@@ -24,6 +25,7 @@ import org.apache.ibatis.session.RowBounds;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.TreeMap;
@@ -58,6 +60,11 @@ public class ParamNameResolver {
    */
   private boolean hasParamAnnotation;
 
+  /**
+   * 参数名（包括通用名）到参数位置的映射，用于创建 {@link IndexedParamMap}
+   */
+  private final IndexedParamMap.Layout layout;
+
   public ParamNameResolver(Configuration config, Method method) {
     final Class<?>[] paramTypes = method.getParameterTypes();
     final Annotation[][] paramAnnotations = method.getParameterAnnotations();
@@ -97,6 +104,32 @@ public class ParamNameResolver {
     }
     // 构建不可变集合
     names = Collections.unmodifiableSortedMap(map);
+    layout = buildLayout(names);
+  }
+
+  /**
+   * 按与 {@link ParamMap} 相同的命名规则，编译每个参数名对应的参数位置
+   */
+  private static IndexedParamMap.Layout buildLayout(SortedMap<Integer, String> names) {
+    final Map<String, Integer> argIndexes = new LinkedHashMap<>();
+    int i = 0;
+    for (Map.Entry<Integer, String> entry : names.entrySet()) {
+      argIndexes.put(entry.getValue(), entry.getKey());
+      final String genericParamName = GENERIC_NAME_PREFIX + String.valueOf(i + 1);
+      if (!names.containsValue(genericParamName)) {
+        argIndexes.put(genericParamName, entry.getKey());
+      }
+      i++;
+    }
+    String[] keys = new String[argIndexes.size()];
+    int[] indexes = new int[argIndexes.size()];
+    int position = 0;
+    for (Map.Entry<String, Integer> entry : argIndexes.entrySet()) {
+      keys[position] = entry.getKey();
+      indexes[position] = entry.getValue();
+      position++;
+    }
+    return new IndexedParamMap.Layout(keys, indexes);
   }
 
   private String getActualParamName(Method method, int paramIndex) {
@@ -133,25 +166,10 @@ public class ParamNameResolver {
     } else if (!hasParamAnnotation && paramCount == 1) {
       return args[names.firstKey()];
     } else {
-      // 集合
+      // 集合，参数名的位置已经编译到 layout 中
       // 组合1：KEY:参数名，VALUE:参数值
       // 组合2：KEY:GENERIC_NAME_PREFIX+参数顺序，VALUE:参数值
-      final Map<String, Object> param = new ParamMap<>();
-      int i = 0;
-      // 遍历names集合
-      for (Map.Entry<Integer, String> entry : names.entrySet()) {
-        // 组合1：添加到param中
-        param.put(entry.getValue(), args[entry.getKey()]);
-        // add generic param names (param1, param2, ...)
-        // 组合2：添加到param中
-        final String genericParamName = GENERIC_NAME_PREFIX + String.valueOf(i + 1);
-        // ensure not to overwrite parameter named with @Param
-        if (!names.containsValue(genericParamName)) {
-          param.put(genericParamName, args[entry.getKey()]);
-        }
-        i++;
-      }
-      return param;
+      return new IndexedParamMap(layout, args);
     }
   }
 }
@@ -0,0 +1,321 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.ibatis.binding.IndexedParamMap;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.property.PropertyTokenizer;
+import org.apache.ibatis.reflection.wrapper.BeanWrapper;
+import org.apache.ibatis.reflection.wrapper.MapWrapper;
+import org.apache.ibatis.reflection.wrapper.ObjectWrapper;
+import org.apache.ibatis.reflection.wrapper.ObjectWrapperFactory;
+
+/**
+ * 预编译的属性路径，例如 "order.customer.name" 或 "items[0].id"。
+ *
+ * 表达式只在 {@link #compile(String)} 时解析一次，每一段会按运行时类型分别缓存对应的 {@link Invoker}，
+ * 求值时不再创建 {@link PropertyTokenizer} 和中间的 {@link MetaObject} 对象。
+ * 多参数方法的 {@link IndexedParamMap} 按缓存的参数位置读取，不需要查找 HashMap 。
+ * 对于自定义 {@link ObjectWrapper}、集合等不常见的情况，则回退到 {@link MetaObject}，语义保持一致。
+ *
+ * @since 3.5.1
+ */
+public final class PropertyPath {
+
+  private static final Object[] NO_ARGUMENTS = new Object[0];
+
+  /**
+   * 原始表达式
+   */
+  private final String expression;
+  /**
+   * 每一段
+   */
+  private final Segment[] segments;
+
+  private PropertyPath(String expression, Segment[] segments) {
+    this.expression = expression;
+    this.segments = segments;
+  }
+
+  public static PropertyPath compile(String expression) {
+    List<Segment> segments = new ArrayList<>();
+    String path = expression;
+    PropertyTokenizer prop = new PropertyTokenizer(path);
+    while (true) {
+      segments.add(new Segment(prop.getName(), prop.getIndexedName(), prop.getIndex(), path));
+      if (!prop.hasNext()) {
+        break;
+      }
+      path = prop.getChildren();
+      prop = prop.next();
+    }
+    return new PropertyPath(expression, segments.toArray(new Segment[0]));
+  }
+
+  public String getExpression() {
+    return expression;
+  }
+
+  /**
+   * 获得属性值，等价于 {@link MetaObject#getValue(String)}
+   *
+   * @param metaObject 根对象对应的 MetaObject
+   * @return 值
+   */
+  public Object getValue(MetaObject metaObject) {
+    if (!isPlainWrapper(metaObject.getObjectWrapper())) {
+      return metaObject.getValue(expression);
+    }
+    ObjectWrapperFactory objectWrapperFactory = metaObject.getObjectWrapperFactory();
+    Object current = metaObject.getOriginalObject();
+    for (int i = 0; i < segments.length; i++) {
+      Segment segment = segments[i];
+      if (i > 0) {
+        // 中间对象为空时，MetaObject 同样返回 null
+        if (current == null) {
+          return null;
+        }
+        if (!isPlain(current, objectWrapperFactory)) {
+          return forObject(current, metaObject).getValue(segment.path);
+        }
+      }
+      current = segment.get(current, metaObject);
+    }
+    return current;
+  }
+
+  /**
+   * 设置属性值，等价于 {@link MetaObject#setValue(String, Object)}
+   *
+   * @param metaObject 根对象对应的 MetaObject
+   * @param value 值
+   */
+  public void setValue(MetaObject metaObject, Object value) {
+    if (!isPlainWrapper(metaObject.getObjectWrapper())) {
+      metaObject.setValue(expression, value);
+      return;
+    }
+    ObjectWrapperFactory objectWrapperFactory = metaObject.getObjectWrapperFactory();
+    Object parent = metaObject.getOriginalObject();
+    int last = segments.length - 1;
+    for (int i = 0; i < last; i++) {
+      Segment segment = segments[i];
+      Object child = segment.get(parent, metaObject);
+      if (child == null || !isPlain(child, objectWrapperFactory)) {
+        // 中间对象需要实例化，或者需要自定义的 ObjectWrapper，交给 MetaObject 处理
+        forObject(parent, metaObject).setValue(segment.path, value);
+        return;
+      }
+      parent = child;
+    }
+    segments[last].set(parent, value, metaObject);
+  }
+
+  @Override
+  public String toString() {
+    return expression;
+  }
+
+  private static boolean isPlainWrapper(ObjectWrapper objectWrapper) {
+    Class<?> type = objectWrapper.getClass();
+    return type == BeanWrapper.class || type == MapWrapper.class;
+  }
+
+  /**
+   * 判断 MetaObject 是否会为该对象创建 BeanWrapper 或 MapWrapper
+   */
+  private static boolean isPlain(Object object, ObjectWrapperFactory objectWrapperFactory) {
+    if (object instanceof ObjectWrapper || objectWrapperFactory.hasWrapperFor(object)) {
+      return false;
+    }
+    return object instanceof Map || !(object instanceof Collection);
+  }
+
+  private static MetaObject forObject(Object object, MetaObject metaObject) {
+    return MetaObject.forObject(object, metaObject.getObjectFactory(), metaObject.getObjectWrapperFactory(), metaObject.getReflectorFactory());
+  }
+
+  private static final class Segment {
+
+    private final String name;
+    private final String indexedName;
+    private final String index;
+    /**
+     * 数字形式的 index ，非数字时为 -1
+     */
+    private final int position;
+    /**
+     * 从本段开始的剩余表达式，用于回退到 MetaObject
+     */
+    private final String path;
+    /**
+     * 按运行时类型缓存的 getting 和 setting 方法。
+     * 同一个表达式（例如 "id"、"name"）会被不同类型的参数对象共用，因此每个类型各占一项，不会互相替换
+     */
+    private final ConcurrentMap<Class<?>, Invoker> getters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, Invoker> setters = new ConcurrentHashMap<>();
+    /**
+     * 按 {@link IndexedParamMap.Layout} 缓存的参数位置
+     */
+    private volatile CachedPosition param;
+
+    Segment(String name, String indexedName, String index, String path) {
+      this.name = name;
+      this.indexedName = indexedName;
+      this.index = index;
+      this.position = parsePosition(index);
+      this.path = path;
+    }
+
+    private static int parsePosition(String index) {
+      if (index == null) {
+        return -1;
+      }
+      try {
+        return Integer.parseInt(index);
+      } catch (NumberFormatException e) {
+        return -1;
+      }
+    }
+
+    @SuppressWarnings("rawtypes")
+    Object get(Object target, MetaObject metaObject) {
+      if (index == null) {
+        return getProperty(target, metaObject.getReflectorFactory());
+      }
+      Object collection = name.isEmpty() ? target : getProperty(target, metaObject.getReflectorFactory());
+      if (collection instanceof Map) {
+        return ((Map) collection).get(index);
+      } else if (position >= 0 && collection instanceof List) {
+        return ((List) collection).get(position);
+      } else if (position >= 0 && collection instanceof Object[]) {
+        return ((Object[]) collection)[position];
+      }
+      // 基本类型数组、非法的 index 等，交给 MetaObject 处理
+      return forObject(target, metaObject).getValue(indexedName);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void set(Object target, Object value, MetaObject metaObject) {
+      if (index == null) {
+        setProperty(target, value, metaObject.getReflectorFactory());
+        return;
+      }
+      Object collection = name.isEmpty() ? target : getProperty(target, metaObject.getReflectorFactory());
+      if (collection instanceof Map) {
+        ((Map) collection).put(index, value);
+      } else if (position >= 0 && collection instanceof List) {
+        ((List) collection).set(position, value);
+      } else if (position >= 0 && collection instanceof Object[]) {
+        ((Object[]) collection)[position] = value;
+      } else {
+        forObject(target, metaObject).setValue(indexedName, value);
+      }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private Object getProperty(Object target, ReflectorFactory reflectorFactory) {
+      if (target instanceof IndexedParamMap) {
+        return getParam((IndexedParamMap) target);
+      }
+      if (target instanceof Map) {
+        return ((Map) target).get(name);
+      }
+      try {
+        Invoker method = getGetInvoker(target.getClass(), reflectorFactory);
+        try {
+          return method.invoke(target, NO_ARGUMENTS);
+        } catch (Throwable t) {
+          throw ExceptionUtil.unwrapThrowable(t);
+        }
+      } catch (RuntimeException e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new ReflectionException("Could not get property '" + name + "' from " + target.getClass() + ".  Cause: " + t.toString(), t);
+      }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void setProperty(Object target, Object value, ReflectorFactory reflectorFactory) {
+      if (target instanceof Map) {
+        ((Map) target).put(name, value);
+        return;
+      }
+      try {
+        Invoker method = getSetInvoker(target.getClass(), reflectorFactory);
+        Object[] params = {value};
+        try {
+          method.invoke(target, params);
+        } catch (Throwable t) {
+          throw ExceptionUtil.unwrapThrowable(t);
+        }
+      } catch (Throwable t) {
+        throw new ReflectionException("Could not set property '" + name + "' of '" + target.getClass() + "' with value '" + value + "' Cause: " + t.toString(), t);
+      }
+    }
+
+    private Object getParam(IndexedParamMap params) {
+      IndexedParamMap.Layout layout = params.getLayout();
+      CachedPosition cached = param;
+      if (cached == null || cached.layout != layout) {
+        cached = new CachedPosition(layout, layout.indexOf(name));
+        param = cached;
+      }
+      // 不存在的参数，由 ParamMap 抛出 BindingException
+      return cached.position < 0 ? params.get(name) : params.valueAt(cached.position);
+    }
+
+    private Invoker getGetInvoker(Class<?> type, ReflectorFactory reflectorFactory) {
+      Invoker invoker = getters.get(type);
+      if (invoker == null) {
+        invoker = reflectorFactory.findForClass(type).getGetInvoker(name);
+        getters.putIfAbsent(type, invoker);
+      }
+      return invoker;
+    }
+
+    private Invoker getSetInvoker(Class<?> type, ReflectorFactory reflectorFactory) {
+      Invoker invoker = setters.get(type);
+      if (invoker == null) {
+        invoker = reflectorFactory.findForClass(type).getSetInvoker(name);
+        setters.putIfAbsent(type, invoker);
+      }
+      return invoker;
+    }
+
+  }
+
+  private static final class CachedPosition {
+
+    private final IndexedParamMap.Layout layout;
+    private final int position;
+
+    CachedPosition(IndexedParamMap.Layout layout, int position) {
+      this.layout = layout;
+      this.position = position;
+    }
+
+  }
+
+}
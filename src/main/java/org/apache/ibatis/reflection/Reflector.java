@@ -15,15 +15,15 @@
  */
 package org.apache.ibatis.reflection;
 
-import org.apache.ibatis.reflection.invoker.GetFieldInvoker;
+import org.apache.ibatis.reflection.invoker.DefaultInvokerFactory;
 import org.apache.ibatis.reflection.invoker.Invoker;
-import org.apache.ibatis.reflection.invoker.MethodInvoker;
-import org.apache.ibatis.reflection.invoker.SetFieldInvoker;
+import org.apache.ibatis.reflection.invoker.InvokerFactory;
 import org.apache.ibatis.reflection.property.PropertyNamer;
 
 import java.lang.reflect.*;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class represents a cached set of class definition information that
@@ -33,6 +33,8 @@ import java.util.Map.Entry;
  */
 public class Reflector {
 
+  private static final InvokerFactory DEFAULT_INVOKER_FACTORY = new DefaultInvokerFactory();
+
   /**
    * 对应的类
    */
@@ -46,33 +48,47 @@ public class Reflector {
    */
   private final String[] writablePropertyNames;
   /**
-   * 属性对应的setter方法的映射
+   * 属性对应的setter方法或者field的映射，构造时确定
+   *
+   * key为属性名称
+   * value为Method或Field对象
+   */
+  private final Map<String, Member> setMembers = new HashMap<>();
+  /**
+   * 属性对应的getter方法或者field的映射，构造时确定
+   *
+   * key为属性名称
+   * value为Method或Field对象
+   */
+  private final Map<String, Member> getMembers = new HashMap<>();
+  /**
+   * 属性对应的setter的Invoker对象，第一次使用时才创建{@link #setMembers}
    *
    * key为属性名称
    * value为Invoker对象
    */
-  private final Map<String, Invoker> setMethods = new HashMap<>();
+  private final ConcurrentHashMap<String, Invoker> setMethods = new ConcurrentHashMap<>();
   /**
-   * 属性对应的getter方法的映射
+   * 属性对应的getter的Invoker对象，第一次使用时才创建{@link #getMembers}
    *
    * key为属性名称
    * value为Invoker对象
    */
-  private final Map<String, Invoker> getMethods = new HashMap<>();
+  private final ConcurrentHashMap<String, Invoker> getMethods = new ConcurrentHashMap<>();
   /**
-   * 属性对应的setter方法的方法参数类型的映射{@link #setMethods}
+   * 属性对应的setter方法的方法参数类型的映射，第一次使用时才解析{@link #setMembers}
    *
    * key为属性名称
    * value为方法参数类型
    */
-  private final Map<String, Class<?>> setTypes = new HashMap<>();
+  private final Map<String, Class<?>> setTypes = new ConcurrentHashMap<>();
   /**
-   * 属性对应的getter方法的方法参数类型的映射{@link #getMethods}
+   * 属性对应的getter方法的方法参数类型的映射，第一次使用时才解析{@link #getMembers}
    *
    * key为属性名称
    * value为方法参数类型
    */
-  private final Map<String, Class<?>> getTypes = new HashMap<>();
+  private final Map<String, Class<?>> getTypes = new ConcurrentHashMap<>();
   /**
    * 默认构造方法
    */
@@ -82,21 +98,38 @@ public class Reflector {
    * 不区分大小写的属性集合
    */
   private Map<String, String> caseInsensitivePropertyMap = new HashMap<>();
+  /**
+   * 创建Invoker对象的工厂
+   */
+  private final InvokerFactory invokerFactory;
 
   public Reflector(Class<?> clazz) {
+    this(clazz, DEFAULT_INVOKER_FACTORY);
+  }
+
+  /**
+   * @param clazz 类
+   * @param invokerFactory 创建Invoker对象的工厂
+   * @since 3.5.1
+   */
+  public Reflector(Class<?> clazz, InvokerFactory invokerFactory) {
     // 设置对应的类
     type = clazz;
+    this.invokerFactory = invokerFactory;
     // <1> 初始化defaultConstructor
     addDefaultConstructor(clazz);
-    // <2> 初始化getMethods和getTypes，通过遍历getter方法
-    addGetMethods(clazz);
-    // <3> 初始化setMethods和setTypes，通过遍历setter方法
-    addSetMethods(clazz);
-    // <4> 初始化getMethods+getTypes和setMethods+setTypes，通过遍历fields属性
+    // 只遍历一次类的方法，getter和setter共用
+    Method[] methods = getClassMethods(clazz);
+    // <2> 初始化getMembers，通过遍历getter方法
+    addGetMethods(methods);
+    // <3> 初始化setMembers，通过遍历setter方法
+    addSetMethods(methods);
+    // <4> 初始化getMembers和setMembers，通过遍历fields属性
+    // Invoker对象和属性类型在第一次使用时才创建和解析，参见 getGetInvoker 等方法
     addFields(clazz);
     // <5> 初始化readablePropertyNames、writablePropertyNames、caseInsensitivePropertyMap属性
-    readablePropertyNames = getMethods.keySet().toArray(new String[getMethods.keySet().size()]);
-    writablePropertyNames = setMethods.keySet().toArray(new String[setMethods.keySet().size()]);
+    readablePropertyNames = getMembers.keySet().toArray(new String[getMembers.keySet().size()]);
+    writablePropertyNames = setMembers.keySet().toArray(new String[setMembers.keySet().size()]);
     for (String propName : readablePropertyNames) {
       caseInsensitivePropertyMap.put(propName.toUpperCase(Locale.ENGLISH), propName);
     }
@@ -110,21 +143,19 @@ public class Reflector {
     Constructor<?>[] consts = clazz.getDeclaredConstructors();
     // 遍历所有构造方法，查找无参的构造方法
     for (Constructor<?> constructor : consts) {
-      if (constructor.getParameterTypes().length == 0) {
+      if (constructor.getParameterCount() == 0) {
         this.defaultConstructor = constructor;
       }
     }
   }
 
-  private void addGetMethods(Class<?> cls) {
+  private void addGetMethods(Method[] methods) {
     // <1> 属性与其getter方法的映射
     Map<String, List<Method>> conflictingGetters = new HashMap<>();
-    // <2> 获得所有方法
-    Method[] methods = getClassMethods(cls);
     // <3> 遍历所有方法
     for (Method method : methods) {
       // <3.1> 参数大于0，说明不是getter方法，忽略
-      if (method.getParameterTypes().length > 0) {
+      if (method.getParameterCount() > 0) {
         continue;
       }
       // <3.2> 以get和is方法名开头，说明是getter方法
@@ -181,7 +212,7 @@ public class Reflector {
                   + ". This breaks the JavaBeans specification and can cause unpredictable results.");
         }
       }
-      // <2> 添加到getMethods和getTypes中
+      // <2> 添加到getMembers中
       addGetMethod(propName, winner);
     }
   }
@@ -189,26 +220,21 @@ public class Reflector {
   private void addGetMethod(String name, Method method) {
     // <2.1> 判断是合理的属性名
     if (isValidPropertyName(name)) {
-      // <2.2> 添加到getMethods中
-      getMethods.put(name, new MethodInvoker(method));
-      // <2.3> 添加到getTypes中
-      Type returnType = TypeParameterResolver.resolveReturnType(method, type);
-      getTypes.put(name, typeToClass(returnType));
+      // <2.2> 添加到getMembers中
+      getMembers.put(name, method);
     }
   }
 
-  private void addSetMethods(Class<?> cls) {
+  private void addSetMethods(Method[] methods) {
     // 属性与其setter方法的映射
     Map<String, List<Method>> conflictingSetters = new HashMap<>();
-    // 获得所有方法
-    Method[] methods = getClassMethods(cls);
     // 遍历所有方法
     for (Method method : methods) {
       String name = method.getName();
       // <1> 方法名为set开头
       // 参数数量为1
       if (name.startsWith("set") && name.length() > 3) {
-        if (method.getParameterTypes().length == 1) {
+        if (method.getParameterCount() == 1) {
           // 获得属性
           name = PropertyNamer.methodToProperty(name);
           // 添加到conflictingSetters中
@@ -235,7 +261,8 @@ public class Reflector {
     // 遍历每个属性，查找其最匹配的方法。因为子类可以覆写父类的方法，所以一个属性，可能对应多个setter方法
     for (String propName : conflictingSetters.keySet()) {
       List<Method> setters = conflictingSetters.get(propName);
-      Class<?> getterType = getTypes.get(propName);
+      // 只有一个setter方法时，不需要解析getter的类型
+      Class<?> getterType = setters.size() > 1 && getMembers.containsKey(propName) ? getGetterType(propName) : null;
       Method match = null;
       ReflectionException exception = null;
       // <1> 遍历属性对应的setter方法
@@ -258,7 +285,7 @@ public class Reflector {
           }
         }
       }
-      // <2> 添加到setMethods和setTypes中
+      // <2> 添加到setMembers中
       if (match == null) {
         throw exception;
       } else {
@@ -285,11 +312,8 @@ public class Reflector {
 
   private void addSetMethod(String name, Method method) {
     if (isValidPropertyName(name)) {
-      // 添加到setMethods中
-      setMethods.put(name, new MethodInvoker(method));
-      // 添加到setTypes中
-      Type[] paramTypes = TypeParameterResolver.resolveParamTypes(method, type);
-      setTypes.put(name, typeToClass(paramTypes[0]));
+      // 添加到setMembers中
+      setMembers.put(name, method);
     }
   }
 
@@ -322,8 +346,8 @@ public class Reflector {
     // 获得所有field
     Field[] fields = clazz.getDeclaredFields();
     for (Field field : fields) {
-      // <1> 添加到setMethods和setTypes中
-      if (!setMethods.containsKey(field.getName())) {
+      // <1> 添加到setMembers中
+      if (!setMembers.containsKey(field.getName())) {
         // issue #379 - removed the check for final because JDK 1.5 allows
         // modification of final fields through reflection (JSR-133). (JGB)
         // pr #16 - final static can only be set by the classloader
@@ -332,8 +356,8 @@ public class Reflector {
           addSetField(field);
         }
       }
-      // <2> 添加到getMethods和getTypes中
-      if (!getMethods.containsKey(field.getName())) {
+      // <2> 添加到getMembers中
+      if (!getMembers.containsKey(field.getName())) {
         addGetField(field);
       }
     }
@@ -346,22 +370,16 @@ public class Reflector {
   private void addSetField(Field field) {
     // 判断是命名规范的属性
     if (isValidPropertyName(field.getName())) {
-      // 添加到setMethods中
-      setMethods.put(field.getName(), new SetFieldInvoker(field));
-      // 添加到setTypes中
-      Type fieldType = TypeParameterResolver.resolveFieldType(field, type);
-      setTypes.put(field.getName(), typeToClass(fieldType));
+      // 添加到setMembers中
+      setMembers.put(field.getName(), field);
     }
   }
 
   private void addGetField(Field field) {
     // 判断是命名规范的属性
     if (isValidPropertyName(field.getName())) {
-      // 添加到getMethods中
-      getMethods.put(field.getName(), new GetFieldInvoker(field));
-      // 添加到getTypes中
-      Type fieldType = TypeParameterResolver.resolveFieldType(field, type);
-      getTypes.put(field.getName(), typeToClass(fieldType));
+      // 添加到getMembers中
+      getMembers.put(field.getName(), field);
     }
   }
 
@@ -370,17 +388,17 @@ public class Reflector {
   }
 
   /**
-   * This method returns an array containing all methods
+   * This method returns an array containing all getter and setter candidates
    * declared in this class and any superclass.
    * We use this method, instead of the simpler <code>Class.getMethods()</code>,
    * because we want to look for private methods as well.
    *
    * @param cls The class
-   * @return An array containing all methods in this class
+   * @return An array containing all getter and setter candidates in this class
    */
   private Method[] getClassMethods(Class<?> cls) {
     // 每个方法签名与该方法的映射
-    Map<String, Method> uniqueMethods = new HashMap<>();
+    Map<MethodSignature, Method> uniqueMethods = new HashMap<>();
     // 循环类，类的父类，类的父类的父类，直到父类为Object
     Class<?> currentClass = cls;
     while (currentClass != null && currentClass != Object.class) {
@@ -405,12 +423,13 @@ public class Reflector {
     return methods.toArray(new Method[methods.size()]);
   }
 
-  private void addUniqueMethods(Map<String, Method> uniqueMethods, Method[] methods) {
+  private void addUniqueMethods(Map<MethodSignature, Method> uniqueMethods, Method[] methods) {
     for (Method currentMethod : methods) {
       // 忽略 bridge 方法，参见 https://www.zhihu.com/question/54895701/answer/141623158 文章
-      if (!currentMethod.isBridge()) {
+      // 只有getter和setter才需要记录，其它方法直接跳过，不用计算签名
+      if (!currentMethod.isBridge() && isAccessorCandidate(currentMethod)) {
         // <3> 获得方法签名
-        String signature = getSignature(currentMethod);
+        MethodSignature signature = new MethodSignature(currentMethod);
         // check to see if the method is already known
         // if it is known, then an extended class must have
         // overridden a method
@@ -422,28 +441,50 @@ public class Reflector {
     }
   }
 
-  // 格式 returnType#方法名:参数名1,参数名2,参数名3
-  // 例如 void#checkPackageAccess:java.lang.ClassLoader,boolean
-  private String getSignature(Method method) {
-    StringBuilder sb = new StringBuilder();
-    // 返回类型
-    Class<?> returnType = method.getReturnType();
-    if (returnType != null) {
-      sb.append(returnType.getName()).append('#');
+  private static boolean isAccessorCandidate(Method method) {
+    String name = method.getName();
+    int parameterCount = method.getParameterCount();
+    if (parameterCount == 0) {
+      return (name.startsWith("get") && name.length() > 3) || (name.startsWith("is") && name.length() > 2);
     }
-    // 方法名
-    sb.append(method.getName());
-    // 方法参数
-    Class<?>[] parameters = method.getParameterTypes();
-    for (int i = 0; i < parameters.length; i++) {
-      if (i == 0) {
-        sb.append(':');
-      } else {
-        sb.append(',');
+    return parameterCount == 1 && name.startsWith("set") && name.length() > 3;
+  }
+
+  /**
+   * 方法签名：返回类型 + 方法名 + 参数类型，用于判断子类是否覆写了父类的方法。
+   * 相比拼接字符串，直接比较 Class 对象要便宜得多。
+   */
+  private static final class MethodSignature {
+
+    private final Class<?> returnType;
+    private final String name;
+    private final Class<?>[] parameterTypes;
+    private final int hashCode;
+
+    MethodSignature(Method method) {
+      this.returnType = method.getReturnType();
+      this.name = method.getName();
+      this.parameterTypes = method.getParameterTypes();
+      this.hashCode = 31 * (31 * name.hashCode() + returnType.hashCode()) + Arrays.hashCode(parameterTypes);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
       }
-      sb.append(parameters[i].getName());
+      if (!(o instanceof MethodSignature)) {
+        return false;
+      }
+      MethodSignature other = (MethodSignature) o;
+      return returnType == other.returnType && name.equals(other.name) && Arrays.equals(parameterTypes, other.parameterTypes);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
     }
-    return sb.toString();
+
   }
 
   /**
@@ -488,17 +529,36 @@ public class Reflector {
   }
 
   public Invoker getSetInvoker(String propertyName) {
-    Invoker method = setMethods.get(propertyName);
+    Invoker method = propertyName == null ? null : setMethods.get(propertyName);
     if (method == null) {
-      throw new ReflectionException("There is no setter for property named '" + propertyName + "' in '" + type + "'");
+      Member member = setMembers.get(propertyName);
+      if (member == null) {
+        throw new ReflectionException("There is no setter for property named '" + propertyName + "' in '" + type + "'");
+      }
+      // 第一次使用时创建，并发创建时以先放入的为准
+      method = member instanceof Method ? invokerFactory.createMethodInvoker((Method) member)
+          : invokerFactory.createSetFieldInvoker((Field) member);
+      Invoker existing = setMethods.putIfAbsent(propertyName, method);
+      if (existing != null) {
+        method = existing;
+      }
     }
     return method;
   }
 
   public Invoker getGetInvoker(String propertyName) {
-    Invoker method = getMethods.get(propertyName);
+    Invoker method = propertyName == null ? null : getMethods.get(propertyName);
     if (method == null) {
-      throw new ReflectionException("There is no getter for property named '" + propertyName + "' in '" + type + "'");
+      Member member = getMembers.get(propertyName);
+      if (member == null) {
+        throw new ReflectionException("There is no getter for property named '" + propertyName + "' in '" + type + "'");
+      }
+      method = member instanceof Method ? invokerFactory.createMethodInvoker((Method) member)
+          : invokerFactory.createGetFieldInvoker((Field) member);
+      Invoker existing = getMethods.putIfAbsent(propertyName, method);
+      if (existing != null) {
+        method = existing;
+      }
     }
     return method;
   }
@@ -510,9 +570,16 @@ public class Reflector {
    * @return The Class of the property setter
    */
   public Class<?> getSetterType(String propertyName) {
-    Class<?> clazz = setTypes.get(propertyName);
+    Class<?> clazz = propertyName == null ? null : setTypes.get(propertyName);
     if (clazz == null) {
-      throw new ReflectionException("There is no setter for property named '" + propertyName + "' in '" + type + "'");
+      Member member = setMembers.get(propertyName);
+      if (member == null) {
+        throw new ReflectionException("There is no setter for property named '" + propertyName + "' in '" + type + "'");
+      }
+      Type setterType = member instanceof Method ? TypeParameterResolver.resolveParamTypes((Method) member, type)[0]
+          : TypeParameterResolver.resolveFieldType((Field) member, type);
+      clazz = typeToClass(setterType);
+      setTypes.put(propertyName, clazz);
     }
     return clazz;
   }
@@ -524,9 +591,16 @@ public class Reflector {
    * @return The Class of the property getter
    */
   public Class<?> getGetterType(String propertyName) {
-    Class<?> clazz = getTypes.get(propertyName);
+    Class<?> clazz = propertyName == null ? null : getTypes.get(propertyName);
     if (clazz == null) {
-      throw new ReflectionException("There is no getter for property named '" + propertyName + "' in '" + type + "'");
+      Member member = getMembers.get(propertyName);
+      if (member == null) {
+        throw new ReflectionException("There is no getter for property named '" + propertyName + "' in '" + type + "'");
+      }
+      Type getterType = member instanceof Method ? TypeParameterResolver.resolveReturnType((Method) member, type)
+          : TypeParameterResolver.resolveFieldType((Field) member, type);
+      clazz = typeToClass(getterType);
+      getTypes.put(propertyName, clazz);
     }
     return clazz;
   }
@@ -556,7 +630,7 @@ public class Reflector {
    * @return True if the object has a writable property by the name
    */
   public boolean hasSetter(String propertyName) {
-    return setMethods.keySet().contains(propertyName);
+    return setMembers.containsKey(propertyName);
   }
 
   /**
@@ -566,7 +640,7 @@ public class Reflector {
    * @return True if the object has a readable property by the name
    */
   public boolean hasGetter(String propertyName) {
-    return getMethods.keySet().contains(propertyName);
+    return getMembers.containsKey(propertyName);
   }
 
   public String findPropertyName(String name) {
@@ -17,12 +17,39 @@ package org.apache.ibatis.reflection;
 
 import java.lang.reflect.*;
 import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author Iwao AVE!
  */
 public class TypeParameterResolver {
 
+  /**
+   * 以来源类为 KEY 的属性类型和方法返回类型的缓存。使用 ClassValue 保存，不会阻止来源类被卸载
+   *
+   * KEY：Field 或 Method
+   * VALUE：解析后的 Type
+   */
+  private static final ClassValue<ConcurrentMap<Member, Type>> RESOLVED_TYPES = new ClassValue<ConcurrentMap<Member, Type>>() {
+    @Override
+    protected ConcurrentMap<Member, Type> computeValue(Class<?> type) {
+      return new ConcurrentHashMap<>();
+    }
+  };
+  /**
+   * 以来源类为 KEY 的方法参数类型的缓存
+   *
+   * KEY：Method
+   * VALUE：解析后的 Type[]
+   */
+  private static final ClassValue<ConcurrentMap<Method, Type[]>> RESOLVED_PARAM_TYPES = new ClassValue<ConcurrentMap<Method, Type[]>>() {
+    @Override
+    protected ConcurrentMap<Method, Type[]> computeValue(Class<?> type) {
+      return new ConcurrentHashMap<>();
+    }
+  };
+
   /**
    * 解析属性类型
    *
@@ -30,6 +57,19 @@ public class TypeParameterResolver {
    *         they will be resolved to the actual runtime {@link Type}s.
    */
   public static Type resolveFieldType(Field field, Type srcType) {
+    if (srcType instanceof Class) {
+      ConcurrentMap<Member, Type> cache = RESOLVED_TYPES.get((Class<?>) srcType);
+      Type resolved = cache.get(field);
+      if (resolved == null) {
+        resolved = doResolveFieldType(field, srcType);
+        cache.put(field, resolved);
+      }
+      return resolved;
+    }
+    return doResolveFieldType(field, srcType);
+  }
+
+  private static Type doResolveFieldType(Field field, Type srcType) {
     // 属性类型
     Type fieldType = field.getGenericType();
     // 定义的类
@@ -45,6 +85,19 @@ public class TypeParameterResolver {
    *         they will be resolved to the actual runtime {@link Type}s.
    */
   public static Type resolveReturnType(Method method, Type srcType) {
+    if (srcType instanceof Class) {
+      ConcurrentMap<Member, Type> cache = RESOLVED_TYPES.get((Class<?>) srcType);
+      Type resolved = cache.get(method);
+      if (resolved == null) {
+        resolved = doResolveReturnType(method, srcType);
+        cache.put(method, resolved);
+      }
+      return resolved;
+    }
+    return doResolveReturnType(method, srcType);
+  }
+
+  private static Type doResolveReturnType(Method method, Type srcType) {
     // 属性类型
     Type returnType = method.getGenericReturnType();
     // 定义的类
@@ -60,6 +113,20 @@ public class TypeParameterResolver {
    *         they will be resolved to the actual runtime {@link Type}s.
    */
   public static Type[] resolveParamTypes(Method method, Type srcType) {
+    if (srcType instanceof Class) {
+      ConcurrentMap<Method, Type[]> cache = RESOLVED_PARAM_TYPES.get((Class<?>) srcType);
+      Type[] resolved = cache.get(method);
+      if (resolved == null) {
+        resolved = doResolveParamTypes(method, srcType);
+        cache.put(method, resolved);
+      }
+      // 返回副本，避免调用方修改缓存的数组
+      return resolved.clone();
+    }
+    return doResolveParamTypes(method, srcType);
+  }
+
+  private static Type[] doResolveParamTypes(Method method, Type srcType) {
     // 获得方法参数类型数组
     Type[] paramTypes = method.getGenericParameterTypes();
     // 定义的类
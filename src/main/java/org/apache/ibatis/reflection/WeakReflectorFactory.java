@@ -0,0 +1,137 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * 不会阻止类被卸载、并且限制缓存数量的 {@link ReflectorFactory} 实现类，适合类加载器会被回收重建的环境（例如插件容器）。
+ * <p>
+ * Reflector 通过 {@link ClassValue} 挂在类上，类加载器不可达时会随类一起被回收。
+ * 缓存的 Reflector 数量超过上限时，按 CLOCK 算法（近似 LRU）淘汰最近没有被使用过的，
+ * 命中时不需要加锁。
+ * <p>
+ * 通过 {@code <reflectorFactory type="org.apache.ibatis.reflection.WeakReflectorFactory"/>} 启用。
+ *
+ * @since 3.5.1
+ */
+public class WeakReflectorFactory extends DefaultReflectorFactory {
+
+  public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+  /**
+   * 缓存的 Reflector 数量上限
+   */
+  private final int maximumSize;
+  private final ClassValue<Entry> entries = new ClassValue<Entry>() {
+    @Override
+    protected Entry computeValue(Class<?> type) {
+      return new Entry();
+    }
+  };
+  /**
+   * 已缓存 Reflector 的 Entry ，按加入的顺序排列。使用弱引用，避免通过 Reflector 间接引用类
+   */
+  private final Deque<WeakReference<Entry>> clock = new ArrayDeque<>();
+  private int size;
+
+  public WeakReflectorFactory() {
+    this(DEFAULT_MAXIMUM_SIZE);
+  }
+
+  public WeakReflectorFactory(int maximumSize) {
+    if (maximumSize < 1) {
+      throw new IllegalArgumentException("maximumSize must be greater than 0 but was " + maximumSize);
+    }
+    this.maximumSize = maximumSize;
+  }
+
+  public int getMaximumSize() {
+    return maximumSize;
+  }
+
+  /**
+   * @return 当前缓存的 Reflector 数量（包含已被回收但尚未清理的）
+   */
+  public synchronized int size() {
+    return size;
+  }
+
+  @Override
+  public Reflector findForClass(Class<?> type) {
+    if (!isClassCacheEnabled()) {
+      return newReflector(type);
+    }
+    Entry entry = entries.get(type);
+    Reflector reflector = entry.reflector;
+    if (reflector == null) {
+      return load(entry, type);
+    }
+    if (!entry.referenced) {
+      entry.referenced = true;
+    }
+    return reflector;
+  }
+
+  private Reflector load(Entry entry, Class<?> type) {
+    // 在锁外创建 Reflector ，未命中时不会互相阻塞
+    Reflector reflector = newReflector(type);
+    synchronized (this) {
+      if (entry.reflector != null) {
+        return entry.reflector;
+      }
+      entry.reflector = reflector;
+      entry.referenced = false;
+      clock.addLast(entry.self);
+      size++;
+      while (size > maximumSize) {
+        evictOne();
+      }
+    }
+    return reflector;
+  }
+
+  private void evictOne() {
+    while (true) {
+      Entry candidate = clock.pollFirst().get();
+      // 类已被卸载
+      if (candidate == null) {
+        size--;
+        return;
+      }
+      // 最近使用过，给一次机会
+      if (candidate.referenced) {
+        candidate.referenced = false;
+        clock.addLast(candidate.self);
+        continue;
+      }
+      candidate.reflector = null;
+      size--;
+      return;
+    }
+  }
+
+  private static final class Entry {
+
+    private final WeakReference<Entry> self = new WeakReference<>(this);
+    private volatile Reflector reflector;
+    private volatile boolean referenced;
+
+  }
+
+}
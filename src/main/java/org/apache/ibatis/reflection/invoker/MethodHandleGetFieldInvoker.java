@@ -0,0 +1,65 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+
+import org.apache.ibatis.lang.UsesJava7;
+
+/**
+ * 通过 {@link MethodHandle} 读取属性的 Invoker，由 {@link MethodHandleInvokerFactory} 创建。
+ * 调用失败并且目标对象类型不匹配时交给 {@link GetFieldInvoker} 处理，从而抛出与反射相同的异常。
+ *
+ * @since 3.5.1
+ */
+public class MethodHandleGetFieldInvoker extends GetFieldInvoker {
+
+  /**
+   * 类型为 (Object)Object
+   */
+  private final MethodHandle getter;
+  /**
+   * 声明属性的类，静态属性时为 null
+   */
+  private final Class<?> targetType;
+
+  MethodHandleGetFieldInvoker(Field field, MethodHandle getter) {
+    super(field);
+    this.getter = getter;
+    this.targetType = Modifier.isStatic(field.getModifiers()) ? null : field.getDeclaringClass();
+  }
+
+  @Override
+  @UsesJava7
+  public Object invoke(Object target, Object[] args) throws IllegalAccessException {
+    try {
+      return (Object) getter.invokeExact(target);
+    } catch (RuntimeException e) {
+      if (targetType != null && !targetType.isInstance(target)) {
+        return super.invoke(target, args);
+      }
+      throw e;
+    } catch (Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new IllegalStateException(new InvocationTargetException(t));
+    }
+  }
+
+}
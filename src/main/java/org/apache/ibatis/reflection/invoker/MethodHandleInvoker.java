@@ -0,0 +1,142 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.apache.ibatis.lang.UsesJava7;
+
+/**
+ * 不经过 {@link Method#invoke(Object, Object...)} 调用 getter/setter 方法的 Invoker。
+ * 优先使用 LambdaMetafactory 生成的 {@link Function}/{@link BiConsumer}，
+ * 否则使用 {@link MethodHandle}。由 {@link MethodHandleInvokerFactory} 创建。
+ * <p>
+ * 继承 {@link MethodInvoker}，从而仍然可以获得被调用的 {@link Method}。
+ * 调用失败并且目标对象或参数的类型不匹配时交给 {@link MethodInvoker} 通过反射调用，
+ * 从而与 {@link Method#invoke(Object, Object...)} 一样抛出 {@link IllegalArgumentException} 等异常。
+ *
+ * @since 3.5.1
+ */
+public class MethodHandleInvoker extends MethodInvoker {
+
+  /**
+   * getter 方法生成的 Function，没有时为 null
+   */
+  private final Function<Object, Object> getter;
+  /**
+   * setter 方法生成的 BiConsumer，没有时为 null
+   */
+  private final BiConsumer<Object, Object> setter;
+  /**
+   * 类型为 (Object)Object 的 getter，或 (Object,Object)void 的 setter，使用 Lambda 时为 null
+   */
+  private final MethodHandle handle;
+  private final boolean setterHandle;
+  /**
+   * 声明方法的类，静态方法时为 null
+   */
+  private final Class<?> targetType;
+  /**
+   * setter 方法参数的包装类型，getter 时为 null
+   */
+  private final Class<?> valueType;
+  /**
+   * setter 方法参数是否为基本类型
+   */
+  private final boolean primitiveValue;
+
+  MethodHandleInvoker(Method method, Function<Object, Object> getter) {
+    this(method, getter, null, null);
+  }
+
+  MethodHandleInvoker(Method method, BiConsumer<Object, Object> setter) {
+    this(method, null, setter, null);
+  }
+
+  MethodHandleInvoker(Method method, MethodHandle handle) {
+    this(method, null, null, handle);
+  }
+
+  private MethodHandleInvoker(Method method, Function<Object, Object> getter, BiConsumer<Object, Object> setter,
+      MethodHandle handle) {
+    super(method);
+    this.getter = getter;
+    this.setter = setter;
+    this.handle = handle;
+    this.setterHandle = handle != null && handle.type().parameterCount() == 2;
+    this.targetType = Modifier.isStatic(method.getModifiers()) ? null : method.getDeclaringClass();
+    if (method.getParameterTypes().length == 1) {
+      this.valueType = MethodHandleInvokerFactory.wrap(method.getParameterTypes()[0]);
+      this.primitiveValue = method.getParameterTypes()[0].isPrimitive();
+    } else {
+      this.valueType = null;
+      this.primitiveValue = false;
+    }
+  }
+
+  @Override
+  @UsesJava7
+  public Object invoke(Object target, Object[] args) throws IllegalAccessException, InvocationTargetException {
+    try {
+      if (getter != null) {
+        return getter.apply(target);
+      }
+      if (setter != null) {
+        setter.accept(target, args[0]);
+        return null;
+      }
+      if (setterHandle) {
+        handle.invokeExact(target, args[0]);
+        return null;
+      }
+      return (Object) handle.invokeExact(target);
+    } catch (Throwable t) {
+      // 类型转换在调用方法之前进行，参数不匹配说明异常来自类型转换（例如 null 赋值给基本类型、
+      // 目标对象类型错误、基本类型的拓宽转换），此时交给反射处理，从而抛出与 Method#invoke 相同的异常
+      if (!accepts(target, args)) {
+        return super.invoke(target, args);
+      }
+      // 与 Method#invoke 一致，方法抛出的异常包装为 InvocationTargetException
+      throw new InvocationTargetException(t);
+    }
+  }
+
+  private boolean accepts(Object target, Object[] args) {
+    if (targetType != null && !targetType.isInstance(target)) {
+      return false;
+    }
+    if (valueType == null) {
+      return args == null || args.length == 0;
+    }
+    if (args == null || args.length != 1) {
+      return false;
+    }
+    return args[0] == null ? !primitiveValue : valueType.isInstance(args[0]);
+  }
+
+  /**
+   * @return 是否使用了 LambdaMetafactory 生成的实现
+   */
+  public boolean isLambda() {
+    return handle == null;
+  }
+
+}
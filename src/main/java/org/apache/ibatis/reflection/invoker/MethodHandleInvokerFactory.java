@@ -0,0 +1,208 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.apache.ibatis.lang.UsesJava7;
+import org.apache.ibatis.reflection.Reflector;
+
+/**
+ * 基于 {@link MethodHandle} 的 {@link InvokerFactory}，调用时没有 {@link Method#invoke(Object, Object...)}
+ * 的访问检查和参数数组。对每个方法/属性依次尝试：
+ * <ol>
+ * <li>public 方法，且涉及的类都能被 MyBatis 的 ClassLoader 加载：使用 LambdaMetafactory 生成的实现，调用可被 JIT 内联</li>
+ * <li>可访问（或可以 setAccessible）的方法/属性：使用 {@link MethodHandle}</li>
+ * <li>其他情况（例如模块未开放）：回退为基于反射的 Invoker</li>
+ * </ol>
+ *
+ * @since 3.5.1
+ */
+public class MethodHandleInvokerFactory implements InvokerFactory {
+
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+  private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+  private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+  private final boolean lambdaEnabled;
+
+  public MethodHandleInvokerFactory() {
+    this(true);
+  }
+
+  /**
+   * @param lambdaEnabled 是否使用 LambdaMetafactory，为 false 时只使用 MethodHandle
+   */
+  public MethodHandleInvokerFactory(boolean lambdaEnabled) {
+    this.lambdaEnabled = lambdaEnabled;
+  }
+
+  @Override
+  public Invoker createMethodInvoker(Method method) {
+    boolean setter = method.getParameterCount() == 1;
+    if (method.getParameterCount() > 1) {
+      return new MethodInvoker(method);
+    }
+    try {
+      MethodHandle handle;
+      boolean accessible = true;
+      try {
+        handle = LOOKUP.unreflect(method);
+      } catch (IllegalAccessException e) {
+        if (!Reflector.canControlMemberAccessible()) {
+          return new MethodInvoker(method);
+        }
+        method.setAccessible(true);
+        handle = LOOKUP.unreflect(method);
+        accessible = false;
+      }
+      if (accessible && canSpinLambda(method, setter)) {
+        try {
+          return setter ? new MethodHandleInvoker(method, spinSetter(method, handle))
+              : new MethodHandleInvoker(method, spinGetter(method, handle));
+        } catch (Throwable e) {
+          // 生成失败，使用 MethodHandle
+        }
+      }
+      if (Modifier.isStatic(method.getModifiers())) {
+        handle = MethodHandles.dropArguments(handle, 0, Object.class);
+      }
+      return new MethodHandleInvoker(method, handle.asType(setter ? SETTER_TYPE : GETTER_TYPE));
+    } catch (RuntimeException | IllegalAccessException e) {
+      return new MethodInvoker(method);
+    }
+  }
+
+  @Override
+  public Invoker createGetFieldInvoker(Field field) {
+    try {
+      MethodHandle handle = unreflectGetter(field);
+      if (Modifier.isStatic(field.getModifiers())) {
+        handle = MethodHandles.dropArguments(handle, 0, Object.class);
+      }
+      return new MethodHandleGetFieldInvoker(field, handle.asType(GETTER_TYPE));
+    } catch (RuntimeException | IllegalAccessException e) {
+      return new GetFieldInvoker(field);
+    }
+  }
+
+  @Override
+  public Invoker createSetFieldInvoker(Field field) {
+    try {
+      MethodHandle handle = unreflectSetter(field);
+      if (Modifier.isStatic(field.getModifiers())) {
+        handle = MethodHandles.dropArguments(handle, 0, Object.class);
+      }
+      return new MethodHandleSetFieldInvoker(field, handle.asType(SETTER_TYPE));
+    } catch (RuntimeException | IllegalAccessException e) {
+      return new SetFieldInvoker(field);
+    }
+  }
+
+  private static MethodHandle unreflectGetter(Field field) throws IllegalAccessException {
+    try {
+      return LOOKUP.unreflectGetter(field);
+    } catch (IllegalAccessException e) {
+      if (!Reflector.canControlMemberAccessible()) {
+        throw e;
+      }
+      field.setAccessible(true);
+      return LOOKUP.unreflectGetter(field);
+    }
+  }
+
+  private static MethodHandle unreflectSetter(Field field) throws IllegalAccessException {
+    try {
+      return LOOKUP.unreflectSetter(field);
+    } catch (IllegalAccessException e) {
+      // final 属性也需要 setAccessible 后才能设置，与 SetFieldInvoker 一致
+      if (!Reflector.canControlMemberAccessible()) {
+        throw e;
+      }
+      field.setAccessible(true);
+      return LOOKUP.unreflectSetter(field);
+    }
+  }
+
+  /**
+   * 生成的类通过 MyBatis 的 ClassLoader 解析方法涉及的类，因此这些类都必须能被它加载，
+   * 否则（例如实体类位于子 ClassLoader 中）只能使用 MethodHandle。
+   */
+  private boolean canSpinLambda(Method method, boolean setter) {
+    if (!lambdaEnabled || Modifier.isStatic(method.getModifiers()) || !Modifier.isPublic(method.getModifiers())) {
+      return false;
+    }
+    Class<?> valueType = setter ? method.getParameterTypes()[0] : method.getReturnType();
+    return valueType != void.class && isAccessible(method.getDeclaringClass()) && isAccessible(valueType);
+  }
+
+  /**
+   * 生成的类会引用该类型（类型转换），因此它必须是 public 的，并且能被 MyBatis 的 ClassLoader 加载。
+   */
+  private static boolean isAccessible(Class<?> type) {
+    while (type.isArray()) {
+      type = type.getComponentType();
+    }
+    if (type.isPrimitive()) {
+      return true;
+    }
+    if (!Modifier.isPublic(type.getModifiers())) {
+      return false;
+    }
+    ClassLoader loader = MethodHandleInvokerFactory.class.getClassLoader();
+    if (type.getClassLoader() == loader || type.getClassLoader() == null) {
+      return true;
+    }
+    try {
+      return Class.forName(type.getName(), false, loader) == type;
+    } catch (ClassNotFoundException | LinkageError e) {
+      return false;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  @UsesJava7
+  private static Function<Object, Object> spinGetter(Method method, MethodHandle handle) throws Throwable {
+    MethodType instantiatedType = MethodType.methodType(wrap(method.getReturnType()), method.getDeclaringClass());
+    CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply", MethodType.methodType(Function.class),
+        GETTER_TYPE, handle, instantiatedType);
+    return (Function<Object, Object>) site.getTarget().invoke();
+  }
+
+  @SuppressWarnings("unchecked")
+  @UsesJava7
+  private static BiConsumer<Object, Object> spinSetter(Method method, MethodHandle handle) throws Throwable {
+    MethodType instantiatedType = MethodType.methodType(void.class, method.getDeclaringClass(),
+        wrap(method.getParameterTypes()[0]));
+    CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept", MethodType.methodType(BiConsumer.class),
+        MethodType.methodType(void.class, Object.class, Object.class), handle, instantiatedType);
+    return (BiConsumer<Object, Object>) site.getTarget().invoke();
+  }
+
+  static Class<?> wrap(Class<?> type) {
+    return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+  }
+
+}
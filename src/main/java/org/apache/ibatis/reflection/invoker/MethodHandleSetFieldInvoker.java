@@ -0,0 +1,84 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+
+import org.apache.ibatis.lang.UsesJava7;
+
+/**
+ * 通过 {@link MethodHandle} 设置属性的 Invoker，由 {@link MethodHandleInvokerFactory} 创建。
+ * 调用失败并且目标对象或属性值的类型不匹配时交给 {@link SetFieldInvoker} 处理，从而抛出与反射相同的异常。
+ *
+ * @since 3.5.1
+ */
+public class MethodHandleSetFieldInvoker extends SetFieldInvoker {
+
+  /**
+   * 类型为 (Object,Object)void
+   */
+  private final MethodHandle setter;
+  /**
+   * 声明属性的类，静态属性时为 null
+   */
+  private final Class<?> targetType;
+  /**
+   * 属性的包装类型
+   */
+  private final Class<?> valueType;
+  /**
+   * 属性是否为基本类型
+   */
+  private final boolean primitiveValue;
+
+  MethodHandleSetFieldInvoker(Field field, MethodHandle setter) {
+    super(field);
+    this.setter = setter;
+    this.targetType = Modifier.isStatic(field.getModifiers()) ? null : field.getDeclaringClass();
+    this.valueType = MethodHandleInvokerFactory.wrap(field.getType());
+    this.primitiveValue = field.getType().isPrimitive();
+  }
+
+  @Override
+  @UsesJava7
+  public Object invoke(Object target, Object[] args) throws IllegalAccessException {
+    try {
+      setter.invokeExact(target, args[0]);
+      return null;
+    } catch (RuntimeException e) {
+      // 例如 null 赋值给基本类型、目标对象类型错误、基本类型的拓宽转换，由反射处理
+      if (!accepts(target, args[0])) {
+        return super.invoke(target, args);
+      }
+      throw e;
+    } catch (Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new IllegalStateException(new InvocationTargetException(t));
+    }
+  }
+
+  private boolean accepts(Object target, Object value) {
+    if (targetType != null && !targetType.isInstance(target)) {
+      return false;
+    }
+    return value == null ? !primitiveValue : valueType.isInstance(value);
+  }
+
+}
@@ -0,0 +1,75 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.defaults;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
+
+/**
+ * 与 {@link XMLLanguageDriver} 相同，但使用 {@link BindingPlanParameterHandler} 设置参数。
+ *
+ * 对于静态 SQL ，每个 MappedStatement 和参数类型只编译一次参数绑定计划。
+ * 动态 SQL 每次生成的 ParameterMapping 都不同，计划无法复用，因此和 {@link XMLLanguageDriver} 一样使用 {@link DefaultParameterHandler} 。
+ *
+ * @since 3.5.1
+ */
+public class BindingPlanLanguageDriver extends XMLLanguageDriver {
+
+  /**
+   * 参数绑定计划的缓存
+   *
+   * KEY1：MappedStatement
+   * KEY2：参数类型，参数为 null 时使用 Void.class
+   */
+  private final ConcurrentMap<MappedStatement, ConcurrentMap<Class<?>, ParameterBindingPlan>> plans = new ConcurrentHashMap<>();
+
+  @Override
+  public ParameterHandler createParameterHandler(MappedStatement mappedStatement, Object parameterObject, BoundSql boundSql) {
+    if (!isStatic(mappedStatement.getSqlSource())) {
+      return super.createParameterHandler(mappedStatement, parameterObject, boundSql);
+    }
+    return new BindingPlanParameterHandler(this, mappedStatement, parameterObject, boundSql);
+  }
+
+  ParameterBindingPlan getParameterBindingPlan(MappedStatement mappedStatement, List<ParameterMapping> parameterMappings, Object parameterObject) {
+    Class<?> parameterType = parameterObject == null ? null : parameterObject.getClass();
+    Class<?> key = parameterType == null ? Void.class : parameterType;
+    ConcurrentMap<Class<?>, ParameterBindingPlan> statementPlans = plans.get(mappedStatement);
+    if (statementPlans == null) {
+      statementPlans = plans.computeIfAbsent(mappedStatement, k -> new ConcurrentHashMap<>());
+    }
+    ParameterBindingPlan plan = statementPlans.get(key);
+    if (plan == null || !plan.matches(parameterMappings)) {
+      plan = ParameterBindingPlan.build(mappedStatement.getConfiguration(), parameterMappings, parameterType);
+      statementPlans.put(key, plan);
+    }
+    return plan;
+  }
+
+  private static boolean isStatic(SqlSource sqlSource) {
+    return sqlSource instanceof RawSqlSource || sqlSource instanceof StaticSqlSource;
+  }
+
+}
@@ -0,0 +1,84 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.defaults;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.apache.ibatis.executor.ErrorContext;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+
+/**
+ * 使用预先编译的 {@link ParameterBindingPlan} 设置参数的 ParameterHandler 实现类。
+ *
+ * 占位符引用了附加参数（例如动态 SQL 的 &lt;foreach /&gt; 、&lt;bind /&gt; 、_parameter ，或者插件设置的参数）时，
+ * 交给 {@link DefaultParameterHandler} 处理。动态 SQL 总会设置 _parameter 和 _databaseId 附加参数，
+ * 所以只看占位符是否引用附加参数，而不是是否存在附加参数。
+ *
+ * @since 3.5.1
+ */
+public class BindingPlanParameterHandler implements ParameterHandler {
+
+  private final BindingPlanLanguageDriver languageDriver;
+  private final MappedStatement mappedStatement;
+  private final Object parameterObject;
+  private final BoundSql boundSql;
+
+  public BindingPlanParameterHandler(BindingPlanLanguageDriver languageDriver, MappedStatement mappedStatement, Object parameterObject, BoundSql boundSql) {
+    this.languageDriver = languageDriver;
+    this.mappedStatement = mappedStatement;
+    this.parameterObject = parameterObject;
+    this.boundSql = boundSql;
+  }
+
+  @Override
+  public Object getParameterObject() {
+    return parameterObject;
+  }
+
+  @Override
+  public void setParameters(PreparedStatement ps) throws SQLException {
+    List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+    if (usesAdditionalParameters(parameterMappings)) {
+      new DefaultParameterHandler(mappedStatement, parameterObject, boundSql).setParameters(ps);
+      return;
+    }
+    ErrorContext.instance().activity("setting parameters").object(mappedStatement.getParameterMap().getId());
+    if (parameterMappings != null) {
+      ParameterBindingPlan plan = languageDriver.getParameterBindingPlan(mappedStatement, parameterMappings, parameterObject);
+      plan.bind(mappedStatement.getConfiguration(), ps, parameterObject);
+    }
+  }
+
+  // 与 DefaultParameterHandler 相同，只有 ParameterMapping 的属性名对应附加参数时，才从附加参数取值
+  private boolean usesAdditionalParameters(List<ParameterMapping> parameterMappings) {
+    if (parameterMappings == null || !boundSql.hasAdditionalParameters()) {
+      return false;
+    }
+    for (ParameterMapping parameterMapping : parameterMappings) {
+      if (parameterMapping.getMode() != ParameterMode.OUT && boundSql.hasAdditionalParameter(parameterMapping.getProperty())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+}
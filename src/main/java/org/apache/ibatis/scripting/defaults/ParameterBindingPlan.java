@@ -0,0 +1,176 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.defaults;
+
+import java.lang.reflect.Modifier;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.reflection.MetaClass;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.PropertyPath;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeException;
+import org.apache.ibatis.type.TypeHandler;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+import org.apache.ibatis.type.UnknownTypeHandler;
+
+/**
+ * 参数绑定计划：针对某个 ParameterMapping 列表和参数类型，预先确定每个占位符的取值方式、
+ * TypeHandler 和 JdbcType ，执行时只需要顺序遍历。
+ *
+ * @since 3.5.1
+ */
+final class ParameterBindingPlan {
+
+  /**
+   * 取值方式
+   */
+  private enum Source {
+    /**
+     * 参数对象为 null
+     */
+    NULL,
+    /**
+     * 参数对象本身
+     */
+    PARAMETER,
+    /**
+     * 参数对象的属性
+     */
+    PROPERTY
+  }
+
+  private final List<ParameterMapping> parameterMappings;
+  private final Binding[] bindings;
+  private final boolean needsMetaObject;
+
+  private ParameterBindingPlan(List<ParameterMapping> parameterMappings, Binding[] bindings, boolean needsMetaObject) {
+    this.parameterMappings = parameterMappings;
+    this.bindings = bindings;
+    this.needsMetaObject = needsMetaObject;
+  }
+
+  static ParameterBindingPlan build(Configuration configuration, List<ParameterMapping> parameterMappings, Class<?> parameterType) {
+    TypeHandlerRegistry typeHandlerRegistry = configuration.getTypeHandlerRegistry();
+    Source source;
+    if (parameterType == null) {
+      source = Source.NULL;
+    } else if (typeHandlerRegistry.hasTypeHandler(parameterType)) {
+      source = Source.PARAMETER;
+    } else {
+      source = Source.PROPERTY;
+    }
+    List<Binding> bindings = new ArrayList<>(parameterMappings.size());
+    for (int i = 0; i < parameterMappings.size(); i++) {
+      ParameterMapping parameterMapping = parameterMappings.get(i);
+      if (parameterMapping.getMode() == ParameterMode.OUT) {
+        continue;
+      }
+      PropertyPath propertyPath = source == Source.PROPERTY ? parameterMapping.getPropertyPath() : null;
+      TypeHandler<?> typeHandler = parameterMapping.getTypeHandler();
+      JdbcType jdbcType = parameterMapping.getJdbcType();
+      if (typeHandler instanceof UnknownTypeHandler) {
+        typeHandler = resolveTypeHandler(configuration, typeHandler, source, parameterType, parameterMapping.getProperty(), jdbcType);
+      }
+      JdbcType jdbcTypeForNull = jdbcType != null ? jdbcType : configuration.getJdbcTypeForNull();
+      bindings.add(new Binding(i + 1, parameterMapping, source, propertyPath, typeHandler, jdbcType, jdbcTypeForNull));
+    }
+    return new ParameterBindingPlan(parameterMappings, bindings.toArray(new Binding[0]), source == Source.PROPERTY);
+  }
+
+  /**
+   * 对于 UnknownTypeHandler ，如果值的类型可以在编译计划时唯一确定（基本类型或 final 类），
+   * 直接使用对应的 TypeHandler ，避免每次执行时按值的类型查找。
+   */
+  private static TypeHandler<?> resolveTypeHandler(Configuration configuration, TypeHandler<?> typeHandler, Source source,
+      Class<?> parameterType, String property, JdbcType jdbcType) {
+    Class<?> valueType = null;
+    if (source == Source.PARAMETER) {
+      valueType = parameterType;
+    } else if (source == Source.PROPERTY && !Map.class.isAssignableFrom(parameterType) && property.indexOf('[') < 0) {
+      MetaClass metaClass = MetaClass.forClass(parameterType, configuration.getReflectorFactory());
+      if (metaClass.hasGetter(property)) {
+        valueType = metaClass.getGetterType(property);
+      }
+    }
+    if (valueType == null || !(valueType.isPrimitive() || Modifier.isFinal(valueType.getModifiers()))) {
+      return typeHandler;
+    }
+    // 只替换为 BaseTypeHandler ，保证值为 null 时的处理与 UnknownTypeHandler 一致
+    TypeHandler<?> resolved = configuration.getTypeHandlerRegistry().getTypeHandler(valueType, jdbcType);
+    return resolved instanceof BaseTypeHandler ? resolved : typeHandler;
+  }
+
+  boolean matches(List<ParameterMapping> parameterMappings) {
+    return this.parameterMappings == parameterMappings;
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  void bind(Configuration configuration, PreparedStatement ps, Object parameterObject) {
+    MetaObject metaObject = needsMetaObject ? configuration.newMetaObject(parameterObject) : null;
+    for (Binding binding : bindings) {
+      Object value;
+      switch (binding.source) {
+        case PARAMETER:
+          value = parameterObject;
+          break;
+        case PROPERTY:
+          value = binding.propertyPath.getValue(metaObject);
+          break;
+        default:
+          value = null;
+      }
+      JdbcType jdbcType = value == null ? binding.jdbcTypeForNull : binding.jdbcType;
+      try {
+        ((TypeHandler) binding.typeHandler).setParameter(ps, binding.index, value, jdbcType);
+      } catch (TypeException | SQLException e) {
+        throw new TypeException("Could not set parameters for mapping: " + binding.parameterMapping + ". Cause: " + e, e);
+      }
+    }
+  }
+
+  private static final class Binding {
+
+    private final int index;
+    private final ParameterMapping parameterMapping;
+    private final Source source;
+    private final PropertyPath propertyPath;
+    private final TypeHandler<?> typeHandler;
+    private final JdbcType jdbcType;
+    private final JdbcType jdbcTypeForNull;
+
+    Binding(int index, ParameterMapping parameterMapping, Source source, PropertyPath propertyPath,
+        TypeHandler<?> typeHandler, JdbcType jdbcType, JdbcType jdbcTypeForNull) {
+      this.index = index;
+      this.parameterMapping = parameterMapping;
+      this.source = source;
+      this.propertyPath = propertyPath;
+      this.typeHandler = typeHandler;
+      this.jdbcType = jdbcType;
+      this.jdbcTypeForNull = jdbcTypeForNull;
+    }
+
+  }
+
+}
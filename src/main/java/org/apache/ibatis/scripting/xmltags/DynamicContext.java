@@ -136,11 +136,12 @@ public class DynamicContext {
 
       // 优先从ContextMap中，获得属性
       Object result = map.get(name);
-      if (map.containsKey(name) || result != null) {
+      if (result != null || map.containsKey(name)) {
         return result;
       }
 
       // <x> 如果没有，则从PARAMETER_OBJECT_KEY对应的Map中，获得属性
+      // 多参数方法的 IndexedParamMap 按参数名的位置读取，不需要查找 HashMap
       Object parameterObject = map.get(PARAMETER_OBJECT_KEY);
       if (parameterObject instanceof Map) {
         return ((Map)parameterObject).get(name);
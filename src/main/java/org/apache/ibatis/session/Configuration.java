@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.session;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
@@ -25,6 +26,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 
 import org.apache.ibatis.binding.MapperRegistry;
@@ -43,6 +51,8 @@ import org.apache.ibatis.datasource.jndi.JndiDataSourceFactory;
 import org.apache.ibatis.datasource.pooled.PooledDataSourceFactory;
 import org.apache.ibatis.datasource.unpooled.UnpooledDataSourceFactory;
 import org.apache.ibatis.executor.BatchExecutor;
+import org.apache.ibatis.executor.BatchFlushListener;
+import org.apache.ibatis.executor.BulkLoader;
 import org.apache.ibatis.executor.CachingExecutor;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ReuseExecutor;
@@ -56,9 +66,13 @@ import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
 import org.apache.ibatis.executor.resultset.ResultSetHandler;
 import org.apache.ibatis.executor.statement.RoutingStatementHandler;
 import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.executor.statistics.SlowStatementBuffer;
+import org.apache.ibatis.executor.statistics.SlowStatementSink;
+import org.apache.ibatis.executor.statistics.StatementStatisticsRegistry;
 import org.apache.ibatis.io.VFS;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.logging.jdbc.JdbcLogSampler;
 import org.apache.ibatis.logging.commons.JakartaCommonsLoggingImpl;
 import org.apache.ibatis.logging.jdk14.Jdk14LoggingImpl;
 import org.apache.ibatis.logging.log4j.Log4jImpl;
@@ -77,6 +91,7 @@ import org.apache.ibatis.plugin.Interceptor;
 import org.apache.ibatis.plugin.InterceptorChain;
 import org.apache.ibatis.reflection.DefaultReflectorFactory;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.PropertyPath;
 import org.apache.ibatis.reflection.ReflectorFactory;
 import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
@@ -84,6 +99,7 @@ import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
 import org.apache.ibatis.reflection.wrapper.ObjectWrapperFactory;
 import org.apache.ibatis.scripting.LanguageDriver;
 import org.apache.ibatis.scripting.LanguageDriverRegistry;
+import org.apache.ibatis.scripting.defaults.BindingPlanLanguageDriver;
 import org.apache.ibatis.scripting.defaults.RawLanguageDriver;
 import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
 import org.apache.ibatis.transaction.Transaction;
@@ -99,6 +115,8 @@ import org.apache.ibatis.type.TypeHandlerRegistry;
  */
 public class Configuration {
 
+  private static final int MAX_CACHED_PROPERTY_PATHS = 4096;
+
   /**
    * DB Environment对象
    */
@@ -142,6 +160,12 @@ public class Configuration {
    * ReflectorFactory对象
    */
   protected ReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+  /**
+   * 预编译的属性路径缓存
+   *
+   * KEY：属性表达式
+   */
+  protected final Map<String, PropertyPath> propertyPaths = new ConcurrentHashMap<>();
   /**
    * ObjectFactory对象
    */
@@ -153,6 +177,118 @@ public class Configuration {
 
   protected boolean lazyLoadingEnabled = false;
   protected ProxyFactory proxyFactory = new JavassistProxyFactory(); // #224 Using internal Javassist instead of OGNL
+  /**
+   * 是否并行执行非延迟加载的内嵌查询，默认为false
+   */
+  protected boolean parallelNestedQueriesEnabled;
+  /**
+   * 并行执行内嵌查询的线程池大小
+   */
+  protected int nestedQueryThreadPoolSize = 4;
+  /**
+   * 并行执行内嵌查询的线程池，未设置时按{@link #nestedQueryThreadPoolSize}创建
+   */
+  protected volatile ExecutorService nestedQueryExecutorService;
+  /**
+   * {@link #nestedQueryExecutorService} 是否为自动创建的
+   */
+  protected boolean nestedQueryExecutorServiceCreated;
+  /**
+   * 游标是否按父对象的id变化，逐个输出嵌套映射的完整结果对象，默认为false
+   */
+  protected boolean nestedResultCursorStreamingEnabled;
+  /**
+   * 是否校验有序输出的嵌套映射结果确实按父对象有序，默认为false
+   */
+  protected boolean resultOrderCheckEnabled;
+  /**
+   * BATCH执行器是否按(MappedStatement, SQL)聚合批处理语句，即使中间穿插了其它语句，默认为false
+   */
+  protected boolean batchGroupingEnabled;
+  /**
+   * BATCH执行器中单个语句累积的最大行数，达到后自动刷入批处理，0表示不限制
+   */
+  protected int batchMaxRowsPerStatement;
+  /**
+   * BATCH执行器中所有语句累积的最大行数，达到后自动刷入批处理，0表示不限制
+   */
+  protected int batchMaxPendingRows;
+  /**
+   * BATCH执行器中所有语句累积参数的估算字节数上限，达到后自动刷入批处理，0表示不限制
+   */
+  protected long batchMaxPendingBytes;
+  /**
+   * BATCH执行器是否在后台线程中执行达到上限的批处理，默认为false
+   */
+  protected boolean batchAsyncFlushEnabled;
+  /**
+   * 后台执行的批处理的最大排队数量，达到后新的批处理需等待
+   */
+  protected int batchAsyncFlushQueueSize = 2;
+  /**
+   * 合并为多行INSERT语句时，单条语句的最大参数数量
+   */
+  protected int rewriteBatchMaxParameters = 2000;
+  /**
+   * 是否记录每个MappedStatement的执行统计
+   */
+  protected boolean statementStatisticsEnabled = true;
+  /**
+   * 是否将执行统计注册到JMX
+   */
+  protected boolean statementStatisticsJmxEnabled;
+  /**
+   * 慢语句的阈值，单位：毫秒。0 表示不捕获
+   */
+  protected long slowStatementThreshold;
+  /**
+   * 保存最近慢语句的数量
+   */
+  protected int slowStatementBufferSize = 100;
+  /**
+   * 是否使用非反射的精简 JDBC 日志（只输出汇总的行数，不逐行输出）
+   */
+  protected boolean compactJdbcLoggingEnabled;
+  /**
+   * JDBC 日志的采样率，每个语句每 N 次准备 Statement 只记录 1 次
+   */
+  protected int jdbcLogSampleRate = 1;
+  /**
+   * 是否为 Mapper 接口生成实现类，代替 JDK 动态代理
+   */
+  protected boolean generatedMappersEnabled;
+  /**
+   * 是否为每种目标类型生成一个组合了所有拦截器的类，代替每个拦截器一层的动态代理
+   */
+  protected boolean composedPluginsEnabled;
+  /**
+   * JDBC 日志采样器
+   */
+  protected JdbcLogSampler jdbcLogSampler = new JdbcLogSampler(jdbcLogSampleRate);
+  /**
+   * 最近的慢语句
+   */
+  protected SlowStatementBuffer slowStatementBuffer = new SlowStatementBuffer(slowStatementBufferSize);
+  /**
+   * 捕获到慢语句后的回调
+   */
+  protected SlowStatementSink slowStatementSink;
+  /**
+   * 每个MappedStatement的执行统计
+   */
+  protected final StatementStatisticsRegistry statementStatisticsRegistry = new StatementStatisticsRegistry();
+  /**
+   * 后台执行批处理的线程池，未设置时创建按需增长的守护线程池
+   */
+  protected ExecutorService batchFlushExecutorService;
+  /**
+   * BATCH执行器刷入批处理后的回调
+   */
+  protected BatchFlushListener batchFlushListener;
+  /**
+   * 批量插入使用的 BulkLoader 数组，按顺序选择第一个支持当前连接的
+   */
+  protected final List<BulkLoader> bulkLoaders = new ArrayList<>();
 
     /**
      * 数据库标识
@@ -258,6 +394,7 @@ public class Configuration {
 
     typeAliasRegistry.registerAlias("XML", XMLLanguageDriver.class);
     typeAliasRegistry.registerAlias("RAW", RawLanguageDriver.class);
+    typeAliasRegistry.registerAlias("BINDING_PLAN", BindingPlanLanguageDriver.class);
 
     typeAliasRegistry.registerAlias("SLF4J", Slf4jImpl.class);
     typeAliasRegistry.registerAlias("COMMONS_LOGGING", JakartaCommonsLoggingImpl.class);
@@ -423,6 +560,443 @@ public class Configuration {
     return proxyFactory;
   }
 
+  /**
+   * @since 3.5.1
+   */
+  public boolean isParallelNestedQueriesEnabled() {
+    return parallelNestedQueriesEnabled;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public void setParallelNestedQueriesEnabled(boolean parallelNestedQueriesEnabled) {
+    this.parallelNestedQueriesEnabled = parallelNestedQueriesEnabled;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public int getNestedQueryThreadPoolSize() {
+    return nestedQueryThreadPoolSize;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public void setNestedQueryThreadPoolSize(int nestedQueryThreadPoolSize) {
+    if (nestedQueryThreadPoolSize < 1) {
+      throw new IllegalArgumentException("nestedQueryThreadPoolSize must be greater than 0 but was " + nestedQueryThreadPoolSize);
+    }
+    this.nestedQueryThreadPoolSize = nestedQueryThreadPoolSize;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public boolean isNestedResultCursorStreamingEnabled() {
+    return nestedResultCursorStreamingEnabled;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public void setNestedResultCursorStreamingEnabled(boolean nestedResultCursorStreamingEnabled) {
+    this.nestedResultCursorStreamingEnabled = nestedResultCursorStreamingEnabled;
+  }
+
+  /**
+   * 开启后会保存已经输出的每个父对象的 CacheKey，直到结果集处理完毕，
+   * 占用的内存与父对象数量成正比，游标也不再是常量内存。适合排查缺少 ORDER BY 的问题。
+   *
+   * @since 3.5.1
+   */
+  public boolean isResultOrderCheckEnabled() {
+    return resultOrderCheckEnabled;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public void setResultOrderCheckEnabled(boolean resultOrderCheckEnabled) {
+    this.resultOrderCheckEnabled = resultOrderCheckEnabled;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public boolean isBatchGroupingEnabled() {
+    return batchGroupingEnabled;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public void setBatchGroupingEnabled(boolean batchGroupingEnabled) {
+    this.batchGroupingEnabled = batchGroupingEnabled;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public int getBatchMaxRowsPerStatement() {
+    return batchMaxRowsPerStatement;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public void setBatchMaxRowsPerStatement(int batchMaxRowsPerStatement) {
+    if (batchMaxRowsPerStatement < 0) {
+      throw new IllegalArgumentException("batchMaxRowsPerStatement must not be negative but was " + batchMaxRowsPerStatement);
+    }
+    this.batchMaxRowsPerStatement = batchMaxRowsPerStatement;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public int getBatchMaxPendingRows() {
+    return batchMaxPendingRows;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public void setBatchMaxPendingRows(int batchMaxPendingRows) {
+    if (batchMaxPendingRows < 0) {
+      throw new IllegalArgumentException("batchMaxPendingRows must not be negative but was " + batchMaxPendingRows);
+    }
+    this.batchMaxPendingRows = batchMaxPendingRows;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public long getBatchMaxPendingBytes() {
+    return batchMaxPendingBytes;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public void setBatchMaxPendingBytes(long batchMaxPendingBytes) {
+    if (batchMaxPendingBytes < 0) {
+      throw new IllegalArgumentException("batchMaxPendingBytes must not be negative but was " + batchMaxPendingBytes);
+    }
+    this.batchMaxPendingBytes = batchMaxPendingBytes;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public boolean isBatchAsyncFlushEnabled() {
+    return batchAsyncFlushEnabled;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public void setBatchAsyncFlushEnabled(boolean batchAsyncFlushEnabled) {
+    this.batchAsyncFlushEnabled = batchAsyncFlushEnabled;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public int getBatchAsyncFlushQueueSize() {
+    return batchAsyncFlushQueueSize;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public void setBatchAsyncFlushQueueSize(int batchAsyncFlushQueueSize) {
+    if (batchAsyncFlushQueueSize < 1) {
+      throw new IllegalArgumentException("batchAsyncFlushQueueSize must be greater than 0 but was " + batchAsyncFlushQueueSize);
+    }
+    this.batchAsyncFlushQueueSize = batchAsyncFlushQueueSize;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public int getRewriteBatchMaxParameters() {
+    return rewriteBatchMaxParameters;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public void setRewriteBatchMaxParameters(int rewriteBatchMaxParameters) {
+    if (rewriteBatchMaxParameters < 1) {
+      throw new IllegalArgumentException("rewriteBatchMaxParameters must be greater than 0 but was " + rewriteBatchMaxParameters);
+    }
+    this.rewriteBatchMaxParameters = rewriteBatchMaxParameters;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public boolean isStatementStatisticsEnabled() {
+    return statementStatisticsEnabled;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public void setStatementStatisticsEnabled(boolean statementStatisticsEnabled) {
+    this.statementStatisticsEnabled = statementStatisticsEnabled;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public boolean isStatementStatisticsJmxEnabled() {
+    return statementStatisticsJmxEnabled;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public void setStatementStatisticsJmxEnabled(boolean statementStatisticsJmxEnabled) {
+    this.statementStatisticsJmxEnabled = statementStatisticsJmxEnabled;
+    if (statementStatisticsJmxEnabled) {
+      statementStatisticsRegistry.registerMBean();
+    } else {
+      statementStatisticsRegistry.unregisterMBean();
+    }
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public long getSlowStatementThreshold() {
+    return slowStatementThreshold;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public void setSlowStatementThreshold(long slowStatementThreshold) {
+    this.slowStatementThreshold = slowStatementThreshold;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public int getSlowStatementBufferSize() {
+    return slowStatementBufferSize;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public void setSlowStatementBufferSize(int slowStatementBufferSize) {
+    if (slowStatementBufferSize < 1) {
+      throw new IllegalArgumentException("slowStatementBufferSize must be greater than 0 but was " + slowStatementBufferSize);
+    }
+    slowStatementBuffer = new SlowStatementBuffer(slowStatementBufferSize);
+    this.slowStatementBufferSize = slowStatementBufferSize;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public boolean isCompactJdbcLoggingEnabled() {
+    return compactJdbcLoggingEnabled;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public void setCompactJdbcLoggingEnabled(boolean compactJdbcLoggingEnabled) {
+    this.compactJdbcLoggingEnabled = compactJdbcLoggingEnabled;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public int getJdbcLogSampleRate() {
+    return jdbcLogSampleRate;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public void setJdbcLogSampleRate(int jdbcLogSampleRate) {
+    if (jdbcLogSampleRate < 1) {
+      throw new IllegalArgumentException("jdbcLogSampleRate must be greater than 0 but was " + jdbcLogSampleRate);
+    }
+    jdbcLogSampler = new JdbcLogSampler(jdbcLogSampleRate);
+    this.jdbcLogSampleRate = jdbcLogSampleRate;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public boolean isGeneratedMappersEnabled() {
+    return generatedMappersEnabled;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public void setGeneratedMappersEnabled(boolean generatedMappersEnabled) {
+    this.generatedMappersEnabled = generatedMappersEnabled;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public boolean isComposedPluginsEnabled() {
+    return composedPluginsEnabled;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public void setComposedPluginsEnabled(boolean composedPluginsEnabled) {
+    interceptorChain.setComposed(composedPluginsEnabled);
+    this.composedPluginsEnabled = composedPluginsEnabled;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public JdbcLogSampler getJdbcLogSampler() {
+    return jdbcLogSampler;
+  }
+
+  /**
+   * 获得最近的慢语句
+   * @since 3.5.1
+   */
+  public SlowStatementBuffer getSlowStatementBuffer() {
+    return slowStatementBuffer;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public SlowStatementSink getSlowStatementSink() {
+    return slowStatementSink;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public void setSlowStatementSink(SlowStatementSink slowStatementSink) {
+    this.slowStatementSink = slowStatementSink;
+  }
+
+  /**
+   * 获得执行统计的注册表
+   * @since 3.5.1
+   */
+  public StatementStatisticsRegistry getStatementStatisticsRegistry() {
+    return statementStatisticsRegistry;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public BatchFlushListener getBatchFlushListener() {
+    return batchFlushListener;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public void setBatchFlushListener(BatchFlushListener batchFlushListener) {
+    this.batchFlushListener = batchFlushListener;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public List<BulkLoader> getBulkLoaders() {
+    return bulkLoaders;
+  }
+
+  /**
+   * 添加 BulkLoader ，优先于已添加的装载器
+   * @since 3.5.1
+   */
+  public void addBulkLoader(BulkLoader bulkLoader) {
+    bulkLoaders.add(0, bulkLoader);
+  }
+
+  /**
+   * 获得并行执行内嵌查询的线程池。若未设置，则创建固定大小的守护线程池。
+   * 线程池的队列是有界的，队列已满时内嵌查询在调用线程中执行
+   * @since 3.5.1
+   */
+  public ExecutorService getNestedQueryExecutorService() {
+    // 每个内嵌查询都会调用，只在创建时加锁
+    ExecutorService executorService = nestedQueryExecutorService;
+    if (executorService == null) {
+      synchronized (this) {
+        executorService = nestedQueryExecutorService;
+        if (executorService == null) {
+          executorService = newNestedQueryExecutorService();
+          nestedQueryExecutorService = executorService;
+          nestedQueryExecutorServiceCreated = true;
+        }
+      }
+    }
+    return executorService;
+  }
+
+  private ExecutorService newNestedQueryExecutorService() {
+    final AtomicInteger threadNumber = new AtomicInteger();
+    // 队列已满时，或线程池已被替换而关闭时，都在调用线程中执行，内嵌查询不会被丢弃
+    ThreadPoolExecutor executorService = new ThreadPoolExecutor(nestedQueryThreadPoolSize, nestedQueryThreadPoolSize,
+        60L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(nestedQueryThreadPoolSize * 4), runnable -> {
+          Thread thread = new Thread(runnable, "mybatis-nested-query-" + threadNumber.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        }, (runnable, executor) -> runnable.run());
+    // 空闲的线程会退出，不再使用的 Configuration 不会一直持有线程
+    executorService.allowCoreThreadTimeOut(true);
+    return executorService;
+  }
+
+  /**
+   * 设置并行执行内嵌查询的线程池，由调用方负责关闭。之前自动创建的线程池会被关闭
+   * @since 3.5.1
+   */
+  public synchronized void setNestedQueryExecutorService(ExecutorService nestedQueryExecutorService) {
+    if (nestedQueryExecutorServiceCreated) {
+      this.nestedQueryExecutorService.shutdown();
+      nestedQueryExecutorServiceCreated = false;
+    }
+    this.nestedQueryExecutorService = nestedQueryExecutorService;
+  }
+
+  /**
+   * 获得后台执行批处理的线程池。若未设置，则创建按需增长的守护线程池
+   * @since 3.5.1
+   */
+  public synchronized ExecutorService getBatchFlushExecutorService() {
+    if (batchFlushExecutorService == null) {
+      final AtomicInteger threadNumber = new AtomicInteger();
+      batchFlushExecutorService = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "mybatis-batch-flush-" + threadNumber.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    return batchFlushExecutorService;
+  }
+
+  /**
+   * @since 3.5.1
+   */
+  public synchronized void setBatchFlushExecutorService(ExecutorService batchFlushExecutorService) {
+    this.batchFlushExecutorService = batchFlushExecutorService;
+  }
+
   public void setProxyFactory(ProxyFactory proxyFactory) {
     if (proxyFactory == null) {
       proxyFactory = new JavassistProxyFactory();
@@ -590,6 +1164,13 @@ public class Configuration {
     return interceptorChain.getInterceptors();
   }
 
+  /**
+   * @since 3.5.1
+   */
+  public InterceptorChain getInterceptorChain() {
+    return interceptorChain;
+  }
+
   public LanguageDriverRegistry getLanguageRegistry() {
     return languageRegistry;
   }
@@ -631,19 +1212,37 @@ public class Configuration {
     return MetaObject.forObject(object, objectFactory, objectWrapperFactory, reflectorFactory);
   }
 
+  /**
+   * 获得预编译的属性路径。缓存的数量有上限，超出后每次重新编译，避免动态生成的表达式撑爆缓存。
+   *
+   * @param expression 属性表达式
+   * @return PropertyPath 对象
+   * @since 3.5.1
+   */
+  public PropertyPath getPropertyPath(String expression) {
+    PropertyPath propertyPath = propertyPaths.get(expression);
+    if (propertyPath == null) {
+      propertyPath = PropertyPath.compile(expression);
+      if (propertyPaths.size() < MAX_CACHED_PROPERTY_PATHS) {
+        propertyPaths.putIfAbsent(expression, propertyPath);
+      }
+    }
+    return propertyPath;
+  }
+
   // 创建ParameterHandler对象
   public ParameterHandler newParameterHandler(MappedStatement mappedStatement, Object parameterObject, BoundSql boundSql) {
     // 创建ParameterHandler对象
     ParameterHandler parameterHandler = mappedStatement.getLang().createParameterHandler(mappedStatement, parameterObject, boundSql);
     // 应用插件
-    parameterHandler = (ParameterHandler) interceptorChain.pluginAll(parameterHandler);
+    parameterHandler = (ParameterHandler) interceptorChain.pluginAll(parameterHandler, mappedStatement);
     return parameterHandler;
   }
 
   public ResultSetHandler newResultSetHandler(Executor executor, MappedStatement mappedStatement, RowBounds rowBounds, ParameterHandler parameterHandler,
       ResultHandler resultHandler, BoundSql boundSql) {
     ResultSetHandler resultSetHandler = new DefaultResultSetHandler(executor, mappedStatement, parameterHandler, resultHandler, boundSql, rowBounds);
-    resultSetHandler = (ResultSetHandler) interceptorChain.pluginAll(resultSetHandler);
+    resultSetHandler = (ResultSetHandler) interceptorChain.pluginAll(resultSetHandler, mappedStatement);
     return resultSetHandler;
   }
 
@@ -652,7 +1251,7 @@ public class Configuration {
     // <1> 创建RoutingStatementHandler对象
     StatementHandler statementHandler = new RoutingStatementHandler(executor, mappedStatement, parameterObject, rowBounds, resultHandler, boundSql);
     // <2> 应用插件
-    statementHandler = (StatementHandler) interceptorChain.pluginAll(statementHandler);
+    statementHandler = (StatementHandler) interceptorChain.pluginAll(statementHandler, mappedStatement);
     return statementHandler;
   }
 
@@ -828,6 +1427,17 @@ public class Configuration {
     return this.getMappedStatement(id, true);
   }
 
+  /**
+   * 获得已解析的 MappedStatement 句柄，用于之后重复调用 {@link SqlSession} 的方法
+   *
+   * @param id MappedStatement 编号
+   * @return 句柄
+   * @since 3.5.1
+   */
+  public StatementRef getStatementRef(String id) {
+    return new StatementRef(this, getMappedStatement(id));
+  }
+
   public MappedStatement getMappedStatement(String id, boolean validateIncompleteStatements) {
     // 校验，保证所有MappedStatement已经构造完毕
     if (validateIncompleteStatements) {
@@ -0,0 +1,165 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 调用方的截止时间。设置到 {@link SqlSession} 后，每条语句执行前都会按剩余时间设置
+ * {@link Statement#setQueryTimeout(int)}，从而让整个请求的数据库耗时受限于同一个截止时间。
+ * <p>
+ * {@link #cancel()} 可以在其他线程中调用，会对正在执行的语句调用 {@link Statement#cancel()}，
+ * 之后的语句也不会再执行。
+ *
+ * @since 3.5.1
+ */
+public final class Deadline {
+
+  private final long deadlineNanos;
+  /**
+   * 使用该截止时间的、尚未关闭的 Statement，以及应用截止时间之前的查询超时秒数
+   */
+  private final ConcurrentMap<Statement, Integer> statements = new ConcurrentHashMap<>();
+  private volatile boolean cancelled;
+
+  private Deadline(long deadlineNanos) {
+    this.deadlineNanos = deadlineNanos;
+  }
+
+  /**
+   * 创建从现在起经过指定时长后到期的截止时间。
+   *
+   * @param duration 时长
+   * @param unit 时长的单位
+   * @return 截止时间
+   */
+  public static Deadline after(long duration, TimeUnit unit) {
+    if (duration < 0) {
+      throw new IllegalArgumentException("duration must not be negative but was " + duration);
+    }
+    return new Deadline(System.nanoTime() + unit.toNanos(duration));
+  }
+
+  /**
+   * @param unit 返回值的单位
+   * @return 剩余时间，已到期时为 0
+   */
+  public long remaining(TimeUnit unit) {
+    long remaining = deadlineNanos - System.nanoTime();
+    return remaining > 0 ? unit.convert(remaining, TimeUnit.NANOSECONDS) : 0;
+  }
+
+  /**
+   * @return 剩余时间对应的查询超时秒数，向上取整
+   */
+  public int remainingSeconds() {
+    long remaining = deadlineNanos - System.nanoTime();
+    if (remaining <= 0) {
+      return 0;
+    }
+    long seconds = (remaining + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    return seconds > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) seconds;
+  }
+
+  public boolean isExpired() {
+    return deadlineNanos - System.nanoTime() <= 0;
+  }
+
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * 取消：对正在执行的语句调用 {@link Statement#cancel()}，之后的语句会直接失败。
+   * 可以在任意线程中调用。
+   */
+  public void cancel() {
+    cancelled = true;
+    for (Statement statement : statements.keySet()) {
+      cancel(statement);
+    }
+  }
+
+  /**
+   * 登记即将执行的语句，供 {@link #cancel()} 使用。由 Executor 调用。
+   *
+   * @param statement 语句
+   * @param queryTimeout 应用截止时间之前的查询超时秒数，{@link #release()} 时恢复
+   */
+  public void register(Statement statement, int queryTimeout) {
+    statements.putIfAbsent(statement, queryTimeout);
+    // 登记的同时被取消时，保证该语句也会被取消
+    if (cancelled) {
+      cancel(statement);
+    }
+  }
+
+  /**
+   * 语句关闭后取消登记。由 Executor 调用。
+   *
+   * @param statement 语句
+   */
+  public void unregister(Statement statement) {
+    statements.remove(statement);
+  }
+
+  /**
+   * 语句执行完成、但可能仍未关闭时（例如游标关闭后）取消登记，并恢复语句原来的查询超时。
+   *
+   * @param statement 语句
+   */
+  public void release(Statement statement) {
+    Integer queryTimeout = statements.remove(statement);
+    if (queryTimeout != null) {
+      restore(statement, queryTimeout);
+    }
+  }
+
+  /**
+   * 不再使用该截止时间时，恢复仍未关闭的语句（例如 ReuseExecutor 缓存的语句）原来的查询超时。
+   * 由 Executor 在替换截止时间时调用。
+   */
+  public void release() {
+    for (Map.Entry<Statement, Integer> entry : statements.entrySet()) {
+      restore(entry.getKey(), entry.getValue());
+    }
+    statements.clear();
+  }
+
+  private static void restore(Statement statement, int queryTimeout) {
+    try {
+      if (!statement.isClosed()) {
+        statement.setQueryTimeout(queryTimeout);
+      }
+    } catch (SQLException e) {
+      // ignore
+    }
+  }
+
+  private static void cancel(Statement statement) {
+    try {
+      statement.cancel();
+    } catch (SQLException e) {
+      // ignore，语句可能已经执行完或已关闭
+    }
+  }
+
+}
@@ -0,0 +1,180 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.binding.MapperMethod.ParamMap;
+import org.apache.ibatis.exceptions.ExceptionFactory;
+import org.apache.ibatis.session.PartitionedResult.PartitionStatistics;
+
+/**
+ * Runs one select statement as several partitions concurrently, each one on its own {@link SqlSession}
+ * (and therefore its own connection) opened from the {@link SqlSessionFactory}.
+ * <p>
+ * The parameter object of each partition is a map holding the {@link QueryPartition} under the key
+ * {@value #PARTITION_KEY} and the parameter given by the caller under the key {@value #PARAMETER_KEY}:
+ * <pre>
+ * select * from orders
+ * where mod(id, #{partition.count}) = #{partition.index} and status = #{parameter.status}
+ * </pre>
+ *
+ * @since 3.5.1
+ */
+public class PartitionedQuery {
+
+  public static final String PARTITION_KEY = "partition";
+  public static final String PARAMETER_KEY = "parameter";
+
+  private final SqlSessionFactory sqlSessionFactory;
+  /**
+   * 执行分区查询的线程池。为空时，每次查询创建一个与分区数相同大小的线程池
+   */
+  private final ExecutorService executorService;
+
+  public PartitionedQuery(SqlSessionFactory sqlSessionFactory) {
+    this(sqlSessionFactory, null);
+  }
+
+  public PartitionedQuery(SqlSessionFactory sqlSessionFactory, ExecutorService executorService) {
+    this.sqlSessionFactory = sqlSessionFactory;
+    this.executorService = executorService;
+  }
+
+  /**
+   * Selects all the partitions and merges their rows in partition order.
+   * @param <E> the returned list element type
+   * @param statement Unique identifier matching the statement to use.
+   * @param parameter A parameter object to pass to the statement, available as {@code parameter}.
+   * @param partitions the partitions to select
+   * @return the merged rows and the statistics of each partition
+   */
+  public <E> PartitionedResult<E> selectList(String statement, Object parameter, List<QueryPartition> partitions) {
+    return execute(statement, parameter, partitions, null);
+  }
+
+  /**
+   * Selects all the partitions and streams their rows to the handler.
+   * The handler is never invoked by two partitions at the same time, but rows of different partitions interleave.
+   * @param statement Unique identifier matching the statement to use.
+   * @param parameter A parameter object to pass to the statement, available as {@code parameter}.
+   * @param partitions the partitions to select
+   * @param handler ResultHandler that will handle each retrieved row
+   * @return the statistics of each partition
+   */
+  public PartitionedResult<Object> select(String statement, Object parameter, List<QueryPartition> partitions, ResultHandler<?> handler) {
+    if (handler == null) {
+      throw new IllegalArgumentException("handler must not be null");
+    }
+    return execute(statement, parameter, partitions, handler);
+  }
+
+  private <E> PartitionedResult<E> execute(String statement, Object parameter, List<QueryPartition> partitions, ResultHandler<?> handler) {
+    if (partitions == null || partitions.isEmpty()) {
+      throw new IllegalArgumentException("At least one partition is required");
+    }
+    final long start = System.nanoTime();
+    final ExecutorService executor = executorService != null ? executorService : Executors.newFixedThreadPool(partitions.size());
+    final List<Future<PartitionOutcome<E>>> futures = new ArrayList<>(partitions.size());
+    try {
+      // <1> 每个分区，提交到线程池中执行
+      for (QueryPartition partition : partitions) {
+        futures.add(executor.submit(() -> this.<E>selectPartition(statement, parameter, partition, handler)));
+      }
+      // <2> 按照分区的顺序，合并结果
+      final List<E> resultList = new ArrayList<>();
+      final List<PartitionStatistics> statistics = new ArrayList<>(partitions.size());
+      for (Future<PartitionOutcome<E>> future : futures) {
+        PartitionOutcome<E> outcome = future.get();
+        if (outcome.rows != null) {
+          resultList.addAll(outcome.rows);
+        }
+        statistics.add(outcome.statistics);
+      }
+      return new PartitionedResult<>(resultList, statistics, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      cancel(futures);
+      throw ExceptionFactory.wrapException("Interrupted while querying the partitions of " + statement + ".", e);
+    } catch (ExecutionException e) {
+      // <3> 任一分区失败，则取消其它分区
+      cancel(futures);
+      final Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw ExceptionFactory.wrapException("Error querying a partition of " + statement + ".  Cause: " + cause, (Exception) cause);
+    } finally {
+      if (executorService == null) {
+        executor.shutdownNow();
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private <E> PartitionOutcome<E> selectPartition(String statement, Object parameter, QueryPartition partition, ResultHandler<?> handler) {
+    final long start = System.nanoTime();
+    final ParamMap<Object> partitionParameter = new ParamMap<>();
+    partitionParameter.put(PARTITION_KEY, partition);
+    partitionParameter.put(PARAMETER_KEY, parameter);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      final List<E> rows;
+      final int rowCount;
+      if (handler == null) {
+        rows = sqlSession.selectList(statement, partitionParameter);
+        rowCount = rows.size();
+      } else {
+        final ResultHandler<Object> sharedHandler = (ResultHandler<Object>) handler;
+        final int[] count = new int[1];
+        sqlSession.select(statement, partitionParameter, context -> {
+          count[0]++;
+          synchronized (sharedHandler) {
+            sharedHandler.handleResult(context);
+          }
+        });
+        rows = null;
+        rowCount = count[0];
+      }
+      final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      return new PartitionOutcome<>(rows, new PartitionStatistics(partition, rowCount, elapsedMillis));
+    }
+  }
+
+  private static void cancel(List<? extends Future<?>> futures) {
+    for (Future<?> future : futures) {
+      future.cancel(true);
+    }
+  }
+
+  private static class PartitionOutcome<E> {
+    private final List<E> rows;
+    private final PartitionStatistics statistics;
+
+    PartitionOutcome(List<E> rows, PartitionStatistics statistics) {
+      this.rows = rows;
+      this.statistics = statistics;
+    }
+  }
+
+}
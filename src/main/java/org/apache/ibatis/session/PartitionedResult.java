@@ -0,0 +1,88 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of a {@link PartitionedQuery}: the merged rows, if they were collected, and the statistics of each partition.
+ *
+ * @since 3.5.1
+ */
+public class PartitionedResult<E> {
+
+  private final List<E> resultList;
+  private final List<PartitionStatistics> partitionStatistics;
+  private final long elapsedMillis;
+
+  public PartitionedResult(List<E> resultList, List<PartitionStatistics> partitionStatistics, long elapsedMillis) {
+    this.resultList = resultList;
+    this.partitionStatistics = Collections.unmodifiableList(partitionStatistics);
+    this.elapsedMillis = elapsedMillis;
+  }
+
+  /**
+   * @return the rows of all the partitions in partition order, or an empty list when a ResultHandler was used
+   */
+  public List<E> getResultList() {
+    return resultList;
+  }
+
+  /**
+   * @return the statistics of each partition, in partition order
+   */
+  public List<PartitionStatistics> getPartitionStatistics() {
+    return partitionStatistics;
+  }
+
+  /**
+   * @return the wall clock time of the whole query
+   */
+  public long getElapsedMillis() {
+    return elapsedMillis;
+  }
+
+  public static class PartitionStatistics {
+
+    private final QueryPartition partition;
+    private final int rowCount;
+    private final long elapsedMillis;
+
+    public PartitionStatistics(QueryPartition partition, int rowCount, long elapsedMillis) {
+      this.partition = partition;
+      this.rowCount = rowCount;
+      this.elapsedMillis = elapsedMillis;
+    }
+
+    public QueryPartition getPartition() {
+      return partition;
+    }
+
+    public int getRowCount() {
+      return rowCount;
+    }
+
+    public long getElapsedMillis() {
+      return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+      return "PartitionStatistics{partition=" + partition.getIndex() + ", rowCount=" + rowCount + ", elapsedMillis=" + elapsedMillis + "}";
+    }
+  }
+}
@@ -0,0 +1,112 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One slice of a statement executed by a {@link PartitionedQuery}.
+ * The statement restricts its rows with {@code #{partition.index}} and {@code #{partition.count}}
+ * (e.g. {@code where mod(id, #{partition.count}) = #{partition.index}}) or with
+ * {@code #{partition.lowerBound}} (inclusive) and {@code #{partition.upperBound}} (exclusive).
+ *
+ * @since 3.5.1
+ */
+public class QueryPartition {
+
+  private final int index;
+  private final int count;
+  private final Long lowerBound;
+  private final Long upperBound;
+
+  public QueryPartition(int index, int count, Long lowerBound, Long upperBound) {
+    this.index = index;
+    this.count = count;
+    this.lowerBound = lowerBound;
+    this.upperBound = upperBound;
+  }
+
+  /**
+   * Creates partitions to be selected with {@code mod(key, #{partition.count}) = #{partition.index}}.
+   * @param count the number of partitions
+   * @return the partitions
+   */
+  public static List<QueryPartition> byModulo(int count) {
+    checkCount(count);
+    List<QueryPartition> partitions = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      partitions.add(new QueryPartition(i, count, null, null));
+    }
+    return Collections.unmodifiableList(partitions);
+  }
+
+  /**
+   * Splits the key range [from, to) into contiguous partitions of (almost) equal size,
+   * to be selected with {@code key >= #{partition.lowerBound} and key < #{partition.upperBound}}.
+   * @param from the lowest key, inclusive
+   * @param to the highest key, exclusive
+   * @param count the number of partitions
+   * @return the partitions
+   */
+  public static List<QueryPartition> byRange(long from, long to, int count) {
+    checkCount(count);
+    if (to < from) {
+      throw new IllegalArgumentException("The upper bound " + to + " is lower than the lower bound " + from);
+    }
+    List<QueryPartition> partitions = new ArrayList<>(count);
+    // to - from may exceed Long.MAX_VALUE, so the size is handled as an unsigned value.
+    // The first (size % count) partitions get one extra key; no intermediate result can overflow.
+    long size = to - from;
+    long quotient = Long.divideUnsigned(size, count);
+    long remainder = Long.remainderUnsigned(size, count);
+    long lowerBound = from;
+    for (int i = 0; i < count; i++) {
+      long upperBound = lowerBound + quotient + (i < remainder ? 1 : 0);
+      partitions.add(new QueryPartition(i, count, lowerBound, upperBound));
+      lowerBound = upperBound;
+    }
+    return Collections.unmodifiableList(partitions);
+  }
+
+  private static void checkCount(int count) {
+    if (count < 1) {
+      throw new IllegalArgumentException("The number of partitions must be greater than 0 but was " + count);
+    }
+  }
+
+  public int getIndex() {
+    return index;
+  }
+
+  public int getCount() {
+    return count;
+  }
+
+  public Long getLowerBound() {
+    return lowerBound;
+  }
+
+  public Long getUpperBound() {
+    return upperBound;
+  }
+
+  @Override
+  public String toString() {
+    return "QueryPartition{index=" + index + ", count=" + count + ", lowerBound=" + lowerBound + ", upperBound=" + upperBound + "}";
+  }
+}
@@ -19,8 +19,10 @@ import java.io.Closeable;
 import java.sql.Connection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.CursorPublisher;
 import org.apache.ibatis.executor.BatchResult;
 
 /**
@@ -149,6 +151,39 @@ public interface SqlSession extends Closeable {
    */
   <T> Cursor<T> selectCursor(String statement, Object parameter, RowBounds rowBounds);
 
+  /**
+   * Asynchronous variant of {@link #selectCursor(String, Object)}. The statement is executed and the rows are fetched
+   * on the given executor, only as many as the subscriber requested.
+   * This session must not be used by other threads until the subscription terminates.
+   * @param <T> the returned cursor element type.
+   * @param statement Unique identifier matching the statement to use.
+   * @param parameter A parameter object to pass to the statement.
+   * @param executor Executor running the statement and fetching the rows
+   * @return Publisher of mapped objects
+   * @since 3.5.1
+   */
+  default <T> CursorPublisher<T> selectCursorAsync(String statement, Object parameter, Executor executor) {
+    return selectCursorAsync(statement, parameter, RowBounds.DEFAULT, executor);
+  }
+
+  /**
+   * Asynchronous variant of {@link #selectCursor(String, Object, RowBounds)}. The statement is executed and the rows
+   * are fetched on the given executor, only as many as the subscriber requested.
+   * This session must not be used by other threads until the subscription terminates.
+   * @param <T> the returned cursor element type.
+   * @param statement Unique identifier matching the statement to use.
+   * @param parameter A parameter object to pass to the statement.
+   * @param rowBounds  Bounds to limit object retrieval
+   * The default implementation does not support asynchronous cursors.
+   * @param executor Executor running the statement and fetching the rows
+   * @return Publisher of mapped objects
+   * @throws UnsupportedOperationException if this session does not support asynchronous cursors
+   * @since 3.5.1
+   */
+  default <T> CursorPublisher<T> selectCursorAsync(String statement, Object parameter, RowBounds rowBounds, Executor executor) {
+    throw new UnsupportedOperationException(getClass().getName() + " does not support asynchronous cursors.");
+  }
+
   /**
    * Retrieve a single row mapped from the statement key and parameter
    * using a {@code ResultHandler}.
@@ -222,6 +257,124 @@ public interface SqlSession extends Closeable {
    */
   int delete(String statement, Object parameter);
 
+  /**
+   * Retrieve a single row mapped from the statement handle and parameter.
+   * @param <T> the returned object type
+   * @param statement Statement handle obtained from {@link Configuration#getStatementRef(String)}
+   * @param parameter A parameter object to pass to the statement.
+   * @return Mapped object
+   * @since 3.5.1
+   */
+  default <T> T selectOne(StatementRef statement, Object parameter) {
+    return selectOne(statement.getId(), parameter);
+  }
+
+  /**
+   * Retrieve a list of mapped objects from the statement handle, parameter and row bounds.
+   * @param <E> the returned list element type
+   * @param statement Statement handle obtained from {@link Configuration#getStatementRef(String)}
+   * @param parameter A parameter object to pass to the statement.
+   * @param rowBounds  Bounds to limit object retrieval
+   * @return List of mapped object
+   * @since 3.5.1
+   */
+  default <E> List<E> selectList(StatementRef statement, Object parameter, RowBounds rowBounds) {
+    return selectList(statement.getId(), parameter, rowBounds);
+  }
+
+  /**
+   * Convert the list of objects retrieved by the statement handle into a Map.
+   * @param <K> the returned Map keys type
+   * @param <V> the returned Map values type
+   * @param statement Statement handle obtained from {@link Configuration#getStatementRef(String)}
+   * @param parameter A parameter object to pass to the statement.
+   * @param mapKey The property to use as key for each value in the list.
+   * @param rowBounds  Bounds to limit object retrieval
+   * @return Map containing key pair data.
+   * @since 3.5.1
+   */
+  default <K, V> Map<K, V> selectMap(StatementRef statement, Object parameter, String mapKey, RowBounds rowBounds) {
+    return selectMap(statement.getId(), parameter, mapKey, rowBounds);
+  }
+
+  /**
+   * A Cursor offers the same results as a List, except it fetches data lazily using an Iterator.
+   * @param <T> the returned cursor element type.
+   * @param statement Statement handle obtained from {@link Configuration#getStatementRef(String)}
+   * @param parameter A parameter object to pass to the statement.
+   * @param rowBounds  Bounds to limit object retrieval
+   * @return Cursor of mapped objects
+   * @since 3.5.1
+   */
+  default <T> Cursor<T> selectCursor(StatementRef statement, Object parameter, RowBounds rowBounds) {
+    return selectCursor(statement.getId(), parameter, rowBounds);
+  }
+
+  /**
+   * Retrieve rows mapped from the statement handle and parameter using a {@code ResultHandler} and {@code RowBounds}.
+   * @param statement Statement handle obtained from {@link Configuration#getStatementRef(String)}
+   * @param parameter A parameter object to pass to the statement.
+   * @param rowBounds RowBound instance to limit the query results
+   * @param handler ResultHandler that will handle each retrieved row
+   * @since 3.5.1
+   */
+  default void select(StatementRef statement, Object parameter, RowBounds rowBounds, ResultHandler handler) {
+    select(statement.getId(), parameter, rowBounds, handler);
+  }
+
+  /**
+   * Execute an insert statement handle with the given parameter object.
+   * @param statement Statement handle obtained from {@link Configuration#getStatementRef(String)}
+   * @param parameter A parameter object to pass to the statement.
+   * @return int The number of rows affected by the insert.
+   * @since 3.5.1
+   */
+  default int insert(StatementRef statement, Object parameter) {
+    return insert(statement.getId(), parameter);
+  }
+
+  /**
+   * Execute an update statement handle. The number of rows affected will be returned.
+   * @param statement Statement handle obtained from {@link Configuration#getStatementRef(String)}
+   * @param parameter A parameter object to pass to the statement.
+   * @return int The number of rows affected by the update.
+   * @since 3.5.1
+   */
+  default int update(StatementRef statement, Object parameter) {
+    return update(statement.getId(), parameter);
+  }
+
+  /**
+   * Execute a delete statement handle. The number of rows affected will be returned.
+   * @param statement Statement handle obtained from {@link Configuration#getStatementRef(String)}
+   * @param parameter A parameter object to pass to the statement.
+   * @return int The number of rows affected by the delete.
+   * @since 3.5.1
+   */
+  default int delete(StatementRef statement, Object parameter) {
+    return delete(statement.getId(), parameter);
+  }
+
+  /**
+   * Execute an insert statement once per parameter object, loading the rows in bulk.
+   * When a registered {@link org.apache.ibatis.executor.BulkLoader} supports the connection and the statement
+   * is a plain <code>INSERT INTO table (columns) VALUES (?, ...)</code> without key generation,
+   * the rows are streamed through the loader (e.g. PostgreSQL COPY). Otherwise they are executed as a JDBC batch.
+   * The default implementation calls {@link #insert(String, Object)} once per parameter object.
+   * @param statement Unique identifier matching the insert statement to execute.
+   * @param parameters The parameter objects, one per row. They are iterated only once.
+   * @return long The number of rows loaded.
+   * @since 3.5.1
+   */
+  default long bulkInsert(String statement, Iterable<?> parameters) {
+    long rows = 0;
+    for (Object parameter : parameters) {
+      insert(statement, parameter);
+      rows++;
+    }
+    return rows;
+  }
+
   /**
    * Flushes batch statements and commits database connection.
    * Note that database connection will not be committed if no updates/deletes/inserts were called.
@@ -267,6 +420,31 @@ public interface SqlSession extends Closeable {
    */
   void clearCache();
 
+  /**
+   * Sets a deadline for the statements executed by this session.
+   * Each statement gets the remaining time as its query timeout, and fails without being executed
+   * once the deadline is exceeded or cancelled. {@link Deadline#cancel()} may be called from another
+   * thread to cancel the statement being executed.
+   * The default implementation does not support deadlines and only accepts null.
+   * @param deadline the deadline, or null to clear it
+   * @throws UnsupportedOperationException if the deadline is not null and this session does not support deadlines
+   * @since 3.5.1
+   */
+  default void setDeadline(Deadline deadline) {
+    if (deadline != null) {
+      throw new UnsupportedOperationException(getClass().getName() + " does not support deadlines.");
+    }
+  }
+
+  /**
+   * Retrieves the deadline set by {@link #setDeadline(Deadline)}.
+   * @return the deadline, or null if none
+   * @since 3.5.1
+   */
+  default Deadline getDeadline() {
+    return null;
+  }
+
   /**
    * Retrieves current configuration.
    * @return Configuration
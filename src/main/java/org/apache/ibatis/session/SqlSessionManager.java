@@ -24,8 +24,10 @@ import java.sql.Connection;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Executor;
 
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.CursorPublisher;
 import org.apache.ibatis.executor.BatchResult;
 import org.apache.ibatis.reflection.ExceptionUtil;
 
@@ -204,6 +206,16 @@ public class SqlSessionManager implements SqlSessionFactory, SqlSession {
     return sqlSessionProxy.selectCursor(statement, parameter, rowBounds);
   }
 
+  @Override
+  public <T> CursorPublisher<T> selectCursorAsync(String statement, Object parameter, Executor executor) {
+    return sqlSessionProxy.selectCursorAsync(statement, parameter, executor);
+  }
+
+  @Override
+  public <T> CursorPublisher<T> selectCursorAsync(String statement, Object parameter, RowBounds rowBounds, Executor executor) {
+    return sqlSessionProxy.selectCursorAsync(statement, parameter, rowBounds, executor);
+  }
+
   @Override
   public <E> List<E> selectList(String statement) {
     return sqlSessionProxy.selectList(statement);
@@ -254,6 +266,51 @@ public class SqlSessionManager implements SqlSessionFactory, SqlSession {
     return sqlSessionProxy.update(statement, parameter);
   }
 
+  @Override
+  public <T> T selectOne(StatementRef statement, Object parameter) {
+    return sqlSessionProxy.selectOne(statement, parameter);
+  }
+
+  @Override
+  public <E> List<E> selectList(StatementRef statement, Object parameter, RowBounds rowBounds) {
+    return sqlSessionProxy.selectList(statement, parameter, rowBounds);
+  }
+
+  @Override
+  public <K, V> Map<K, V> selectMap(StatementRef statement, Object parameter, String mapKey, RowBounds rowBounds) {
+    return sqlSessionProxy.selectMap(statement, parameter, mapKey, rowBounds);
+  }
+
+  @Override
+  public <T> Cursor<T> selectCursor(StatementRef statement, Object parameter, RowBounds rowBounds) {
+    return sqlSessionProxy.selectCursor(statement, parameter, rowBounds);
+  }
+
+  @Override
+  public void select(StatementRef statement, Object parameter, RowBounds rowBounds, ResultHandler handler) {
+    sqlSessionProxy.select(statement, parameter, rowBounds, handler);
+  }
+
+  @Override
+  public int insert(StatementRef statement, Object parameter) {
+    return sqlSessionProxy.insert(statement, parameter);
+  }
+
+  @Override
+  public int update(StatementRef statement, Object parameter) {
+    return sqlSessionProxy.update(statement, parameter);
+  }
+
+  @Override
+  public int delete(StatementRef statement, Object parameter) {
+    return sqlSessionProxy.delete(statement, parameter);
+  }
+
+  @Override
+  public long bulkInsert(String statement, Iterable<?> parameters) {
+    return sqlSessionProxy.bulkInsert(statement, parameters);
+  }
+
   @Override
   public int delete(String statement) {
     return sqlSessionProxy.delete(statement);
@@ -269,6 +326,21 @@ public class SqlSessionManager implements SqlSessionFactory, SqlSession {
     return getConfiguration().getMapper(type, this);
   }
 
+  @Override
+  public void setDeadline(Deadline deadline) {
+    final SqlSession sqlSession = localSqlSession.get();
+    if (sqlSession == null) {
+      throw new SqlSessionException("Error:  Cannot set a deadline.  No managed session is started.");
+    }
+    sqlSession.setDeadline(deadline);
+  }
+
+  @Override
+  public Deadline getDeadline() {
+    final SqlSession sqlSession = localSqlSession.get();
+    return sqlSession == null ? null : sqlSession.getDeadline();
+  }
+
   @Override
   public Connection getConnection() {
     final SqlSession sqlSession = localSqlSession.get();
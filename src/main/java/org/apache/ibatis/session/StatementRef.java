@@ -0,0 +1,55 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import org.apache.ibatis.mapping.MappedStatement;
+
+/**
+ * 已解析的 {@link MappedStatement} 句柄，通过 {@link Configuration#getStatementRef(String)} 获得。
+ *
+ * 使用它调用 {@link SqlSession} 的方法时，不再需要每次按编号查找 MappedStatement ，也不再需要检查未完成解析的语句。
+ * 用于其它 {@link Configuration} 创建的 SqlSession 时，会按编号重新查找。
+ *
+ * @since 3.5.1
+ */
+public final class StatementRef {
+
+  private final Configuration configuration;
+  private final MappedStatement mappedStatement;
+
+  StatementRef(Configuration configuration, MappedStatement mappedStatement) {
+    this.configuration = configuration;
+    this.mappedStatement = mappedStatement;
+  }
+
+  public Configuration getConfiguration() {
+    return configuration;
+  }
+
+  public MappedStatement getMappedStatement() {
+    return mappedStatement;
+  }
+
+  public String getId() {
+    return mappedStatement.getId();
+  }
+
+  @Override
+  public String toString() {
+    return getId();
+  }
+
+}
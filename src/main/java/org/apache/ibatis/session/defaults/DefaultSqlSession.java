@@ -26,6 +26,8 @@ import java.util.Map;
 
 import org.apache.ibatis.binding.BindingException;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.CursorPublisher;
+import org.apache.ibatis.cursor.defaults.DefaultCursorPublisher;
 import org.apache.ibatis.exceptions.ExceptionFactory;
 import org.apache.ibatis.exceptions.TooManyResultsException;
 import org.apache.ibatis.executor.BatchResult;
@@ -35,9 +37,11 @@ import org.apache.ibatis.executor.result.DefaultMapResultHandler;
 import org.apache.ibatis.executor.result.DefaultResultContext;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.Deadline;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.StatementRef;
 
 /**
  * The default implementation for {@link SqlSession}.
@@ -83,7 +87,15 @@ public class DefaultSqlSession implements SqlSession {
   @Override
   public <T> T selectOne(String statement, Object parameter) {
     // Popular vote was to return null on 0 results and throw exception on too many.
-    List<T> list = this.selectList(statement, parameter);
+    return singleResult(this.<T>selectList(statement, parameter));
+  }
+
+  @Override
+  public <T> T selectOne(StatementRef statement, Object parameter) {
+    return singleResult(this.<T>selectList(statement, parameter, RowBounds.DEFAULT));
+  }
+
+  private <T> T singleResult(List<T> list) {
     if (list.size() == 1) {
       return list.get(0);
     } else if (list.size() > 1) {
@@ -107,20 +119,29 @@ public class DefaultSqlSession implements SqlSession {
   @Override
   public <K, V> Map<K, V> selectMap(String statement, Object parameter, String mapKey, RowBounds rowBounds) {
     // <1> 执行查询
-    final List<? extends V> list = selectList(statement, parameter, rowBounds);
-    // <2> 创建DefaultMapResultHandler对象
+    // <2> 聚合结果
+    return toMap(selectList(statement, parameter, rowBounds), mapKey);
+  }
+
+  @Override
+  public <K, V> Map<K, V> selectMap(StatementRef statement, Object parameter, String mapKey, RowBounds rowBounds) {
+    return toMap(selectList(statement, parameter, rowBounds), mapKey);
+  }
+
+  private <K, V> Map<K, V> toMap(List<? extends V> list, String mapKey) {
+    // <2.1> 创建DefaultMapResultHandler对象
     final DefaultMapResultHandler<K, V> mapResultHandler = new DefaultMapResultHandler<>(mapKey,
             configuration.getObjectFactory(), configuration.getObjectWrapperFactory(), configuration.getReflectorFactory());
-    // <3> 创建DefaultResultContext对象
+    // <2.2> 创建DefaultResultContext对象
     final DefaultResultContext<V> context = new DefaultResultContext<>();
-    // <4> 遍历查询结果
+    // <2.3> 遍历查询结果
     for (V o : list) {
       // 设置到DefaultResultContext中
       context.nextResultObject(o);
       // 使用DefaultMapResultHandler，处理结果的当前元素
       mapResultHandler.handleResult(context);
     }
-    // <5> 返回结果
+    // <2.4> 返回结果
     return mapResultHandler.getMappedResults();
   }
 
@@ -136,12 +157,25 @@ public class DefaultSqlSession implements SqlSession {
 
   @Override
   public <T> Cursor<T> selectCursor(String statement, Object parameter, RowBounds rowBounds) {
+    return doSelectCursor(getMappedStatement(statement), parameter, rowBounds);
+  }
+
+  @Override
+  public <T> Cursor<T> selectCursor(StatementRef statement, Object parameter, RowBounds rowBounds) {
+    return doSelectCursor(getMappedStatement(statement), parameter, rowBounds);
+  }
+
+  @Override
+  public <T> CursorPublisher<T> selectCursorAsync(String statement, Object parameter, RowBounds rowBounds,
+      java.util.concurrent.Executor executor) {
+    return new DefaultCursorPublisher<>(() -> selectCursor(statement, parameter, rowBounds), executor);
+  }
+
+  private <T> Cursor<T> doSelectCursor(MappedStatement ms, Object parameter, RowBounds rowBounds) {
     try {
-      // <1> 获得MappedStatement对象
-      MappedStatement ms = configuration.getMappedStatement(statement);
-      // <2> 执行查询
+      // <1> 执行查询
       Cursor<T> cursor = executor.queryCursor(ms, wrapCollection(parameter), rowBounds);
-      // <3> 添加cursor到cursorList中
+      // <2> 添加cursor到cursorList中
       registerCursor(cursor);
       return cursor;
     } catch (Exception e) {
@@ -163,10 +197,17 @@ public class DefaultSqlSession implements SqlSession {
 
   @Override
   public <E> List<E> selectList(String statement, Object parameter, RowBounds rowBounds) {
+    return doSelectList(getMappedStatement(statement), parameter, rowBounds);
+  }
+
+  @Override
+  public <E> List<E> selectList(StatementRef statement, Object parameter, RowBounds rowBounds) {
+    return doSelectList(getMappedStatement(statement), parameter, rowBounds);
+  }
+
+  private <E> List<E> doSelectList(MappedStatement ms, Object parameter, RowBounds rowBounds) {
     try {
-      // <1> 获得MappedStatement对象
-      MappedStatement ms = configuration.getMappedStatement(statement);
-      // <2> 执行查询
+      // 执行查询
       return executor.query(ms, wrapCollection(parameter), rowBounds, Executor.NO_RESULT_HANDLER);
     } catch (Exception e) {
       throw ExceptionFactory.wrapException("Error querying database.  Cause: " + e, e);
@@ -187,9 +228,16 @@ public class DefaultSqlSession implements SqlSession {
 
   @Override
   public void select(String statement, Object parameter, RowBounds rowBounds, ResultHandler handler) {
+    doSelect(getMappedStatement(statement), parameter, rowBounds, handler);
+  }
+
+  @Override
+  public void select(StatementRef statement, Object parameter, RowBounds rowBounds, ResultHandler handler) {
+    doSelect(getMappedStatement(statement), parameter, rowBounds, handler);
+  }
+
+  private void doSelect(MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler handler) {
     try {
-      // 获得MappedStatement对象
-      MappedStatement ms = configuration.getMappedStatement(statement);
       // 执行查询
       executor.query(ms, wrapCollection(parameter), rowBounds, handler);
     } catch (Exception e) {
@@ -210,6 +258,11 @@ public class DefaultSqlSession implements SqlSession {
     return update(statement, parameter);
   }
 
+  @Override
+  public int insert(StatementRef statement, Object parameter) {
+    return update(statement, parameter);
+  }
+
   @Override
   public int update(String statement) {
     return update(statement, null);
@@ -217,12 +270,19 @@ public class DefaultSqlSession implements SqlSession {
 
   @Override
   public int update(String statement, Object parameter) {
+    return doUpdate(getMappedStatement(statement), parameter);
+  }
+
+  @Override
+  public int update(StatementRef statement, Object parameter) {
+    return doUpdate(getMappedStatement(statement), parameter);
+  }
+
+  private int doUpdate(MappedStatement ms, Object parameter) {
     try {
       // <1> 标记dirty，表示执行过写操作
       dirty = true;
-      // <2> 获得MappedStatement对象
-      MappedStatement ms = configuration.getMappedStatement(statement);
-      // <3> 执行更新操作
+      // <2> 执行更新操作
       return executor.update(ms, wrapCollection(parameter));
     } catch (Exception e) {
       throw ExceptionFactory.wrapException("Error updating database.  Cause: " + e, e);
@@ -231,6 +291,38 @@ public class DefaultSqlSession implements SqlSession {
     }
   }
 
+  // 获得MappedStatement对象，不存在时抛出PersistenceException
+  private MappedStatement getMappedStatement(String statement) {
+    try {
+      return configuration.getMappedStatement(statement);
+    } catch (Exception e) {
+      RuntimeException wrapped = ExceptionFactory.wrapException("Error finding mapped statement.  Cause: " + e, e);
+      ErrorContext.instance().reset();
+      throw wrapped;
+    }
+  }
+
+  // 句柄由其它Configuration创建时，按编号重新查找
+  private MappedStatement getMappedStatement(StatementRef statement) {
+    if (statement.getConfiguration() == configuration) {
+      return statement.getMappedStatement();
+    }
+    return getMappedStatement(statement.getId());
+  }
+
+  @Override
+  public long bulkInsert(String statement, Iterable<?> parameters) {
+    try {
+      dirty = true;
+      MappedStatement ms = configuration.getMappedStatement(statement);
+      return executor.bulkInsert(ms, parameters);
+    } catch (Exception e) {
+      throw ExceptionFactory.wrapException("Error bulk inserting into database.  Cause: " + e, e);
+    } finally {
+      ErrorContext.instance().reset();
+    }
+  }
+
   @Override
   public int delete(String statement) {
     return update(statement, null);
@@ -241,6 +333,11 @@ public class DefaultSqlSession implements SqlSession {
     return update(statement, parameter);
   }
 
+  @Override
+  public int delete(StatementRef statement, Object parameter) {
+    return update(statement, parameter);
+  }
+
   @Override
   public void commit() {
     commit(false);
@@ -342,6 +439,16 @@ public class DefaultSqlSession implements SqlSession {
     executor.clearLocalCache();
   }
 
+  @Override
+  public void setDeadline(Deadline deadline) {
+    executor.setDeadline(deadline);
+  }
+
+  @Override
+  public Deadline getDeadline() {
+    return executor.getDeadline();
+  }
+
   private <T> void registerCursor(Cursor<T> cursor) {
     if (cursorList == null) {
       cursorList = new ArrayList<>();
@@ -43,6 +43,7 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.apache.ibatis.binding.IndexedParamMap;
 import org.apache.ibatis.binding.MapperMethod.ParamMap;
 import org.apache.ibatis.io.ResolverUtil;
 import org.apache.ibatis.io.Resources;
@@ -249,7 +250,7 @@ public final class TypeHandlerRegistry {
   @SuppressWarnings("unchecked")
   private <T> TypeHandler<T> getTypeHandler(Type type, JdbcType jdbcType) {
     // 忽略ParamMap的情况
-    if (ParamMap.class.equals(type)) {
+    if (ParamMap.class.equals(type) || IndexedParamMap.class.equals(type)) {
       return null;
     }
     // <1> 获得Java Type对应的TypeHandler集合
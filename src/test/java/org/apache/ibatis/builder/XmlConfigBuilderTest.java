@@ -97,6 +97,25 @@ class XmlConfigBuilderTest {
       assertNull(config.getLogPrefix());
       assertNull(config.getLogImpl());
       assertNull(config.getConfigurationFactory());
+      assertThat(config.isParallelNestedQueriesEnabled()).isFalse();
+      assertThat(config.getNestedQueryThreadPoolSize()).isEqualTo(4);
+      assertThat(config.isNestedResultCursorStreamingEnabled()).isFalse();
+      assertThat(config.isResultOrderCheckEnabled()).isFalse();
+      assertThat(config.isBatchGroupingEnabled()).isFalse();
+      assertThat(config.getBatchMaxRowsPerStatement()).isEqualTo(0);
+      assertThat(config.getBatchMaxPendingRows()).isEqualTo(0);
+      assertThat(config.getBatchMaxPendingBytes()).isEqualTo(0L);
+      assertThat(config.isBatchAsyncFlushEnabled()).isFalse();
+      assertThat(config.getBatchAsyncFlushQueueSize()).isEqualTo(2);
+      assertThat(config.getRewriteBatchMaxParameters()).isEqualTo(2000);
+      assertThat(config.isStatementStatisticsEnabled()).isTrue();
+      assertThat(config.isStatementStatisticsJmxEnabled()).isFalse();
+      assertThat(config.getSlowStatementThreshold()).isEqualTo(0L);
+      assertThat(config.getSlowStatementBufferSize()).isEqualTo(100);
+      assertThat(config.isCompactJdbcLoggingEnabled()).isFalse();
+      assertThat(config.getJdbcLogSampleRate()).isEqualTo(1);
+      assertThat(config.isGeneratedMappersEnabled()).isFalse();
+      assertThat(config.isComposedPluginsEnabled()).isFalse();
       assertThat(config.getTypeHandlerRegistry().getTypeHandler(RoundingMode.class)).isInstanceOf(EnumTypeHandler.class);
     }
   }
@@ -191,6 +210,25 @@ class XmlConfigBuilderTest {
       assertThat(config.getLogImpl().getName()).isEqualTo(Slf4jImpl.class.getName());
       assertThat(config.getVfsImpl().getName()).isEqualTo(JBoss6VFS.class.getName());
       assertThat(config.getConfigurationFactory().getName()).isEqualTo(String.class.getName());
+      assertThat(config.isParallelNestedQueriesEnabled()).isTrue();
+      assertThat(config.getNestedQueryThreadPoolSize()).isEqualTo(8);
+      assertThat(config.isNestedResultCursorStreamingEnabled()).isTrue();
+      assertThat(config.isResultOrderCheckEnabled()).isTrue();
+      assertThat(config.isBatchGroupingEnabled()).isTrue();
+      assertThat(config.getBatchMaxRowsPerStatement()).isEqualTo(1000);
+      assertThat(config.getBatchMaxPendingRows()).isEqualTo(5000);
+      assertThat(config.getBatchMaxPendingBytes()).isEqualTo(1048576L);
+      assertThat(config.isBatchAsyncFlushEnabled()).isTrue();
+      assertThat(config.getBatchAsyncFlushQueueSize()).isEqualTo(4);
+      assertThat(config.getRewriteBatchMaxParameters()).isEqualTo(1000);
+      assertThat(config.isStatementStatisticsEnabled()).isFalse();
+      assertThat(config.isStatementStatisticsJmxEnabled()).isFalse();
+      assertThat(config.getSlowStatementThreshold()).isEqualTo(500L);
+      assertThat(config.getSlowStatementBufferSize()).isEqualTo(50);
+      assertThat(config.isCompactJdbcLoggingEnabled()).isTrue();
+      assertThat(config.getJdbcLogSampleRate()).isEqualTo(10);
+      assertThat(config.isGeneratedMappersEnabled()).isTrue();
+      assertThat(config.isComposedPluginsEnabled()).isTrue();
 
       assertThat(config.getTypeAliasRegistry().getTypeAliases().get("blogauthor")).isEqualTo(Author.class);
       assertThat(config.getTypeAliasRegistry().getTypeAliases().get("blog")).isEqualTo(Blog.class);
@@ -0,0 +1,92 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.bulk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+class PgCopyBulkLoaderTest {
+
+  @Test
+  void shouldEncodeRowAsCsv() throws Exception {
+    StringBuilder buffer = new StringBuilder();
+    PgCopyBulkLoader.appendRow(buffer, new Object[] {1, null, "", "say \"hi\", bye", new BigDecimal("1E+3"), true});
+    assertThat(buffer.toString()).isEqualTo("1,,\"\",\"say \"\"hi\"\", bye\",1000,true\n");
+  }
+
+  @Test
+  void shouldEncodeBinaryAndStreams() throws Exception {
+    StringBuilder buffer = new StringBuilder();
+    PgCopyBulkLoader.appendRow(buffer, new Object[] {new byte[] {1, (byte) 0xff},
+        new ByteArrayInputStream(new byte[] {0x2a}), new StringReader("line1\nline2")});
+    assertThat(buffer.toString()).isEqualTo("\\x01ff,\\x2a,\"line1\nline2\"\n");
+  }
+
+  @Test
+  void shouldStreamRowsThroughCopyManager() throws Exception {
+    Connection connection = mock(Connection.class);
+    PGConnection pgConnection = mock(PGConnection.class);
+    CopyManager copyManager = mock(CopyManager.class);
+    AtomicReference<String> sql = new AtomicReference<>();
+    AtomicReference<String> data = new AtomicReference<>();
+    when(connection.isWrapperFor(PGConnection.class)).thenReturn(true);
+    when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+    when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+    when(copyManager.copyIn(anyString(), any(Reader.class))).thenAnswer(invocation -> {
+      sql.set(invocation.getArgument(0));
+      data.set(new BufferedReader(invocation.<Reader>getArgument(1)).lines().collect(Collectors.joining("\n")));
+      return 2L;
+    });
+
+    PgCopyBulkLoader loader = new PgCopyBulkLoader();
+    assertThat(loader.supports(connection)).isTrue();
+    long rows = loader.load(connection, "items", Arrays.asList("name", "quantity"),
+        Arrays.asList(new Object[] {"a", 1}, new Object[] {"b", null}).iterator());
+
+    assertThat(rows).isEqualTo(2);
+    assertThat(sql.get()).isEqualTo("COPY items (name, quantity) FROM STDIN WITH (FORMAT csv)");
+    assertThat(data.get()).isEqualTo("\"a\",1\n\"b\",");
+  }
+
+  @Test
+  void shouldNotSupportOtherConnections() throws Exception {
+    assertThat(new PgCopyBulkLoader().supports(mock(Connection.class))).isFalse();
+  }
+
+  @Test
+  void shouldNotBeRegisteredByDefault() {
+    assertThat(new Configuration().getBulkLoaders()).isEmpty();
+  }
+
+}
@@ -0,0 +1,55 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.statistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  @Test
+  void shouldComputeSummaryAndPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 0; i < 99; i++) {
+      histogram.record(100);
+    }
+    histogram.record(5000);
+
+    assertThat(histogram.getCount()).isEqualTo(100);
+    assertThat(histogram.getTotalNanos()).isEqualTo(99 * 100 + 5000);
+    assertThat(histogram.getMaxNanos()).isEqualTo(5000);
+    assertThat(histogram.getMeanNanos()).isEqualTo(149.0);
+    // 100 falls into [64, 128), 5000 into [4096, 8192)
+    assertThat(histogram.getPercentileNanos(50)).isEqualTo(127);
+    assertThat(histogram.getPercentileNanos(99)).isEqualTo(127);
+    assertThat(histogram.getPercentileNanos(100)).isEqualTo(5000);
+  }
+
+  @Test
+  void shouldResetAndHandleEmptyHistogram() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(0);
+    histogram.record(-1);
+    assertThat(histogram.getBucketCounts()[0]).isEqualTo(2);
+
+    histogram.reset();
+    assertThat(histogram.getCount()).isEqualTo(0);
+    assertThat(histogram.getMeanNanos()).isEqualTo(0.0);
+    assertThat(histogram.getPercentileNanos(99)).isEqualTo(0);
+  }
+
+}
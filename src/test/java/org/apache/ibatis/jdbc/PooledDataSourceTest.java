@@ -91,6 +91,72 @@ class PooledDataSourceTest extends BaseDataTest {
     c.close();
   }
 
+  @Test
+  void shouldReusePreparedStatementAcrossConnectionCheckouts() throws Exception {
+    PooledDataSource ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    try {
+      runScript(ds, JPETSTORE_DDL);
+      ds.setPoolPreparedStatementCacheSize(10);
+      PreparedStatement first;
+      try (Connection c = ds.getConnection(); PreparedStatement st = c.prepareStatement("SELECT COUNT(*) FROM PRODUCT")) {
+        first = st.unwrap(PreparedStatement.class);
+        assertSame(c, st.getConnection());
+      }
+      try (Connection c = ds.getConnection(); PreparedStatement st = c.prepareStatement("SELECT COUNT(*) FROM PRODUCT")) {
+        assertSame(first, st.unwrap(PreparedStatement.class));
+        try (ResultSet rs = st.executeQuery()) {
+          assertTrue(rs.next());
+        }
+      }
+      try (Connection c = ds.getConnection();
+           PreparedStatement st = c.prepareStatement("SELECT COUNT(*) FROM PRODUCT", ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+        assertNotSame(first, st.unwrap(PreparedStatement.class));
+      }
+      assertEquals(1, ds.getPoolState().getPreparedStatementCacheHitCount());
+      assertEquals(2, ds.getPoolState().getPreparedStatementCacheMissCount());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldNotShareCachedPreparedStatementInUse() throws Exception {
+    PooledDataSource ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    try {
+      ds.setPoolPreparedStatementCacheSize(10);
+      try (Connection c = ds.getConnection();
+           PreparedStatement st1 = c.prepareStatement("SELECT 1 FROM (VALUES(0))");
+           PreparedStatement st2 = c.prepareStatement("SELECT 1 FROM (VALUES(0))")) {
+        assertNotSame(st1.unwrap(PreparedStatement.class), st2.unwrap(PreparedStatement.class));
+        st1.close();
+        assertTrue(st1.isClosed());
+        assertThrows(SQLException.class, st1::executeQuery);
+      }
+      assertEquals(0, ds.getPoolState().getPreparedStatementCacheHitCount());
+      assertEquals(2, ds.getPoolState().getPreparedStatementCacheMissCount());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldEvictLeastRecentlyUsedPreparedStatement() throws Exception {
+    PooledDataSource ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    try {
+      ds.setPoolPreparedStatementCacheSize(1);
+      try (Connection c = ds.getConnection()) {
+        PreparedStatement st1 = c.prepareStatement("SELECT 1 FROM (VALUES(0))");
+        PreparedStatement real1 = st1.unwrap(PreparedStatement.class);
+        st1.close();
+        c.prepareStatement("SELECT 2 FROM (VALUES(0))").close();
+        assertTrue(real1.isClosed());
+      }
+      assertEquals(1, ds.getPoolState().getPreparedStatementCacheEvictionCount());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
   @Disabled("See the comments")
   @Test
   void shouldReconnectWhenServerKilledLeakedConnection() throws Exception {
@@ -0,0 +1,136 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.logging.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import org.apache.ibatis.logging.Log;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CompactJdbcLoggerTest {
+
+  @Mock
+  Log log;
+
+  @Mock
+  Connection connection;
+
+  @Mock
+  PreparedStatement preparedStatement;
+
+  @Mock
+  CallableStatement callableStatement;
+
+  @Mock
+  ResultSet resultSet;
+
+  @Test
+  void shouldLogSqlParametersAndTotalOnly() throws SQLException {
+    when(log.isDebugEnabled()).thenReturn(true);
+    when(connection.prepareStatement("select *\n  from t where id = ?")).thenReturn(preparedStatement);
+    when(preparedStatement.executeQuery()).thenReturn(resultSet);
+    when(resultSet.next()).thenReturn(true, true, false);
+
+    Connection conn = CompactConnectionLogger.newInstance(connection, log, 1);
+    PreparedStatement ps = conn.prepareStatement("select *\n  from t where id = ?");
+    ps.setInt(1, 10);
+    ps.setNull(2, Types.VARCHAR);
+    ResultSet rs = ps.executeQuery();
+    while (rs.next()) {
+      rs.getString(1);
+    }
+    rs.close();
+
+    assertThat(ps).isInstanceOf(CompactPreparedStatementLogger.class);
+    verify(log).debug("==>  Preparing: select * from t where id = ? ");
+    verify(log).debug("==> Parameters: 10(Integer), null");
+    verify(log).debug("<==      Total: 2");
+    verify(log, never()).trace(anyString());
+    verify(preparedStatement).setInt(1, 10);
+    verify(resultSet).close();
+  }
+
+  @Test
+  void shouldClearParametersAfterEachBatch() throws SQLException {
+    when(log.isDebugEnabled()).thenReturn(true);
+
+    PreparedStatement ps = CompactPreparedStatementLogger.newInstance(preparedStatement, log, 1);
+    ps.setString(1, "a");
+    ps.setString(2, "b");
+    ps.addBatch();
+    ps.setString(1, "c");
+    ps.addBatch();
+
+    verify(log).debug("==> Parameters: a(String), b(String)");
+    verify(log).debug("==> Parameters: c(String)");
+    verify(preparedStatement, times(2)).addBatch();
+  }
+
+  @Test
+  void shouldLogRowsReadWhenClosedEarly() throws SQLException {
+    when(log.isDebugEnabled()).thenReturn(true);
+    when(resultSet.next()).thenReturn(true);
+
+    ResultSet rs = CompactResultSetLogger.newInstance(resultSet, log, 1);
+    rs.next();
+    rs.close();
+    rs.close();
+
+    verify(log, times(1)).debug("<==      Total: 1");
+  }
+
+  @Test
+  void shouldKeepCallableStatementsCallable() throws SQLException {
+    when(log.isDebugEnabled()).thenReturn(true);
+    when(connection.prepareCall("{call p(?)}")).thenReturn(callableStatement);
+
+    Connection conn = CompactConnectionLogger.newInstance(connection, log, 1);
+    CallableStatement cs = conn.prepareCall("{call p(?)}");
+    cs.registerOutParameter(1, Types.INTEGER);
+
+    verify(callableStatement).registerOutParameter(1, Types.INTEGER);
+  }
+
+  @Test
+  void shouldSampleOneInN() {
+    JdbcLogSampler sampler = new JdbcLogSampler(3);
+    int sampled = 0;
+    for (int i = 0; i < 9; i++) {
+      if (sampler.isSampled(log)) {
+        sampled++;
+      }
+    }
+    assertThat(sampled).isEqualTo(3);
+    assertThat(new JdbcLogSampler(1).isSampled(log)).isTrue();
+  }
+
+}
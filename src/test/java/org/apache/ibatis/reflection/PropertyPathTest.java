@@ -0,0 +1,128 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.domain.misc.CustomBeanWrapper;
+import org.apache.ibatis.domain.misc.CustomBeanWrapperFactory;
+import org.apache.ibatis.domain.misc.RichType;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+class PropertyPathTest {
+
+  @Test
+  void shouldGetAndSetNestedProperty() {
+    RichType rich = new RichType();
+    MetaObject meta = SystemMetaObject.forObject(rich);
+    PropertyPath path = PropertyPath.compile("richType.richProperty");
+
+    assertThat(path.getValue(meta)).isNull();
+    path.setValue(meta, "foo");
+
+    assertThat(rich.getRichType()).isNotNull();
+    assertThat(rich.getRichType().getRichProperty()).isEqualTo("foo");
+    assertThat(path.getValue(meta)).isEqualTo("foo");
+    assertThat(meta.getValue("richType.richProperty")).isEqualTo("foo");
+  }
+
+  @Test
+  void shouldNotInstantiateIntermediateForNullValue() {
+    RichType rich = new RichType();
+    PropertyPath.compile("richType.richProperty").setValue(SystemMetaObject.forObject(rich), null);
+    assertThat(rich.getRichType()).isNull();
+  }
+
+  @Test
+  void shouldGetAndSetMapAndIndexedProperties() {
+    RichType rich = new RichType();
+    MetaObject meta = SystemMetaObject.forObject(rich);
+
+    PropertyPath.compile("richMap.key").setValue(meta, "value");
+    assertThat(PropertyPath.compile("richMap.key").getValue(meta)).isEqualTo("value");
+    PropertyPath.compile("richMap[other]").setValue(meta, "bar");
+    assertThat(rich.getRichMap().get("other")).isEqualTo("bar");
+
+    rich.setRichList(new ArrayList<>(Arrays.asList("a", "b")));
+    PropertyPath.compile("richList[1]").setValue(meta, "c");
+    assertThat(PropertyPath.compile("richList[1]").getValue(meta)).isEqualTo("c");
+
+    Map<String, Object> map = new HashMap<>();
+    map.put("ids", new int[] {7, 8});
+    map.put("names", new String[] {"x", "y"});
+    MetaObject mapMeta = SystemMetaObject.forObject(map);
+    assertThat(PropertyPath.compile("ids[1]").getValue(mapMeta)).isEqualTo(8);
+    assertThat(PropertyPath.compile("names[0]").getValue(mapMeta)).isEqualTo("x");
+  }
+
+  @Test
+  void shouldFollowRuntimeTypeOfEachSegment() {
+    PropertyPath path = PropertyPath.compile("value.id");
+    Map<String, Object> map = new HashMap<>();
+    map.put("value", new Author(1));
+    assertThat(path.getValue(SystemMetaObject.forObject(map))).isEqualTo(1);
+
+    Map<String, Object> nested = new HashMap<>();
+    nested.put("id", "nested");
+    map.put("value", nested);
+    assertThat(path.getValue(SystemMetaObject.forObject(map))).isEqualTo("nested");
+
+    List<Object> list = new ArrayList<>();
+    map.put("value", list);
+    assertThatThrownBy(() -> path.getValue(SystemMetaObject.forObject(map))).isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @Test
+  void shouldReportSameErrorsAsMetaObject() {
+    MetaObject meta = SystemMetaObject.forObject(new Author());
+    assertThatThrownBy(() -> PropertyPath.compile("missing").getValue(meta))
+        .isInstanceOf(ReflectionException.class)
+        .hasMessageContaining("There is no getter for property named 'missing'");
+    assertThatThrownBy(() -> PropertyPath.compile("missing").setValue(meta, "x"))
+        .isInstanceOf(ReflectionException.class)
+        .hasMessageContaining("Could not set property 'missing'");
+  }
+
+  @Test
+  void shouldDelegateToCustomObjectWrapper() {
+    Author author = new Author();
+    MetaObject meta = MetaObject.forObject(author, SystemMetaObject.DEFAULT_OBJECT_FACTORY, new CustomBeanWrapperFactory(), new DefaultReflectorFactory());
+    assertThat(meta.getObjectWrapper()).isInstanceOf(CustomBeanWrapper.class);
+
+    PropertyPath.compile("favouriteSection").setValue(meta, Section.NEWS);
+    assertThat(PropertyPath.compile("favouriteSection").getValue(meta)).isEqualTo(Section.NEWS);
+    assertThat(author.getFavouriteSection()).isEqualTo(Section.NEWS);
+  }
+
+  @Test
+  void shouldCachePathsInConfiguration() {
+    Configuration configuration = new Configuration();
+    PropertyPath path = configuration.getPropertyPath("a.b[0].c");
+    assertThat(configuration.getPropertyPath("a.b[0].c")).isSameAs(path);
+    assertThat(path.getExpression()).isEqualTo("a.b[0].c");
+  }
+
+}
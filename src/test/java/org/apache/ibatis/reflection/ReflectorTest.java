@@ -15,10 +15,14 @@
  */
 package org.apache.ibatis.reflection;
 
+import org.apache.ibatis.reflection.invoker.DefaultInvokerFactory;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.invoker.InvokerFactory;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.io.Serializable;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -237,4 +241,31 @@ class ReflectorTest {
     Reflector reflector = reflectorFactory.findForClass(Bean.class);
     assertTrue((Boolean)reflector.getGetInvoker("bool").invoke(new Bean(), new Byte[0]));
   }
+
+  @Test
+  void shouldCreateInvokersOnFirstUse() throws Exception {
+    @SuppressWarnings("unused")
+    class Bean {
+      private String name = "foo";
+      public String getName() {return name;}
+      public void setName(String name) {this.name = name;}
+    }
+    List<Object> created = new ArrayList<>();
+    InvokerFactory invokerFactory = new DefaultInvokerFactory() {
+      @Override
+      public Invoker createMethodInvoker(Method method) {
+        created.add(method);
+        return super.createMethodInvoker(method);
+      }
+    };
+    Reflector reflector = new Reflector(Bean.class, invokerFactory);
+    assertTrue(reflector.hasGetter("name"));
+    assertEquals(String.class, reflector.getGetterType("name"));
+    assertTrue(created.isEmpty());
+
+    Invoker invoker = reflector.getGetInvoker("name");
+    assertEquals("foo", invoker.invoke(new Bean(), new Object[0]));
+    Assertions.assertSame(invoker, reflector.getGetInvoker("name"));
+    assertEquals(1, created.size());
+  }
 }
@@ -0,0 +1,103 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Blog;
+import org.apache.ibatis.domain.blog.Post;
+import org.junit.jupiter.api.Test;
+
+class WeakReflectorFactoryTest {
+
+  @Test
+  void shouldCacheReflectors() {
+    WeakReflectorFactory factory = new WeakReflectorFactory();
+    Reflector reflector = factory.findForClass(Author.class);
+    assertThat(factory.findForClass(Author.class)).isSameAs(reflector);
+    assertThat(factory.size()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldNotCacheWhenDisabled() {
+    WeakReflectorFactory factory = new WeakReflectorFactory();
+    factory.setClassCacheEnabled(false);
+    assertThat(factory.findForClass(Author.class)).isNotSameAs(factory.findForClass(Author.class));
+    assertThat(factory.size()).isZero();
+  }
+
+  @Test
+  void shouldEvictLeastRecentlyUsedReflector() {
+    WeakReflectorFactory factory = new WeakReflectorFactory(2);
+    Reflector author = factory.findForClass(Author.class);
+    factory.findForClass(Author.class);
+    Reflector blog = factory.findForClass(Blog.class);
+    factory.findForClass(Post.class);
+
+    assertThat(factory.size()).isEqualTo(2);
+    assertThat(factory.findForClass(Author.class)).isSameAs(author);
+    assertThat(factory.findForClass(Blog.class)).isNotSameAs(blog);
+    assertThat(factory.size()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldRejectInvalidMaximumSize() {
+    assertThatThrownBy(() -> new WeakReflectorFactory(0)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldNotPreventClassUnloading() throws Exception {
+    WeakReflectorFactory factory = new WeakReflectorFactory();
+    WeakReference<ClassLoader> loaderRef = loadInIsolatedLoader(factory);
+
+    for (int i = 0; i < 20 && loaderRef.get() != null; i++) {
+      System.gc();
+      Thread.sleep(50);
+    }
+    assertThat(loaderRef.get()).isNull();
+  }
+
+  private WeakReference<ClassLoader> loadInIsolatedLoader(ReflectorFactory factory) throws Exception {
+    URL classes = Bean.class.getProtectionDomain().getCodeSource().getLocation();
+    URLClassLoader loader = new URLClassLoader(new URL[] {classes}, null);
+    Class<?> type = loader.loadClass(Bean.class.getName());
+    assertThat(type).isNotSameAs(Bean.class);
+    Reflector reflector = factory.findForClass(type);
+    assertThat(reflector.getGetterType("name")).isEqualTo(String.class);
+    reflector.getGetInvoker("name");
+    loader.close();
+    return new WeakReference<>(loader);
+  }
+
+  public static class Bean {
+    private String name;
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+  }
+
+}
@@ -0,0 +1,190 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+
+import org.apache.ibatis.reflection.MetaClass;
+import org.apache.ibatis.reflection.MethodHandleReflectorFactory;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.ReflectorFactory;
+import org.junit.jupiter.api.Test;
+
+class MethodHandleInvokerFactoryTest {
+
+  private final InvokerFactory invokerFactory = new MethodHandleInvokerFactory();
+
+  @Test
+  void shouldUseLambdasForPublicAccessors() throws Exception {
+    Reflector reflector = new Reflector(PublicBean.class, invokerFactory);
+    PublicBean bean = new PublicBean();
+
+    Invoker setId = reflector.getSetInvoker("id");
+    Invoker getId = reflector.getGetInvoker("id");
+    assertThat(setId).isInstanceOfSatisfying(MethodHandleInvoker.class, i -> assertThat(i.isLambda()).isTrue());
+    setId.invoke(bean, new Object[] {7});
+    assertThat(getId.invoke(bean, null)).isEqualTo(7);
+
+    reflector.getSetInvoker("name").invoke(bean, new Object[] {null});
+    assertThat(reflector.getGetInvoker("name").invoke(bean, null)).isNull();
+    reflector.getSetInvoker("name").invoke(bean, new Object[] {"mybatis"});
+    assertThat(reflector.getGetInvoker("name").invoke(bean, null)).isEqualTo("mybatis");
+  }
+
+  @Test
+  void shouldSupportFluentSetters() throws Exception {
+    Reflector reflector = new Reflector(PublicBean.class, invokerFactory);
+    PublicBean bean = new PublicBean();
+    reflector.getSetInvoker("flag").invoke(bean, new Object[] {true});
+    assertThat(bean.flag).isTrue();
+  }
+
+  @Test
+  void shouldUseMethodHandlesForNonPublicAccessors() throws Exception {
+    Reflector reflector = new Reflector(HiddenBean.class, invokerFactory);
+    HiddenBean bean = new HiddenBean();
+
+    Invoker setValue = reflector.getSetInvoker("value");
+    assertThat(setValue).isInstanceOfSatisfying(MethodHandleInvoker.class, i -> assertThat(i.isLambda()).isFalse());
+    setValue.invoke(bean, new Object[] {3L});
+    assertThat(reflector.getGetInvoker("value").invoke(bean, null)).isEqualTo(3L);
+
+    Invoker setField = reflector.getSetInvoker("field");
+    assertThat(setField).isInstanceOf(MethodHandleSetFieldInvoker.class);
+    setField.invoke(bean, new Object[] {"x"});
+    assertThat(reflector.getGetInvoker("field")).isInstanceOf(MethodHandleGetFieldInvoker.class);
+    assertThat(reflector.getGetInvoker("field").invoke(bean, null)).isEqualTo("x");
+  }
+
+  @Test
+  void shouldNotUseLambdasForNonPublicValueTypes() throws Exception {
+    Reflector reflector = new Reflector(PublicBean.class, invokerFactory);
+    PublicBean bean = new PublicBean();
+    Invoker setKind = reflector.getSetInvoker("kind");
+    assertThat(setKind).isInstanceOfSatisfying(MethodHandleInvoker.class, i -> assertThat(i.isLambda()).isFalse());
+    setKind.invoke(bean, new Object[] {Kind.B});
+    assertThat(reflector.getGetInvoker("kind").invoke(bean, null)).isEqualTo(Kind.B);
+  }
+
+  @Test
+  void shouldWrapExceptionsLikeReflection() {
+    Reflector reflector = new Reflector(PublicBean.class, invokerFactory);
+    assertThatThrownBy(() -> reflector.getGetInvoker("broken").invoke(new PublicBean(), null))
+        .isInstanceOf(InvocationTargetException.class)
+        .hasCauseInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @Test
+  void shouldRejectMismatchedArgumentsLikeReflection() throws Exception {
+    Reflector reflector = new Reflector(PublicBean.class, invokerFactory);
+    assertThatThrownBy(() -> reflector.getSetInvoker("flag").invoke(new PublicBean(), new Object[] {null}))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> reflector.getSetInvoker("name").invoke(new PublicBean(), new Object[] {1}))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> reflector.getGetInvoker("name").invoke(new HiddenBean(), null))
+        .isInstanceOf(IllegalArgumentException.class);
+
+    Reflector hidden = new Reflector(HiddenBean.class, invokerFactory);
+    HiddenBean bean = new HiddenBean();
+    assertThatThrownBy(() -> hidden.getSetInvoker("value").invoke(bean, new Object[] {null}))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> hidden.getSetInvoker("count").invoke(bean, new Object[] {null}))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> hidden.getGetInvoker("field").invoke(new PublicBean(), null))
+        .isInstanceOf(IllegalArgumentException.class);
+
+    // 与反射一样支持基本类型的拓宽转换
+    hidden.getSetInvoker("value").invoke(bean, new Object[] {3});
+    assertThat(bean.value).isEqualTo(3L);
+    hidden.getSetInvoker("count").invoke(bean, new Object[] {(short) 2});
+    assertThat(bean.count).isEqualTo(2);
+  }
+
+  @Test
+  void shouldKeepGenericTypesAvailableToMetaClass() {
+    ReflectorFactory reflectorFactory = new MethodHandleReflectorFactory();
+    MetaClass metaClass = MetaClass.forClass(PublicBean.class, reflectorFactory);
+    assertThat(metaClass.getGetterType("tags[0]")).isEqualTo(String.class);
+  }
+
+  public static class PublicBean {
+    private Integer id;
+    private String name;
+    private boolean flag;
+    private List<String> tags;
+    private Kind kind;
+
+    public Integer getId() {
+      return id;
+    }
+
+    public void setId(Integer id) {
+      this.id = id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public PublicBean setFlag(boolean flag) {
+      this.flag = flag;
+      return this;
+    }
+
+    public List<String> getTags() {
+      return tags;
+    }
+
+    public Kind getKind() {
+      return kind;
+    }
+
+    public void setKind(Kind kind) {
+      this.kind = kind;
+    }
+
+    public String getBroken() {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  enum Kind {
+    A, B
+  }
+
+  static class HiddenBean {
+    private long value;
+    private String field;
+    private int count;
+
+    long getValue() {
+      return value;
+    }
+
+    void setValue(long value) {
+      this.value = value;
+    }
+  }
+
+}
@@ -0,0 +1,90 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class DeadlineTest {
+
+  @Mock
+  Statement running;
+
+  @Mock
+  Statement closed;
+
+  @Test
+  void shouldCancelRunningStatementsOnly() throws Exception {
+    Deadline deadline = Deadline.after(1, TimeUnit.MINUTES);
+    deadline.register(running, 0);
+    deadline.register(closed, 0);
+    deadline.unregister(closed);
+
+    Thread canceller = new Thread(deadline::cancel);
+    canceller.start();
+    canceller.join();
+
+    verify(running).cancel();
+    verify(closed, never()).cancel();
+  }
+
+  @Test
+  void shouldCancelStatementRegisteredAfterCancel() throws Exception {
+    Deadline deadline = Deadline.after(1, TimeUnit.MINUTES);
+    deadline.cancel();
+    deadline.register(running, 0);
+    verify(running).cancel();
+  }
+
+  @Test
+  void shouldRestoreOriginalQueryTimeoutOnRelease() throws Exception {
+    Deadline deadline = Deadline.after(1, TimeUnit.MINUTES);
+    deadline.register(running, 30);
+    deadline.register(running, 20);
+    deadline.release();
+    verify(running).setQueryTimeout(30);
+  }
+
+  @Test
+  void shouldRestoreOriginalQueryTimeoutOfReleasedStatement() throws Exception {
+    Deadline deadline = Deadline.after(1, TimeUnit.MINUTES);
+    deadline.register(running, 30);
+    deadline.release(running);
+    verify(running).setQueryTimeout(30);
+
+    deadline.cancel();
+    verify(running, never()).cancel();
+  }
+
+  @Test
+  void shouldRoundRemainingTimeUp() {
+    Deadline deadline = Deadline.after(1500, TimeUnit.MILLISECONDS);
+    assertThat(deadline.remainingSeconds()).isEqualTo(2);
+    assertThat(deadline.isExpired()).isFalse();
+    assertThat(Deadline.after(0, TimeUnit.SECONDS).remainingSeconds()).isEqualTo(0);
+  }
+
+}
@@ -0,0 +1,195 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_async_flush;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.io.Reader;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchAsyncFlushTest {
+
+  private static final String NAMESPACE = "org.apache.ibatis.submitted.batch_async_flush.Mapper.";
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_async_flush/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/batch_async_flush/CreateDB.sql");
+  }
+
+  @Test
+  void shouldFlushFullBatchesInBackground() {
+    List<String> flushThreads = Collections.synchronizedList(new ArrayList<>());
+    sqlSessionFactory.getConfiguration().setBatchFlushListener(
+        (results, autoFlush) -> flushThreads.add(Thread.currentThread().getName()));
+    List<Item> items = new ArrayList<>();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      for (int i = 0; i < 5; i++) {
+        Item item = new Item("p" + i);
+        items.add(item);
+        sqlSession.insert(NAMESPACE + "insertParent", item);
+      }
+      assertThat(sqlSession.flushStatements()).hasSize(1);
+      sqlSession.commit();
+    }
+
+    assertThat(flushThreads).hasSize(3);
+    assertThat(flushThreads.subList(0, 2)).allMatch(name -> name.startsWith("mybatis-batch-flush-"));
+    assertThat(items).extracting(Item::getId).containsExactly(0, 1, 2, 3, 4);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.<Integer>selectOne(NAMESPACE + "countParents")).isEqualTo(5);
+    }
+  }
+
+  @Test
+  void shouldFlushOnCallerThreadWhenKeyGeneratorQueriesAfterInsert() {
+    String caller = Thread.currentThread().getName();
+    List<String> flushThreads = Collections.synchronizedList(new ArrayList<>());
+    sqlSessionFactory.getConfiguration().setBatchFlushListener((results, autoFlush) -> flushThreads.add(
+        results.get(0).getMappedStatement().getId().substring(NAMESPACE.length()) + "@" + Thread.currentThread().getName()));
+    List<Item> children = new ArrayList<>();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      sqlSession.insert(NAMESPACE + "insertParent", new Item("p0"));
+      sqlSession.insert(NAMESPACE + "insertParent", new Item("p1"));
+      for (int i = 0; i < 4; i++) {
+        Item child = new Item("c" + i);
+        children.add(child);
+        sqlSession.insert(NAMESPACE + "insertChildWithSelectKey", child);
+      }
+      sqlSession.commit();
+    }
+
+    assertThat(flushThreads).hasSize(3);
+    assertThat(flushThreads.get(0)).startsWith("insertParent@mybatis-batch-flush-");
+    assertThat(flushThreads.subList(1, 3)).containsOnly("insertChildWithSelectKey@" + caller);
+    assertThat(children).extracting(Item::getId).doesNotContainNull();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.<Integer>selectOne(NAMESPACE + "countChildren")).isEqualTo(4);
+    }
+  }
+
+  @Test
+  void shouldSurfaceBackgroundFailureOnCommit() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      sqlSession.insert(NAMESPACE + "insertParent", new Item("duplicate"));
+      sqlSession.insert(NAMESPACE + "insertParent", new Item("duplicate"));
+      assertThrows(PersistenceException.class, sqlSession::commit);
+      sqlSession.rollback();
+
+      sqlSession.insert(NAMESPACE + "insertParent", new Item("after rollback"));
+      sqlSession.commit();
+    }
+
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.<Integer>selectOne(NAMESPACE + "countParents")).isEqualTo(1);
+    }
+  }
+
+  @Test
+  void shouldSurfaceBackgroundFailureOnNextStatement() throws Exception {
+    ExecutorService flushExecutor = Executors.newSingleThreadExecutor();
+    sqlSessionFactory.getConfiguration().setBatchFlushExecutorService(flushExecutor);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      sqlSession.insert(NAMESPACE + "insertParent", new Item("duplicate"));
+      sqlSession.insert(NAMESPACE + "insertParent", new Item("duplicate"));
+      // wait for the background batch to fail
+      flushExecutor.submit(() -> null).get();
+      assertThrows(PersistenceException.class, () -> sqlSession.insert(NAMESPACE + "insertParent", new Item("next")));
+      sqlSession.rollback();
+    } finally {
+      flushExecutor.shutdown();
+    }
+  }
+
+  @Test
+  void shouldReleaseQueueSlotWhenFlushIsRejected() {
+    ExecutorService flushExecutor = Executors.newSingleThreadExecutor();
+    flushExecutor.shutdown();
+    sqlSessionFactory.getConfiguration().setBatchFlushExecutorService(flushExecutor);
+    sqlSessionFactory.getConfiguration().setBatchAsyncFlushQueueSize(1);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+        for (int i = 0; i < 2; i++) {
+          sqlSession.insert(NAMESPACE + "insertParent", new Item("a" + i));
+          sqlSession.insert(NAMESPACE + "insertParent", new Item("b" + i));
+          assertThrows(PersistenceException.class, () -> sqlSession.insert(NAMESPACE + "insertParent", new Item("c")));
+          sqlSession.rollback();
+        }
+      });
+    }
+  }
+
+  @Test
+  void shouldBlockWhenQueueIsFull() throws Exception {
+    sqlSessionFactory.getConfiguration().setBatchMaxRowsPerStatement(1);
+    sqlSessionFactory.getConfiguration().setBatchAsyncFlushQueueSize(1);
+    CountDownLatch release = new CountDownLatch(1);
+    sqlSessionFactory.getConfiguration().setBatchFlushListener((results, autoFlush) -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    AtomicInteger inserted = new AtomicInteger();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Thread producer = new Thread(() -> {
+        for (int i = 0; i < 3; i++) {
+          sqlSession.insert(NAMESPACE + "insertParent", new Item("p" + i));
+          inserted.incrementAndGet();
+        }
+      });
+      producer.start();
+      Thread.sleep(200);
+      assertThat(inserted.get()).isEqualTo(1);
+
+      release.countDown();
+      producer.join(5000);
+      assertThat(inserted.get()).isEqualTo(3);
+      sqlSession.commit();
+    }
+
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.<Integer>selectOne(NAMESPACE + "countParents")).isEqualTo(3);
+    }
+  }
+
+}
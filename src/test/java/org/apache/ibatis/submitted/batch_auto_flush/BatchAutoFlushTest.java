@@ -0,0 +1,130 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_auto_flush;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchAutoFlushTest {
+
+  private static final String NAMESPACE = "org.apache.ibatis.submitted.batch_auto_flush.Mapper.";
+
+  private SqlSessionFactory sqlSessionFactory;
+  private final List<List<BatchResult>> autoFlushes = new ArrayList<>();
+  private final List<List<BatchResult>> flushes = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_auto_flush/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    sqlSessionFactory.getConfiguration().setBatchFlushListener((results, autoFlush) -> {
+      flushes.add(results);
+      if (autoFlush) {
+        autoFlushes.add(results);
+      }
+    });
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/batch_auto_flush/CreateDB.sql");
+  }
+
+  @Test
+  void shouldFlushWhenStatementReachesMaxRows() {
+    sqlSessionFactory.getConfiguration().setBatchMaxRowsPerStatement(3);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      List<Item> items = new ArrayList<>();
+      for (int i = 0; i < 7; i++) {
+        Item item = new Item("p" + i);
+        items.add(item);
+        sqlSession.insert(NAMESPACE + "insertParent", item);
+      }
+
+      assertThat(autoFlushes).hasSize(2);
+      assertThat(autoFlushes.get(0).get(0).getUpdateCounts()).containsExactly(1, 1, 1);
+      assertThat(autoFlushes.get(1).get(0).getParameterObjects()).containsExactlyElementsOf(items.subList(3, 6));
+      assertThat(items.subList(0, 6)).extracting(Item::getId).containsExactly(0, 1, 2, 3, 4, 5);
+
+      List<BatchResult> remaining = sqlSession.flushStatements();
+      assertThat(remaining).hasSize(1);
+      assertThat(remaining.get(0).getParameterObjects()).containsExactly(items.get(6));
+      assertThat(flushes).hasSize(3);
+      sqlSession.commit();
+    }
+
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.<Integer>selectOne(NAMESPACE + "countParents")).isEqualTo(7);
+    }
+  }
+
+  @Test
+  void shouldFlushWhenPendingRowsReachLimit() {
+    sqlSessionFactory.getConfiguration().setBatchMaxPendingRows(4);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      for (int i = 0; i < 4; i++) {
+        sqlSession.insert(NAMESPACE + "insertParent", new Item("p" + i));
+        sqlSession.insert(NAMESPACE + "insertChild", new Item("c" + i));
+      }
+
+      assertThat(autoFlushes).hasSize(2);
+      // without grouping every alternating insert opens a new statement
+      assertThat(autoFlushes.get(0)).hasSize(4);
+      assertThat(sqlSession.flushStatements()).isEmpty();
+      sqlSession.commit();
+    }
+  }
+
+  @Test
+  void shouldFlushWhenPendingBytesReachLimit() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setBatchMaxPendingBytes(20);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      sqlSession.insert(NAMESPACE + "insertParent", new Item("abcd"));
+      assertThat(autoFlushes).isEmpty();
+      sqlSession.insert(NAMESPACE + "insertParent", new Item("efghij"));
+      assertThat(autoFlushes).hasSize(1);
+      assertThat(autoFlushes.get(0).get(0).getUpdateCounts()).containsExactly(1, 1);
+      sqlSession.commit();
+    }
+  }
+
+  @Test
+  void shouldNotFlushWithoutLimits() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      for (int i = 0; i < 10; i++) {
+        sqlSession.insert(NAMESPACE + "insertParent", new Item("p" + i));
+      }
+      assertThat(flushes).isEmpty();
+      assertThat(sqlSession.flushStatements().get(0).getUpdateCounts()).hasSize(10);
+      assertThat(flushes).hasSize(1);
+    }
+  }
+
+}
@@ -0,0 +1,109 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_grouping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchGroupingTest {
+
+  private static final String NAMESPACE = "org.apache.ibatis.submitted.batch_grouping.Mapper.";
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_grouping/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/batch_grouping/CreateDB.sql");
+  }
+
+  @Test
+  void shouldGroupInterleavedStatements() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Item[] parents = {new Item("p1"), new Item("p2"), new Item("p3")};
+      Item[] children = {new Item("c1"), new Item("c2"), new Item("c3")};
+      for (int i = 0; i < parents.length; i++) {
+        sqlSession.insert(NAMESPACE + "insertParent", parents[i]);
+        sqlSession.insert(NAMESPACE + "insertChild", children[i]);
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+
+      assertThat(results).hasSize(2);
+      assertThat(results.get(0).getMappedStatement().getId()).isEqualTo(NAMESPACE + "insertParent");
+      assertThat(results.get(0).getParameterObjects()).containsExactly((Object[]) parents);
+      assertThat(results.get(0).getUpdateCounts()).containsExactly(1, 1, 1);
+      assertThat(results.get(1).getMappedStatement().getId()).isEqualTo(NAMESPACE + "insertChild");
+      assertThat(results.get(1).getParameterObjects()).containsExactly((Object[]) children);
+      assertThat(results.get(1).getUpdateCounts()).containsExactly(1, 1, 1);
+      assertThat(parents).extracting(Item::getId).containsExactly(0, 1, 2);
+      assertThat(children).extracting(Item::getId).containsExactly(0, 1, 2);
+      sqlSession.commit();
+    }
+
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.<Integer>selectOne(NAMESPACE + "countParents")).isEqualTo(3);
+      assertThat(sqlSession.<Integer>selectOne(NAMESPACE + "countChildren")).isEqualTo(3);
+    }
+  }
+
+  @Test
+  void shouldStartNewGroupsAfterFlush() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      sqlSession.insert(NAMESPACE + "insertParent", new Item("p1"));
+      sqlSession.insert(NAMESPACE + "insertChild", new Item("c1"));
+      assertThat(sqlSession.flushStatements()).hasSize(2);
+
+      sqlSession.insert(NAMESPACE + "insertChild", new Item("c2"));
+      sqlSession.insert(NAMESPACE + "insertParent", new Item("p2"));
+      sqlSession.insert(NAMESPACE + "insertChild", new Item("c3"));
+      List<BatchResult> results = sqlSession.flushStatements();
+
+      assertThat(results).extracting(r -> r.getMappedStatement().getId())
+          .containsExactly(NAMESPACE + "insertChild", NAMESPACE + "insertParent");
+      assertThat(results.get(0).getUpdateCounts()).containsExactly(1, 1);
+      sqlSession.commit();
+    }
+  }
+
+  @Test
+  void shouldNotGroupWhenDisabled() {
+    sqlSessionFactory.getConfiguration().setBatchGroupingEnabled(false);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      sqlSession.insert(NAMESPACE + "insertParent", new Item("p1"));
+      sqlSession.insert(NAMESPACE + "insertChild", new Item("c1"));
+      sqlSession.insert(NAMESPACE + "insertParent", new Item("p2"));
+
+      assertThat(sqlSession.flushStatements()).hasSize(3);
+    }
+  }
+
+}
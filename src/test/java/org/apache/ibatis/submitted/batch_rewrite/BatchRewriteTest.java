@@ -0,0 +1,173 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_rewrite;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchRewriteTest {
+
+  private static final String NAMESPACE = "org.apache.ibatis.submitted.batch_rewrite.Mapper.";
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_rewrite/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/batch_rewrite/CreateDB.sql");
+    SqlRecorder.SQLS.clear();
+  }
+
+  @Test
+  void shouldRewriteBatchedInsertsIntoMultiRowInserts() {
+    List<Item> items = new ArrayList<>();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      for (int i = 0; i < 5; i++) {
+        Item item = new Item("item" + i, i * 10);
+        items.add(item);
+        sqlSession.insert(NAMESPACE + "insertItem", item);
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+
+      assertThat(results).hasSize(1);
+      assertThat(results.get(0).getUpdateCounts()).containsExactly(1, 1, 1, 1, 1);
+      assertThat(results.get(0).getParameterObjects()).containsExactlyElementsOf(items);
+      sqlSession.commit();
+    }
+
+    // at most 5 parameters per statement, i.e. 2 rows of 2 parameters
+    assertThat(SqlRecorder.SQLS).containsExactly(
+        "insert into items (name, quantity) values (?, ?), (?, ?)",
+        "insert into items (name, quantity) values (?, ?), (?, ?)",
+        "insert into items (name, quantity) values (?, ?)");
+    assertThat(items).extracting(Item::getId).containsExactly(0, 1, 2, 3, 4);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Item> stored = sqlSession.selectList(NAMESPACE + "selectItems");
+      assertThat(stored).extracting(Item::getName).containsExactly("item0", "item1", "item2", "item3", "item4");
+      assertThat(stored).extracting(Item::getQuantity).containsExactly(0, 10, 20, 30, 40);
+    }
+  }
+
+  @Test
+  void shouldRewriteAnnotatedInserts() {
+    sqlSessionFactory.getConfiguration().setRewriteBatchMaxParameters(100);
+    Item first = new Item("first", 1);
+    Item second = new Item("second", 2);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      AnnotatedMapper mapper = sqlSession.getMapper(AnnotatedMapper.class);
+      mapper.insertItem(first);
+      mapper.insertItem(second);
+      sqlSession.commit();
+    }
+
+    assertThat(SqlRecorder.SQLS).containsExactly("insert into items (name, quantity) values (?, ?), (?, ?)");
+    assertThat(first.getId()).isEqualTo(0);
+    assertThat(second.getId()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldKeepClauseAfterValuesWhenRewriting() {
+    sqlSessionFactory.getConfiguration().setRewriteBatchMaxParameters(100);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      sqlSession.insert(NAMESPACE + "insertItem", new Item("a", 1));
+      sqlSession.flushStatements();
+      SqlRecorder.SQLS.clear();
+      sqlSession.insert(NAMESPACE + "upsertItem", new Item(0, "a", 10));
+      sqlSession.insert(NAMESPACE + "upsertItem", new Item(5, "b", 20));
+      sqlSession.commit();
+    }
+
+    assertThat(SqlRecorder.SQLS).containsExactly("insert into items (id, name, quantity) values (?, ?, ?), (?, ?, ?)"
+        + " on duplicate key update quantity = values(quantity)");
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Item> stored = sqlSession.selectList(NAMESPACE + "selectItems");
+      assertThat(stored).extracting(Item::getId).containsExactly(0, 5);
+      assertThat(stored).extracting(Item::getQuantity).containsExactly(10, 20);
+    }
+  }
+
+  @Test
+  void shouldNotRewriteInsertsWithParametersAfterValues() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      sqlSession.insert(NAMESPACE + "upsertItemWithParameter", new Item(0, "a", 10));
+      sqlSession.insert(NAMESPACE + "upsertItemWithParameter", new Item(1, "b", 20));
+      assertThat(sqlSession.flushStatements().get(0).getUpdateCounts()).containsExactly(1, 1);
+      sqlSession.commit();
+    }
+
+    assertThat(SqlRecorder.SQLS).containsExactly("insert into items (id, name, quantity) values (?, ?, ?)"
+        + " on duplicate key update quantity = ?");
+  }
+
+  @Test
+  void shouldKeepBatchingInsertsNotFlaggedAsRewritable() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      sqlSession.insert(NAMESPACE + "insertItemWithoutRewrite", new Item("a", 1));
+      sqlSession.insert(NAMESPACE + "insertItemWithoutRewrite", new Item("b", 2));
+      assertThat(sqlSession.flushStatements().get(0).getUpdateCounts()).containsExactly(1, 1);
+      sqlSession.commit();
+    }
+
+    assertThat(SqlRecorder.SQLS).containsExactly("insert into items (name, quantity) values (?, ?)");
+  }
+
+  @Test
+  void shouldNotRewriteInsertsWithSelectKey() {
+    Item first = new Item("a", 1);
+    Item second = new Item("b", 2);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      sqlSession.insert(NAMESPACE + "insertItemWithSelectKey", first);
+      sqlSession.insert(NAMESPACE + "insertItemWithSelectKey", second);
+      assertThat(sqlSession.flushStatements().get(0).getUpdateCounts()).containsExactly(1, 1);
+      sqlSession.commit();
+    }
+
+    assertThat(SqlRecorder.SQLS).contains("insert into items (name, quantity) values (?, ?)")
+        .doesNotContain("insert into items (name, quantity) values (?, ?), (?, ?)");
+    assertThat(first.getId()).isEqualTo(0);
+    assertThat(second.getId()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldNotRewriteOutsideBatch() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Item item = new Item("single", 1);
+      sqlSession.insert(NAMESPACE + "insertItem", item);
+      assertThat(item.getId()).isEqualTo(0);
+      sqlSession.commit();
+    }
+
+    assertThat(SqlRecorder.SQLS).containsExactly("insert into items (name, quantity) values (?, ?)");
+  }
+
+}
@@ -0,0 +1,129 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.binding_plan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.scripting.defaults.BindingPlanLanguageDriver;
+import org.apache.ibatis.scripting.defaults.BindingPlanParameterHandler;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class BindingPlanTest {
+
+  private static final String NAMESPACE = "org.apache.ibatis.submitted.binding_plan.Mapper.";
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/binding_plan/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/binding_plan/CreateDB.sql");
+  }
+
+  @Test
+  void shouldUseBindingPlanParameterHandler() {
+    MappedStatement ms = sqlSessionFactory.getConfiguration().getMappedStatement(NAMESPACE + "getName");
+    assertThat(ms.getLang()).isInstanceOf(BindingPlanLanguageDriver.class);
+    assertThat(ms.getLang().createParameterHandler(ms, 1, ms.getBoundSql(1))).isInstanceOf(BindingPlanParameterHandler.class);
+  }
+
+  @Test
+  void shouldUseDefaultParameterHandlerForDynamicStatement() {
+    MappedStatement ms = sqlSessionFactory.getConfiguration().getMappedStatement(NAMESPACE + "findUsers");
+    User user = new User(null, "User1", 30);
+    assertThat(ms.getLang().createParameterHandler(ms, user, ms.getBoundSql(user))).isInstanceOf(DefaultParameterHandler.class);
+  }
+
+  @Test
+  void shouldBindSimpleParameter() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.<String>selectOne(NAMESPACE + "getName", 1)).isEqualTo("User1");
+      assertThat(sqlSession.<String>selectOne(NAMESPACE + "getName", 2)).isEqualTo("User2");
+    }
+  }
+
+  @Test
+  void shouldBindBeanPropertiesAndNulls() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.insert(NAMESPACE + "insertUser", new User(10, "User10", 40));
+      sqlSession.insert(NAMESPACE + "insertUser", new User(11, null, null));
+
+      User user = sqlSession.selectOne(NAMESPACE + "getUser", 10);
+      assertThat(user.getName()).isEqualTo("User10");
+      assertThat(user.getAge()).isEqualTo(40);
+      user = sqlSession.selectOne(NAMESPACE + "getUser", 11);
+      assertThat(user.getName()).isNull();
+      assertThat(user.getAge()).isNull();
+      sqlSession.rollback();
+    }
+  }
+
+  @Test
+  void shouldBindDifferentParameterTypesForSameStatement() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.<Integer>selectOne(NAMESPACE + "countByNameAndAge", new User(null, "User1", 30))).isEqualTo(1);
+
+      Map<String, Object> param = new HashMap<>();
+      param.put("name", "User1");
+      param.put("age", 31);
+      assertThat(sqlSession.<Integer>selectOne(NAMESPACE + "countByNameAndAge", param)).isEqualTo(0);
+      param.put("age", 30);
+      assertThat(sqlSession.<Integer>selectOne(NAMESPACE + "countByNameAndAge", param)).isEqualTo(1);
+    }
+  }
+
+  @Test
+  void shouldBindDynamicStatementWithBuiltInParameters() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.<User>selectList(NAMESPACE + "findUsers", new User(null, "User2", null)))
+          .extracting(User::getId).containsExactly(2);
+      assertThat(sqlSession.<User>selectList(NAMESPACE + "findUsers", new User(null, "User1", 30)))
+          .extracting(User::getId).containsExactly(1);
+    }
+  }
+
+  @Test
+  void shouldFallBackForBuiltInParameterReference() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.<String>selectOne(NAMESPACE + "getNameIfPositive", 2)).isEqualTo("User2");
+    }
+  }
+
+  @Test
+  void shouldFallBackForAdditionalParameters() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.<String>selectList(NAMESPACE + "getNames", Arrays.asList(1, 2))).containsExactly("User1", "User2");
+    }
+  }
+
+}
@@ -0,0 +1,211 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.bulk_insert;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Plugin;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.submitted.bulk_insert.Item.Color;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BulkInsertTest {
+
+  private static final String NAMESPACE = "org.apache.ibatis.submitted.bulk_insert.Mapper.";
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/bulk_insert/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/bulk_insert/CreateDB.sql");
+  }
+
+  @Test
+  void shouldFallBackToBatchWhenNoLoaderSupportsConnection() {
+    List<Item> items = Arrays.asList(new Item("a", 1, Color.RED), new Item("b", null, Color.GREEN),
+        new Item("c", 3, null));
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.bulkInsert(NAMESPACE + "insertItem", items)).isEqualTo(3);
+      sqlSession.commit();
+    }
+
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Item> stored = sqlSession.selectList(NAMESPACE + "selectItems");
+      assertThat(stored).extracting(Item::getName).containsExactly("a", "b", "c");
+      assertThat(stored).extracting(Item::getQuantity).containsExactly(1, null, 3);
+      assertThat(stored).extracting(Item::getColor).containsExactly(Color.RED, Color.GREEN, null);
+    }
+  }
+
+  @Test
+  void shouldStreamTypeHandledValuesToSupportingLoader() {
+    RecordingBulkLoader loader = new RecordingBulkLoader();
+    sqlSessionFactory.getConfiguration().addBulkLoader(loader);
+    List<Item> items = Arrays.asList(new Item("a", 1, Color.RED), new Item("b", null, Color.GREEN));
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      assertThat(sqlSession.bulkInsert(NAMESPACE + "insertItem", items)).isEqualTo(2);
+      sqlSession.commit();
+    }
+
+    assertThat(loader.getTable()).isEqualTo("items");
+    assertThat(loader.getColumns()).containsExactly("name", "quantity", "color");
+    assertThat(loader.getRows()).containsExactly(new Object[] {"a", 1, "RED"}, new Object[] {"b", null, "GREEN"});
+  }
+
+  @Test
+  void shouldFallBackToBatchWhenKeysAreGenerated() {
+    RecordingBulkLoader loader = new RecordingBulkLoader();
+    sqlSessionFactory.getConfiguration().addBulkLoader(loader);
+    List<Item> items = Arrays.asList(new Item("a", 1, Color.RED), new Item("b", 2, Color.GREEN));
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.bulkInsert(NAMESPACE + "insertItemWithKey", items)).isEqualTo(2);
+      sqlSession.commit();
+    }
+
+    assertThat(loader.getRows()).isEmpty();
+    assertThat(items).extracting(Item::getId).containsExactly(0, 1);
+  }
+
+  @Test
+  void shouldApplyInterceptorsToBatchFallback() {
+    UpdateCounter counter = new UpdateCounter();
+    sqlSessionFactory.getConfiguration().addInterceptor(counter);
+    List<Item> items = Arrays.asList(new Item("a", 1, Color.RED), new Item("b", 2, Color.GREEN));
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.bulkInsert(NAMESPACE + "insertItem", items)).isEqualTo(2);
+      sqlSession.commit();
+    }
+
+    assertThat(counter.updates).isEqualTo(2);
+  }
+
+  @Test
+  void shouldDiscardPendingBatchWhenRowsFail() throws Exception {
+    StatementCollector collector = new StatementCollector();
+    sqlSessionFactory.getConfiguration().addInterceptor(collector);
+    Iterable<Item> items = () -> new Iterator<Item>() {
+      private int count;
+
+      @Override
+      public boolean hasNext() {
+        return true;
+      }
+
+      @Override
+      public Item next() {
+        if (count == 2) {
+          throw new IllegalStateException("source failed");
+        }
+        return new Item("item" + count++, 1, Color.RED);
+      }
+    };
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThatThrownBy(() -> sqlSession.bulkInsert(NAMESPACE + "insertItem", items))
+          .hasRootCauseInstanceOf(IllegalStateException.class);
+      assertThat(collector.statements).hasSize(1);
+      assertThat(collector.statements.get(0).isClosed()).isTrue();
+      sqlSession.insert(NAMESPACE + "insertItem", new Item("after", 1, Color.RED));
+      sqlSession.commit();
+    }
+
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Item> stored = sqlSession.selectList(NAMESPACE + "selectItems");
+      assertThat(stored).extracting(Item::getName).containsExactly("after");
+    }
+  }
+
+  @Test
+  void shouldReturnZeroForNoRows() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.bulkInsert(NAMESPACE + "insertItem", Collections.emptyList())).isEqualTo(0);
+    }
+  }
+
+  @Intercepts(@Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}))
+  public static class UpdateCounter implements Interceptor {
+
+    int updates;
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      updates++;
+      return invocation.proceed();
+    }
+
+    @Override
+    public Object plugin(Object target) {
+      return Plugin.wrap(target, this);
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+    }
+
+  }
+
+  @Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class}))
+  public static class StatementCollector implements Interceptor {
+
+    final List<Statement> statements = new ArrayList<>();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      Object statement = invocation.proceed();
+      statements.add((Statement) statement);
+      return statement;
+    }
+
+    @Override
+    public Object plugin(Object target) {
+      return Plugin.wrap(target, this);
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+    }
+
+  }
+
+}
@@ -0,0 +1,97 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.bulk_insert;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.InputStream;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
+import org.apache.ibatis.executor.bulk.PgCopyBulkLoader;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.submitted.bulk_insert.Item.Color;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import ru.yandex.qatools.embed.postgresql.EmbeddedPostgres;
+import ru.yandex.qatools.embed.postgresql.util.SocketUtil;
+
+@Tag("EmbeddedPostgresqlTests")
+class PgCopyBulkInsertTest {
+
+  private static final String NAMESPACE = "org.apache.ibatis.submitted.bulk_insert.Mapper.";
+
+  private static final EmbeddedPostgres postgres = new EmbeddedPostgres();
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    // Launch PostgreSQL server. Download / unarchive if necessary.
+    String url = postgres.start(EmbeddedPostgres.cachedRuntimeConfig(Paths.get(System.getProperty("java.io.tmpdir"), "pgembed")), "localhost", SocketUtil.findFreePort(), "bulk_insert", "postgres", "root", Collections.emptyList());
+
+    Configuration configuration = new Configuration();
+    Environment environment = new Environment("development", new JdbcTransactionFactory(), new UnpooledDataSource(
+        "org.postgresql.Driver", url, null));
+    configuration.setEnvironment(environment);
+    configuration.addBulkLoader(new PgCopyBulkLoader());
+    try (InputStream inputStream = Resources.getResourceAsStream("org/apache/ibatis/submitted/bulk_insert/Mapper.xml")) {
+      new XMLMapperBuilder(inputStream, configuration,
+          "org/apache/ibatis/submitted/bulk_insert/Mapper.xml", configuration.getSqlFragments()).parse();
+    }
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/bulk_insert/PgCreateDB.sql");
+  }
+
+  @AfterAll
+  static void tearDown() {
+    postgres.stop();
+  }
+
+  @Test
+  void shouldCopyRows() {
+    List<Item> items = Arrays.asList(new Item("a", 1, Color.RED), new Item("say \"hi\", bye", null, Color.GREEN),
+        new Item("", 3, null));
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.bulkInsert(NAMESPACE + "insertItem", items)).isEqualTo(3);
+      sqlSession.commit();
+    }
+
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Item> stored = sqlSession.selectList(NAMESPACE + "selectItems");
+      assertThat(stored).extracting(Item::getName).containsExactly("a", "say \"hi\", bye", "");
+      assertThat(stored).extracting(Item::getQuantity).containsExactly(1, null, 3);
+      assertThat(stored).extracting(Item::getColor).containsExactly(Color.RED, Color.GREEN, null);
+    }
+  }
+
+}
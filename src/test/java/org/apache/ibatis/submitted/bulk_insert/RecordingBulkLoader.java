@@ -0,0 +1,55 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.bulk_insert;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.ibatis.executor.BulkLoader;
+
+public class RecordingBulkLoader implements BulkLoader {
+
+  private String table;
+  private List<String> columns;
+  private final List<Object[]> rows = new ArrayList<>();
+
+  @Override
+  public boolean supports(Connection connection) {
+    return true;
+  }
+
+  @Override
+  public long load(Connection connection, String table, List<String> columns, Iterator<Object[]> rows) {
+    this.table = table;
+    this.columns = columns;
+    rows.forEachRemaining(this.rows::add);
+    return this.rows.size();
+  }
+
+  public String getTable() {
+    return table;
+  }
+
+  public List<String> getColumns() {
+    return columns;
+  }
+
+  public List<Object[]> getRows() {
+    return rows;
+  }
+}
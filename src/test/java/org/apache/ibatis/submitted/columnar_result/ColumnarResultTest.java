@@ -0,0 +1,127 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.columnar_result;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.Reader;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.result.ColumnarResult;
+import org.apache.ibatis.executor.result.ColumnarResult.ColumnType;
+import org.apache.ibatis.executor.result.ColumnarResultHandler;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ColumnarResultTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/columnar_result/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/columnar_result/CreateDB.sql");
+  }
+
+  @Test
+  void shouldReturnPrimitiveColumns() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.getMapper(Mapper.class).selectSales();
+
+      assertThat(result.getRowCount()).isEqualTo(6);
+      assertThat(result.getColumnNames()).containsExactly("ID", "QUANTITY", "PRICE", "AMOUNT", "REGION");
+      assertThat(result.getColumnType("id")).isEqualTo(ColumnType.LONG);
+      assertThat(result.getColumnType("quantity")).isEqualTo(ColumnType.LONG);
+      assertThat(result.getColumnType("price")).isEqualTo(ColumnType.DOUBLE);
+      assertThat(result.getColumnType("amount")).isEqualTo(ColumnType.DOUBLE);
+      assertThat(result.getColumnType("region")).isEqualTo(ColumnType.STRING);
+
+      assertThat(result.getLongs("id")).containsExactly(1, 2, 3, 4, 5, 6);
+      assertThat(result.getLongs("quantity")).containsExactly(10, 0, 30, 40, 50, 60);
+      assertThat(result.isNull("quantity", 1)).isTrue();
+      assertThat(result.isNull("quantity", 2)).isFalse();
+      assertThat(result.getDoubles("price")).containsExactly(1.5, 2.25, 0.0, 4.0, 5.5, 6.0);
+      assertThat(result.isNull("price", 2)).isTrue();
+      assertThat(result.getDoubles("amount")).containsExactly(15.0, 22.5, 45.0, 0.0, 55.25, 60.0);
+      assertThat(result.isNull("amount", 3)).isTrue();
+    }
+  }
+
+  @Test
+  void shouldDictionaryEncodeStringColumns() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.getMapper(Mapper.class).selectSales();
+
+      assertThat(result.getDictionary("region")).containsExactly("north", "south", "east");
+      assertThat(result.getCodes("region")).containsExactly(0, 1, 0, ColumnarResult.NULL_CODE, 2, 1);
+      assertThat(result.getString("region", 4)).isEqualTo("east");
+      assertThat(result.getString("region", 3)).isNull();
+      assertThat(result.isNull("region", 3)).isTrue();
+    }
+  }
+
+  @Test
+  void shouldApplyRowBounds() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.getMapper(Mapper.class).selectSales(new RowBounds(2, 3));
+
+      assertThat(result.getRowCount()).isEqualTo(3);
+      assertThat(result.getLongs("id")).containsExactly(3, 4, 5);
+    }
+  }
+
+  @Test
+  void shouldReadAnnotatedStatement() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.getMapper(Mapper.class).selectTotalsByRegion();
+
+      assertThat(result.getDictionary("region")).containsExactly("east", "north", "south");
+      assertThat(result.getColumnType("total")).isNotEqualTo(ColumnType.STRING);
+    }
+  }
+
+  @Test
+  void shouldWorkAsResultHandler() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResultHandler handler = new ColumnarResultHandler();
+      sqlSession.select("org.apache.ibatis.submitted.columnar_result.Mapper.selectSales", handler);
+
+      assertThat(handler.getResult().getRowCount()).isEqualTo(6);
+    }
+  }
+
+  @Test
+  void shouldRejectAccessWithWrongType() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.getMapper(Mapper.class).selectSales();
+
+      assertThrows(ExecutorException.class, () -> result.getLongs("price"));
+      assertThrows(ExecutorException.class, () -> result.getDoubles("missing"));
+    }
+  }
+
+}
@@ -0,0 +1,33 @@
+--
+--    Copyright 2009-2019 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+drop table sales if exists;
+
+create table sales (
+  id bigint,
+  quantity int,
+  price double,
+  amount decimal(10,2),
+  region varchar(20)
+);
+
+insert into sales (id, quantity, price, amount, region) values
+(1, 10, 1.5, 15.00, 'north'),
+(2, null, 2.25, 22.50, 'south'),
+(3, 30, null, 45.00, 'north'),
+(4, 40, 4.0, null, null),
+(5, 50, 5.5, 55.25, 'east'),
+(6, 60, 6.0, 60.00, 'south');
@@ -0,0 +1,162 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.composed_plugins;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.Reader;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.executor.CachingExecutor;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.submitted.composed_plugins.SupportClasses.DelegatingQueryInterceptor;
+import org.apache.ibatis.submitted.composed_plugins.SupportClasses.FailingInterceptor;
+import org.apache.ibatis.submitted.composed_plugins.SupportClasses.PrepareInterceptor;
+import org.apache.ibatis.submitted.composed_plugins.SupportClasses.QueryInterceptor;
+import org.apache.ibatis.submitted.composed_plugins.SupportClasses.UnannotatedInterceptor;
+import org.apache.ibatis.transaction.Transaction;
+import org.apache.ibatis.transaction.jdbc.JdbcTransaction;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ComposedPluginsTest {
+
+  private static final String GENERATED_SUFFIX = "$$MyBatisPlugin";
+
+  private SqlSessionFactory sqlSessionFactory;
+  private final List<String> log = new ArrayList<>();
+
+  @BeforeAll
+  static void initDatabase() throws Exception {
+    BaseDataTest.runScript(buildSqlSessionFactory().getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/composed_plugins/CreateDB.sql");
+  }
+
+  @BeforeEach
+  void setUp() throws Exception {
+    sqlSessionFactory = buildSqlSessionFactory();
+  }
+
+  private static SqlSessionFactory buildSqlSessionFactory() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/composed_plugins/mybatis-config.xml")) {
+      return new SqlSessionFactoryBuilder().build(reader);
+    }
+  }
+
+  @Test
+  void shouldWrapTargetsOnceInInterceptorOrder() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    assertThat(configuration.isComposedPluginsEnabled()).isTrue();
+    configuration.addInterceptor(new QueryInterceptor("a", log));
+    configuration.addInterceptor(new QueryInterceptor("b", log));
+    configuration.addInterceptor(new PrepareInterceptor("c", log));
+
+    assertThat(getName()).isEqualTo("User1");
+    List<String> composed = new ArrayList<>(log);
+    assertThat(composed).containsExactly("b:query", "a:query", "c:prepare");
+    Executor executor = configuration.newExecutor(newTransaction());
+    assertThat(executor.getClass().getName()).endsWith(GENERATED_SUFFIX);
+
+    // 与每个拦截器一层的代理顺序相同
+    configuration.setComposedPluginsEnabled(false);
+    log.clear();
+    assertThat(getName()).isEqualTo("User1");
+    assertThat(log).isEqualTo(composed);
+    assertThat(Proxy.isProxyClass(configuration.newExecutor(newTransaction()).getClass())).isTrue();
+  }
+
+  @Test
+  void shouldPassInnerLayerAsInvocationTarget() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    QueryInterceptor inner = new QueryInterceptor("inner", log);
+    QueryInterceptor outer = new QueryInterceptor("outer", log);
+    configuration.addInterceptor(inner);
+    configuration.addInterceptor(outer);
+
+    assertThat(getName()).isEqualTo("User1");
+    assertThat(inner.lastTarget).isInstanceOf(CachingExecutor.class);
+    assertThat(outer.lastTarget).isInstanceOf(Executor.class);
+    assertThat(outer.lastTarget.getClass().getName()).endsWith(GENERATED_SUFFIX);
+  }
+
+  @Test
+  void shouldApplyInnerInterceptorsWhenTargetIsCalledDirectly() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.addInterceptor(new QueryInterceptor("inner", log));
+    configuration.addInterceptor(new DelegatingQueryInterceptor("outer", log));
+
+    assertThat(getName()).isEqualTo("User1");
+    assertThat(log).containsExactly("outer:query", "inner:query");
+  }
+
+  @Test
+  void shouldCallNotInterceptedMethodsDirectly() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.addInterceptor(new QueryInterceptor("a", log));
+
+    Transaction transaction = newTransaction();
+    Executor executor = configuration.newExecutor(transaction);
+    assertThat(executor.getTransaction()).isSameAs(transaction);
+    assertThat(executor.isClosed()).isFalse();
+    assertThat(executor.toString()).isNotNull();
+    assertThat(log).isEmpty();
+  }
+
+  @Test
+  void shouldThrowExceptionsOfInterceptors() {
+    sqlSessionFactory.getConfiguration().addInterceptor(new FailingInterceptor());
+
+    assertThatThrownBy(this::getName)
+        .isInstanceOf(PersistenceException.class)
+        .hasCauseInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void shouldUsePluginMethodOfInterceptorsWithoutIntercepts() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    UnannotatedInterceptor unannotated = new UnannotatedInterceptor();
+    configuration.addInterceptor(unannotated);
+    configuration.addInterceptor(new QueryInterceptor("a", log));
+
+    Executor executor = configuration.newExecutor(newTransaction());
+    assertThat(unannotated.pluginCalls).isEqualTo(1);
+    assertThat(Proxy.isProxyClass(executor.getClass())).isTrue();
+    assertThat(getName()).isEqualTo("User1");
+    assertThat(log).containsExactly("a:query");
+  }
+
+  private String getName() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      return sqlSession.getMapper(Mapper.class).getName(1);
+    }
+  }
+
+  private Transaction newTransaction() {
+    return new JdbcTransaction(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(), null, false);
+  }
+
+}
@@ -0,0 +1,149 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.composed_plugins;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Plugin;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+public class SupportClasses {
+
+  abstract static class RecordingInterceptor implements Interceptor {
+
+    private final String name;
+    private final List<String> log;
+    Object lastTarget;
+
+    RecordingInterceptor(String name, List<String> log) {
+      this.name = name;
+      this.log = log;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      record(invocation);
+      return invocation.proceed();
+    }
+
+    void record(Invocation invocation) {
+      log.add(name + ":" + invocation.getMethod().getName());
+      lastTarget = invocation.getTarget();
+    }
+
+    @Override
+    public Object plugin(Object target) {
+      return Plugin.wrap(target, this);
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+    }
+
+  }
+
+  @Intercepts(@Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}))
+  public static class QueryInterceptor extends RecordingInterceptor {
+
+    public QueryInterceptor(String name, List<String> log) {
+      super(name, log);
+    }
+
+  }
+
+  @Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class}))
+  public static class PrepareInterceptor extends RecordingInterceptor {
+
+    public PrepareInterceptor(String name, List<String> log) {
+      super(name, log);
+    }
+
+  }
+
+  /**
+   * Calls the executor it received instead of proceeding, like pagination plugins do.
+   */
+  @Intercepts(@Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}))
+  public static class DelegatingQueryInterceptor extends RecordingInterceptor {
+
+    public DelegatingQueryInterceptor(String name, List<String> log) {
+      super(name, log);
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      record(invocation);
+      Object[] args = invocation.getArgs();
+      Executor executor = (Executor) invocation.getTarget();
+      return executor.query((MappedStatement) args[0], args[1], (RowBounds) args[2], (ResultHandler<?>) args[3]);
+    }
+
+  }
+
+  @Intercepts(@Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}))
+  public static class FailingInterceptor implements Interceptor {
+
+    @Override
+    public Object intercept(Invocation invocation) {
+      throw new IllegalStateException("failed");
+    }
+
+    @Override
+    public Object plugin(Object target) {
+      return Plugin.wrap(target, this);
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+    }
+
+  }
+
+  /**
+   * Has no @Intercepts annotation and wraps the targets itself.
+   */
+  public static class UnannotatedInterceptor implements Interceptor {
+
+    int pluginCalls;
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      return invocation.proceed();
+    }
+
+    @Override
+    public Object plugin(Object target) {
+      pluginCalls++;
+      return target;
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+    }
+
+  }
+
+}
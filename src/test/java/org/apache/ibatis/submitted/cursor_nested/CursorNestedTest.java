@@ -17,7 +17,9 @@ package org.apache.ibatis.submitted.cursor_nested;
 
 import org.apache.ibatis.BaseDataTest;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
@@ -88,6 +90,56 @@ class CursorNestedTest {
     Assertions.assertFalse(usersCursor.isOpen());
   }
 
+  @Test
+  void shouldStreamCompleteUsersWithoutResultOrdered() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setNestedResultCursorStreamingEnabled(true);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      Iterator<User> iterator = mapper.getAllUsersUnordered().iterator();
+
+      User user = iterator.next();
+      Assertions.assertEquals("User1", user.getName());
+      Assertions.assertEquals(2, user.getGroups().size());
+      Assertions.assertEquals(3, user.getRoles().size());
+
+      user = iterator.next();
+      Assertions.assertEquals("User2", user.getName());
+      Assertions.assertEquals(1, user.getGroups().size());
+      Assertions.assertEquals(3, user.getRoles().size());
+
+      user = iterator.next();
+      Assertions.assertEquals("User3", user.getName());
+      user = iterator.next();
+      Assertions.assertEquals("User4", user.getName());
+      Assertions.assertEquals(2, user.getGroups().size());
+      Assertions.assertEquals(2, user.getRoles().size());
+
+      Assertions.assertFalse(iterator.hasNext());
+    } finally {
+      configuration.setNestedResultCursorStreamingEnabled(false);
+    }
+  }
+
+  @Test
+  void shouldFailWhenStreamedRowsAreNotOrdered() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setNestedResultCursorStreamingEnabled(true);
+    configuration.setResultOrderCheckEnabled(true);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      Iterator<User> iterator = mapper.getAllUsersOrderedByGroup().iterator();
+      Assertions.assertThrows(ExecutorException.class, () -> {
+        while (iterator.hasNext()) {
+          iterator.next();
+        }
+      });
+    } finally {
+      configuration.setNestedResultCursorStreamingEnabled(false);
+      configuration.setResultOrderCheckEnabled(false);
+    }
+  }
+
   @Test
   void testCursorWithRowBound() {
     try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
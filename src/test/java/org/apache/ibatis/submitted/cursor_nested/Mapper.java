@@ -21,4 +21,8 @@ public interface Mapper {
 
   Cursor<User> getAllUsers();
 
+  Cursor<User> getAllUsersUnordered();
+
+  Cursor<User> getAllUsersOrderedByGroup();
+
 }
@@ -0,0 +1,213 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.cursor_simple;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.CursorPublisher;
+import org.apache.ibatis.cursor.CursorSubscriber;
+import org.apache.ibatis.cursor.CursorSubscription;
+import org.apache.ibatis.cursor.defaults.DefaultCursorPublisher;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class CursorPublisherTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+  private static ExecutorService executor;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/cursor_simple/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/cursor_simple/CreateDB.sql");
+    executor = Executors.newSingleThreadExecutor();
+  }
+
+  @AfterAll
+  static void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void shouldDeliverOnlyRequestedItems() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      CursorPublisher<User> publisher = sqlSession.selectCursorAsync("getAllUsers", null, executor);
+      RecordingSubscriber subscriber = new RecordingSubscriber();
+      publisher.subscribe(subscriber);
+
+      subscriber.subscription.request(2);
+      awaitExecutor();
+      Assertions.assertEquals(2, subscriber.names.size());
+      Assertions.assertEquals(1, subscriber.terminated.getCount());
+
+      subscriber.subscription.request(Long.MAX_VALUE);
+      Assertions.assertTrue(subscriber.terminated.await(5, TimeUnit.SECONDS));
+      Assertions.assertTrue(subscriber.completed);
+      Assertions.assertEquals(5, subscriber.names.size());
+      Assertions.assertEquals("User1", subscriber.names.get(0));
+      Assertions.assertNotEquals(Thread.currentThread(), subscriber.threads.get(0));
+    }
+  }
+
+  @Test
+  void shouldApplyRowBounds() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      CursorPublisher<User> publisher = sqlSession.selectCursorAsync("getAllUsers", null, new RowBounds(1, 2), executor);
+      RecordingSubscriber subscriber = new RecordingSubscriber();
+      publisher.subscribe(subscriber);
+      subscriber.subscription.request(10);
+
+      Assertions.assertTrue(subscriber.terminated.await(5, TimeUnit.SECONDS));
+      Assertions.assertTrue(subscriber.completed);
+      Assertions.assertEquals(2, subscriber.names.size());
+      Assertions.assertEquals("User2", subscriber.names.get(0));
+    }
+  }
+
+  @Test
+  void shouldStopDeliveringItemsWhenCancelled() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      CursorPublisher<User> publisher = sqlSession.selectCursorAsync("getAllUsers", null, executor);
+      RecordingSubscriber subscriber = new RecordingSubscriber();
+      publisher.subscribe(subscriber);
+
+      subscriber.subscription.request(1);
+      awaitExecutor();
+      subscriber.subscription.cancel();
+      subscriber.subscription.request(10);
+      awaitExecutor();
+
+      Assertions.assertEquals(1, subscriber.names.size());
+      Assertions.assertEquals(1, subscriber.terminated.getCount());
+    }
+  }
+
+  @Test
+  void shouldRejectSecondSubscriber() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      CursorPublisher<User> publisher = sqlSession.selectCursorAsync("getAllUsers", null, executor);
+      publisher.subscribe(new RecordingSubscriber());
+      RecordingSubscriber second = new RecordingSubscriber();
+      publisher.subscribe(second);
+
+      Assertions.assertTrue(second.error instanceof IllegalStateException);
+    }
+  }
+
+  @Test
+  void shouldSignalErrorOnNonPositiveRequest() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      CursorPublisher<User> publisher = sqlSession.selectCursorAsync("getAllUsers", null, executor);
+      RecordingSubscriber subscriber = new RecordingSubscriber();
+      publisher.subscribe(subscriber);
+      subscriber.subscription.request(0);
+
+      Assertions.assertTrue(subscriber.terminated.await(5, TimeUnit.SECONDS));
+      Assertions.assertTrue(subscriber.error instanceof IllegalArgumentException);
+    }
+  }
+
+  @Test
+  void shouldCloseCursorWhenExecutorRejects() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      AtomicReference<Cursor<User>> cursor = new AtomicReference<>();
+      AtomicInteger executions = new AtomicInteger();
+      Executor rejectingAfterFirst = command -> {
+        if (executions.getAndIncrement() > 0) {
+          throw new RejectedExecutionException("shutdown");
+        }
+        command.run();
+      };
+      CursorPublisher<User> publisher = new DefaultCursorPublisher<>(() -> {
+        cursor.set(sqlSession.selectCursor("getAllUsers"));
+        return cursor.get();
+      }, rejectingAfterFirst);
+      RecordingSubscriber subscriber = new RecordingSubscriber();
+      publisher.subscribe(subscriber);
+
+      subscriber.subscription.request(1);
+      Assertions.assertEquals(1, subscriber.names.size());
+      Assertions.assertTrue(cursor.get().isOpen());
+
+      subscriber.subscription.request(1);
+      Assertions.assertTrue(subscriber.error instanceof RejectedExecutionException);
+      Assertions.assertFalse(cursor.get().isOpen());
+      Assertions.assertEquals(1, subscriber.names.size());
+    }
+  }
+
+  private static void awaitExecutor() throws Exception {
+    executor.submit(() -> { }).get(5, TimeUnit.SECONDS);
+  }
+
+  private static class RecordingSubscriber implements CursorSubscriber<User> {
+
+    private final List<String> names = new CopyOnWriteArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private final CountDownLatch terminated = new CountDownLatch(1);
+    private volatile CursorSubscription subscription;
+    private volatile boolean completed;
+    private volatile Throwable error;
+
+    @Override
+    public void onSubscribe(CursorSubscription subscription) {
+      this.subscription = subscription;
+    }
+
+    @Override
+    public void onNext(User item) {
+      names.add(item.getName());
+      threads.add(Thread.currentThread());
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      error = throwable;
+      terminated.countDown();
+    }
+
+    @Override
+    public void onComplete() {
+      completed = true;
+      terminated.countDown();
+    }
+  }
+
+}
@@ -0,0 +1,137 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.deadline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.Reader;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.apache.ibatis.session.Deadline;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class DeadlineTest {
+
+  private static final String NAMESPACE = "org.apache.ibatis.submitted.deadline.Mapper.";
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/deadline/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/deadline/CreateDB.sql");
+  }
+
+  @Test
+  void shouldUseRemainingTimeAsQueryTimeout() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.setDeadline(Deadline.after(10, TimeUnit.SECONDS));
+      assertThat(sqlSession.<String>selectOne(NAMESPACE + "getName", 1)).isEqualTo("User1");
+      assertThat(QueryTimeoutRecorder.lastQueryTimeout).isBetween(1, 10);
+    }
+  }
+
+  @Test
+  void shouldKeepShorterStatementTimeout() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.setDeadline(Deadline.after(1, TimeUnit.MINUTES));
+      sqlSession.selectOne(NAMESPACE + "getNameWithTimeout", 1);
+      assertThat(QueryTimeoutRecorder.lastQueryTimeout).isEqualTo(5);
+    }
+  }
+
+  @Test
+  void shouldFailWithoutExecutingOnceExceeded() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.setDeadline(Deadline.after(0, TimeUnit.SECONDS));
+      assertThatThrownBy(() -> sqlSession.selectOne(NAMESPACE + "getName", 1))
+          .isInstanceOf(PersistenceException.class)
+          .hasCauseInstanceOf(SQLTimeoutException.class);
+    }
+  }
+
+  @Test
+  void shouldStopLaterStatementsOnceCancelled() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Deadline deadline = Deadline.after(1, TimeUnit.MINUTES);
+      sqlSession.setDeadline(deadline);
+      assertThat(sqlSession.<String>selectOne(NAMESPACE + "getName", 1)).isEqualTo("User1");
+
+      Thread canceller = new Thread(deadline::cancel);
+      canceller.start();
+      canceller.join();
+
+      assertThat(deadline.isCancelled()).isTrue();
+      assertThatThrownBy(() -> sqlSession.selectOne(NAMESPACE + "getName", 2))
+          .isInstanceOf(PersistenceException.class)
+          .hasMessageContaining("deadline was cancelled");
+    }
+  }
+
+  @Test
+  void shouldRestoreTimeoutOfReusedStatementWhenDeadlineIsCleared() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.REUSE)) {
+      sqlSession.setDeadline(Deadline.after(10, TimeUnit.SECONDS));
+      sqlSession.selectOne(NAMESPACE + "getName", 1);
+      assertThat(QueryTimeoutRecorder.lastQueryTimeout).isBetween(1, 10);
+
+      sqlSession.setDeadline(null);
+      sqlSession.clearCache();
+      assertThat(sqlSession.getDeadline()).isNull();
+      assertThat(sqlSession.<String>selectOne(NAMESPACE + "getName", 1)).isEqualTo("User1");
+      assertThat(QueryTimeoutRecorder.lastQueryTimeout).isEqualTo(0);
+    }
+  }
+
+  @Test
+  void shouldUnregisterStatementWhenCursorIsConsumed() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Deadline deadline = Deadline.after(1, TimeUnit.MINUTES);
+      sqlSession.setDeadline(deadline);
+      try (Cursor<String> cursor = sqlSession.selectCursor(NAMESPACE + "getNames")) {
+        assertThat(registeredStatements(deadline)).hasSize(1);
+        List<String> names = new ArrayList<>();
+        cursor.forEach(names::add);
+        assertThat(names).containsExactly("User1", "User2");
+      }
+      assertThat(registeredStatements(deadline)).isEmpty();
+    }
+  }
+
+  private static Map<?, ?> registeredStatements(Deadline deadline) {
+    return (Map<?, ?>) SystemMetaObject.forObject(deadline).getValue("statements");
+  }
+
+}
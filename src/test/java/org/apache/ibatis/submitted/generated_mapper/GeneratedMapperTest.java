@@ -0,0 +1,107 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.generated_mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.Reader;
+import java.lang.reflect.Proxy;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.binding.BindingException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class GeneratedMapperTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/generated_mapper/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/generated_mapper/CreateDB.sql");
+  }
+
+  @Test
+  void shouldUseGeneratedImplementation() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(Proxy.isProxyClass(mapper.getClass())).isFalse();
+      assertThat(mapper.getClass().getName()).isEqualTo(Mapper.class.getName() + "$$MyBatisMapper");
+      assertThat(sqlSession.getMapper(Mapper.class).getClass()).isSameAs(mapper.getClass());
+    }
+  }
+
+  @Test
+  void shouldExecuteStatements() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(mapper.getUser(1).getName()).isEqualTo("User1");
+      assertThat(mapper.findUser(2).map(User::getName)).hasValue("User2");
+      assertThat(mapper.findUser(3)).isEmpty();
+      assertThat(mapper.getUsers()).extracting(User::getName).containsExactly("User1", "User2");
+      assertThat(mapper.countByNameAndAge("User1", 30)).isEqualTo(1);
+      assertThat(mapper.countNone()).isEqualTo(0);
+      assertThat(mapper.getAge(1)).isEqualTo(30);
+      assertThat(mapper.countAll()).isEqualTo(2L);
+
+      mapper.insertUser(new User(3, "User3", 20));
+      assertThat(mapper.getUser(3).getAge()).isEqualTo(20);
+      sqlSession.rollback();
+    }
+  }
+
+  @Test
+  void shouldKeepDefaultMethodsAndObjectMethods() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(mapper.getName(1)).isEqualTo("User1");
+      assertThat(mapper).isEqualTo(mapper);
+      assertThat(mapper.toString()).isNotNull();
+    }
+  }
+
+  @Test
+  void shouldFailOnCallLikeProxy() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThatThrownBy(mapper::notMapped).isInstanceOf(BindingException.class)
+          .hasMessageContaining("Invalid bound statement (not found)");
+      // primitive return type with a null result
+      assertThatThrownBy(() -> mapper.getAge(2)).isInstanceOf(BindingException.class)
+          .hasMessageContaining("attempted to return null from a method with a primitive return type");
+    }
+  }
+
+  @Test
+  void shouldFallBackToProxyForPackagePrivateMapper() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      PackagePrivateMapper mapper = sqlSession.getMapper(PackagePrivateMapper.class);
+      assertThat(Proxy.isProxyClass(mapper.getClass())).isTrue();
+      assertThat(mapper.getName(1)).isEqualTo("User1");
+    }
+  }
+
+}
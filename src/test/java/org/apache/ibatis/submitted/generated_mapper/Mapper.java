@@ -0,0 +1,54 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.generated_mapper;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+public interface Mapper extends BaseMapper<User> {
+
+  @Select("select * from users where id = #{id}")
+  User getUser(int id);
+
+  @Select("select * from users where id = #{id}")
+  Optional<User> findUser(int id);
+
+  @Select("select * from users order by id")
+  List<User> getUsers();
+
+  @Select("select count(*) from users where name = #{name} and age = #{age}")
+  int countByNameAndAge(@Param("name") String name, @Param("age") Integer age);
+
+  @Select("select count(*) from users where id = -1")
+  Integer countNone();
+
+  @Select("select age from users where id = #{id}")
+  int getAge(int id);
+
+  @Insert("insert into users (id, name, age) values (#{id}, #{name}, #{age})")
+  void insertUser(User user);
+
+  User notMapped();
+
+  default String getName(int id) {
+    return getUser(id).getName();
+  }
+
+}
@@ -0,0 +1,145 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.indexed_param_map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.binding.BindingException;
+import org.apache.ibatis.binding.IndexedParamMap;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.reflection.ParamNameResolver;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class IndexedParamMapTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/indexed_param_map/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/indexed_param_map/CreateDB.sql");
+  }
+
+  @Test
+  void shouldBindNamedAndGenericParameters() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(mapper.getName(1, 30)).isEqualTo("User1");
+      assertThat(mapper.getName(1, 40)).isNull();
+      assertThat(ParameterRecorder.lastParameter).isInstanceOf(IndexedParamMap.class);
+    }
+  }
+
+  @Test
+  void shouldEvaluateDynamicSql() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(mapper.findIds(null, Arrays.asList(1, 3))).containsExactly(1, 3);
+      assertThat(mapper.findIds("User2", null)).containsExactly(2);
+      assertThat(mapper.findIds("User2", Arrays.asList(1, 3))).isEmpty();
+    }
+  }
+
+  @Test
+  void shouldAssignGeneratedKeys() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      User user = new User(null, "User10", null);
+      assertThat(mapper.insert(user, 60)).isEqualTo(1);
+      assertThat(user.getId()).isNotNull();
+      assertThat(mapper.findIds("User10", null)).containsExactly(user.getId());
+      sqlSession.rollback();
+    }
+  }
+
+  @Test
+  void shouldReportUnknownParameter() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThatThrownBy(() -> mapper.countUnknown(1, "User1"))
+          .isInstanceOf(PersistenceException.class)
+          .hasMessageContaining("Parameter 'unknown' not found. Available parameters are [")
+          .hasMessageContaining("param2");
+    }
+  }
+
+  @Test
+  void shouldReadParametersAddedByPlugins() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(mapper.countWithMinId("User1", 30)).isEqualTo(2);
+    }
+  }
+
+  @Test
+  void shouldBehaveAsParamMap() throws Exception {
+    ParamNameResolver resolver = new ParamNameResolver(sqlSessionFactory.getConfiguration(),
+        Mapper.class.getMethod("getName", int.class, int.class));
+    Map<String, Object> expected = new HashMap<>();
+    expected.put("id", 1);
+    expected.put("age", 30);
+    expected.put("param1", 1);
+    expected.put("param2", 30);
+
+    IndexedParamMap params = (IndexedParamMap) resolver.getNamedParams(new Object[] {1, 30});
+    assertThat(params.size()).isEqualTo(4);
+    assertThat(params.containsKey("param2")).isTrue();
+    assertThat(params.get("age")).isEqualTo(30);
+    assertThat(params.valueAt(params.getLayout().indexOf("param1"))).isEqualTo(1);
+    assertThat(params).isEqualTo(expected);
+    assertThat(serializeAndDeserialize(params)).isEqualTo(expected);
+
+    IndexedParamMap modified = (IndexedParamMap) resolver.getNamedParams(new Object[] {1, 30});
+    modified.put("age", 40);
+    modified.remove("param1");
+    assertThat(modified.get("age")).isEqualTo(40);
+    assertThat(modified.valueAt(modified.getLayout().indexOf("age"))).isEqualTo(40);
+    assertThat(modified.containsKey("param1")).isFalse();
+    assertThatThrownBy(() -> modified.get("param1")).isInstanceOf(BindingException.class);
+    assertThat(modified.keySet()).containsExactlyInAnyOrder("id", "age", "param2");
+  }
+
+  private static Object serializeAndDeserialize(Object object) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (ObjectOutputStream oos = new ObjectOutputStream(out)) {
+      oos.writeObject(object);
+    }
+    try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+      return ois.readObject();
+    }
+  }
+
+}
@@ -0,0 +1,55 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.indexed_param_map;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+public interface Mapper {
+
+  @Select("select name from users where id = #{id} and age = #{param2}")
+  String getName(@Param("id") int id, @Param("age") int age);
+
+  @Select({"<script>",
+      "select id from users",
+      "<where>",
+      "  <if test='name != null'>name = #{name}</if>",
+      "  <if test='ids != null'>and id in",
+      "    <foreach item='item' collection='ids' open='(' separator=',' close=')'>#{item}</foreach>",
+      "  </if>",
+      "</where>",
+      "order by id",
+      "</script>"})
+  List<Integer> findIds(@Param("name") String name, @Param("ids") List<Integer> ids);
+
+  @Insert("insert into users (name, age) values (#{user.name}, #{age})")
+  @Options(useGeneratedKeys = true, keyProperty = "user.id")
+  int insert(@Param("user") User user, @Param("age") int age);
+
+  @Select("select count(*) from users where id = #{id} and name = #{unknown}")
+  int countUnknown(@Param("id") int id, @Param("name") String name);
+
+  /**
+   * minId is added by {@link ParameterRecorder}.
+   */
+  @Select("select count(*) from users where id >= #{minId} and age >= #{age}")
+  int countWithMinId(@Param("name") String name, @Param("age") int age);
+
+}
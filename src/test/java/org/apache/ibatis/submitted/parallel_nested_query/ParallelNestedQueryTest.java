@@ -0,0 +1,157 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.parallel_nested_query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Blog;
+import org.apache.ibatis.domain.blog.Post;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ParallelNestedQueryTest extends BaseDataTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+  private static ThreadPoolExecutor nestedQueryExecutorService;
+  private static final AtomicInteger executedTasks = new AtomicInteger();
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/parallel_nested_query/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    nestedQueryExecutorService = new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>()) {
+      @Override
+      protected void beforeExecute(Thread t, Runnable r) {
+        executedTasks.incrementAndGet();
+      }
+    };
+    sqlSessionFactory.getConfiguration().setNestedQueryExecutorService(nestedQueryExecutorService);
+
+    createBlogDataSource();
+  }
+
+  @AfterAll
+  static void tearDown() {
+    nestedQueryExecutorService.shutdownNow();
+  }
+
+  @BeforeEach
+  void resetCounter() {
+    executedTasks.set(0);
+  }
+
+  @Test
+  void shouldLoadNestedSelectsOnTheExecutorService() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Blog> blogs = sqlSession.selectList("org.apache.ibatis.submitted.parallel_nested_query.Mapper.selectBlogs");
+      assertThat(blogs).hasSize(2);
+      assertThat(blogs.get(0).getAuthor().getUsername()).isEqualTo("jim");
+      assertThat(blogs.get(0).getPosts()).extracting(Post::getId).containsExactly(1, 2);
+      assertThat(blogs.get(1).getAuthor().getUsername()).isEqualTo("sally");
+      assertThat(blogs.get(1).getPosts()).extracting(Post::getId).containsExactly(3, 4);
+      assertThat(executedTasks.get()).isEqualTo(4);
+    }
+  }
+
+  @Test
+  void shouldExecuteIdenticalNestedSelectsOnlyOnce() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Post> posts = sqlSession.selectList("org.apache.ibatis.submitted.parallel_nested_query.Mapper.selectPosts");
+      assertThat(posts).hasSize(5);
+      assertThat(posts).extracting(post -> post.getAuthor().getUsername())
+          .containsExactly("jim", "jim", "sally", "sally", "jim");
+      assertThat(posts.get(0).getAuthor()).isSameAs(posts.get(4).getAuthor());
+      assertThat(executedTasks.get()).isEqualTo(2);
+    }
+  }
+
+  @Test
+  void shouldPutNestedSelectResultsIntoLocalCache() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Blog> blogs = sqlSession.selectList("org.apache.ibatis.submitted.parallel_nested_query.Mapper.selectBlogs");
+      Author author = sqlSession.selectOne("org.apache.ibatis.submitted.parallel_nested_query.Mapper.selectAuthor", 101);
+      assertThat(author).isSameAs(blogs.get(0).getAuthor());
+      assertThat(executedTasks.get()).isEqualTo(4);
+    }
+  }
+
+  @Test
+  void shouldLoadNestedSelectsSequentiallyAfterUncommittedWrite() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Map<String, Object> param = new HashMap<>();
+      param.put("id", 101);
+      param.put("username", "jimmy");
+      sqlSession.update("org.apache.ibatis.submitted.parallel_nested_query.Mapper.updateAuthorUsername", param);
+      List<Blog> blogs = sqlSession.selectList("org.apache.ibatis.submitted.parallel_nested_query.Mapper.selectBlogs");
+      assertThat(blogs.get(0).getAuthor().getUsername()).isEqualTo("jimmy");
+      assertThat(executedTasks.get()).isEqualTo(0);
+
+      // 回滚后重新并行执行
+      sqlSession.rollback(true);
+      sqlSession.selectList("org.apache.ibatis.submitted.parallel_nested_query.Mapper.selectBlogs");
+      assertThat(executedTasks.get()).isEqualTo(4);
+    }
+  }
+
+  @Test
+  void shouldRunNestedSelectsOnCallerWhenQueueIsFull() throws Exception {
+    ExecutorService executorService = new Configuration().getNestedQueryExecutorService();
+    try {
+      assertThat(((ThreadPoolExecutor) executorService).getQueue().remainingCapacity()).isEqualTo(16);
+      executorService.shutdown();
+      assertThat(executorService.submit(() -> Thread.currentThread()).get()).isSameAs(Thread.currentThread());
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  @Test
+  void shouldPropagateNestedSelectFailures() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThrows(PersistenceException.class,
+          () -> sqlSession.selectList("org.apache.ibatis.submitted.parallel_nested_query.Mapper.selectBlogsWithBrokenAuthor"));
+    }
+    // 失败时等待其它内嵌查询结束，之后不会再有任务执行
+    executedTasks.set(0);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.<Blog>selectList("org.apache.ibatis.submitted.parallel_nested_query.Mapper.selectBlogs")).hasSize(2);
+      assertThat(executedTasks.get()).isEqualTo(4);
+    }
+  }
+
+}
@@ -0,0 +1,124 @@
+--
+--    Copyright 2009-2019 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+drop table items if exists;
+
+create table items (
+  id int,
+  name varchar(20)
+);
+
+insert into items (id, name) values
+(1, 'Item1'),
+(2, 'Item2'),
+(3, 'Item3'),
+(4, 'Item4'),
+(5, 'Item5'),
+(6, 'Item6'),
+(7, 'Item7'),
+(8, 'Item8'),
+(9, 'Item9'),
+(10, 'Item10'),
+(11, 'Item11'),
+(12, 'Item12'),
+(13, 'Item13'),
+(14, 'Item14'),
+(15, 'Item15'),
+(16, 'Item16'),
+(17, 'Item17'),
+(18, 'Item18'),
+(19, 'Item19'),
+(20, 'Item20'),
+(21, 'Item21'),
+(22, 'Item22'),
+(23, 'Item23'),
+(24, 'Item24'),
+(25, 'Item25'),
+(26, 'Item26'),
+(27, 'Item27'),
+(28, 'Item28'),
+(29, 'Item29'),
+(30, 'Item30'),
+(31, 'Item31'),
+(32, 'Item32'),
+(33, 'Item33'),
+(34, 'Item34'),
+(35, 'Item35'),
+(36, 'Item36'),
+(37, 'Item37'),
+(38, 'Item38'),
+(39, 'Item39'),
+(40, 'Item40'),
+(41, 'Item41'),
+(42, 'Item42'),
+(43, 'Item43'),
+(44, 'Item44'),
+(45, 'Item45'),
+(46, 'Item46'),
+(47, 'Item47'),
+(48, 'Item48'),
+(49, 'Item49'),
+(50, 'Item50'),
+(51, 'Item51'),
+(52, 'Item52'),
+(53, 'Item53'),
+(54, 'Item54'),
+(55, 'Item55'),
+(56, 'Item56'),
+(57, 'Item57'),
+(58, 'Item58'),
+(59, 'Item59'),
+(60, 'Item60'),
+(61, 'Item61'),
+(62, 'Item62'),
+(63, 'Item63'),
+(64, 'Item64'),
+(65, 'Item65'),
+(66, 'Item66'),
+(67, 'Item67'),
+(68, 'Item68'),
+(69, 'Item69'),
+(70, 'Item70'),
+(71, 'Item71'),
+(72, 'Item72'),
+(73, 'Item73'),
+(74, 'Item74'),
+(75, 'Item75'),
+(76, 'Item76'),
+(77, 'Item77'),
+(78, 'Item78'),
+(79, 'Item79'),
+(80, 'Item80'),
+(81, 'Item81'),
+(82, 'Item82'),
+(83, 'Item83'),
+(84, 'Item84'),
+(85, 'Item85'),
+(86, 'Item86'),
+(87, 'Item87'),
+(88, 'Item88'),
+(89, 'Item89'),
+(90, 'Item90'),
+(91, 'Item91'),
+(92, 'Item92'),
+(93, 'Item93'),
+(94, 'Item94'),
+(95, 'Item95'),
+(96, 'Item96'),
+(97, 'Item97'),
+(98, 'Item98'),
+(99, 'Item99'),
+(100, 'Item100');
@@ -0,0 +1,99 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.partitioned_query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.Reader;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.PartitionedQuery;
+import org.apache.ibatis.session.PartitionedResult;
+import org.apache.ibatis.session.QueryPartition;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class PartitionedQueryTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/partitioned_query/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/partitioned_query/CreateDB.sql");
+  }
+
+  @Test
+  void shouldMergeModuloPartitions() {
+    PartitionedQuery query = new PartitionedQuery(sqlSessionFactory);
+    PartitionedResult<Item> result = query.selectList("selectByModulo", 50, QueryPartition.byModulo(4));
+
+    assertThat(result.getResultList()).hasSize(50);
+    assertThat(result.getResultList()).extracting(Item::getId).doesNotHaveDuplicates();
+    assertThat(result.getPartitionStatistics()).hasSize(4);
+    assertThat(result.getPartitionStatistics()).extracting(s -> s.getRowCount()).containsExactly(12, 13, 13, 12);
+    assertThat(result.getResultList().get(0).getId()).isEqualTo(4);
+  }
+
+  @Test
+  void shouldStreamRangePartitionsToHandler() {
+    PartitionedQuery query = new PartitionedQuery(sqlSessionFactory);
+    Set<Integer> ids = new TreeSet<>();
+    PartitionedResult<Object> result = query.select("selectByRange", null, QueryPartition.byRange(1, 101, 3),
+        context -> ids.add(((Item) context.getResultObject()).getId()));
+
+    assertThat(ids).hasSize(100);
+    assertThat(result.getResultList()).isEmpty();
+    assertThat(result.getPartitionStatistics()).extracting(s -> s.getRowCount()).containsExactly(34, 33, 33);
+  }
+
+  @Test
+  void shouldSplitRangeIntoContiguousPartitions() {
+    List<QueryPartition> partitions = QueryPartition.byRange(0, 10, 3);
+    assertThat(partitions).extracting(QueryPartition::getLowerBound).containsExactly(0L, 4L, 7L);
+    assertThat(partitions).extracting(QueryPartition::getUpperBound).containsExactly(4L, 7L, 10L);
+  }
+
+  @Test
+  void shouldSplitRangeWithoutOverflow() {
+    List<QueryPartition> partitions = QueryPartition.byRange(Long.MAX_VALUE - 10, Long.MAX_VALUE, 4);
+    assertThat(partitions).extracting(QueryPartition::getUpperBound)
+        .containsExactly(Long.MAX_VALUE - 7, Long.MAX_VALUE - 4, Long.MAX_VALUE - 2, Long.MAX_VALUE);
+
+    partitions = QueryPartition.byRange(Long.MIN_VALUE, Long.MAX_VALUE, 2);
+    assertThat(partitions).extracting(QueryPartition::getLowerBound).containsExactly(Long.MIN_VALUE, 0L);
+    assertThat(partitions).extracting(QueryPartition::getUpperBound).containsExactly(0L, Long.MAX_VALUE);
+  }
+
+  @Test
+  void shouldPropagatePartitionFailure() {
+    PartitionedQuery query = new PartitionedQuery(sqlSessionFactory);
+    assertThrows(PersistenceException.class, () -> query.selectList("selectFromMissingTable", null, QueryPartition.byModulo(2)));
+  }
+
+}
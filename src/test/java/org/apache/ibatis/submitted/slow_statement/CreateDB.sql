@@ -0,0 +1,32 @@
+--
+--    Copyright 2009-2019 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+drop table items if exists;
+drop table generated_items if exists;
+
+create table items (
+  id int,
+  name varchar(20)
+);
+
+create table generated_items (
+  id int generated by default as identity primary key,
+  name varchar(20)
+);
+
+insert into items (id, name) values (1, 'a');
+insert into items (id, name) values (2, 'b');
+insert into items (id, name) values (3, 'c');
@@ -0,0 +1,167 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.slow_statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.statistics.SlowStatement;
+import org.apache.ibatis.executor.statistics.SlowStatementBuffer;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SlowStatementTest {
+
+  private static final String NAMESPACE = "org.apache.ibatis.submitted.slow_statement.Mapper.";
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/slow_statement/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/slow_statement/CreateDB.sql");
+  }
+
+  @AfterEach
+  void tearDown() {
+    ParameterDelay.delayMillis = 0;
+  }
+
+  @Test
+  void shouldCaptureStatementsAboveGlobalThreshold() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setSlowStatementThreshold(20);
+    List<SlowStatement> sunk = new ArrayList<>();
+    configuration.setSlowStatementSink(sunk::add);
+
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.selectList(NAMESPACE + "selectNames", "z");
+      ParameterDelay.delayMillis = 40;
+      sqlSession.selectList(NAMESPACE + "selectNames", "b");
+      Map<String, Object> param = new HashMap<>();
+      param.put("id", 1);
+      param.put("name", "x");
+      sqlSession.update(NAMESPACE + "renameItem", param);
+    }
+
+    List<SlowStatement> captured = configuration.getSlowStatementBuffer().getSlowStatements();
+    assertThat(captured).hasSize(2);
+    assertThat(sunk).containsExactlyElementsOf(captured);
+
+    SlowStatement select = captured.get(0);
+    assertThat(select.getStatementId()).isEqualTo(NAMESPACE + "selectNames");
+    assertThat(select.getSql()).contains("select name from items");
+    assertThat(select.getParameters()).containsExactly("b");
+    assertThat(select.getRows()).isEqualTo(2);
+    assertThat(select.getElapsedMillis()).isGreaterThanOrEqualTo(40);
+
+    SlowStatement update = captured.get(1);
+    assertThat(update.getStatementId()).isEqualTo(NAMESPACE + "renameItem");
+    assertThat(update.getParameters()).containsExactly("x", 1);
+    assertThat(update.getRows()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldUseStatementThresholdOverGlobalSetting() {
+    ParameterDelay.delayMillis = 40;
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.selectList(NAMESPACE + "selectNames", "a");
+      sqlSession.selectList(NAMESPACE + "selectNamesWithThreshold", "a");
+      sqlSession.getMapper(AnnotatedMapper.class).selectName(1);
+    }
+
+    assertThat(sqlSessionFactory.getConfiguration().getSlowStatementBuffer().getSlowStatements())
+        .extracting(SlowStatement::getStatementId)
+        .containsExactly(NAMESPACE + "selectNamesWithThreshold", AnnotatedMapper.class.getName() + ".selectName");
+  }
+
+  @Test
+  void shouldCaptureParametersAsBound() {
+    sqlSessionFactory.getConfiguration().setSlowStatementThreshold(20);
+    ParameterDelay.delayMillis = 40;
+    Map<String, Object> param = new HashMap<>();
+    param.put("id", null);
+    param.put("name", "g");
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.insert(NAMESPACE + "insertGeneratedItem", param);
+    }
+
+    assertThat(param.get("id")).isNotNull();
+    assertThat(sqlSessionFactory.getConfiguration().getSlowStatementBuffer().getSlowStatements().get(0).getParameters())
+        .containsExactly(null, "g");
+  }
+
+  @Test
+  void shouldTruncateLongStringParameters() {
+    sqlSessionFactory.getConfiguration().setSlowStatementThreshold(20);
+    ParameterDelay.delayMillis = 40;
+    StringBuilder name = new StringBuilder();
+    for (int i = 0; i < 300; i++) {
+      name.append('n');
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.selectList(NAMESPACE + "selectNames", name.toString());
+    }
+
+    Object captured = sqlSessionFactory.getConfiguration().getSlowStatementBuffer().getSlowStatements().get(0)
+        .getParameters().get(0);
+    assertThat((String) captured).hasSize(200 + "...(300 chars)".length()).endsWith("...(300 chars)");
+  }
+
+  @Test
+  void shouldIgnoreFailingSink() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setSlowStatementThreshold(20);
+    configuration.setSlowStatementSink(slowStatement -> {
+      throw new IllegalStateException("sink failed");
+    });
+    ParameterDelay.delayMillis = 40;
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.<String>selectList(NAMESPACE + "selectNames", "b")).hasSize(2);
+    }
+
+    assertThat(configuration.getSlowStatementBuffer().getSlowStatements()).hasSize(1);
+  }
+
+  @Test
+  void shouldKeepMostRecentStatementsInBuffer() {
+    SlowStatementBuffer buffer = new SlowStatementBuffer(2);
+    for (int i = 0; i < 3; i++) {
+      buffer.accept(new SlowStatement("s" + i, "sql", new ArrayList<>(), i, 0, 0));
+    }
+    assertThat(buffer.getSlowStatements()).extracting(SlowStatement::getStatementId).containsExactly("s1", "s2");
+
+    buffer.clear();
+    assertThat(buffer.getSlowStatements()).isEmpty();
+  }
+
+}
@@ -0,0 +1,156 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.statement_filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.statement.RoutingStatementHandler;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.InterceptorChain;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.submitted.statement_filter.SupportClasses.CountQueryInterceptor;
+import org.apache.ibatis.submitted.statement_filter.SupportClasses.GetNamePrepareInterceptor;
+import org.apache.ibatis.submitted.statement_filter.SupportClasses.PredicateInterceptor;
+import org.apache.ibatis.submitted.statement_filter.SupportClasses.PrepareInterceptor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StatementFilterTest {
+
+  private static final String GET_NAME = "org.apache.ibatis.submitted.statement_filter.Mapper.getName";
+  private static final String COUNT_USERS = "org.apache.ibatis.submitted.statement_filter.Mapper.countUsers";
+
+  private SqlSessionFactory sqlSessionFactory;
+  private final List<String> log = new ArrayList<>();
+
+  @BeforeAll
+  static void initDatabase() throws Exception {
+    BaseDataTest.runScript(buildSqlSessionFactory().getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/statement_filter/CreateDB.sql");
+  }
+
+  @BeforeEach
+  void setUp() throws Exception {
+    sqlSessionFactory = buildSqlSessionFactory();
+  }
+
+  private static SqlSessionFactory buildSqlSessionFactory() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/statement_filter/mybatis-config.xml")) {
+      return new SqlSessionFactoryBuilder().build(reader);
+    }
+  }
+
+  @Test
+  void shouldInterceptOnlyMatchingStatements() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.addInterceptor(new GetNamePrepareInterceptor(log));
+    configuration.addInterceptor(new CountQueryInterceptor(log));
+
+    callMapper();
+    assertThat(log).containsExactly(
+        "GetNamePrepareInterceptor:prepare",
+        "CountQueryInterceptor:query:" + COUNT_USERS);
+  }
+
+  @Test
+  void shouldEvaluatePredicateOncePerStatement() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    PredicateInterceptor interceptor = new PredicateInterceptor(log);
+    configuration.addInterceptor(interceptor);
+
+    callMapper();
+    callMapper();
+    assertThat(interceptor.appliesToCalls).isEqualTo(2);
+    assertThat(log).containsExactly(
+        "PredicateInterceptor:query:" + COUNT_USERS, "PredicateInterceptor:prepare",
+        "PredicateInterceptor:query:" + COUNT_USERS, "PredicateInterceptor:prepare");
+  }
+
+  @Test
+  void shouldNotWrapHandlersOfStatementsWithoutApplicableInterceptors() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.addInterceptor(new GetNamePrepareInterceptor(log));
+
+    assertThat(newStatementHandler(COUNT_USERS)).isInstanceOf(RoutingStatementHandler.class);
+    assertThat(Proxy.isProxyClass(newStatementHandler(GET_NAME).getClass())).isTrue();
+  }
+
+  @Test
+  void shouldKeepInterceptorsWithoutFilterOnAllStatements() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    PrepareInterceptor prepare = new PrepareInterceptor(log);
+    configuration.addInterceptor(prepare);
+    InterceptorChain chain = configuration.getInterceptorChain();
+    assertThat(chain.getInterceptors(configuration.getMappedStatement(COUNT_USERS))).containsExactly(prepare);
+
+    GetNamePrepareInterceptor getName = new GetNamePrepareInterceptor(log);
+    configuration.addInterceptor(getName);
+    assertThat(chain.getInterceptors(configuration.getMappedStatement(COUNT_USERS))).containsExactly(prepare);
+    assertThat(chain.getInterceptors(configuration.getMappedStatement(GET_NAME))).containsExactly(prepare, getName);
+  }
+
+  @Test
+  void shouldApplyFiltersInComposedMode() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setComposedPluginsEnabled(true);
+    configuration.addInterceptor(new GetNamePrepareInterceptor(log));
+    configuration.addInterceptor(new CountQueryInterceptor(log));
+    configuration.addInterceptor(new PrepareInterceptor(log));
+
+    callMapper();
+    assertThat(log).containsExactly(
+        "PrepareInterceptor:prepare", "GetNamePrepareInterceptor:prepare",
+        "CountQueryInterceptor:query:" + COUNT_USERS, "PrepareInterceptor:prepare");
+    assertThat(newStatementHandler(COUNT_USERS).getClass().getName()).endsWith("$$MyBatisPlugin");
+  }
+
+  @Test
+  void shouldMatchInterceptorsOutsideTheChain() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    InterceptorChain chain = configuration.getInterceptorChain();
+    CountQueryInterceptor interceptor = new CountQueryInterceptor(log);
+
+    assertThat(chain.isApplicable(interceptor, configuration.getMappedStatement(COUNT_USERS))).isTrue();
+    assertThat(chain.isApplicable(interceptor, configuration.getMappedStatement(GET_NAME))).isFalse();
+  }
+
+  private void callMapper() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(mapper.getName(1)).isEqualTo("User1");
+      assertThat(mapper.countUsers()).isEqualTo(2);
+    }
+  }
+
+  private StatementHandler newStatementHandler(String id) {
+    MappedStatement mappedStatement = sqlSessionFactory.getConfiguration().getMappedStatement(id);
+    return sqlSessionFactory.getConfiguration().newStatementHandler(null, mappedStatement, null, RowBounds.DEFAULT, null, null);
+  }
+
+}
@@ -0,0 +1,112 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.statement_filter;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Plugin;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+public class SupportClasses {
+
+  abstract static class RecordingInterceptor implements Interceptor {
+
+    private final List<String> log;
+
+    RecordingInterceptor(List<String> log) {
+      this.log = log;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      String name = getClass().getSimpleName() + ":" + invocation.getMethod().getName();
+      if (invocation.getArgs()[0] instanceof MappedStatement) {
+        name += ":" + ((MappedStatement) invocation.getArgs()[0]).getId();
+      }
+      log.add(name);
+      return invocation.proceed();
+    }
+
+    @Override
+    public Object plugin(Object target) {
+      return Plugin.wrap(target, this);
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+    }
+
+  }
+
+  @Intercepts(value = @Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class}),
+      statements = "org.apache.ibatis.submitted.statement_filter.Mapper.getName")
+  public static class GetNamePrepareInterceptor extends RecordingInterceptor {
+
+    public GetNamePrepareInterceptor(List<String> log) {
+      super(log);
+    }
+
+  }
+
+  @Intercepts(value = @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+      statements = {"*.count*", "other.*"})
+  public static class CountQueryInterceptor extends RecordingInterceptor {
+
+    public CountQueryInterceptor(List<String> log) {
+      super(log);
+    }
+
+  }
+
+  @Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class}))
+  public static class PrepareInterceptor extends RecordingInterceptor {
+
+    public PrepareInterceptor(List<String> log) {
+      super(log);
+    }
+
+  }
+
+  @Intercepts({
+      @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+      @Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class})})
+  public static class PredicateInterceptor extends RecordingInterceptor {
+
+    int appliesToCalls;
+
+    public PredicateInterceptor(List<String> log) {
+      super(log);
+    }
+
+    @Override
+    public boolean appliesTo(MappedStatement mappedStatement) {
+      appliesToCalls++;
+      return mappedStatement.getId().endsWith(".countUsers");
+    }
+
+  }
+
+}
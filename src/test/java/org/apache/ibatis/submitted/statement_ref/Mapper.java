@@ -0,0 +1,43 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.statement_ref;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+public interface Mapper {
+
+  @Select("select * from users where id = #{id}")
+  User getUser(int id);
+
+  @Select("select * from users order by id")
+  List<User> getUsers();
+
+  @Insert("insert into users (id, name, age) values (#{id}, #{name}, #{age})")
+  int insertUser(User user);
+
+  @Update("update users set name = #{name} where id = #{id}")
+  int updateName(@Param("id") int id, @Param("name") String name);
+
+  @Delete("delete from users where id = #{id}")
+  int deleteUser(int id);
+
+}
@@ -0,0 +1,161 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.statement_ref;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.session.SqlSessionManager;
+import org.apache.ibatis.session.StatementRef;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class StatementRefTest {
+
+  private static final String NAMESPACE = "org.apache.ibatis.submitted.statement_ref.Mapper.";
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    sqlSessionFactory = buildSqlSessionFactory();
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/statement_ref/CreateDB.sql");
+  }
+
+  private static SqlSessionFactory buildSqlSessionFactory() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/statement_ref/mybatis-config.xml")) {
+      return new SqlSessionFactoryBuilder().build(reader);
+    }
+  }
+
+  @Test
+  void shouldResolveStatementRef() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    StatementRef ref = configuration.getStatementRef(NAMESPACE + "getUser");
+    assertThat(ref.getId()).isEqualTo(NAMESPACE + "getUser");
+    assertThat(ref.getMappedStatement()).isSameAs(configuration.getMappedStatement(NAMESPACE + "getUser"));
+    assertThat(ref.getConfiguration()).isSameAs(configuration);
+    assertThatThrownBy(() -> configuration.getStatementRef(NAMESPACE + "unknown"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldSelectWithStatementRef() throws Exception {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    StatementRef getUser = configuration.getStatementRef(NAMESPACE + "getUser");
+    StatementRef getUsers = configuration.getStatementRef(NAMESPACE + "getUsers");
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      User user = sqlSession.selectOne(getUser, 1);
+      assertThat(user.getName()).isEqualTo("User1");
+
+      List<User> users = sqlSession.selectList(getUsers, null, new RowBounds(1, 1));
+      assertThat(users).extracting(User::getName).containsExactly("User2");
+
+      Map<Integer, User> map = sqlSession.selectMap(getUsers, null, "id", RowBounds.DEFAULT);
+      assertThat(map).containsOnlyKeys(1, 2);
+
+      try (Cursor<User> cursor = sqlSession.selectCursor(getUsers, null, RowBounds.DEFAULT)) {
+        List<String> names = new ArrayList<>();
+        cursor.forEach(u -> names.add(u.getName()));
+        assertThat(names).containsExactly("User1", "User2");
+      }
+
+      AtomicInteger count = new AtomicInteger();
+      sqlSession.select(getUsers, null, RowBounds.DEFAULT, context -> count.incrementAndGet());
+      assertThat(count.get()).isEqualTo(2);
+    }
+  }
+
+  @Test
+  void shouldUpdateWithStatementRef() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.insert(configuration.getStatementRef(NAMESPACE + "insertUser"), new User(3, "User3", 50))).isEqualTo(1);
+      assertThat(sqlSession.update(configuration.getStatementRef(NAMESPACE + "updateName"), params(3, "User3a"))).isEqualTo(1);
+      assertThat(sqlSession.<User>selectOne(configuration.getStatementRef(NAMESPACE + "getUser"), 3).getName()).isEqualTo("User3a");
+      assertThat(sqlSession.delete(configuration.getStatementRef(NAMESPACE + "deleteUser"), 3)).isEqualTo(1);
+      assertThat(sqlSession.<User>selectOne(configuration.getStatementRef(NAMESPACE + "getUser"), 3)).isNull();
+      sqlSession.rollback();
+    }
+  }
+
+  @Test
+  void shouldResolveStatementRefOfAnotherConfigurationById() throws Exception {
+    StatementRef ref = buildSqlSessionFactory().getConfiguration().getStatementRef(NAMESPACE + "getUser");
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      User user = sqlSession.selectOne(ref, 2);
+      assertThat(user.getName()).isEqualTo("User2");
+    }
+  }
+
+  @Test
+  void shouldSelectWithStatementRefThroughSqlSessionManager() {
+    SqlSessionManager manager = SqlSessionManager.newInstance(sqlSessionFactory);
+    User user = manager.selectOne(sqlSessionFactory.getConfiguration().getStatementRef(NAMESPACE + "getUser"), 1);
+    assertThat(user.getName()).isEqualTo("User1");
+  }
+
+  @Test
+  void shouldNotLookUpStatementsWhenMapperMethodsAreCalled() {
+    AtomicInteger counter = new AtomicInteger();
+    Configuration configuration = new Configuration(sqlSessionFactory.getConfiguration().getEnvironment()) {
+      @Override
+      public MappedStatement getMappedStatement(String id, boolean validateIncompleteStatements) {
+        counter.incrementAndGet();
+        return super.getMappedStatement(id, validateIncompleteStatements);
+      }
+    };
+    configuration.addMapper(Mapper.class);
+    SqlSessionFactory factory = new SqlSessionFactoryBuilder().build(configuration);
+    try (SqlSession sqlSession = factory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      // 创建 MapperMethod 时查找
+      assertThat(mapper.getUser(1).getName()).isEqualTo("User1");
+      assertThat(mapper.updateName(1, "User1")).isEqualTo(1);
+      int lookups = counter.get();
+      assertThat(mapper.getUser(2).getName()).isEqualTo("User2");
+      assertThat(mapper.updateName(2, "User2")).isEqualTo(1);
+      assertThat(counter.get()).isEqualTo(lookups);
+      sqlSession.rollback();
+    }
+  }
+
+  private static Map<String, Object> params(int id, String name) {
+    Map<String, Object> params = new HashMap<>();
+    params.put("id", id);
+    params.put("name", name);
+    return params;
+  }
+
+}
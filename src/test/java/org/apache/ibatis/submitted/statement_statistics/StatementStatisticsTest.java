@@ -0,0 +1,178 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.statement_statistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.executor.statistics.StatementStatistics;
+import org.apache.ibatis.executor.statistics.StatementStatisticsRegistry;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StatementStatisticsTest {
+
+  private static final String NAMESPACE = "org.apache.ibatis.submitted.statement_statistics.Mapper.";
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/statement_statistics/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/statement_statistics/CreateDB.sql");
+  }
+
+  @Test
+  void shouldRecordQueriesAndUpdates() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.selectList(NAMESPACE + "selectNames");
+      sqlSession.clearCache();
+      sqlSession.selectList(NAMESPACE + "selectNames");
+      Map<String, Object> param = new HashMap<>();
+      param.put("name", "x");
+      param.put("maxId", 2);
+      sqlSession.update(NAMESPACE + "renameItems", param);
+    }
+
+    StatementStatisticsRegistry registry = sqlSessionFactory.getConfiguration().getStatementStatisticsRegistry();
+    StatementStatistics select = registry.getStatistics(NAMESPACE + "selectNames");
+    assertThat(select.getInvocationCount()).isEqualTo(2);
+    assertThat(select.getErrorCount()).isEqualTo(0);
+    assertThat(select.getRowCount()).isEqualTo(6);
+    assertThat(select.getPrepareLatency().getCount()).isEqualTo(2);
+    assertThat(select.getExecuteLatency().getCount()).isEqualTo(2);
+    assertThat(select.getMappingLatency().getCount()).isEqualTo(2);
+    assertThat(select.getExecuteLatency().getTotalNanos()).isPositive();
+
+    StatementStatistics update = registry.getStatistics(NAMESPACE + "renameItems");
+    assertThat(update.getInvocationCount()).isEqualTo(1);
+    assertThat(update.getRowCount()).isEqualTo(2);
+    assertThat(update.getExecuteLatency().getCount()).isEqualTo(1);
+    assertThat(update.getMappingLatency().getCount()).isEqualTo(0);
+
+    registry.reset();
+    assertThat(select.getInvocationCount()).isEqualTo(0);
+    assertThat(select.getExecuteLatency().getCount()).isEqualTo(0);
+  }
+
+  @Test
+  void shouldCountRowsPassedToResultHandler() {
+    List<Object> names = new ArrayList<>();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.select(NAMESPACE + "selectNames", context -> names.add(context.getResultObject()));
+    }
+
+    StatementStatistics select = sqlSessionFactory.getConfiguration().getStatementStatisticsRegistry()
+        .getStatistics(NAMESPACE + "selectNames");
+    assertThat(names).hasSize(3);
+    assertThat(select.getInvocationCount()).isEqualTo(1);
+    assertThat(select.getRowCount()).isEqualTo(3);
+  }
+
+  @Test
+  void shouldRecordBatchExecution() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Map<String, Object> param = new HashMap<>();
+      param.put("name", "x");
+      param.put("maxId", 1);
+      sqlSession.update(NAMESPACE + "renameItems", param);
+      param.put("maxId", 2);
+      sqlSession.update(NAMESPACE + "renameItems", param);
+      sqlSession.flushStatements();
+    }
+
+    StatementStatistics update = sqlSessionFactory.getConfiguration().getStatementStatisticsRegistry()
+        .getStatistics(NAMESPACE + "renameItems");
+    assertThat(update.getInvocationCount()).isEqualTo(2);
+    assertThat(update.getRowCount()).isEqualTo(3);
+    assertThat(update.getPrepareLatency().getCount()).isEqualTo(2);
+    assertThat(update.getExecuteLatency().getCount()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldCountSuccessNoInfoAsOneRow() {
+    StatementStatistics statistics = new StatementStatistics("batch");
+    statistics.recordBatch(10, new int[] {2, Statement.SUCCESS_NO_INFO, 0});
+    assertThat(statistics.getRowCount()).isEqualTo(3);
+    assertThat(statistics.getExecuteLatency().getCount()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldRecordErrors() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThatThrownBy(() -> sqlSession.selectList(NAMESPACE + "selectMissingTable"))
+          .isInstanceOf(PersistenceException.class);
+    }
+
+    StatementStatistics statistics = sqlSessionFactory.getConfiguration().getStatementStatisticsRegistry()
+        .getStatistics(NAMESPACE + "selectMissingTable");
+    assertThat(statistics.getInvocationCount()).isEqualTo(1);
+    assertThat(statistics.getErrorCount()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldNotRecordWhenDisabled() {
+    sqlSessionFactory.getConfiguration().setStatementStatisticsEnabled(false);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.selectList(NAMESPACE + "selectNames");
+    }
+
+    assertThat(sqlSessionFactory.getConfiguration().getStatementStatisticsRegistry().getAllStatistics()).isEmpty();
+  }
+
+  @Test
+  void shouldExposeStatisticsThroughJmx() throws Exception {
+    sqlSessionFactory.getConfiguration().setStatementStatisticsJmxEnabled(true);
+    ObjectName name = sqlSessionFactory.getConfiguration().getStatementStatisticsRegistry().getObjectName();
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+        sqlSession.selectList(NAMESPACE + "selectNames");
+      }
+
+      assertThat((String[]) server.getAttribute(name, "StatementIds")).containsExactly(NAMESPACE + "selectNames");
+      Object invocations = server.invoke(name, "getInvocationCount", new Object[] {NAMESPACE + "selectNames"},
+          new String[] {String.class.getName()});
+      assertThat(invocations).isEqualTo(1L);
+    } finally {
+      sqlSessionFactory.getConfiguration().setStatementStatisticsJmxEnabled(false);
+    }
+    assertThat(server.isRegistered(name)).isFalse();
+  }
+
+}